@@ -1,15 +1,59 @@
 // back\src\main\java\com\seabattle\sea_battle\config\GameProperties.java
 package com.seabattle.sea_battle.config;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
 @Component
 @ConfigurationProperties(prefix = "game")
 public class GameProperties {
-    private int maxActiveSessions = 10;    // Максимум 10 активных сессий
+    private int maxActiveSessions = 10;    // Максимум активных сессий (0 - только по бюджету памяти)
     private long sessionTimeout = 300000;  // 5 минут таймаут для ожидания игрока (в мс)
-    private long cleanupInterval = 60000;  // Интервал очистки (1 минута)
+    private long cleanupInterval = 60000;  // Через сколько удалять завершённую сессию (1 минута)
+    private long placementTimeout = 300000; // 5 минут на расстановку кораблей (0 - без ограничения)
+    private long timerTickMs = 100;        // Шаг колеса таймеров сессий
+    private int timerWheelSize = 512;      // Ячеек в колесе таймеров
+    private int timerExpiryThreads = 2;    // Потоков, выполняющих сработавшие таймеры (отмена, удаление)
+    private int layoutPoolSize = 1000;     // Ёмкость пула готовых расстановок флота
+    private int layoutPoolLowWater = 250;  // Порог, ниже которого пул дозаполняется
+    private int layoutPoolRefillThreads = 1; // Потоков фонового заполнения пула
+    private boolean sseFullBoardUpdates = false; // Совместимость: слать полные доски по SSE после выстрела
+    private long aiHardBudgetMs = 50;        // Бюджет времени на ход AI уровня HARD
+    private int aiHardParallelism = 0;       // Потоков выборки HARD AI (0 - по числу ядер)
+    private int aiHardMaxSamples = 20000;    // Максимум расстановок на ход HARD AI
+    private int aiTurnThreads = 0;           // Потоков для ходов AI в PVE (0 - по числу ядер)
+    private int aiTurnQueueCapacity = 1000;  // Ёмкость очереди ходов AI
+    private boolean aiSpeculationEnabled = true;   // Считать ход AI заранее, пока думает игрок
+    private int aiSpeculationThreads = 1;          // Потоков предварительного расчёта (низкий приоритет)
+    private int aiSpeculationQueueCapacity = 1000; // Ёмкость очереди предварительного расчёта
+    private int sessionCommandThreads = 0;   // Потоков очередей команд сессий (0 - по числу ядер)
+    private int sessionCommandBatch = 16;    // Команд одной сессии за проход потока
+    private boolean sessionMemoryBudgetEnabled = false; // Ограничивать сессии ещё и бюджетом heap (размер сессии измеряется при старте)
+    private long sessionHeapBudgetMb = 0;    // Бюджет heap на сессии (0 - доля sessionHeapFraction от -Xmx)
+    private double sessionHeapFraction = 0.5; // Доля максимального heap под сессии
+    private long sessionBytesEstimate = 0;   // Байт на сессию (0 - измерить при старте)
+    private long sessionOverheadBytes = 1024; // Байт на сессию вне её объектов (реестр, таймер, очередь, SSE)
+    private long matchmakingTimeout = 300000; // Сколько игрок ждёт соперника в очереди подбора (в мс)
+    private List<String> matchmakingPreferences = new ArrayList<>(List.of("any")); // Очереди подбора по предпочтению игроков (any - общая, есть всегда)
+    private String nodeId = "local";         // ID этого узла в кластере
+    private List<String> clusterNodes = new ArrayList<>(); // Узлы кластера "id=http://host:port" (пусто - один узел)
+    private int shardVirtualNodes = 128;     // Точек каждого узла на кольце согласованного хеширования
+    private String shardRouting = "redirect"; // Запрос к сессии другого узла: redirect (307) или forward (проксирование)
+    private long shardRequestTimeoutMs = 2000; // Таймаут вызова другого узла
+    private String shardSecret = "";         // Общий секрет узлов для /internal/shard (обязателен в кластере)
+    private boolean journalEnabled = false;  // Журнал команд сессий для восстановления после перезапуска (включается явно)
+    private String journalDir = "data/journal"; // Каталог сегментов журнала
+    private int journalSegmentSizeMb = 64;   // Размер сегмента журнала
+    private long journalFlushIntervalMs = 10; // Интервал group commit (force сегмента на диск)
+    private boolean journalSyncWrites = false; // Ждать force записи перед ответом (иначе - до интервала потерь при сбое ОС)
+    private long hibernateAfterMs = 0;       // Усыплять сессию без обращений дольше (0 - не усыплять)
+    private long hibernateCheckIntervalMs = 10000; // Период поиска простаивающих сессий
+    private String hibernateDir = "data/hibernated"; // Каталог усыплённых сессий
+    private String hibernateStore = "disk";  // Хранилище усыплённых сессий: disk (файлы) или offheap (прямые буферы)
+    private int offHeapStoreMaxMb = 1024;    // Предел записей хранилища offheap (ещё ограничен -XX:MaxDirectMemorySize)
     
     public int getMaxActiveSessions() {
         return maxActiveSessions;
@@ -34,4 +78,332 @@ public class GameProperties {
     public void setCleanupInterval(long cleanupInterval) {
         this.cleanupInterval = cleanupInterval;
     }
+    
+    public long getPlacementTimeout() {
+        return placementTimeout;
+    }
+    
+    public void setPlacementTimeout(long placementTimeout) {
+        this.placementTimeout = placementTimeout;
+    }
+    
+    public long getTimerTickMs() {
+        return timerTickMs;
+    }
+    
+    public void setTimerTickMs(long timerTickMs) {
+        this.timerTickMs = timerTickMs;
+    }
+    
+    public int getTimerWheelSize() {
+        return timerWheelSize;
+    }
+    
+    public void setTimerWheelSize(int timerWheelSize) {
+        this.timerWheelSize = timerWheelSize;
+    }
+    
+    public int getTimerExpiryThreads() {
+        return timerExpiryThreads;
+    }
+    
+    public void setTimerExpiryThreads(int timerExpiryThreads) {
+        this.timerExpiryThreads = timerExpiryThreads;
+    }
+    
+    public int getLayoutPoolSize() {
+        return layoutPoolSize;
+    }
+    
+    public void setLayoutPoolSize(int layoutPoolSize) {
+        this.layoutPoolSize = layoutPoolSize;
+    }
+    
+    public int getLayoutPoolLowWater() {
+        return layoutPoolLowWater;
+    }
+    
+    public void setLayoutPoolLowWater(int layoutPoolLowWater) {
+        this.layoutPoolLowWater = layoutPoolLowWater;
+    }
+    
+    public int getLayoutPoolRefillThreads() {
+        return layoutPoolRefillThreads;
+    }
+    
+    public void setLayoutPoolRefillThreads(int layoutPoolRefillThreads) {
+        this.layoutPoolRefillThreads = layoutPoolRefillThreads;
+    }
+    
+    public boolean isSseFullBoardUpdates() {
+        return sseFullBoardUpdates;
+    }
+    
+    public void setSseFullBoardUpdates(boolean sseFullBoardUpdates) {
+        this.sseFullBoardUpdates = sseFullBoardUpdates;
+    }
+    
+    public long getAiHardBudgetMs() {
+        return aiHardBudgetMs;
+    }
+    
+    public void setAiHardBudgetMs(long aiHardBudgetMs) {
+        this.aiHardBudgetMs = aiHardBudgetMs;
+    }
+    
+    public int getAiHardParallelism() {
+        return aiHardParallelism;
+    }
+    
+    public void setAiHardParallelism(int aiHardParallelism) {
+        this.aiHardParallelism = aiHardParallelism;
+    }
+    
+    public int getAiHardMaxSamples() {
+        return aiHardMaxSamples;
+    }
+    
+    public void setAiHardMaxSamples(int aiHardMaxSamples) {
+        this.aiHardMaxSamples = aiHardMaxSamples;
+    }
+    
+    public int getAiTurnThreads() {
+        return aiTurnThreads;
+    }
+    
+    public void setAiTurnThreads(int aiTurnThreads) {
+        this.aiTurnThreads = aiTurnThreads;
+    }
+    
+    public int getAiTurnQueueCapacity() {
+        return aiTurnQueueCapacity;
+    }
+    
+    public void setAiTurnQueueCapacity(int aiTurnQueueCapacity) {
+        this.aiTurnQueueCapacity = aiTurnQueueCapacity;
+    }
+    
+    public boolean isAiSpeculationEnabled() {
+        return aiSpeculationEnabled;
+    }
+    
+    public void setAiSpeculationEnabled(boolean aiSpeculationEnabled) {
+        this.aiSpeculationEnabled = aiSpeculationEnabled;
+    }
+    
+    public int getAiSpeculationThreads() {
+        return aiSpeculationThreads;
+    }
+    
+    public void setAiSpeculationThreads(int aiSpeculationThreads) {
+        this.aiSpeculationThreads = aiSpeculationThreads;
+    }
+    
+    public int getAiSpeculationQueueCapacity() {
+        return aiSpeculationQueueCapacity;
+    }
+    
+    public void setAiSpeculationQueueCapacity(int aiSpeculationQueueCapacity) {
+        this.aiSpeculationQueueCapacity = aiSpeculationQueueCapacity;
+    }
+    
+    public int getSessionCommandThreads() {
+        return sessionCommandThreads;
+    }
+    
+    public void setSessionCommandThreads(int sessionCommandThreads) {
+        this.sessionCommandThreads = sessionCommandThreads;
+    }
+    
+    public int getSessionCommandBatch() {
+        return sessionCommandBatch;
+    }
+    
+    public void setSessionCommandBatch(int sessionCommandBatch) {
+        this.sessionCommandBatch = sessionCommandBatch;
+    }
+    
+    public long getSessionHeapBudgetMb() {
+        return sessionHeapBudgetMb;
+    }
+    
+    public void setSessionHeapBudgetMb(long sessionHeapBudgetMb) {
+        this.sessionHeapBudgetMb = sessionHeapBudgetMb;
+    }
+    
+    public double getSessionHeapFraction() {
+        return sessionHeapFraction;
+    }
+    
+    public void setSessionHeapFraction(double sessionHeapFraction) {
+        this.sessionHeapFraction = sessionHeapFraction;
+    }
+    
+    public boolean isSessionMemoryBudgetEnabled() {
+        return sessionMemoryBudgetEnabled;
+    }
+    
+    public void setSessionMemoryBudgetEnabled(boolean sessionMemoryBudgetEnabled) {
+        this.sessionMemoryBudgetEnabled = sessionMemoryBudgetEnabled;
+    }
+    
+    public long getSessionBytesEstimate() {
+        return sessionBytesEstimate;
+    }
+    
+    public void setSessionBytesEstimate(long sessionBytesEstimate) {
+        this.sessionBytesEstimate = sessionBytesEstimate;
+    }
+    
+    public long getSessionOverheadBytes() {
+        return sessionOverheadBytes;
+    }
+    
+    public void setSessionOverheadBytes(long sessionOverheadBytes) {
+        this.sessionOverheadBytes = sessionOverheadBytes;
+    }
+    
+    public long getMatchmakingTimeout() {
+        return matchmakingTimeout;
+    }
+    
+    public void setMatchmakingTimeout(long matchmakingTimeout) {
+        this.matchmakingTimeout = matchmakingTimeout;
+    }
+    
+    public List<String> getMatchmakingPreferences() {
+        return matchmakingPreferences;
+    }
+    
+    public void setMatchmakingPreferences(List<String> matchmakingPreferences) {
+        this.matchmakingPreferences = matchmakingPreferences;
+    }
+    
+    public String getNodeId() {
+        return nodeId;
+    }
+    
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+    
+    public List<String> getClusterNodes() {
+        return clusterNodes;
+    }
+    
+    public void setClusterNodes(List<String> clusterNodes) {
+        this.clusterNodes = clusterNodes;
+    }
+    
+    public int getShardVirtualNodes() {
+        return shardVirtualNodes;
+    }
+    
+    public void setShardVirtualNodes(int shardVirtualNodes) {
+        this.shardVirtualNodes = shardVirtualNodes;
+    }
+    
+    public String getShardRouting() {
+        return shardRouting;
+    }
+    
+    public void setShardRouting(String shardRouting) {
+        this.shardRouting = shardRouting;
+    }
+    
+    public long getShardRequestTimeoutMs() {
+        return shardRequestTimeoutMs;
+    }
+    
+    public void setShardRequestTimeoutMs(long shardRequestTimeoutMs) {
+        this.shardRequestTimeoutMs = shardRequestTimeoutMs;
+    }
+    
+    public String getShardSecret() {
+        return shardSecret;
+    }
+    
+    public void setShardSecret(String shardSecret) {
+        this.shardSecret = shardSecret;
+    }
+    
+    public boolean isJournalEnabled() {
+        return journalEnabled;
+    }
+    
+    public void setJournalEnabled(boolean journalEnabled) {
+        this.journalEnabled = journalEnabled;
+    }
+    
+    public String getJournalDir() {
+        return journalDir;
+    }
+    
+    public void setJournalDir(String journalDir) {
+        this.journalDir = journalDir;
+    }
+    
+    public int getJournalSegmentSizeMb() {
+        return journalSegmentSizeMb;
+    }
+    
+    public void setJournalSegmentSizeMb(int journalSegmentSizeMb) {
+        this.journalSegmentSizeMb = journalSegmentSizeMb;
+    }
+    
+    public long getJournalFlushIntervalMs() {
+        return journalFlushIntervalMs;
+    }
+    
+    public void setJournalFlushIntervalMs(long journalFlushIntervalMs) {
+        this.journalFlushIntervalMs = journalFlushIntervalMs;
+    }
+    
+    public boolean isJournalSyncWrites() {
+        return journalSyncWrites;
+    }
+    
+    public void setJournalSyncWrites(boolean journalSyncWrites) {
+        this.journalSyncWrites = journalSyncWrites;
+    }
+    
+    public long getHibernateAfterMs() {
+        return hibernateAfterMs;
+    }
+    
+    public void setHibernateAfterMs(long hibernateAfterMs) {
+        this.hibernateAfterMs = hibernateAfterMs;
+    }
+    
+    public long getHibernateCheckIntervalMs() {
+        return hibernateCheckIntervalMs;
+    }
+    
+    public void setHibernateCheckIntervalMs(long hibernateCheckIntervalMs) {
+        this.hibernateCheckIntervalMs = hibernateCheckIntervalMs;
+    }
+    
+    public String getHibernateDir() {
+        return hibernateDir;
+    }
+    
+    public void setHibernateDir(String hibernateDir) {
+        this.hibernateDir = hibernateDir;
+    }
+    
+    public String getHibernateStore() {
+        return hibernateStore;
+    }
+    
+    public void setHibernateStore(String hibernateStore) {
+        this.hibernateStore = hibernateStore;
+    }
+    
+    public int getOffHeapStoreMaxMb() {
+        return offHeapStoreMaxMb;
+    }
+    
+    public void setOffHeapStoreMaxMb(int offHeapStoreMaxMb) {
+        this.offHeapStoreMaxMb = offHeapStoreMaxMb;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,183 @@
+// back\src\main\java\com\seabattle\sea_battle\config\ShardRoutingInterceptor.java
+package com.seabattle.sea_battle.config;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.seabattle.sea_battle.service.ClusterTopology;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Запросы к сессии другого узла кластера не обрабатываются здесь: sessionId берётся из пути
+ * ({sessionId}) или параметра запроса, узел-владелец - по кольцу ({@link ClusterTopology}).
+ * game.shard-routing=redirect - 307 на тот же путь владельца (клиент повторяет запрос с телом);
+ * forward - запрос проксируется владельцу, клиент узлов не видит. SSE подписка всегда
+ * перенаправляется - поток событий должен идти напрямую от владельца сессии.
+ * Пересланный запрос помечается заголовком и повторно не пересылается; заголовку верим только
+ * вместе с секретом узлов ({@link ShardSecretInterceptor}), от клиента оба отбрасываются.
+ */
+@Slf4j
+@Component
+public class ShardRoutingInterceptor implements HandlerInterceptor {
+
+    public static final String FORWARDED_HEADER = "X-Shard-Forwarded";
+    private static final String SESSION_ID = "sessionId";
+    private static final String EVENT_STREAM = "text/event-stream";
+    // Заголовки соединения выставляет HTTP клиент; сжатие ответа не пересылается
+    private static final Set<String> HOP_BY_HOP = Set.of(
+        "accept-encoding", "connection", "content-length", "expect", "host", "keep-alive",
+        "transfer-encoding", "upgrade"
+    );
+    private static final List<String> RESPONSE_HEADERS = List.of(
+        HttpHeaders.CONTENT_TYPE, HttpHeaders.ETAG, HttpHeaders.CACHE_CONTROL, HttpHeaders.LOCATION
+    );
+
+    private final ClusterTopology topology;
+    private final ShardSecretInterceptor shardSecret;
+    private final ObjectMapper objectMapper;
+    private final String secret;
+    private final boolean forward;
+    private final HttpClient client;
+    private final Duration timeout;
+
+    private final LongAdder redirected = new LongAdder();
+    private final LongAdder forwarded = new LongAdder();
+    private final LongAdder forwardFailures = new LongAdder();
+
+    public ShardRoutingInterceptor(ClusterTopology topology, ShardSecretInterceptor shardSecret,
+                                   GameProperties gameProperties, ObjectMapper objectMapper) {
+        this.topology = topology;
+        this.shardSecret = shardSecret;
+        this.objectMapper = objectMapper;
+        this.secret = gameProperties.getShardSecret();
+        this.forward = "forward".equalsIgnoreCase(gameProperties.getShardRouting());
+        this.timeout = Duration.ofMillis(gameProperties.getShardRequestTimeoutMs());
+        this.client = HttpClient.newBuilder()
+            .connectTimeout(timeout)
+            .build();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws Exception {
+        if (!topology.isClustered()
+                || (request.getHeader(FORWARDED_HEADER) != null && shardSecret.isFromClusterNode(request))) {
+            return true;
+        }
+        UUID sessionId = sessionIdOf(request);
+        if (sessionId == null) {
+            return true;
+        }
+        String owner = topology.ownerOfSession(sessionId);
+        if (topology.isLocal(owner)) {
+            return true;
+        }
+
+        String query = request.getQueryString();
+        String target = topology.urlOf(owner) + request.getRequestURI() + (query != null ? "?" + query : "");
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (forward && (accept == null || !accept.contains(EVENT_STREAM))) {
+            forward(request, response, owner, target);
+        } else {
+            redirected.increment();
+            response.setStatus(HttpServletResponse.SC_TEMPORARY_REDIRECT);
+            response.setHeader(HttpHeaders.LOCATION, target);
+        }
+        return false;
+    }
+
+    /**
+     * Метрики для /api/game/status
+     */
+    public Map<String, Object> getStatistics() {
+        return Map.of(
+            "mode", forward ? "forward" : "redirect",
+            "redirected", redirected.sum(),
+            "forwarded", forwarded.sum(),
+            "forwardFailures", forwardFailures.sum()
+        );
+    }
+
+    private void forward(HttpServletRequest request, HttpServletResponse response, String owner, String target)
+            throws IOException {
+        byte[] body = request.getInputStream().readAllBytes();
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(target))
+            .timeout(timeout)
+            .method(request.getMethod(), body.length > 0
+                ? HttpRequest.BodyPublishers.ofByteArray(body)
+                : HttpRequest.BodyPublishers.noBody());
+        for (String name : Collections.list(request.getHeaderNames())) {
+            if (!HOP_BY_HOP.contains(name.toLowerCase()) && !name.equalsIgnoreCase(FORWARDED_HEADER)
+                    && !name.equalsIgnoreCase(ShardSecretInterceptor.SECRET_HEADER)) {
+                builder.header(name, request.getHeader(name));
+            }
+        }
+        builder.header(FORWARDED_HEADER, topology.getSelfId());
+        builder.header(ShardSecretInterceptor.SECRET_HEADER, secret);
+
+        HttpResponse<byte[]> result;
+        try {
+            result = client.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            forwardFailures.increment();
+            log.warn("Failed to forward {} to shard node {}: {}", target, owner, e.getMessage());
+            writeError(response, "Shard node " + owner + " is unavailable");
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            forwardFailures.increment();
+            writeError(response, "Interrupted while forwarding to shard node " + owner);
+            return;
+        }
+
+        forwarded.increment();
+        response.setStatus(result.statusCode());
+        for (String name : RESPONSE_HEADERS) {
+            result.headers().firstValue(name).ifPresent(value -> response.setHeader(name, value));
+        }
+        response.getOutputStream().write(result.body());
+    }
+
+    private void writeError(HttpServletResponse response, String message) throws IOException {
+        response.setStatus(HttpServletResponse.SC_BAD_GATEWAY);
+        response.setContentType("application/json");
+        response.getOutputStream().write(objectMapper.writeValueAsBytes(Map.of("error", message)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static UUID sessionIdOf(HttpServletRequest request) {
+        Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String value = variables instanceof Map ? ((Map<String, String>) variables).get(SESSION_ID) : null;
+        if (value == null) {
+            value = request.getParameter(SESSION_ID);
+        }
+        if (value == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            // Некорректный ID - ответит контроллер
+            return null;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+// back\src\main\java\com\seabattle\sea_battle\config\ShardSecretInterceptor.java
+package com.seabattle.sea_battle.config;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.seabattle.sea_battle.service.ClusterTopology;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Вызовы между узлами кластера (/internal/shard) принимаются только с общим секретом узлов
+ * в заголовке X-Shard-Secret (game.shard-secret). Без секрета /internal/shard закрыт целиком:
+ * узлу вне кластера его никто не вызывает, а кластер без секрета не запускается
+ */
+@Component
+public class ShardSecretInterceptor implements HandlerInterceptor {
+
+    public static final String SECRET_HEADER = "X-Shard-Secret";
+
+    private final byte[] secret;
+
+    public ShardSecretInterceptor(ClusterTopology topology, GameProperties gameProperties) {
+        String configured = gameProperties.getShardSecret();
+        if (topology.isClustered() && (configured == null || configured.isBlank())) {
+            throw new IllegalStateException("game.shard-secret is required for a cluster of nodes");
+        }
+        this.secret = configured == null || configured.isBlank()
+            ? null
+            : configured.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (isFromClusterNode(request)) {
+            return true;
+        }
+        response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+        return false;
+    }
+
+    /**
+     * Запрос пришёл от узла кластера: заголовок содержит общий секрет (сравнение за постоянное время)
+     */
+    public boolean isFromClusterNode(HttpServletRequest request) {
+        String header = request.getHeader(SECRET_HEADER);
+        return secret != null && header != null
+            && MessageDigest.isEqual(secret, header.getBytes(StandardCharsets.UTF_8));
+    }
+}
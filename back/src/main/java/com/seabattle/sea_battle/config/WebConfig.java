@@ -0,0 +1,26 @@
+// back\src\main\java\com\seabattle\sea_battle\config\WebConfig.java
+package com.seabattle.sea_battle.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ShardRoutingInterceptor shardRoutingInterceptor;
+    private final ShardSecretInterceptor shardSecretInterceptor;
+
+    public WebConfig(ShardRoutingInterceptor shardRoutingInterceptor, ShardSecretInterceptor shardSecretInterceptor) {
+        this.shardRoutingInterceptor = shardRoutingInterceptor;
+        this.shardSecretInterceptor = shardSecretInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Запросы к сессиям других узлов кластера; /internal - вызовы между узлами, не пересылаются
+        registry.addInterceptor(shardRoutingInterceptor).addPathPatterns("/api/**");
+        // Вызовы между узлами - только с секретом кластера
+        registry.addInterceptor(shardSecretInterceptor).addPathPatterns("/internal/shard/**");
+    }
+}
@@ -1,18 +1,29 @@
 // back\src\main\java\com\seabattle\sea_battle\controller\GameController.java
 package com.seabattle.sea_battle.controller;
 
+import com.seabattle.sea_battle.config.ShardRoutingInterceptor;
 import com.seabattle.sea_battle.dto.CreateGameRequest;
 import com.seabattle.sea_battle.dto.CreateGameResponse;
 import com.seabattle.sea_battle.dto.JoinGameRequest;
 import com.seabattle.sea_battle.dto.JoinGameResponse;
+import com.seabattle.sea_battle.dto.MatchmakingRequest;
 import com.seabattle.sea_battle.model.GameSession;
+import com.seabattle.sea_battle.service.AiSpeculation;
+import com.seabattle.sea_battle.service.AiTurnExecutor;
+import com.seabattle.sea_battle.service.ClusterTopology;
+import com.seabattle.sea_battle.service.FleetLayoutPool;
+import com.seabattle.sea_battle.service.MonteCarloTargeting;
 import com.seabattle.sea_battle.service.GameSessionManager;
 import com.seabattle.sea_battle.service.GameService;
+import com.seabattle.sea_battle.service.MatchmakingService;
+import com.seabattle.sea_battle.service.SessionMailbox;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/game")
@@ -20,10 +31,30 @@ public class GameController {
     
     private final GameService gameService;
     private final GameSessionManager gameSessionManager; // Добавляем менеджер
+    private final FleetLayoutPool fleetLayoutPool;
+    private final MonteCarloTargeting monteCarloTargeting;
+    private final AiTurnExecutor aiTurnExecutor;
+    private final AiSpeculation aiSpeculation;
+    private final SessionMailbox sessionMailbox;
+    private final MatchmakingService matchmakingService;
+    private final ClusterTopology clusterTopology;
+    private final ShardRoutingInterceptor shardRouting;
     
-    public GameController(GameService gameService, GameSessionManager gameSessionManager) {
+    public GameController(GameService gameService, GameSessionManager gameSessionManager,
+                          FleetLayoutPool fleetLayoutPool, MonteCarloTargeting monteCarloTargeting,
+                          AiTurnExecutor aiTurnExecutor, AiSpeculation aiSpeculation,
+                          SessionMailbox sessionMailbox, MatchmakingService matchmakingService,
+                          ClusterTopology clusterTopology, ShardRoutingInterceptor shardRouting) {
         this.gameService = gameService;
         this.gameSessionManager = gameSessionManager;
+        this.fleetLayoutPool = fleetLayoutPool;
+        this.monteCarloTargeting = monteCarloTargeting;
+        this.aiTurnExecutor = aiTurnExecutor;
+        this.aiSpeculation = aiSpeculation;
+        this.sessionMailbox = sessionMailbox;
+        this.matchmakingService = matchmakingService;
+        this.clusterTopology = clusterTopology;
+        this.shardRouting = shardRouting;
     }
     
     @PostMapping("/create")
@@ -63,6 +94,61 @@ public class GameController {
         }
     }
     
+    /**
+     * Подбор соперника: игрок встаёт в очередь; если соперник уже ждёт - сессия сразу,
+     * иначе MATCH_FOUND придёт по SSE (/api/sse/matchmaking?playerName=...)
+     */
+    @PostMapping("/matchmaking")
+    public ResponseEntity<?> joinMatchmaking(@RequestBody MatchmakingRequest request) {
+        try {
+            MatchmakingService.Ticket ticket =
+                matchmakingService.enqueue(request.getPlayerName(), request.getPreference());
+            GameSession session = ticket.getMatch().getNow(null);
+            if (session == null) {
+                return ResponseEntity.accepted().body(Map.of(
+                    "status", "QUEUED",
+                    "player", ticket.getPlayerName(),
+                    "preference", ticket.getPreference(),
+                    "subscribeUrl", "/api/sse/matchmaking?playerName=" + ticket.getPlayerName()
+                ));
+            }
+            return ResponseEntity.ok(matchmakingService.getPlayerStatus(ticket.getPlayerName()));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return ResponseEntity.badRequest().body(
+                Map.of("error", e.getMessage())
+            );
+        } catch (CompletionException e) {
+            // Пара составлена сразу, но сессию создать не удалось (лимит сессий)
+            return ResponseEntity.badRequest().body(
+                Map.of("error", String.valueOf(e.getCause() != null ? e.getCause().getMessage() : e.getMessage()))
+            );
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(
+                Map.of("error", "Failed to join matchmaking")
+            );
+        }
+    }
+    
+    @GetMapping("/matchmaking/{playerName}")
+    public ResponseEntity<?> getMatchmakingStatus(@PathVariable String playerName) {
+        return ResponseEntity.ok(matchmakingService.getPlayerStatus(playerName));
+    }
+    
+    @DeleteMapping("/matchmaking/{playerName}")
+    public CompletableFuture<ResponseEntity<?>> leaveMatchmaking(@PathVariable String playerName) {
+        return matchmakingService.leave(playerName).thenApply(left -> {
+            if (!left) {
+                return ResponseEntity.badRequest().body(
+                    Map.of("error", "Player is not in matchmaking queue")
+                );
+            }
+            return ResponseEntity.ok(Map.of(
+                "message", "Left matchmaking queue",
+                "player", playerName
+            ));
+        });
+    }
+    
     @GetMapping("/session/{sessionId}")
     public ResponseEntity<?> getSessionInfo(@PathVariable UUID sessionId) {
         GameSession session = gameService.getSession(sessionId);
@@ -119,31 +205,53 @@ public class GameController {
         ));
     }
     
+    /**
+     * Ёмкость по бюджету памяти: байт на сессию, занято, запас (в байтах и сессиях)
+     */
+    @GetMapping("/capacity")
+    public ResponseEntity<?> getCapacity() {
+        return ResponseEntity.ok(gameSessionManager.getCapacityStatistics());
+    }
+    
     @GetMapping("/status")
     public ResponseEntity<?> getServiceStatus() {
-        return ResponseEntity.ok(Map.of(
-            "status", "running",
-            "activeSessions", gameSessionManager.getActiveSessionsCount(),
-            "maxSupportedSessions", gameSessionManager.getGameProperties().getMaxActiveSessions(),
-            "waitingSessions", gameSessionManager.getWaitingSessions().size(),
-            "activePlayers", gameSessionManager.getActivePlayerSessions().size(),
-            "supportedGameTypes", new String[]{"PVP", "PVE"}
+        return ResponseEntity.ok(Map.ofEntries(
+            Map.entry("status", "running"),
+            Map.entry("activeSessions", gameSessionManager.getActiveSessionsCount()),
+            Map.entry("maxSupportedSessions", gameSessionManager.getSessionCapacity()),
+            Map.entry("waitingSessions", gameSessionManager.getWaitingSessionsCount()),
+            Map.entry("activePlayers", gameSessionManager.getActivePlayerSessions().size()),
+            Map.entry("supportedGameTypes", new String[]{"PVP", "PVE"}),
+            Map.entry("layoutPool", fleetLayoutPool.getStatistics()),
+            Map.entry("aiHard", monteCarloTargeting.getStatistics()),
+            Map.entry("aiTurns", aiTurnExecutor.getStatistics()),
+            Map.entry("aiSpeculation", aiSpeculation.getStatistics()),
+            Map.entry("sessionCommands", sessionMailbox.getStatistics()),
+            Map.entry("matchmaking", matchmakingService.getStatistics()),
+            Map.entry("journal", gameSessionManager.getJournal().getStatistics()),
+            Map.entry("hibernation", gameSessionManager.getHibernationStatistics()),
+            Map.entry("cluster", Map.of(
+                "topology", clusterTopology.getStatistics(),
+                "routing", shardRouting.getStatistics()
+            ))
         ));
     }
     
     @PostMapping("/{sessionId}/cancel")
-    public ResponseEntity<?> cancelGame(@PathVariable UUID sessionId) {
-        try {
-            gameService.cancelGame(sessionId);
+    public CompletableFuture<ResponseEntity<?>> cancelGame(@PathVariable UUID sessionId) {
+        return gameService.cancelGame(sessionId).handle((ignored, error) -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+                return ResponseEntity.badRequest().body(
+                    Map.of("error", String.valueOf(cause.getMessage()))
+                );
+            }
             return ResponseEntity.ok(Map.of(
                 "message", "Game session cancelled",
                 "sessionId", sessionId
             ));
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(
-                Map.of("error", e.getMessage())
-            );
-        }
+        });
     }
 
 }
\ No newline at end of file
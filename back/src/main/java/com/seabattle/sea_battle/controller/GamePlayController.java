@@ -2,17 +2,29 @@
 package com.seabattle.sea_battle.controller;
 
 import com.seabattle.sea_battle.dto.*;
+import com.seabattle.sea_battle.model.BoardView;
 import com.seabattle.sea_battle.service.GamePlayService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/gameplay")
 public class GamePlayController {
     
+    // Формат досок: json - String[][] (по умолчанию), packed - 2 бита на клетку в base64
+    private static final String FORMAT_JSON = "json";
+    private static final String FORMAT_PACKED = "packed";
+    // Клиент может хранить ответ, но обязан проверять его по ETag (If-None-Match -> 304)
+    private static final String REVALIDATE = "no-cache";
+    
     private final GamePlayService gamePlayService;
     
     public GamePlayController(GamePlayService gamePlayService) {
@@ -23,10 +35,20 @@ public class GamePlayController {
      * Расстановка кораблей игроком
      */
     @PostMapping("/{sessionId}/place-ships")
-    public ResponseEntity<?> placeShips(@PathVariable UUID sessionId,
-                                         @RequestBody PlaceShipsRequest request) {
-        try {
-            boolean success = gamePlayService.placeShips(sessionId, request);
+    public CompletableFuture<ResponseEntity<?>> placeShips(@PathVariable UUID sessionId,
+                                                           @RequestBody PlaceShipsRequest request) {
+        return gamePlayService.placeShips(sessionId, request).handle((success, error) -> {
+            if (error != null) {
+                Throwable cause = unwrap(error);
+                if (cause instanceof IllegalArgumentException) {
+                    return ResponseEntity.badRequest().body(Map.of(
+                        "error", cause.getMessage()
+                    ));
+                }
+                return ResponseEntity.internalServerError().body(Map.of(
+                    "error", "Failed to place ships"
+                ));
+            }
             
             if (success) {
                 return ResponseEntity.ok(Map.of(
@@ -40,26 +62,22 @@ public class GamePlayController {
                     "error", "Invalid ship placement"
                 ));
             }
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().body(Map.of(
-                "error", e.getMessage()
-            ));
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().body(Map.of(
-                "error", "Failed to place ships"
-            ));
-        }
+        });
     }
     
     /**
      * Автоматическая расстановка кораблей
      */
     @PostMapping("/{sessionId}/auto-place-ships")
-    public ResponseEntity<?> autoPlaceShips(@PathVariable UUID sessionId,
-                                            @RequestBody Map<String, String> request) {
-        try {
-            String playerName = request.get("playerName");
-            gamePlayService.autoPlaceShips(sessionId, playerName);
+    public CompletableFuture<ResponseEntity<?>> autoPlaceShips(@PathVariable UUID sessionId,
+                                                               @RequestBody Map<String, String> request) {
+        String playerName = request.get("playerName");
+        return gamePlayService.autoPlaceShips(sessionId, playerName).handle((ignored, error) -> {
+            if (error != null) {
+                return ResponseEntity.badRequest().body(Map.of(
+                    "error", String.valueOf(unwrap(error).getMessage())
+                ));
+            }
             
             return ResponseEntity.ok(Map.of(
                 "message", "Ships placed automatically",
@@ -67,11 +85,7 @@ public class GamePlayController {
                 "player", playerName,
                 "ready", gamePlayService.isPlayerReady(sessionId, playerName)
             ));
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(Map.of(
-                "error", e.getMessage()
-            ));
-        }
+        });
     }
     
     /**
@@ -80,10 +94,46 @@ public class GamePlayController {
     @GetMapping("/{sessionId}/board")
     public ResponseEntity<?> getBoardState(@PathVariable UUID sessionId,
                                            @RequestParam String playerName,
-                                           @RequestParam(required = false, defaultValue = "true") boolean isOwner) {
+                                           @RequestParam(required = false, defaultValue = "true") boolean isOwner,
+                                           @RequestParam(required = false, defaultValue = FORMAT_JSON) String format,
+                                           @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                           @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            BoardStateResponse response = gamePlayService.getBoardState(sessionId, playerName, isOwner);
-            return ResponseEntity.ok(response);
+            BoardView view = gamePlayService.getBoardView(sessionId, playerName, isOwner);
+            String viewName = isOwner ? "owner" : "opponent";
+            
+            // Бинарный формат: 25 байт, 2 бита на клетку
+            if (accept != null && accept.contains(MediaType.APPLICATION_OCTET_STREAM_VALUE)) {
+                String eTag = eTag(view.getVersion(), viewName + "-binary");
+                if (isNotModified(ifNoneMatch, eTag)) {
+                    return notModified(eTag);
+                }
+                return ResponseEntity.ok()
+                    .eTag(eTag)
+                    .header(HttpHeaders.CACHE_CONTROL, REVALIDATE)
+                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .body(view.getPacked());
+            }
+            if (FORMAT_PACKED.equalsIgnoreCase(format)) {
+                String eTag = eTag(view.getVersion(), viewName + "-" + FORMAT_PACKED);
+                if (isNotModified(ifNoneMatch, eTag)) {
+                    return notModified(eTag);
+                }
+                return ResponseEntity.ok()
+                    .eTag(eTag)
+                    .header(HttpHeaders.CACHE_CONTROL, REVALIDATE)
+                    .body(new PackedBoardStateResponse(playerName, view.getPacked(), isOwner));
+            }
+            String eTag = eTag(view.getVersion(), viewName + "-" + FORMAT_JSON);
+            if (isNotModified(ifNoneMatch, eTag)) {
+                return notModified(eTag);
+            }
+            // Готовые байты JSON из кэша представления, без повторной сериализации
+            return ResponseEntity.ok()
+                .eTag(eTag)
+                .header(HttpHeaders.CACHE_CONTROL, REVALIDATE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(view.getJson(playerName));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of(
                 "error", e.getMessage()
@@ -95,20 +145,22 @@ public class GamePlayController {
      * Выстрел по противнику
      */
     @PostMapping("/{sessionId}/fire")
-    public ResponseEntity<?> fire(@PathVariable UUID sessionId,
-                                   @RequestBody FireRequest request) {
-        try {
-            FireResponse response = gamePlayService.fire(sessionId, request);
-            return ResponseEntity.ok(response);
-        } catch (IllegalStateException e) {
-            return ResponseEntity.badRequest().body(Map.of(
-                "error", e.getMessage()
-            ));
-        } catch (Exception e) {
+    public CompletableFuture<ResponseEntity<?>> fire(@PathVariable UUID sessionId,
+                                                     @RequestBody FireRequest request) {
+        return gamePlayService.fire(sessionId, request).handle((response, error) -> {
+            if (error == null) {
+                return ResponseEntity.ok(response);
+            }
+            Throwable cause = unwrap(error);
+            if (cause instanceof IllegalStateException) {
+                return ResponseEntity.badRequest().body(Map.of(
+                    "error", cause.getMessage()
+                ));
+            }
             return ResponseEntity.internalServerError().body(Map.of(
                 "error", "Failed to process fire"
             ));
-        }
+        });
     }
     
     /**
@@ -148,14 +200,62 @@ public class GamePlayController {
      */
     @GetMapping("/{sessionId}/game-state")
     public ResponseEntity<?> getGameState(@PathVariable UUID sessionId,
-                                          @RequestParam String playerName) {
+                                          @RequestParam String playerName,
+                                          @RequestParam(required = false, defaultValue = FORMAT_JSON) String format,
+                                          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            Map<String, Object> gameState = gamePlayService.getGameState(sessionId, playerName);
-            return ResponseEntity.ok(gameState);
+            boolean packed = FORMAT_PACKED.equalsIgnoreCase(format);
+            // Версию берём до сборки состояния: при гонке ETag окажется старше ответа, но не новее.
+            // Состояние своё у каждого игрока (его доска открыта, доска противника - нет): в ETag и зритель
+            String viewer = Integer.toHexString(playerName.hashCode());
+            String eTag = eTag(gamePlayService.getGameStateVersion(sessionId),
+                viewer + "-" + (packed ? FORMAT_PACKED : FORMAT_JSON));
+            if (isNotModified(ifNoneMatch, eTag)) {
+                return notModified(eTag);
+            }
+            Map<String, Object> gameState = gamePlayService.getGameState(sessionId, playerName, packed);
+            return ResponseEntity.ok()
+                .eTag(eTag)
+                .header(HttpHeaders.CACHE_CONTROL, REVALIDATE)
+                .body(gameState);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of(
                 "error", e.getMessage()
             ));
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Исключение команды сессии (без обёртки CompletionException)
+     */
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+    
+    private static String eTag(long version, String variant) {
+        return "\"" + version + "-" + variant + "\"";
+    }
+    
+    /**
+     * Совпадает ли ETag с одним из значений If-None-Match (слабые ETag сравниваются без W/)
+     */
+    private static boolean isNotModified(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static ResponseEntity<?> notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+    }
+}
@@ -0,0 +1,54 @@
+// back\src\main\java\com\seabattle\sea_battle\controller\ShardController.java
+package com.seabattle.sea_battle.controller;
+
+import com.seabattle.sea_battle.service.GameSessionManager;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+/**
+ * Вызовы реестра сессий от других узлов кластера (HttpShardTransport).
+ * Ответы - текст, без JSON: вызываются на каждую регистрацию игрока чужого узла
+ */
+@RestController
+@RequestMapping("/internal/shard")
+public class ShardController {
+
+    private final GameSessionManager gameSessionManager;
+
+    public ShardController(GameSessionManager gameSessionManager) {
+        this.gameSessionManager = gameSessionManager;
+    }
+
+    @PostMapping("/players/{playerName}/claim")
+    public ResponseEntity<String> claimPlayer(@PathVariable String playerName, @RequestParam UUID sessionId) {
+        try {
+            gameSessionManager.claimPlayerLocally(playerName, sessionId);
+            return ResponseEntity.ok("ok");
+        } catch (IllegalArgumentException e) {
+            // Игрок уже в активной игре
+            return ResponseEntity.status(409).body(e.getMessage());
+        }
+    }
+
+    @PostMapping("/players/{playerName}/release")
+    public ResponseEntity<String> releasePlayer(@PathVariable String playerName, @RequestParam UUID sessionId) {
+        gameSessionManager.releasePlayerLocally(playerName, sessionId);
+        return ResponseEntity.ok("ok");
+    }
+
+    @GetMapping("/players/{playerName}/session")
+    public ResponseEntity<String> findPlayerSession(@PathVariable String playerName) {
+        UUID sessionId = gameSessionManager.findPlayerSessionLocally(playerName);
+        if (sessionId == null) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok(sessionId.toString());
+    }
+
+    @GetMapping("/sessions/{sessionId}/active")
+    public ResponseEntity<String> isSessionActive(@PathVariable UUID sessionId) {
+        return ResponseEntity.ok(Boolean.toString(gameSessionManager.isSessionActiveLocally(sessionId)));
+    }
+}
\ No newline at end of file
@@ -1,6 +1,7 @@
 // back\src\main\java\com\seabattle\sea_battle\controller\SseController.java
 package com.seabattle.sea_battle.controller;
 
+import com.seabattle.sea_battle.service.MatchmakingService;
 import com.seabattle.sea_battle.service.SseNotificationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -20,6 +21,7 @@ import java.util.UUID;
 public class SseController {
     
     private final SseNotificationService sseService;
+    private final MatchmakingService matchmakingService;
     
     /**
      * Подписка на SSE события игры
@@ -34,6 +36,17 @@ public class SseController {
         return sseService.registerPlayer(playerName, sessionId);
     }
     
+    /**
+     * Подписка игрока из очереди подбора: MATCH_FOUND (с ID сессии) или MATCHMAKING_CANCELLED
+     */
+    @GetMapping(value = "/matchmaking", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToMatchmaking(@RequestParam String playerName) {
+        
+        log.info("Matchmaking SSE subscription request: player={}", playerName);
+        
+        return matchmakingService.subscribe(playerName);
+    }
+    
     /**
      * Heartbeat endpoint для поддержания соединения
      */
@@ -1,6 +1,7 @@
 // back\src\main\java\com\seabattle\sea_battle\dto\CreateGameRequest.java
 package com.seabattle.sea_battle.dto;
 
+import com.seabattle.sea_battle.model.enums.AiDifficulty;
 import com.seabattle.sea_battle.model.enums.GameType;
 
 import lombok.Getter;
@@ -12,6 +13,7 @@ import lombok.Setter;
 public class CreateGameRequest {
     private String playerName;
     private GameType gameType;
+    private AiDifficulty aiDifficulty; // только для PVE, по умолчанию EASY
     
     // Конструкторы, геттеры и сеттеры
     public CreateGameRequest() {}
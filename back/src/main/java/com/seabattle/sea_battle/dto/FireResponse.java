@@ -1,6 +1,7 @@
 // back\src\main\java\com\seabattle\sea_battle\dto\FireResponse.java
 package com.seabattle.sea_battle.dto;
 
+import com.seabattle.sea_battle.model.FleetStatus;
 import com.seabattle.sea_battle.model.enums.CellStatus;
 import lombok.Getter;
 import lombok.Setter;
@@ -13,6 +14,7 @@ public class FireResponse {
     private boolean gameOver;
     private String message;
     private CellStatus cellStatus;
+    private FleetStatus opponentFleet; // флот противника после выстрела
     
     public FireResponse(boolean hit, boolean sunk, boolean gameOver, String message, CellStatus cellStatus) {
         this.hit = hit;
@@ -21,4 +23,10 @@ public class FireResponse {
         this.message = message;
         this.cellStatus = cellStatus;
     }
+    
+    public FireResponse(boolean hit, boolean sunk, boolean gameOver, String message, CellStatus cellStatus,
+                        FleetStatus opponentFleet) {
+        this(hit, sunk, gameOver, message, cellStatus);
+        this.opponentFleet = opponentFleet;
+    }
 }
\ No newline at end of file
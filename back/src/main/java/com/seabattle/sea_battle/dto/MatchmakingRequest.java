@@ -0,0 +1,19 @@
+// back\src\main\java\com\seabattle\sea_battle\dto\MatchmakingRequest.java
+package com.seabattle.sea_battle.dto;
+
+public class MatchmakingRequest {
+    private String playerName;
+    private String preference; // Очередь подбора (null - общая)
+    
+    public MatchmakingRequest() {}
+    
+    public MatchmakingRequest(String playerName, String preference) {
+        this.playerName = playerName;
+        this.preference = preference;
+    }
+    
+    public String getPlayerName() { return playerName; }
+    public void setPlayerName(String playerName) { this.playerName = playerName; }
+    public String getPreference() { return preference; }
+    public void setPreference(String preference) { this.preference = preference; }
+}
\ No newline at end of file
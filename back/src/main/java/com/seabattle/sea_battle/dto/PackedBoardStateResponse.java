@@ -0,0 +1,27 @@
+// back\src\main\java\com\seabattle\sea_battle\dto\PackedBoardStateResponse.java
+package com.seabattle.sea_battle.dto;
+
+import java.util.Base64;
+
+import lombok.Getter;
+
+/**
+ * Состояние доски в упакованном виде (2 бита на клетку, base64).
+ * Формат описан в Board.getPackedState
+ */
+@Getter
+public class PackedBoardStateResponse {
+    public static final String ENCODING = "2bit";
+
+    private String playerName;
+    private String board;
+    private boolean isOwner;
+    private String encoding;
+    
+    public PackedBoardStateResponse(String playerName, byte[] packedBoard, boolean isOwner) {
+        this.playerName = playerName;
+        this.board = Base64.getEncoder().encodeToString(packedBoard);
+        this.isOwner = isOwner;
+        this.encoding = ENCODING;
+    }
+}
@@ -0,0 +1,245 @@
+// back\src\main\java\com\seabattle\sea_battle\model\AiMemory.java
+package com.seabattle.sea_battle.model;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Память AI о доске противника в рамках одной сессии (поиск / добивание).
+ * Обновляется по результату каждого выстрела ({@link #record}), а не пересчитывается:
+ * - кандидаты - ещё не простреленные клетки;
+ * - недобитые попадания текущего корабля и его направление, если попаданий больше одного;
+ * - фронт добивания - кандидаты рядом с недобитыми попаданиями (вдоль направления, если оно известно).
+ * Всё хранится в массивах и масках: выбор цели O(фронт) или O(1) в режиме поиска, без выделения памяти.
+ *
+ * Правило "корабли не касаются" (ореол потопленных, диагонали попаданий) намеренно
+ * не применяется: это уровень EASY, учёт всей информации - в {@link DensityTargeter}.
+ *
+ * Если память отстала от доски (создана посреди партии, доску меняли в обход неё),
+ * {@link #sync} восстанавливает её по плоскостям доски.
+ * Экземпляр не потокобезопасен - доступ под блокировкой сессии.
+ */
+public final class AiMemory {
+
+    public static final int DIRECTION_UNKNOWN = 0;
+    public static final int DIRECTION_ALONG_X = 1; // попадания в одной строке y, меняется x
+    public static final int DIRECTION_ALONG_Y = 2; // попадания в одном столбце x, меняется y
+
+    private static final int[] DX = {-1, 1, 0, 0};
+    private static final int[] DY = {0, 0, -1, 1};
+
+    // Кандидаты: неупорядоченное множество с удалением перестановкой, slots[cell] = позиция или -1
+    private final int[] candidates = new int[BoardBits.CELLS];
+    private final int[] slots = new int[BoardBits.CELLS];
+    private int candidateCount;
+    private long candidateLo, candidateHi;
+
+    // Недобитые попадания
+    private long openLo, openHi;
+    private int direction = DIRECTION_UNKNOWN;
+
+    // Фронт добивания
+    private final int[] frontier = new int[BoardBits.CELLS];
+    private int frontierSize;
+
+    // Версия доски, которой соответствует память (-1 - нужна синхронизация)
+    private long boardVersion = -1;
+
+    public AiMemory() {
+        reset();
+    }
+
+    /**
+     * Восстанавливает память по доске, если она отстала от неё; иначе ничего не делает
+     */
+    public void sync(Board board) {
+        if (board.getVersion() == boardVersion) {
+            return;
+        }
+        reset();
+        openLo = board.hitLo() & ~board.sunkLo();
+        openHi = board.hitHi() & ~board.sunkHi();
+        removeMask(board.hitLo() | board.missLo(), board.hitHi() | board.missHi());
+        direction = directionOf(openLo, openHi);
+        rebuildFrontier();
+        boardVersion = board.getVersion();
+    }
+
+    /**
+     * Учитывает результат выстрела AI по board (вызывать сразу после выстрела)
+     */
+    public void record(GameSession.FireResult result, Board board) {
+        boolean inSync = boardVersion == board.getVersion() - 1;
+        int cell = BoardBits.index(result.getX(), result.getY());
+        removeCandidate(cell);
+
+        if (result.isHit()) {
+            openLo |= BoardBits.lo(cell);
+            openHi |= BoardBits.hi(cell);
+            if (result.isSunk()) {
+                // Корабль потоплен целиком - добивание закончено
+                openLo &= ~board.sunkLo();
+                openHi &= ~board.sunkHi();
+            }
+            direction = directionOf(openLo, openHi);
+            rebuildFrontier();
+        } else {
+            removeFromFrontier(cell);
+        }
+
+        boardVersion = inSync ? board.getVersion() : -1;
+    }
+
+    /**
+     * Индекс клетки (x * 10 + y) для выстрела: случайная клетка фронта в режиме добивания,
+     * иначе случайный кандидат; -1 если кандидатов нет
+     */
+    public int pickTarget(RandomGenerator random) {
+        if (frontierSize > 0) {
+            return frontier[random.nextInt(frontierSize)];
+        }
+        if (candidateCount > 0) {
+            return candidates[random.nextInt(candidateCount)];
+        }
+        return -1;
+    }
+
+    /**
+     * Режим добивания: есть недобитые попадания
+     */
+    public boolean isTargeting() {
+        return (openLo | openHi) != 0;
+    }
+
+    public int getDirection() {
+        return direction;
+    }
+
+    public int getFrontierSize() {
+        return frontierSize;
+    }
+
+    public int getCandidateCount() {
+        return candidateCount;
+    }
+
+    private void reset() {
+        for (int cell = 0; cell < BoardBits.CELLS; cell++) {
+            candidates[cell] = cell;
+            slots[cell] = cell;
+        }
+        candidateCount = BoardBits.CELLS;
+        candidateLo = -1L;
+        candidateHi = BoardBits.HI_MASK;
+        openLo = 0;
+        openHi = 0;
+        direction = DIRECTION_UNKNOWN;
+        frontierSize = 0;
+        boardVersion = -1;
+    }
+
+    private boolean isCandidate(int cell) {
+        return BoardBits.test(candidateLo, candidateHi, cell);
+    }
+
+    private void removeCandidate(int cell) {
+        int slot = slots[cell];
+        if (slot < 0) {
+            return;
+        }
+        int last = candidates[--candidateCount];
+        candidates[slot] = last;
+        slots[last] = slot;
+        slots[cell] = -1;
+        candidateLo &= ~BoardBits.lo(cell);
+        candidateHi &= ~BoardBits.hi(cell);
+    }
+
+    private void removeMask(long lo, long hi) {
+        lo &= candidateLo;
+        hi &= candidateHi;
+        while (lo != 0) {
+            removeCandidate(Long.numberOfTrailingZeros(lo));
+            lo &= lo - 1;
+        }
+        while (hi != 0) {
+            removeCandidate(64 + Long.numberOfTrailingZeros(hi));
+            hi &= hi - 1;
+        }
+    }
+
+    /**
+     * Фронт по недобитым попаданиям: соседние кандидаты (только вдоль направления, если оно известно)
+     */
+    private void rebuildFrontier() {
+        frontierSize = 0;
+        long lo = openLo, hi = openHi;
+        while ((lo | hi) != 0) {
+            int cell = lo != 0 ? Long.numberOfTrailingZeros(lo) : 64 + Long.numberOfTrailingZeros(hi);
+            int x = BoardBits.x(cell);
+            int y = BoardBits.y(cell);
+            for (int i = 0; i < DX.length; i++) {
+                if ((direction == DIRECTION_ALONG_X && DX[i] == 0)
+                        || (direction == DIRECTION_ALONG_Y && DY[i] == 0)) {
+                    continue;
+                }
+                int nx = x + DX[i];
+                int ny = y + DY[i];
+                if (BoardBits.inBounds(nx, ny)) {
+                    addToFrontier(BoardBits.index(nx, ny));
+                }
+            }
+            if (cell < 64) {
+                lo &= lo - 1;
+            } else {
+                hi &= hi - 1;
+            }
+        }
+    }
+
+    private void addToFrontier(int cell) {
+        if (!isCandidate(cell)) {
+            return;
+        }
+        for (int i = 0; i < frontierSize; i++) {
+            if (frontier[i] == cell) {
+                return;
+            }
+        }
+        frontier[frontierSize++] = cell;
+    }
+
+    private void removeFromFrontier(int cell) {
+        for (int i = 0; i < frontierSize; i++) {
+            if (frontier[i] == cell) {
+                frontier[i] = frontier[--frontierSize];
+                return;
+            }
+        }
+    }
+
+    /**
+     * Направление недобитого корабля: все попадания (больше одного) в одной строке или одном столбце
+     */
+    private static int directionOf(long lo, long hi) {
+        if (BoardBits.count(lo, hi) < 2) {
+            return DIRECTION_UNKNOWN;
+        }
+        int first = lo != 0 ? Long.numberOfTrailingZeros(lo) : 64 + Long.numberOfTrailingZeros(hi);
+        boolean sameX = true;
+        boolean sameY = true;
+        while ((lo | hi) != 0) {
+            int cell = lo != 0 ? Long.numberOfTrailingZeros(lo) : 64 + Long.numberOfTrailingZeros(hi);
+            sameX &= BoardBits.x(cell) == BoardBits.x(first);
+            sameY &= BoardBits.y(cell) == BoardBits.y(first);
+            if (cell < 64) {
+                lo &= lo - 1;
+            } else {
+                hi &= hi - 1;
+            }
+        }
+        if (sameY) {
+            return DIRECTION_ALONG_X;
+        }
+        return sameX ? DIRECTION_ALONG_Y : DIRECTION_UNKNOWN;
+    }
+}
@@ -3,32 +3,57 @@ package com.seabattle.sea_battle.model;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.Map;
+import java.util.random.RandomGenerator;
 import com.seabattle.sea_battle.model.enums.CellStatus;
 
 import lombok.Getter;
 
-@Getter
+/**
+ * Игровое поле на битовых масках.
+ * Корабли, попадания и промахи хранятся как плоскости по 100 бит (две long),
+ * плюс идентификаторы позиций кораблей в {@link ShipPlacements}. Объекты Cell создаются только
+ * по запросу (getCells / getOpponentView) и являются снимком состояния.
+ */
 public class Board {
-    private static final int BOARD_SIZE = 10;
-    private final Cell[][] cells;
+    private static final int BOARD_SIZE = BoardBits.SIZE;
+    private static final int FLEET_SIZE = 10;
+
+    // Упакованный формат доски (2 бита на клетку)
+    public static final int PACKED_SIZE = (BoardBits.CELLS + 3) / 4;
+    public static final int PACKED_EMPTY = 0;
+    public static final int PACKED_SHIP = 1;
+    public static final int PACKED_HIT = 2;
+    public static final int PACKED_MISS = 3;
+
+    @Getter
     private final List<Ship> ships;
+    @Getter
     private final String playerName;
 
+    // Плоскости поля
+    private long shipLo, shipHi;
+    private long hitLo, hitHi;
+    private long missLo, missHi;
+    // Клетки потопленных кораблей и их ореол (известны противнику)
+    private long sunkLo, sunkHi;
+    private long sunkHaloLo, sunkHaloHi;
+
+    // Позиции кораблей в ShipPlacements, индекс совпадает с индексом в ships
+    private final short[] shipPositions = new short[FLEET_SIZE];
+
+    // Счётчики флота, обновляются в takeShot
+    private int remainingShipCells;
+    private int remainingSignature; // кораблей на плаву по длинам, 4 бита на длину
+    private int lastSunkShip = -1;  // корабль, потопленный последним выстрелом
+
+    // Версия растёт при каждом изменении доски; по ней кэшируются представления
+    private volatile long version;
+    private volatile BoardView ownerView;
+    private volatile BoardView opponentView;
+
     public Board(String playerName) {
         this.playerName = playerName;
-        this.cells = new Cell[BOARD_SIZE][BOARD_SIZE];
-        this.ships = new ArrayList<>();
-        initializeBoard();
-    }
-
-    private void initializeBoard() {
-        for (int x = 0; x < BOARD_SIZE; x++) {
-            for (int y = 0; y < BOARD_SIZE; y++) {
-                cells[x][y] = new Cell(x, y);
-            }
-        }
+        this.ships = new ArrayList<>(FLEET_SIZE);
     }
 
     /**
@@ -37,189 +62,273 @@ public class Board {
      */
     public boolean placeShips(List<Ship> shipsToPlace) {
         // Очищаем текущие корабли
-        ships.clear();
         clearBoard();
 
+        if (shipsToPlace.size() > FLEET_SIZE) {
+            return false;
+        }
+
+        int signature = 0;
         for (Ship ship : shipsToPlace) {
-            if (!canPlaceShip(ship)) {
+            int positionId = positionOf(ship);
+            if (positionId < 0 || !ShipPlacements.fits(positionId, shipLo, shipHi)) {
                 return false;
             }
-            placeShip(ship);
+            placeShip(ship, positionId);
+            signature += ShipPlacements.signatureStep(ship.getLength());
         }
 
         // Проверяем правильное количество кораблей
-        return validateShipCount();
+        return signature == ShipPlacements.FLEET_SIGNATURE;
     }
 
     /**
      * Автоматическая расстановка кораблей
      */
     public void placeShipsAutomatically() {
-        ships.clear();
-        clearBoard();
+        FleetPlacer.placeRandom(this);
+    }
 
-        // Расставляем корабли согласно правилам
-        int[] shipLengths = {4, 3, 3, 2, 2, 2, 1, 1, 1, 1};
-        
-        for (int length : shipLengths) {
-            boolean placed = false;
-            int attempts = 0;
-            
-            while (!placed && attempts < 1000) {
-                attempts++;
-                
-                boolean horizontal = Math.random() > 0.5;
-                int x = (int) (Math.random() * BOARD_SIZE);
-                int y = (int) (Math.random() * BOARD_SIZE);
-                
-                Ship ship = new Ship(length, horizontal, x, y);
-                
-                if (canPlaceShip(ship)) {
-                    placeShip(ship);
-                    placed = true;
-                }
-            }
-            
-            if (!placed) {
-                //throw new IllegalStateException("Failed to place ship automatically");
-                ships.clear();
-                clearBoard();
-                placeShipsAutomatically(); // Рекурсивный вызов
-                return;
-            }
-        }
+    /**
+     * Автоматическая расстановка с заданным генератором (воспроизводимые расстановки)
+     */
+    public void placeShipsAutomatically(RandomGenerator random) {
+        FleetPlacer.placeRandom(this, random);
     }
 
-    private boolean canPlaceShip(Ship ship) {
-        int x = ship.getX();
-        int y = ship.getY();
-        int length = ship.getLength();
+    /**
+     * Расстановка из готовой записи (например, из пула расстановок)
+     */
+    public void applyLayout(FleetLayout layout) {
+        applyFleet(layout.positions());
+    }
 
-        // Проверка выхода за границы
-        if (ship.isHorizontal()) {
-            if (x + length >= BOARD_SIZE) return false;
-        } else {
-            if (y + length >= BOARD_SIZE) return false;
+    /**
+     * Текущая расстановка флота в компактной записи или null, если флот расставлен не полностью
+     */
+    public FleetLayout getLayout() {
+        if (ships.size() != FLEET_SIZE) {
+            return null;
         }
+        int[] positions = new int[FLEET_SIZE];
+        for (int i = 0; i < FLEET_SIZE; i++) {
+            positions[i] = shipPositions[i];
+        }
+        return FleetLayout.of(positions);
+    }
 
-        // Проверка наложения и соседних клеток
-        for (int i = 0; i < length; i++) {
-            int checkX = ship.isHorizontal() ? x + i : x;
-            int checkY = ship.isHorizontal() ? y : y + i;
+    /**
+     * Простреленные клетки (младшие 64 клетки) - для компактной записи доски
+     */
+    long getShotsLo() {
+        return hitLo | missLo;
+    }
 
-            // Проверяем саму клетку
-            if (cells[checkX][checkY].getStatus() != CellStatus.EMPTY) {
-                return false;
-            }
+    long getShotsHi() {
+        return hitHi | missHi;
+    }
 
-            // Проверяем соседние клетки
-            for (int dx = -1; dx <= 1; dx++) {
-                for (int dy = -1; dy <= 1; dy++) {
-                    int neighborX = checkX + dx;
-                    int neighborY = checkY + dy;
-                    
-                    if (neighborX >= 0 && neighborX < BOARD_SIZE && 
-                        neighborY >= 0 && neighborY < BOARD_SIZE) {
-                        if (cells[neighborX][neighborY].getStatus() == CellStatus.SHIP) {
-                            return false;
-                        }
-                    }
-                }
+    /**
+     * Восстановление доски из компактной записи ({@link SessionCodec}): флот (null - без кораблей),
+     * выстрелы и версия. Попадания, потопленные корабли и счётчики флота пересчитываются
+     */
+    void restore(FleetLayout layout, long shotsLo, long shotsHi, long version) {
+        if (layout != null) {
+            applyFleet(layout.positions());
+        } else {
+            clearBoard();
+        }
+        for (int index = 0; index < BoardBits.CELLS; index++) {
+            if (BoardBits.test(shotsLo, shotsHi, index)) {
+                takeShot(BoardBits.x(index), BoardBits.y(index));
             }
         }
-
-        return true;
+        lastSunkShip = -1;
+        this.version = version;
     }
 
-    private void placeShip(Ship ship) {
-        int x = ship.getX();
-        int y = ship.getY();
-        int length = ship.getLength();
-
-        for (int i = 0; i < length; i++) {
-            int cellX = ship.isHorizontal() ? x + i : x;
-            int cellY = ship.isHorizontal() ? y : y + i;
-            
-            cells[cellX][cellY].setStatus(CellStatus.SHIP);
-            cells[cellX][cellY].setShip(ship);
+    /**
+     * Расстановка по идентификаторам позиций ShipPlacements (уже проверенным)
+     */
+    void applyFleet(int[] positionIds) {
+        clearBoard();
+        for (int positionId : positionIds) {
+            placeShip(newShip(positionId), positionId);
         }
-
-        ships.add(ship);
     }
 
-    private void clearBoard() {
-        for (int x = 0; x < BOARD_SIZE; x++) {
-            for (int y = 0; y < BOARD_SIZE; y++) {
-                cells[x][y].setStatus(CellStatus.EMPTY);
-                cells[x][y].setShip(null);
-            }
-        }
+    /**
+     * Позиция корабля в таблице или -1, если он выходит за границы поля
+     */
+    private int positionOf(Ship ship) {
+        return ShipPlacements.positionId(ship.getLength(), ship.isHorizontal(), ship.getX(), ship.getY());
     }
 
-    private boolean validateShipCount() {
-        Map<Integer, Long> shipsByLength = ships.stream()
-        .collect(Collectors.groupingBy(Ship::getLength, Collectors.counting()));
-    
-        // Стандартная расстановка: 1x4, 2x3, 3x2, 4x1
-        Map<Integer, Integer> requiredShips = Map.of(
-            4, 1,
-            3, 2,
-            2, 3,
-            1, 4
+    private Ship newShip(int positionId) {
+        return new Ship(
+            ShipPlacements.length(positionId),
+            ShipPlacements.horizontal(positionId),
+            ShipPlacements.x(positionId),
+            ShipPlacements.y(positionId)
         );
-            
-        for (Map.Entry<Integer, Integer> entry : requiredShips.entrySet()) {
-            int length = entry.getKey();
-            int requiredCount = entry.getValue();
-            long actualCount = shipsByLength.getOrDefault(length, 0L);
-                
-            if (actualCount != requiredCount) {
-                return false;
-            }
-        }
-            
-        return true;
-        // // Проверяем по количеству клеток кораблей
-        // long totalShipCells = ships.stream()
-        //         .mapToInt(Ship::getLength)
-        //         .sum();
-        
-        // return totalShipCells == 20; // 4+3+3+2+2+2+1+1+1+1 = 20
     }
 
-        
+    private void placeShip(Ship ship, int positionId) {
+        shipPositions[ships.size()] = (short) positionId;
+        shipLo |= ShipPlacements.occLo(positionId);
+        shipHi |= ShipPlacements.occHi(positionId);
+        ships.add(ship);
+        remainingShipCells += ship.getLength();
+        remainingSignature += ShipPlacements.signatureStep(ship.getLength());
+        version++;
+    }
+
+    private void clearBoard() {
+        ships.clear();
+        shipLo = shipHi = 0;
+        hitLo = hitHi = 0;
+        missLo = missHi = 0;
+        sunkLo = sunkHi = 0;
+        sunkHaloLo = sunkHaloHi = 0;
+        remainingShipCells = 0;
+        remainingSignature = 0;
+        lastSunkShip = -1;
+        version++;
+    }
 
     /**
      * Выстрел по доске
      * @return true если попал, false если промах
      */
     public boolean takeShot(int x, int y) {
-        if (x < 0 || x >= BOARD_SIZE || y < 0 || y >= BOARD_SIZE) {
+        if (!BoardBits.inBounds(x, y)) {
             throw new IllegalArgumentException("Invalid coordinates");
         }
 
-        Cell cell = cells[x][y];
-        
-        if (cell.getStatus() == CellStatus.SHIP) {
-            cell.setStatus(CellStatus.HIT);
-            if (cell.getShip() != null) {
-                cell.getShip().hit();
+        int index = BoardBits.index(x, y);
+        long bitLo = BoardBits.lo(index);
+        long bitHi = BoardBits.hi(index);
+
+        lastSunkShip = -1;
+
+        // Если уже стреляли в эту клетку
+        if (((hitLo | missLo) & bitLo) != 0 || ((hitHi | missHi) & bitHi) != 0) {
+            return false;
+        }
+
+        if ((shipLo & bitLo) != 0 || (shipHi & bitHi) != 0) {
+            hitLo |= bitLo;
+            hitHi |= bitHi;
+            version++;
+            remainingShipCells--;
+            int shipIndex = shipIndexAt(bitLo, bitHi);
+            Ship ship = ships.get(shipIndex);
+            ship.hit();
+            if (ship.isSunk()) {
+                lastSunkShip = shipIndex;
+                remainingSignature -= ShipPlacements.signatureStep(ship.getLength());
+                int positionId = shipPositions[shipIndex];
+                sunkLo |= ShipPlacements.occLo(positionId);
+                sunkHi |= ShipPlacements.occHi(positionId);
+                sunkHaloLo |= ShipPlacements.haloLo(positionId);
+                sunkHaloHi |= ShipPlacements.haloHi(positionId);
             }
             return true;
-        } else if (cell.getStatus() == CellStatus.EMPTY) {
-            cell.setStatus(CellStatus.MISS);
-            return false;
         }
-        
-        // Если уже стреляли в эту клетку
+
+        missLo |= bitLo;
+        missHi |= bitHi;
+        version++;
         return false;
     }
 
+    /**
+     * Версия доски: монотонно растёт при каждом изменении
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Представление доски для текущей версии (кэшируется до следующего изменения)
+     */
+    public BoardView getView(boolean isOwner) {
+        long current = version;
+        BoardView view = isOwner ? ownerView : opponentView;
+        if (view != null && view.getVersion() == current) {
+            return view;
+        }
+
+        view = new BoardView(current, isOwner, getBoardState(isOwner), getPackedState(isOwner));
+        if (isOwner) {
+            ownerView = view;
+        } else {
+            opponentView = view;
+        }
+        return view;
+    }
+
     /**
      * Проверка, все ли корабли потоплены
      */
     public boolean allShipsSunk() {
-        return ships.stream().allMatch(Ship::isSunk);
+        return remainingShipCells == 0;
+    }
+
+    /**
+     * Корабль, потопленный последним выстрелом, или null
+     */
+    public Ship getLastSunkShip() {
+        return lastSunkShip >= 0 ? ships.get(lastSunkShip) : null;
+    }
+
+    /**
+     * Снимок состояния флота (без обхода кораблей)
+     */
+    public FleetStatus getFleetStatus() {
+        return new FleetStatus(remainingShipCells, remainingSignature);
+    }
+
+    /**
+     * Статус клетки по битовым плоскостям
+     */
+    public CellStatus getCellStatus(int x, int y) {
+        return statusAt(BoardBits.index(x, y), true);
+    }
+
+    /**
+     * Был ли уже выстрел в клетку
+     */
+    public boolean isShotAt(int x, int y) {
+        int index = BoardBits.index(x, y);
+        return BoardBits.test(hitLo | missLo, hitHi | missHi, index);
+    }
+
+    /**
+     * Корабль, занимающий клетку, или null
+     */
+    public Ship getShipAt(int x, int y) {
+        int index = BoardBits.index(x, y);
+        int shipIndex = shipIndexAt(BoardBits.lo(index), BoardBits.hi(index));
+        return shipIndex >= 0 ? ships.get(shipIndex) : null;
+    }
+
+    /**
+     * Снимок клеток доски (только для чтения: изменения Cell не влияют на доску)
+     */
+    public Cell[][] getCells() {
+        Cell[][] cells = new Cell[BOARD_SIZE][BOARD_SIZE];
+
+        for (int x = 0; x < BOARD_SIZE; x++) {
+            for (int y = 0; y < BOARD_SIZE; y++) {
+                Cell cell = new Cell(x, y);
+                cell.setStatus(getCellStatus(x, y));
+                cell.setShip(getShipAt(x, y));
+                cells[x][y] = cell;
+            }
+        }
+
+        return cells;
     }
 
     /**
@@ -227,23 +336,16 @@ public class Board {
      */
     public Cell[][] getOpponentView() {
         Cell[][] opponentView = new Cell[BOARD_SIZE][BOARD_SIZE];
-        
+
         for (int x = 0; x < BOARD_SIZE; x++) {
             for (int y = 0; y < BOARD_SIZE; y++) {
-                Cell original = cells[x][y];
                 Cell copy = new Cell(x, y);
-                
                 // Скрываем не потопленные корабли
-                if (original.getStatus() == CellStatus.SHIP) {
-                    copy.setStatus(CellStatus.EMPTY);
-                } else {
-                    copy.setStatus(original.getStatus());
-                }
-                
+                copy.setStatus(statusAt(BoardBits.index(x, y), false));
                 opponentView[x][y] = copy;
             }
         }
-        
+
         return opponentView;
     }
 
@@ -252,23 +354,105 @@ public class Board {
      */
     public String[][] getBoardState(boolean isOwner) {
         String[][] state = new String[BOARD_SIZE][BOARD_SIZE];
-        
+
         for (int x = 0; x < BOARD_SIZE; x++) {
             for (int y = 0; y < BOARD_SIZE; y++) {
-                Cell cell = cells[x][y];
-                if (isOwner) {
-                    state[x][y] = cell.getStatus().toString();
-                } else {
-                    // Для противника скрываем не потопленные корабли
-                    if (cell.getStatus() == CellStatus.SHIP) {
-                        state[x][y] = CellStatus.EMPTY.toString();
-                    } else {
-                        state[x][y] = cell.getStatus().toString();
-                    }
-                }
+                // Для противника скрываем не потопленные корабли
+                state[x][y] = statusAt(BoardBits.index(x, y), isOwner).name();
             }
         }
-        
+
         return state;
     }
-}
\ No newline at end of file
+
+    /**
+     * Упакованное состояние доски: 2 бита на клетку, 25 байт для 10x10.
+     * Клетка с индексом i = x * 10 + y лежит в байте i / 4, биты (i % 4) * 2.
+     * Коды: 0 - EMPTY, 1 - SHIP, 2 - HIT, 3 - MISS
+     */
+    public byte[] getPackedState(boolean isOwner) {
+        byte[] packed = new byte[PACKED_SIZE];
+        long showLo = isOwner ? shipLo : 0;
+        long showHi = isOwner ? shipHi : 0;
+
+        for (int index = 0; index < BoardBits.CELLS; index++) {
+            int code;
+            if (BoardBits.test(hitLo, hitHi, index)) {
+                code = PACKED_HIT;
+            } else if (BoardBits.test(missLo, missHi, index)) {
+                code = PACKED_MISS;
+            } else if (BoardBits.test(showLo, showHi, index)) {
+                code = PACKED_SHIP;
+            } else {
+                code = PACKED_EMPTY;
+            }
+            packed[index >> 2] |= (byte) (code << ((index & 3) << 1));
+        }
+
+        return packed;
+    }
+
+    // Открытая противнику информация - для AI (DensityTargeter и др.)
+
+    long hitLo() {
+        return hitLo;
+    }
+
+    long hitHi() {
+        return hitHi;
+    }
+
+    long missLo() {
+        return missLo;
+    }
+
+    long missHi() {
+        return missHi;
+    }
+
+    long sunkLo() {
+        return sunkLo;
+    }
+
+    long sunkHi() {
+        return sunkHi;
+    }
+
+    long sunkHaloLo() {
+        return sunkHaloLo;
+    }
+
+    long sunkHaloHi() {
+        return sunkHaloHi;
+    }
+
+    /**
+     * Кораблей на плаву по длинам (см. ShipPlacements.countInSignature)
+     */
+    int remainingSignature() {
+        return remainingSignature;
+    }
+
+    private CellStatus statusAt(int index, boolean showShips) {
+        if (BoardBits.test(hitLo, hitHi, index)) {
+            return CellStatus.HIT;
+        }
+        if (BoardBits.test(missLo, missHi, index)) {
+            return CellStatus.MISS;
+        }
+        if (showShips && BoardBits.test(shipLo, shipHi, index)) {
+            return CellStatus.SHIP;
+        }
+        return CellStatus.EMPTY;
+    }
+
+    private int shipIndexAt(long bitLo, long bitHi) {
+        for (int i = 0; i < ships.size(); i++) {
+            int positionId = shipPositions[i];
+            if ((ShipPlacements.occLo(positionId) & bitLo) != 0 || (ShipPlacements.occHi(positionId) & bitHi) != 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,52 @@
+// back\src\main\java\com\seabattle\sea_battle\model\BoardBits.java
+package com.seabattle.sea_battle.model;
+
+/**
+ * Битовое представление поля 10x10.
+ * Клетка (x, y) имеет индекс x * 10 + y, индексы 0..63 лежат в младшем слове (lo),
+ * 64..99 - в старшем (hi). Любая "плоскость" поля (корабли, попадания, промахи)
+ * хранится как пара long.
+ */
+public final class BoardBits {
+    public static final int SIZE = 10;
+    public static final int CELLS = SIZE * SIZE;
+
+    /** Маска старшего слова: только биты 0..35 (клетки 64..99) */
+    public static final long HI_MASK = (1L << (CELLS - 64)) - 1;
+
+    private BoardBits() {}
+
+    public static int index(int x, int y) {
+        return x * SIZE + y;
+    }
+
+    public static int x(int index) {
+        return index / SIZE;
+    }
+
+    public static int y(int index) {
+        return index % SIZE;
+    }
+
+    public static boolean inBounds(int x, int y) {
+        return x >= 0 && x < SIZE && y >= 0 && y < SIZE;
+    }
+
+    /** Бит клетки в младшем слове (0, если клетка в старшем) */
+    public static long lo(int index) {
+        return index < 64 ? 1L << index : 0L;
+    }
+
+    /** Бит клетки в старшем слове (0, если клетка в младшем) */
+    public static long hi(int index) {
+        return index >= 64 ? 1L << (index - 64) : 0L;
+    }
+
+    public static boolean test(long lo, long hi, int index) {
+        return index < 64 ? (lo & (1L << index)) != 0 : (hi & (1L << (index - 64))) != 0;
+    }
+
+    public static int count(long lo, long hi) {
+        return Long.bitCount(lo) + Long.bitCount(hi);
+    }
+}
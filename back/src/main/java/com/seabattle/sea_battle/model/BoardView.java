@@ -0,0 +1,84 @@
+// back\src\main\java\com\seabattle\sea_battle\model\BoardView.java
+package com.seabattle.sea_battle.model;
+
+import java.nio.charset.StandardCharsets;
+
+import lombok.Getter;
+
+/**
+ * Отрисованное представление доски для конкретной версии: String[][],
+ * упакованные байты и сериализованный JSON (формат BoardStateResponse).
+ * Board кэширует по одному представлению для владельца и противника и
+ * пересоздаёт его только при изменении версии доски.
+ * Массивы общие для всех читателей - изменять их нельзя.
+ */
+@Getter
+public class BoardView {
+    private final long version;
+    private final boolean owner;
+    private final String[][] state;
+    private final byte[] packed;
+
+    // JSON зависит от имени запрашивающего игрока; для доски оно всегда одно и то же
+    private volatile String jsonPlayerName;
+    private volatile byte[] json;
+
+    public BoardView(long version, boolean owner, String[][] state, byte[] packed) {
+        this.version = version;
+        this.owner = owner;
+        this.state = state;
+        this.packed = packed;
+    }
+
+    /**
+     * JSON в том же виде, что Jackson отдаёт для BoardStateResponse
+     */
+    public byte[] getJson(String playerName) {
+        byte[] cached = json;
+        if (cached != null && playerName.equals(jsonPlayerName)) {
+            return cached;
+        }
+
+        StringBuilder builder = new StringBuilder(900);
+        builder.append("{\"playerName\":");
+        appendString(builder, playerName);
+        builder.append(",\"board\":[");
+        for (int x = 0; x < state.length; x++) {
+            if (x > 0) builder.append(',');
+            builder.append('[');
+            for (int y = 0; y < state[x].length; y++) {
+                if (y > 0) builder.append(',');
+                builder.append('"').append(state[x][y]).append('"');
+            }
+            builder.append(']');
+        }
+        builder.append("],\"owner\":").append(owner).append('}');
+
+        byte[] rendered = builder.toString().getBytes(StandardCharsets.UTF_8);
+        json = rendered;
+        jsonPlayerName = playerName;
+        return rendered;
+    }
+
+    private static void appendString(StringBuilder builder, String value) {
+        builder.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                case '\t' -> builder.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+                }
+            }
+        }
+        builder.append('"');
+    }
+}
@@ -0,0 +1,133 @@
+// back\src\main\java\com\seabattle\sea_battle\model\DensityTargeter.java
+package com.seabattle.sea_battle.model;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Выбор цели по плотности вероятности.
+ * Для каждого корабля на плаву перебираются все позиции таблицы ShipPlacements,
+ * совместимые с известной противнику информацией: не задевают промахи и ореол
+ * потопленных кораблей и не касаются недобитых попаданий, которые не накрывают.
+ * Каждая позиция добавляет вес (число кораблей этой длины) во все свои
+ * непростреленные клетки; выстрел - в клетку с наибольшей суммой.
+ *
+ * Если есть недобитые попадания, учитываются только позиции, накрывающие хотя бы
+ * одно из них (добивание). Все проверки - операции над масками, без объектов.
+ *
+ * Экземпляр хранит рабочий массив и не потокобезопасен - используйте {@link #local()}.
+ */
+public final class DensityTargeter {
+
+    private static final ThreadLocal<DensityTargeter> LOCAL = ThreadLocal.withInitial(DensityTargeter::new);
+
+    private final int[] density = new int[BoardBits.CELLS];
+
+    /**
+     * Экземпляр для текущего потока
+     */
+    public static DensityTargeter local() {
+        return LOCAL.get();
+    }
+
+    /**
+     * Индекс клетки (x * 10 + y) для следующего выстрела по board, -1 если стрелять некуда
+     */
+    public int pickTarget(Board board, RandomGenerator random) {
+        long hitLo = board.hitLo();
+        long hitHi = board.hitHi();
+        long shotLo = hitLo | board.missLo();
+        long shotHi = hitHi | board.missHi();
+        // Недобитые попадания
+        long openLo = hitLo & ~board.sunkLo();
+        long openHi = hitHi & ~board.sunkHi();
+        // Клетки, где корабля быть не может
+        long blockedLo = board.missLo() | board.sunkHaloLo();
+        long blockedHi = board.missHi() | board.sunkHaloHi();
+        int signature = board.remainingSignature();
+
+        Arrays.fill(density, 0);
+        boolean found = false;
+        if ((openLo | openHi) != 0) {
+            found = accumulate(signature, blockedLo, blockedHi, openLo, openHi, hitLo, hitHi, true);
+        }
+        if (!found) {
+            accumulate(signature, blockedLo, blockedHi, openLo, openHi, hitLo, hitHi, false);
+        }
+
+        return best(shotLo, shotHi, random);
+    }
+
+    /**
+     * Суммирует веса совместимых позиций; true если нашлась хотя бы одна
+     */
+    private boolean accumulate(int signature, long blockedLo, long blockedHi, long openLo, long openHi,
+                               long hitLo, long hitHi, boolean targeting) {
+        boolean found = false;
+
+        for (int length = 1; length <= ShipPlacements.MAX_LENGTH; length++) {
+            int weight = ShipPlacements.countInSignature(signature, length);
+            if (weight == 0) {
+                continue;
+            }
+
+            for (int id = ShipPlacements.firstId(length); id < ShipPlacements.endId(length); id++) {
+                long occLo = ShipPlacements.occLo(id);
+                long occHi = ShipPlacements.occHi(id);
+                if ((occLo & blockedLo) != 0 || (occHi & blockedHi) != 0) {
+                    continue;
+                }
+                // Недобитое попадание рядом с кораблём, но не в нём - корабли бы касались
+                if ((ShipPlacements.haloLo(id) & ~occLo & openLo) != 0
+                        || (ShipPlacements.haloHi(id) & ~occHi & openHi) != 0) {
+                    continue;
+                }
+                boolean covers = (occLo & openLo) != 0 || (occHi & openHi) != 0;
+                if (covers != targeting) {
+                    continue;
+                }
+
+                found = true;
+                addWeight(occLo & ~hitLo, occHi & ~hitHi, weight);
+            }
+        }
+
+        return found;
+    }
+
+    private void addWeight(long lo, long hi, int weight) {
+        while (lo != 0) {
+            density[Long.numberOfTrailingZeros(lo)] += weight;
+            lo &= lo - 1;
+        }
+        while (hi != 0) {
+            density[64 + Long.numberOfTrailingZeros(hi)] += weight;
+            hi &= hi - 1;
+        }
+    }
+
+    /**
+     * Непростреленная клетка с наибольшей плотностью; равные - случайно
+     */
+    private int best(long shotLo, long shotHi, RandomGenerator random) {
+        int bestIndex = -1;
+        int bestDensity = -1;
+        int ties = 0;
+
+        for (int index = 0; index < BoardBits.CELLS; index++) {
+            if (BoardBits.test(shotLo, shotHi, index)) {
+                continue;
+            }
+            int value = density[index];
+            if (value > bestDensity) {
+                bestDensity = value;
+                bestIndex = index;
+                ties = 1;
+            } else if (value == bestDensity && random.nextInt(++ties) == 0) {
+                bestIndex = index;
+            }
+        }
+
+        return bestIndex;
+    }
+}
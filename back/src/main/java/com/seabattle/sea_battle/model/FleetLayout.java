@@ -0,0 +1,65 @@
+// back\src\main\java\com\seabattle\sea_battle\model\FleetLayout.java
+package com.seabattle.sea_battle.model;
+
+/**
+ * Компактная запись расстановки флота: идентификаторы позиций ShipPlacements
+ * (по 10 бит) в порядке флота, слоты 0..5 в lo, 6..9 в hi.
+ */
+public final class FleetLayout {
+    private static final int BITS = 10;
+    private static final int LO_SLOTS = 6;
+    private static final long ID_MASK = (1L << BITS) - 1;
+
+    private final long lo;
+    private final long hi;
+
+    public FleetLayout(long lo, long hi) {
+        this.lo = lo;
+        this.hi = hi;
+    }
+
+    public static FleetLayout of(int[] positions) {
+        return new FleetLayout(encodeLo(positions), encodeHi(positions));
+    }
+
+    public static long encodeLo(int[] positions) {
+        long result = 0;
+        for (int slot = 0; slot < LO_SLOTS; slot++) {
+            result |= (long) positions[slot] << (slot * BITS);
+        }
+        return result;
+    }
+
+    public static long encodeHi(int[] positions) {
+        long result = 0;
+        for (int slot = LO_SLOTS; slot < positions.length; slot++) {
+            result |= (long) positions[slot] << ((slot - LO_SLOTS) * BITS);
+        }
+        return result;
+    }
+
+    /**
+     * Идентификатор позиции корабля в слоте флота
+     */
+    public int positionId(int slot) {
+        return slot < LO_SLOTS
+            ? (int) ((lo >>> (slot * BITS)) & ID_MASK)
+            : (int) ((hi >>> ((slot - LO_SLOTS) * BITS)) & ID_MASK);
+    }
+
+    public int[] positions() {
+        int[] positions = new int[ShipPlacements.fleetSize()];
+        for (int slot = 0; slot < positions.length; slot++) {
+            positions[slot] = positionId(slot);
+        }
+        return positions;
+    }
+
+    public long getLo() {
+        return lo;
+    }
+
+    public long getHi() {
+        return hi;
+    }
+}
@@ -0,0 +1,193 @@
+// back\src\main\java\com\seabattle\sea_battle\model\FleetPlacer.java
+package com.seabattle.sea_battle.model;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Генератор случайной расстановки флота.
+ * Для каждого корабля сначала делается несколько случайных попыток по таблице
+ * позиций (дёшево, пока поле почти пустое). Если они не удались, корабль
+ * выбирается только среди позиций, допустимых при уже поставленных кораблях;
+ * если таких нет, происходит возврат к предыдущему кораблю (итеративно, без
+ * рекурсии). Каждая позиция слота перебирается не более одного раза, дерево
+ * поиска конечно и хотя бы одна расстановка существует, поэтому генерация
+ * всегда завершается.
+ *
+ * {@link #generateUniform} даёт равномерное распределение по всем расстановкам
+ * (отбраковка целиком), но в среднем в сотни раз дороже - он предназначен для
+ * фонового заполнения пула расстановок.
+ *
+ * Экземпляр хранит рабочие массивы и не потокобезопасен - используйте
+ * {@link #local()} или отдельный экземпляр на поток.
+ */
+public final class FleetPlacer {
+    private static final int FLEET_SIZE = ShipPlacements.fleetSize();
+    private static final int MAX_CANDIDATES = maxCandidates();
+    private static final int QUICK_ATTEMPTS = 8;
+    // Кандидаты слота ещё не собирались (корабль поставлен быстрой попыткой)
+    private static final int NOT_COLLECTED = -1;
+
+    private static final ThreadLocal<FleetPlacer> LOCAL = ThreadLocal.withInitial(FleetPlacer::new);
+
+    // Кандидаты для каждого слота флота и сколько из них ещё не опробовано
+    private final int[][] candidates = new int[FLEET_SIZE][MAX_CANDIDATES];
+    private final int[] remaining = new int[FLEET_SIZE];
+    // Плоскость кораблей перед постановкой корабля слота
+    private final long[] planeLo = new long[FLEET_SIZE];
+    private final long[] planeHi = new long[FLEET_SIZE];
+
+    /**
+     * Экземпляр для текущего потока
+     */
+    public static FleetPlacer local() {
+        return LOCAL.get();
+    }
+
+    /**
+     * Случайная расстановка на доске с генератором текущего потока
+     */
+    public static void placeRandom(Board board) {
+        placeRandom(board, ThreadLocalRandom.current());
+    }
+
+    /**
+     * Случайная расстановка на доске с заданным генератором (для воспроизводимости)
+     */
+    public static void placeRandom(Board board, RandomGenerator random) {
+        int[] positions = new int[FLEET_SIZE];
+        local().generate(random, positions);
+        board.applyFleet(positions);
+    }
+
+    /**
+     * Заполняет positions идентификаторами позиций ShipPlacements
+     * в порядке флота (4, 3, 3, 2, 2, 2, 1, 1, 1, 1)
+     */
+    public void generate(RandomGenerator random, int[] positions) {
+        int slot = 0;
+        planeLo[0] = 0;
+        planeHi[0] = 0;
+        remaining[0] = NOT_COLLECTED;
+
+        while (true) {
+            int positionId;
+
+            if (remaining[slot] == NOT_COLLECTED) {
+                positionId = quickPick(slot, random);
+                if (positionId < 0) {
+                    collectCandidates(slot);
+                    continue;
+                }
+            } else if (remaining[slot] == 0) {
+                // Для корабля нет места - возвращаемся к предыдущему
+                if (slot == 0) {
+                    throw new IllegalStateException("No valid fleet layout exists");
+                }
+                slot--;
+                if (remaining[slot] == NOT_COLLECTED) {
+                    collectCandidates(slot);
+                    exclude(slot, positions[slot]);
+                }
+                continue;
+            } else {
+                // Случайный ещё не опробованный кандидат, исключаем его из списка
+                int[] slotCandidates = candidates[slot];
+                int pick = random.nextInt(remaining[slot]);
+                positionId = slotCandidates[pick];
+                slotCandidates[pick] = slotCandidates[--remaining[slot]];
+            }
+
+            positions[slot] = positionId;
+
+            if (slot == FLEET_SIZE - 1) {
+                return;
+            }
+
+            planeLo[slot + 1] = planeLo[slot] | ShipPlacements.occLo(positionId);
+            planeHi[slot + 1] = planeHi[slot] | ShipPlacements.occHi(positionId);
+            slot++;
+            remaining[slot] = NOT_COLLECTED;
+        }
+    }
+
+    /**
+     * Равномерно случайная расстановка: каждый корабль ставится в случайную
+     * позицию своей длины, при любом конфликте расстановка отбрасывается целиком.
+     * Все расстановки равновероятны; завершается с вероятностью 1, в среднем
+     * около 4000 попыток.
+     */
+    public void generateUniform(RandomGenerator random, int[] positions) {
+        while (true) {
+            long lo = 0;
+            long hi = 0;
+            int slot = 0;
+
+            for (; slot < FLEET_SIZE; slot++) {
+                int length = ShipPlacements.fleetLength(slot);
+                int first = ShipPlacements.firstId(length);
+                int positionId = first + random.nextInt(ShipPlacements.endId(length) - first);
+                if (!ShipPlacements.fits(positionId, lo, hi)) {
+                    break;
+                }
+                positions[slot] = positionId;
+                lo |= ShipPlacements.occLo(positionId);
+                hi |= ShipPlacements.occHi(positionId);
+            }
+
+            if (slot == FLEET_SIZE) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Несколько случайных попыток по всей таблице позиций длины, -1 если не удалось
+     */
+    private int quickPick(int slot, RandomGenerator random) {
+        int length = ShipPlacements.fleetLength(slot);
+        int first = ShipPlacements.firstId(length);
+        int count = ShipPlacements.endId(length) - first;
+
+        for (int attempt = 0; attempt < QUICK_ATTEMPTS; attempt++) {
+            int positionId = first + random.nextInt(count);
+            if (ShipPlacements.fits(positionId, planeLo[slot], planeHi[slot])) {
+                return positionId;
+            }
+        }
+        return -1;
+    }
+
+    private void exclude(int slot, int positionId) {
+        int[] slotCandidates = candidates[slot];
+        for (int i = 0; i < remaining[slot]; i++) {
+            if (slotCandidates[i] == positionId) {
+                slotCandidates[i] = slotCandidates[--remaining[slot]];
+                return;
+            }
+        }
+    }
+
+    private void collectCandidates(int slot) {
+        int length = ShipPlacements.fleetLength(slot);
+        long lo = planeLo[slot];
+        long hi = planeHi[slot];
+        int[] slotCandidates = candidates[slot];
+        int count = 0;
+
+        for (int id = ShipPlacements.firstId(length); id < ShipPlacements.endId(length); id++) {
+            if (ShipPlacements.fits(id, lo, hi)) {
+                slotCandidates[count++] = id;
+            }
+        }
+        remaining[slot] = count;
+    }
+
+    private static int maxCandidates() {
+        int max = 0;
+        for (int length = 1; length <= ShipPlacements.MAX_LENGTH; length++) {
+            max = Math.max(max, ShipPlacements.endId(length) - ShipPlacements.firstId(length));
+        }
+        return max;
+    }
+}
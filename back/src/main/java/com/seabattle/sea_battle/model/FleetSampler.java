@@ -0,0 +1,214 @@
+// back\src\main\java\com\seabattle\sea_battle\model\FleetSampler.java
+package com.seabattle.sea_battle.model;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Случайные расстановки оставшегося флота, совместимые с видом доски для противника.
+ * Сначала каждое недобитое попадание накрывается случайной подходящей позицией
+ * одного из оставшихся кораблей, затем остальные корабли ставятся в случайную
+ * из допустимых позиций своей длины (если таких нет, образец отбрасывается).
+ * Допустимая позиция не задевает промахи и ореол потопленных кораблей,
+ * не касается уже поставленных кораблей и недобитых попаданий, которые не накрывает.
+ *
+ * Распределение образцов не строго равномерно по всем совместимым расстановкам
+ * (первые корабли выбираются из большего числа позиций); поправочные веса
+ * importance sampling на практике только увеличивали разброс и не улучшали игру.
+ *
+ * Состояние доски копируется в конструкторе, поэтому экземпляр неизменяем
+ * и может использоваться из нескольких потоков одновременно.
+ */
+public final class FleetSampler {
+    // Позиции, накрывающие клетку (по индексу клетки)
+    private static final int[][] COVERING = covering();
+    private static final int MAX_COVERING = maxCovering();
+    private static final int MAX_POSITIONS = maxPositions();
+
+    private final long blockedLo, blockedHi;
+    private final long hitLo, hitHi;
+    private final long openLo, openHi;
+    // Длины кораблей на плаву по убыванию
+    private final int[] lengths;
+
+    public FleetSampler(Board board) {
+        this.blockedLo = board.missLo() | board.sunkHaloLo();
+        this.blockedHi = board.missHi() | board.sunkHaloHi();
+        this.hitLo = board.hitLo();
+        this.hitHi = board.hitHi();
+        this.openLo = hitLo & ~board.sunkLo();
+        this.openHi = hitHi & ~board.sunkHi();
+        this.lengths = remainingLengths(board.remainingSignature());
+    }
+
+    /**
+     * Набирает образцы до maxSamples или до момента deadlineNanos (System.nanoTime()),
+     * добавляя 1 в counts для каждой непростреленной клетки с кораблём в образце.
+     * @return число принятых образцов
+     */
+    public int sample(RandomGenerator random, int[] counts, long deadlineNanos, int maxSamples) {
+        int[] chosen = new int[lengths.length];
+        int[] candidates = new int[Math.max(MAX_COVERING, MAX_POSITIONS)];
+        int accepted = 0;
+
+        while (accepted < maxSamples && System.nanoTime() < deadlineNanos) {
+            if (trySample(random, chosen, candidates)) {
+                for (int positionId : chosen) {
+                    addCells(counts, ShipPlacements.occLo(positionId) & ~hitLo, ShipPlacements.occHi(positionId) & ~hitHi);
+                }
+                accepted++;
+            }
+        }
+
+        return accepted;
+    }
+
+    /**
+     * Один образец в chosen; false, если образец отброшен
+     */
+    private boolean trySample(RandomGenerator random, int[] chosen, int[] candidates) {
+        long occLo = 0, occHi = 0;
+        int usedSlots = 0;
+        long uncoveredLo = openLo, uncoveredHi = openHi;
+
+        // 1. Накрываем недобитые попадания
+        while ((uncoveredLo | uncoveredHi) != 0) {
+            int cell = uncoveredLo != 0
+                ? Long.numberOfTrailingZeros(uncoveredLo)
+                : 64 + Long.numberOfTrailingZeros(uncoveredHi);
+
+            int count = 0;
+            for (int positionId : COVERING[cell]) {
+                if (freeSlot(ShipPlacements.length(positionId), usedSlots) >= 0
+                        && valid(positionId, occLo, occHi)) {
+                    candidates[count++] = positionId;
+                }
+            }
+            if (count == 0) {
+                return false;
+            }
+
+            int positionId = candidates[random.nextInt(count)];
+            int slot = freeSlot(ShipPlacements.length(positionId), usedSlots);
+            usedSlots |= 1 << slot;
+            chosen[slot] = positionId;
+            occLo |= ShipPlacements.occLo(positionId);
+            occHi |= ShipPlacements.occHi(positionId);
+            uncoveredLo &= ~occLo;
+            uncoveredHi &= ~occHi;
+        }
+
+        // 2. Остальные корабли - в случайную из допустимых позиций
+        for (int slot = 0; slot < lengths.length; slot++) {
+            if ((usedSlots & (1 << slot)) != 0) {
+                continue;
+            }
+            int count = 0;
+            for (int id = ShipPlacements.firstId(lengths[slot]); id < ShipPlacements.endId(lengths[slot]); id++) {
+                if (valid(id, occLo, occHi)) {
+                    candidates[count++] = id;
+                }
+            }
+            if (count == 0) {
+                return false;
+            }
+            int positionId = candidates[random.nextInt(count)];
+            chosen[slot] = positionId;
+            occLo |= ShipPlacements.occLo(positionId);
+            occHi |= ShipPlacements.occHi(positionId);
+        }
+
+        return true;
+    }
+
+    private boolean valid(int positionId, long occLo, long occHi) {
+        long shipLo = ShipPlacements.occLo(positionId);
+        long shipHi = ShipPlacements.occHi(positionId);
+        if ((shipLo & blockedLo) != 0 || (shipHi & blockedHi) != 0) {
+            return false;
+        }
+        // Недобитое попадание рядом с кораблём, но не в нём
+        if ((ShipPlacements.haloLo(positionId) & ~shipLo & openLo) != 0
+                || (ShipPlacements.haloHi(positionId) & ~shipHi & openHi) != 0) {
+            return false;
+        }
+        return ShipPlacements.fits(positionId, occLo, occHi);
+    }
+
+    /**
+     * Первый свободный слот корабля заданной длины, -1 если таких нет
+     */
+    private int freeSlot(int length, int usedSlots) {
+        for (int slot = 0; slot < lengths.length; slot++) {
+            if (lengths[slot] == length && (usedSlots & (1 << slot)) == 0) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private static void addCells(int[] counts, long lo, long hi) {
+        while (lo != 0) {
+            counts[Long.numberOfTrailingZeros(lo)]++;
+            lo &= lo - 1;
+        }
+        while (hi != 0) {
+            counts[64 + Long.numberOfTrailingZeros(hi)]++;
+            hi &= hi - 1;
+        }
+    }
+
+    private static int[] remainingLengths(int signature) {
+        int total = 0;
+        for (int length = 1; length <= ShipPlacements.MAX_LENGTH; length++) {
+            total += ShipPlacements.countInSignature(signature, length);
+        }
+        int[] result = new int[total];
+        int next = 0;
+        for (int length = ShipPlacements.MAX_LENGTH; length >= 1; length--) {
+            for (int i = 0; i < ShipPlacements.countInSignature(signature, length); i++) {
+                result[next++] = length;
+            }
+        }
+        return result;
+    }
+
+    private static int[][] covering() {
+        int[] sizes = new int[BoardBits.CELLS];
+        for (int id = 0; id < ShipPlacements.totalPositions(); id++) {
+            for (int cell = 0; cell < BoardBits.CELLS; cell++) {
+                if (BoardBits.test(ShipPlacements.occLo(id), ShipPlacements.occHi(id), cell)) {
+                    sizes[cell]++;
+                }
+            }
+        }
+        int[][] result = new int[BoardBits.CELLS][];
+        for (int cell = 0; cell < BoardBits.CELLS; cell++) {
+            result[cell] = new int[sizes[cell]];
+            sizes[cell] = 0;
+        }
+        for (int id = 0; id < ShipPlacements.totalPositions(); id++) {
+            for (int cell = 0; cell < BoardBits.CELLS; cell++) {
+                if (BoardBits.test(ShipPlacements.occLo(id), ShipPlacements.occHi(id), cell)) {
+                    result[cell][sizes[cell]++] = id;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static int maxPositions() {
+        int max = 0;
+        for (int length = 1; length <= ShipPlacements.MAX_LENGTH; length++) {
+            max = Math.max(max, ShipPlacements.endId(length) - ShipPlacements.firstId(length));
+        }
+        return max;
+    }
+
+    private static int maxCovering() {
+        int max = 0;
+        for (int[] ids : COVERING) {
+            max = Math.max(max, ids.length);
+        }
+        return max;
+    }
+}
@@ -0,0 +1,30 @@
+// back\src\main\java\com\seabattle\sea_battle\model\FleetStatus.java
+package com.seabattle.sea_battle.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import lombok.Getter;
+
+/**
+ * Снимок состояния флота: сколько клеток и кораблей каждой длины ещё на плаву
+ */
+@Getter
+public class FleetStatus {
+    private final int remainingShipCells;
+    private final int remainingShips;
+    private final Map<Integer, Integer> remainingByLength;
+
+    public FleetStatus(int remainingShipCells, int remainingSignature) {
+        this.remainingShipCells = remainingShipCells;
+        this.remainingByLength = new LinkedHashMap<>();
+
+        int ships = 0;
+        for (int length = ShipPlacements.MAX_LENGTH; length >= 1; length--) {
+            int count = ShipPlacements.countInSignature(remainingSignature, length);
+            remainingByLength.put(length, count);
+            ships += count;
+        }
+        this.remainingShips = ships;
+    }
+}
@@ -1,14 +1,16 @@
 // back\src\main\java\com\seabattle\sea_battle\model\GameSession.java
 package com.seabattle.sea_battle.model;
 
-import com.seabattle.sea_battle.model.enums.CellStatus;
+import com.seabattle.sea_battle.model.enums.AiDifficulty;
 import com.seabattle.sea_battle.model.enums.GameStatus;
 import com.seabattle.sea_battle.model.enums.GameType;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Getter;
 import lombok.Setter;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Setter
 @Getter
@@ -26,6 +28,27 @@ public class GameSession {
     private String currentTurn; // username игрока, чей сейчас ход
     private boolean player1Ready;
     private boolean player2Ready;
+    private AiDifficulty aiDifficulty = AiDifficulty.EASY; // уровень AI для PVE
+    @JsonIgnore
+    private AiMemory aiMemory; // память AI о доске игрока (создаётся при первом ходе AI)
+    
+    // Версия состояния сессии (статус, ход, готовность); версии досок учитываются в getVersion
+    private volatile long stateVersion;
+    
+    // Порядковый номер последнего события BOARD_DELTA в сессии
+    private final AtomicLong boardSequence = new AtomicLong();
+    
+    // Подписчик на смену статуса (реестр сессий ведёт по нему индексы и счётчики)
+    @JsonIgnore
+    private StatusListener statusListener;
+    
+    // Время последнего обращения к сессии через реестр (по нему простаивающие сессии усыпляются)
+    @JsonIgnore
+    private volatile long lastAccessMillis = System.currentTimeMillis();
+    
+    // Копия усыплена (ставится под блокировкой сессии): изменения в ней теряются, нужна разбуженная
+    @JsonIgnore
+    private volatile boolean hibernated;
     
     public GameSession(Player player1, GameType gameType) {
         this.sessionId = UUID.randomUUID();
@@ -41,6 +64,14 @@ public class GameSession {
     
     // Метод для подключения второго игрока
     public void connectSecondPlayer(Player player2) {
+        connectSecondPlayer(player2, null);
+    }
+    
+    /**
+     * Подключение второго игрока; для AI можно передать готовую расстановку флота
+     * (null - сгенерировать на месте)
+     */
+    public void connectSecondPlayer(Player player2, FleetLayout aiFleet) {
         if (this.player2 != null) {
             throw new IllegalStateException("Second player already connected");
         }
@@ -50,14 +81,19 @@ public class GameSession {
         
         if (gameType == GameType.PVE && player2.isAI()) {
             // Для PVE начинаем сразу, если второй игрок - AI
-            this.status = GameStatus.PLACING_SHIPS;
+            setStatus(GameStatus.PLACING_SHIPS);
             // AI автоматически расставляет корабли
-            player2Board.placeShipsAutomatically();
+            if (aiFleet != null) {
+                player2Board.applyLayout(aiFleet);
+            } else {
+                player2Board.placeShipsAutomatically();
+            }
             player2Ready = true;
         } else if (gameType == GameType.PVP && !player2.isAI()) {
             // Для PVP начинаем когда подключился реальный игрок
-            this.status = GameStatus.PLACING_SHIPS;
+            setStatus(GameStatus.PLACING_SHIPS);
         }
+        stateVersion++;
     }
     
     /**
@@ -72,9 +108,10 @@ public class GameSession {
         
         // Если оба игрока готовы, начинаем игру
         if (player1Ready && player2Ready) {
-            status = GameStatus.IN_PROGRESS;
+            setStatus(GameStatus.IN_PROGRESS);
             startedAt = LocalDateTime.now();
         }
+        stateVersion++;
     }
     
     /**
@@ -98,9 +135,7 @@ public class GameSession {
         }
         
         // Проверяем, не стреляли ли уже в эту клетку
-        Cell targetCell = targetBoard.getCells()[x][y];
-        if (targetCell.getStatus() == CellStatus.HIT || 
-            targetCell.getStatus() == CellStatus.MISS) {
+        if (targetBoard.isShotAt(x, y)) {
             throw new IllegalStateException("Already fired at this cell");
         }
         
@@ -110,9 +145,7 @@ public class GameSession {
         
         if (hit) {
             // Проверяем, потоплен ли корабль
-            if (targetCell.getShip() != null && targetCell.getShip().isSunk()) {
-                sunk = true;
-            }
+            sunk = targetBoard.getLastSunkShip() != null;
             // Проверяем конец игры
             if (targetBoard.allShipsSunk()) {
                 gameOver = true;
@@ -125,7 +158,8 @@ public class GameSession {
             switchTurn();
         }
         
-        return new FireResult(hit, sunk, gameOver, x, y);
+        return new FireResult(hit, sunk, gameOver, x, y,
+                targetBoard.getLastSunkShip(), targetBoard.getFleetStatus());
     }
     
     /**
@@ -144,6 +178,82 @@ public class GameSession {
         } else {
             currentTurn = player1.getUsername();
         }
+        stateVersion++;
+    }
+    
+    /**
+     * Версия сессии: монотонно растёт при любом изменении состояния или досок
+     */
+    public long getVersion() {
+        long version = stateVersion + player1Board.getVersion();
+        Board board2 = player2Board;
+        return board2 != null ? version + board2.getVersion() : version;
+    }
+    
+    /**
+     * Номер последнего отправленного изменения досок (для ресинхронизации клиентов)
+     */
+    public long getBoardSequence() {
+        return boardSequence.get();
+    }
+    
+    /**
+     * Следующий номер изменения досок
+     */
+    public long nextBoardSequence() {
+        return boardSequence.incrementAndGet();
+    }
+    
+    /**
+     * Номер изменения досок при восстановлении сессии из компактной записи
+     */
+    void restoreBoardSequence(long sequence) {
+        boardSequence.set(sequence);
+    }
+    
+    /**
+     * Отметка обращения к сессии
+     */
+    public void touch() {
+        lastAccessMillis = System.currentTimeMillis();
+    }
+    
+    /**
+     * Смена статуса; все переходы идут через этот метод и сообщаются statusListener
+     */
+    public void setStatus(GameStatus status) {
+        GameStatus previous = this.status;
+        this.status = status;
+        stateVersion++;
+        StatusListener listener = statusListener;
+        if (listener != null && previous != status) {
+            listener.onStatusChange(this, previous, status);
+        }
+    }
+    
+    public void setCurrentTurn(String currentTurn) {
+        this.currentTurn = currentTurn;
+        stateVersion++;
+    }
+    
+    public void setPlayer1Ready(boolean player1Ready) {
+        this.player1Ready = player1Ready;
+        stateVersion++;
+    }
+    
+    public void setPlayer2Ready(boolean player2Ready) {
+        this.player2Ready = player2Ready;
+        stateVersion++;
+    }
+    
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+        stateVersion++;
+    }
+    
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+        stateVersion++;
     }
     
     /**
@@ -181,7 +291,7 @@ public class GameSession {
 
     // Метод для завершения игры
     public Game finishGame(GameStatus finalStatus) {
-        this.status = finalStatus;
+        setStatus(finalStatus);
         Game game = new Game(
             getPlayer1().getUsername(),
             getPlayer2() != null ? getPlayer2().getUsername() : null,
@@ -194,6 +304,14 @@ public class GameSession {
         return game;
     }
     
+    /**
+     * Подписчик на смену статуса сессии (вызывается в потоке, меняющем статус)
+     */
+    @FunctionalInterface
+    public interface StatusListener {
+        void onStatusChange(GameSession session, GameStatus previous, GameStatus current);
+    }
+    
     /**
      * Внутренний класс для результата выстрела
      */
@@ -204,12 +322,20 @@ public class GameSession {
         private final boolean gameOver;
         private final int x;
         private final int y;
+        private final Ship sunkShip;           // потопленный корабль (если sunk)
+        private final FleetStatus fleetStatus; // флот цели после выстрела
         public FireResult(boolean hit, boolean sunk, boolean gameOver, int x, int y) {
+            this(hit, sunk, gameOver, x, y, null, null);
+        }
+        public FireResult(boolean hit, boolean sunk, boolean gameOver, int x, int y,
+                          Ship sunkShip, FleetStatus fleetStatus) {
             this.hit = hit;
             this.sunk = sunk;
             this.gameOver = gameOver;
             this.x = x;
             this.y = y;
+            this.sunkShip = sunkShip;
+            this.fleetStatus = fleetStatus;
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,272 @@
+// back\src\main\java\com\seabattle\sea_battle\model\SessionCodec.java
+package com.seabattle.sea_battle.model;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+import com.seabattle.sea_battle.model.enums.AiDifficulty;
+import com.seabattle.sea_battle.model.enums.GameStatus;
+import com.seabattle.sea_battle.model.enums.GameType;
+
+/**
+ * Компактная двоичная запись сессии (около 150 байт вместо двух графов Board) для усыпления
+ * простаивающих сессий. Доска - расстановка флота ({@link FleetLayout}, 2 long), плоскость
+ * простреленных клеток (2 long) и версия; попадания, потопленные корабли и счётчики флота
+ * пересчитываются при чтении. Память AI не пишется - она строится заново по доске при следующем
+ * ходе AI. Перечисления пишутся по ordinal: запись живёт в пределах одного запуска.
+ *
+ * Вторая форма - запись фиксированного размера {@link #RECORD_BYTES} по смещению в чужом буфере
+ * (для хранилищ вне heap): имена игроков заменены номерами из словаря вызывающего,
+ * ID сессии - в первых 16 байтах, чтобы хранилище сравнивало ключ без разбора записи.
+ * Раскладка: ID (16), создание, старт, версия состояния, счётчик досок (по 8), номера имён (2 x 4),
+ * тип, статус, сложность, флаги (по байту), резерв (4), две доски по 40 байт.
+ */
+public final class SessionCodec {
+
+    private static final byte FORMAT = 1;
+    private static final int NO_DIFFICULTY = 0xFF;
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    private static final int PLAYER1_READY = 1;
+    private static final int PLAYER2_READY = 1 << 1;
+    private static final int HAS_PLAYER2 = 1 << 2;
+    private static final int PLAYER2_AI = 1 << 3;
+    private static final int PLAYER2_TURN = 1 << 4;
+    private static final int PLAYER1_PLACED = 1 << 5;
+    private static final int PLAYER2_PLACED = 1 << 6;
+
+    // Флаг флота, флот, выстрелы, версия
+    private static final int BOARD_BYTES = 1 + 16 + 16 + 8;
+
+    // Запись фиксированного размера: флот, выстрелы, версия - по 8 байт на long
+    private static final int RECORD_BOARD_BYTES = 40;
+    private static final int RECORD_BOARD1 = 64;
+    private static final int RECORD_BOARD2 = RECORD_BOARD1 + RECORD_BOARD_BYTES;
+    public static final int RECORD_BYTES = RECORD_BOARD2 + RECORD_BOARD_BYTES;
+    /** Номер имени для отсутствующего второго игрока */
+    public static final int NO_NAME = -1;
+
+    private SessionCodec() {
+    }
+
+    public static byte[] encode(GameSession session) {
+        byte[] player1 = utf8(session.getPlayer1().getUsername());
+        Player player2 = session.getPlayer2();
+        byte[] player2Name = player2 != null ? utf8(player2.getUsername()) : new byte[0];
+
+        int flags = (session.isPlayer1Ready() ? PLAYER1_READY : 0)
+            | (session.isPlayer2Ready() ? PLAYER2_READY : 0)
+            | (player2 != null ? HAS_PLAYER2 : 0)
+            | (player2 != null && player2.isAI() ? PLAYER2_AI : 0);
+
+        ByteBuffer out = ByteBuffer.allocate(1 + 16 + 5 + 8 * 4 + 2 + player1.length + 2 + player2Name.length
+            + BOARD_BYTES * 2);
+        out.put(FORMAT);
+        out.putLong(session.getSessionId().getMostSignificantBits());
+        out.putLong(session.getSessionId().getLeastSignificantBits());
+        out.put((byte) session.getGameType().ordinal());
+        out.put((byte) session.getStatus().ordinal());
+        out.put((byte) (session.getAiDifficulty() != null ? session.getAiDifficulty().ordinal() : NO_DIFFICULTY));
+        out.put((byte) flags);
+        out.put((byte) (session.getCurrentTurn().equals(session.getPlayer1().getUsername()) ? 1 : 2));
+        out.putLong(time(session.getCreatedAt()));
+        out.putLong(time(session.getStartedAt()));
+        out.putLong(session.getStateVersion());
+        out.putLong(session.getBoardSequence());
+        putString(out, player1);
+        putString(out, player2Name);
+        putBoard(out, session.getPlayer1Board());
+        if (player2 != null) {
+            putBoard(out, session.getPlayer2Board());
+        }
+        return out.position() == out.capacity() ? out.array() : Arrays.copyOf(out.array(), out.position());
+    }
+
+    public static GameSession decode(byte[] data) {
+        ByteBuffer in = ByteBuffer.wrap(data);
+        if (in.get() != FORMAT) {
+            throw new IllegalArgumentException("Unknown session record format");
+        }
+        UUID sessionId = new UUID(in.getLong(), in.getLong());
+        GameType gameType = GameType.values()[in.get()];
+        GameStatus status = GameStatus.values()[in.get()];
+        int difficulty = in.get() & 0xFF;
+        int flags = in.get();
+        int turn = in.get();
+        long createdAt = in.getLong();
+        long startedAt = in.getLong();
+        long stateVersion = in.getLong();
+        long boardSequence = in.getLong();
+        String player1 = getString(in);
+        String player2 = getString(in);
+
+        GameSession session = new GameSession(new Player(player1), gameType);
+        session.setSessionId(sessionId);
+        getBoard(in, session.getPlayer1Board());
+        if ((flags & HAS_PLAYER2) != 0) {
+            session.setPlayer2(new Player(player2, (flags & PLAYER2_AI) != 0));
+            Board board = new Board(player2);
+            getBoard(in, board);
+            session.setPlayer2Board(board);
+        }
+        session.setAiDifficulty(difficulty != NO_DIFFICULTY ? AiDifficulty.values()[difficulty] : null);
+        session.setStatus(status);
+        session.setCurrentTurn(turn == 1 ? player1 : player2);
+        session.setPlayer1Ready((flags & PLAYER1_READY) != 0);
+        session.setPlayer2Ready((flags & PLAYER2_READY) != 0);
+        session.setCreatedAt(time(createdAt));
+        session.setStartedAt(time(startedAt));
+        // Версии - как до записи: ETag клиентов остаются действительными
+        session.setStateVersion(stateVersion);
+        session.restoreBoardSequence(boardSequence);
+        return session;
+    }
+
+    /**
+     * Запись фиксированного размера по смещению offset; names - номер имени в словаре вызывающего
+     */
+    public static void writeRecord(GameSession session, ByteBuffer out, int offset, ToIntFunction<String> names) {
+        Player player2 = session.getPlayer2();
+        FleetLayout layout1 = session.getPlayer1Board().getLayout();
+        FleetLayout layout2 = player2 != null ? session.getPlayer2Board().getLayout() : null;
+        int flags = (session.isPlayer1Ready() ? PLAYER1_READY : 0)
+            | (session.isPlayer2Ready() ? PLAYER2_READY : 0)
+            | (player2 != null ? HAS_PLAYER2 : 0)
+            | (player2 != null && player2.isAI() ? PLAYER2_AI : 0)
+            | (session.getCurrentTurn().equals(session.getPlayer1().getUsername()) ? 0 : PLAYER2_TURN)
+            | (layout1 != null ? PLAYER1_PLACED : 0)
+            | (layout2 != null ? PLAYER2_PLACED : 0);
+
+        out.putLong(offset, session.getSessionId().getMostSignificantBits());
+        out.putLong(offset + 8, session.getSessionId().getLeastSignificantBits());
+        out.putLong(offset + 16, time(session.getCreatedAt()));
+        out.putLong(offset + 24, time(session.getStartedAt()));
+        out.putLong(offset + 32, session.getStateVersion());
+        out.putLong(offset + 40, session.getBoardSequence());
+        out.putInt(offset + 48, names.applyAsInt(session.getPlayer1().getUsername()));
+        out.putInt(offset + 52, player2 != null ? names.applyAsInt(player2.getUsername()) : NO_NAME);
+        out.put(offset + 56, (byte) session.getGameType().ordinal());
+        out.put(offset + 57, (byte) session.getStatus().ordinal());
+        out.put(offset + 58,
+            (byte) (session.getAiDifficulty() != null ? session.getAiDifficulty().ordinal() : NO_DIFFICULTY));
+        out.put(offset + 59, (byte) flags);
+        out.putInt(offset + 60, 0);
+        putRecordBoard(out, offset + RECORD_BOARD1, session.getPlayer1Board(), layout1);
+        if (player2 != null) {
+            putRecordBoard(out, offset + RECORD_BOARD2, session.getPlayer2Board(), layout2);
+        }
+    }
+
+    /**
+     * Сессия из записи фиксированного размера; names - имя по номеру из словаря вызывающего
+     */
+    public static GameSession readRecord(ByteBuffer in, int offset, IntFunction<String> names) {
+        int flags = in.get(offset + 59);
+        String player1 = names.apply(in.getInt(offset + 48));
+        String player2 = (flags & HAS_PLAYER2) != 0 ? names.apply(in.getInt(offset + 52)) : null;
+        int difficulty = in.get(offset + 58) & 0xFF;
+
+        GameSession session = new GameSession(new Player(player1), GameType.values()[in.get(offset + 56)]);
+        session.setSessionId(recordId(in, offset));
+        getRecordBoard(in, offset + RECORD_BOARD1, session.getPlayer1Board(), (flags & PLAYER1_PLACED) != 0);
+        if (player2 != null) {
+            session.setPlayer2(new Player(player2, (flags & PLAYER2_AI) != 0));
+            Board board = new Board(player2);
+            getRecordBoard(in, offset + RECORD_BOARD2, board, (flags & PLAYER2_PLACED) != 0);
+            session.setPlayer2Board(board);
+        }
+        session.setAiDifficulty(difficulty != NO_DIFFICULTY ? AiDifficulty.values()[difficulty] : null);
+        session.setStatus(GameStatus.values()[in.get(offset + 57)]);
+        session.setCurrentTurn((flags & PLAYER2_TURN) != 0 ? player2 : player1);
+        session.setPlayer1Ready((flags & PLAYER1_READY) != 0);
+        session.setPlayer2Ready((flags & PLAYER2_READY) != 0);
+        session.setCreatedAt(time(in.getLong(offset + 16)));
+        session.setStartedAt(time(in.getLong(offset + 24)));
+        session.setStateVersion(in.getLong(offset + 32));
+        session.restoreBoardSequence(in.getLong(offset + 40));
+        return session;
+    }
+
+    /**
+     * ID сессии записи фиксированного размера
+     */
+    public static UUID recordId(ByteBuffer in, int offset) {
+        return new UUID(in.getLong(offset), in.getLong(offset + 8));
+    }
+
+    /**
+     * Номера имён игроков записи фиксированного размера (второй - {@link #NO_NAME}, если его нет)
+     */
+    public static int recordPlayer1(ByteBuffer in, int offset) {
+        return in.getInt(offset + 48);
+    }
+
+    public static int recordPlayer2(ByteBuffer in, int offset) {
+        return (in.get(offset + 59) & HAS_PLAYER2) != 0 ? in.getInt(offset + 52) : NO_NAME;
+    }
+
+    private static void putRecordBoard(ByteBuffer out, int offset, Board board, FleetLayout layout) {
+        out.putLong(offset, layout != null ? layout.getLo() : 0);
+        out.putLong(offset + 8, layout != null ? layout.getHi() : 0);
+        out.putLong(offset + 16, board.getShotsLo());
+        out.putLong(offset + 24, board.getShotsHi());
+        out.putLong(offset + 32, board.getVersion());
+    }
+
+    private static void getRecordBoard(ByteBuffer in, int offset, Board board, boolean placed) {
+        FleetLayout layout = placed ? new FleetLayout(in.getLong(offset), in.getLong(offset + 8)) : null;
+        board.restore(layout, in.getLong(offset + 16), in.getLong(offset + 24), in.getLong(offset + 32));
+    }
+
+    private static void putBoard(ByteBuffer out, Board board) {
+        FleetLayout layout = board.getLayout();
+        out.put((byte) (layout != null ? 1 : 0));
+        out.putLong(layout != null ? layout.getLo() : 0);
+        out.putLong(layout != null ? layout.getHi() : 0);
+        out.putLong(board.getShotsLo());
+        out.putLong(board.getShotsHi());
+        out.putLong(board.getVersion());
+    }
+
+    private static void getBoard(ByteBuffer in, Board board) {
+        boolean placed = in.get() != 0;
+        FleetLayout layout = new FleetLayout(in.getLong(), in.getLong());
+        board.restore(placed ? layout : null, in.getLong(), in.getLong(), in.getLong());
+    }
+
+    private static long time(LocalDateTime time) {
+        if (time == null) {
+            return NO_TIME;
+        }
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + time.getNano();
+    }
+
+    private static LocalDateTime time(long nanos) {
+        if (nanos == NO_TIME) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L),
+            (int) Math.floorMod(nanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void putString(ByteBuffer out, byte[] value) {
+        out.putShort((short) value.length);
+        out.put(value);
+    }
+
+    private static String getString(ByteBuffer in) {
+        byte[] value = new byte[in.getShort() & 0xFFFF];
+        in.get(value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,209 @@
+// back\src\main\java\com\seabattle\sea_battle\model\ShipPlacements.java
+package com.seabattle.sea_battle.model;
+
+import java.util.Arrays;
+
+/**
+ * Статическая таблица всех допустимых позиций кораблей.
+ * Для каждой позиции хранится маска занятых клеток и маска "ореола"
+ * (сами клетки + все соседние, включая диагональные). Корабль можно поставить,
+ * если его ореол не пересекается с уже занятыми клетками.
+ * Однопалубные корабли хранятся только в горизонтальной ориентации.
+ */
+public final class ShipPlacements {
+    public static final int MAX_LENGTH = 4;
+
+    /** Порядок расстановки флота: 1x4, 2x3, 3x2, 4x1 */
+    private static final int[] FLEET = {4, 3, 3, 2, 2, 2, 1, 1, 1, 1};
+
+    /** Количество кораблей каждой длины, упакованное по 4 бита на длину */
+    public static final int FLEET_SIGNATURE = signature(FLEET);
+
+    public static final int FLEET_CELLS = 20;
+
+    private static final int SIZE = BoardBits.SIZE;
+
+    // Диапазон идентификаторов позиций для каждой длины: [first[len], first[len + 1])
+    private static final int[] FIRST = new int[MAX_LENGTH + 2];
+
+    private static final long[] OCC_LO;
+    private static final long[] OCC_HI;
+    private static final long[] HALO_LO;
+    private static final long[] HALO_HI;
+    private static final byte[] LENGTH;
+    private static final byte[] X;
+    private static final byte[] Y;
+    private static final boolean[] HORIZONTAL;
+
+    // Поиск идентификатора по (длина, ориентация, x, y), -1 если позиция недопустима
+    private static final short[] ID_BY_KEY = new short[(MAX_LENGTH + 1) * 2 * BoardBits.CELLS];
+
+    static {
+        int total = 0;
+        for (int length = 1; length <= MAX_LENGTH; length++) {
+            FIRST[length] = total;
+            total += countFor(length);
+        }
+        FIRST[MAX_LENGTH + 1] = total;
+
+        OCC_LO = new long[total];
+        OCC_HI = new long[total];
+        HALO_LO = new long[total];
+        HALO_HI = new long[total];
+        LENGTH = new byte[total];
+        X = new byte[total];
+        Y = new byte[total];
+        HORIZONTAL = new boolean[total];
+        Arrays.fill(ID_BY_KEY, (short) -1);
+
+        int id = 0;
+        for (int length = 1; length <= MAX_LENGTH; length++) {
+            for (int orientation = 0; orientation < (length == 1 ? 1 : 2); orientation++) {
+                boolean horizontal = orientation == 0;
+                int maxX = horizontal ? SIZE - length : SIZE - 1;
+                int maxY = horizontal ? SIZE - 1 : SIZE - length;
+                for (int x = 0; x <= maxX; x++) {
+                    for (int y = 0; y <= maxY; y++) {
+                        fill(id, length, horizontal, x, y);
+                        ID_BY_KEY[key(length, horizontal, x, y)] = (short) id;
+                        if (length == 1) {
+                            ID_BY_KEY[key(length, false, x, y)] = (short) id;
+                        }
+                        id++;
+                    }
+                }
+            }
+        }
+    }
+
+    private ShipPlacements() {}
+
+    private static int countFor(int length) {
+        int perOrientation = (SIZE - length + 1) * SIZE;
+        return length == 1 ? perOrientation : perOrientation * 2;
+    }
+
+    private static void fill(int id, int length, boolean horizontal, int x, int y) {
+        long occLo = 0, occHi = 0, haloLo = 0, haloHi = 0;
+        for (int i = 0; i < length; i++) {
+            int cellX = horizontal ? x + i : x;
+            int cellY = horizontal ? y : y + i;
+            int index = BoardBits.index(cellX, cellY);
+            occLo |= BoardBits.lo(index);
+            occHi |= BoardBits.hi(index);
+
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dy = -1; dy <= 1; dy++) {
+                    if (BoardBits.inBounds(cellX + dx, cellY + dy)) {
+                        int neighbor = BoardBits.index(cellX + dx, cellY + dy);
+                        haloLo |= BoardBits.lo(neighbor);
+                        haloHi |= BoardBits.hi(neighbor);
+                    }
+                }
+            }
+        }
+        OCC_LO[id] = occLo;
+        OCC_HI[id] = occHi;
+        HALO_LO[id] = haloLo;
+        HALO_HI[id] = haloHi;
+        LENGTH[id] = (byte) length;
+        X[id] = (byte) x;
+        Y[id] = (byte) y;
+        HORIZONTAL[id] = horizontal;
+    }
+
+    private static int key(int length, boolean horizontal, int x, int y) {
+        return ((length * 2) + (horizontal ? 0 : 1)) * BoardBits.CELLS + BoardBits.index(x, y);
+    }
+
+    /**
+     * Идентификатор позиции или -1, если корабль выходит за границы поля
+     */
+    public static int positionId(int length, boolean horizontal, int x, int y) {
+        if (length < 1 || length > MAX_LENGTH || !BoardBits.inBounds(x, y)) {
+            return -1;
+        }
+        return ID_BY_KEY[key(length, horizontal, x, y)];
+    }
+
+    /**
+     * Можно ли поставить корабль в позицию при текущей плоскости кораблей
+     */
+    public static boolean fits(int id, long shipLo, long shipHi) {
+        return (HALO_LO[id] & shipLo) == 0 && (HALO_HI[id] & shipHi) == 0;
+    }
+
+    /**
+     * Упаковка количества кораблей по длинам (4 бита на длину)
+     */
+    public static int signatureStep(int length) {
+        return 1 << (length * 4);
+    }
+
+    /**
+     * Количество кораблей длины length в упакованной сигнатуре
+     */
+    public static int countInSignature(int signature, int length) {
+        return (signature >>> (length * 4)) & 0xF;
+    }
+
+    private static int signature(int[] lengths) {
+        int result = 0;
+        for (int length : lengths) {
+            result += signatureStep(length);
+        }
+        return result;
+    }
+
+    public static int fleetSize() {
+        return FLEET.length;
+    }
+
+    public static int fleetLength(int slot) {
+        return FLEET[slot];
+    }
+
+    public static int firstId(int length) {
+        return FIRST[length];
+    }
+
+    public static int endId(int length) {
+        return FIRST[length + 1];
+    }
+
+    public static int totalPositions() {
+        return FIRST[MAX_LENGTH + 1];
+    }
+
+    public static long occLo(int id) {
+        return OCC_LO[id];
+    }
+
+    public static long occHi(int id) {
+        return OCC_HI[id];
+    }
+
+    public static long haloLo(int id) {
+        return HALO_LO[id];
+    }
+
+    public static long haloHi(int id) {
+        return HALO_HI[id];
+    }
+
+    public static int length(int id) {
+        return LENGTH[id];
+    }
+
+    public static int x(int id) {
+        return X[id];
+    }
+
+    public static int y(int id) {
+        return Y[id];
+    }
+
+    public static boolean horizontal(int id) {
+        return HORIZONTAL[id];
+    }
+}
@@ -0,0 +1,11 @@
+// back\src\main\java\com\seabattle\sea_battle\model\enums\AiDifficulty.java
+package com.seabattle.sea_battle.model.enums;
+
+/**
+ * Уровень AI в PVE игре
+ */
+public enum AiDifficulty {
+    EASY,   // случайные выстрелы, после попадания - соседние клетки
+    MEDIUM, // плотность вероятности по оставшимся кораблям
+    HARD    // Монте-Карло по совместимым расстановкам, с бюджетом времени на ход
+}
\ No newline at end of file
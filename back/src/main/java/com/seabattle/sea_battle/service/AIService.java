@@ -1,17 +1,18 @@
 // back\src\main\java\com\seabattle\sea_battle\service\AIService.java
 package com.seabattle.sea_battle.service;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 import org.springframework.stereotype.Service;
 
+import com.seabattle.sea_battle.model.AiMemory;
 import com.seabattle.sea_battle.model.Board;
-import com.seabattle.sea_battle.model.Cell;
+import com.seabattle.sea_battle.model.BoardBits;
 import com.seabattle.sea_battle.model.GameSession;
 import com.seabattle.sea_battle.model.Player;
-import com.seabattle.sea_battle.model.enums.CellStatus;
+import com.seabattle.sea_battle.model.enums.AiDifficulty;
 
 import lombok.Getter;
 
@@ -20,80 +21,95 @@ import lombok.Getter;
 @Service
 public class AIService {
     
-    private final Player AI = new Player("AI_Player", true);
+    private final AiStrategyRegistry strategyRegistry;
+    private final AiSpeculation speculation;
+    
+    public AIService(AiStrategyRegistry strategyRegistry, AiSpeculation speculation) {
+        this.strategyRegistry = strategyRegistry;
+        this.speculation = speculation;
+    }
+    
+    /**
+     * Новый AI игрок для сессии (имя показывает уровень)
+     */
+    public Player createAIPlayer(AiDifficulty difficulty) {
+        return new Player("AI_" + difficulty.name(), true);
+    }
     
     /**
-     * AI делает ход
+     * AI делает ход (вызывать под блокировкой сессии)
      */
     public GameSession.FireResult makeAIMove(GameSession session) {
+        int[] target = chooseAIMove(session);
+        return target != null ? applyAIMove(session, target) : null;
+    }
+    
+    /**
+     * Выбор выстрела AI - дорогая часть хода; доска человека в ход AI не меняется,
+     * поэтому выбор можно делать вне очереди команд сессии. null - не AI или стрелять некуда
+     */
+    public int[] chooseAIMove(GameSession session) {
         if (!session.getPlayer2().isAI()) {
             return null; // Не AI игрок
         }
         
-        // Простая логика AI: сначала случайные выстрелы, после попадания - вокруг
-        Board opponentBoard = session.getOpponentBoard(session.getPlayer2().getUsername());
-        int[] target = findTarget(opponentBoard);
-        
-        if (target != null) {
-            GameSession.FireResult result = session.fireAtOpponent(session.getPlayer2().getUsername(), target[0], target[1]);
-            return result;
+        String aiName = session.getPlayer2().getUsername();
+        Board opponentBoard = session.getOpponentBoard(aiName);
+        AiMemory memory = session.getAiMemory();
+        if (memory == null) {
+            memory = new AiMemory();
+            session.setAiMemory(memory);
         }
-        return null;
+        
+        // Ход, посчитанный заранее, пока думал игрок (только первый выстрел хода AI)
+        int speculative = speculation.take(session.getSessionId(), opponentBoard);
+        return speculative >= 0
+            ? new int[]{BoardBits.x(speculative), BoardBits.y(speculative)}
+            : chooseTarget(opponentBoard, memory, session.getAiDifficulty(), ThreadLocalRandom.current());
     }
     
-    private int[] findTarget(Board board) {
-        Cell[][] cells = board.getCells();
-        List<int[]> possibleTargets = new ArrayList<>();
-        
-        // Сначала ищем клетки для "умного" выстрела (вокруг попаданий)
-        List<int[]> hitCells = new ArrayList<>();
-        
-        for (int x = 0; x < cells.length; x++) {
-            for (int y = 0; y < cells[x].length; y++) {
-                if (cells[x][y].getStatus() == CellStatus.HIT) {
-                    hitCells.add(new int[]{x, y});
-                }
-            }
-        }
-        
-        // Если есть попадания, ищем клетки вокруг них
-        for (int[] hit : hitCells) {
-            int x = hit[0];
-            int y = hit[1];
-            
-            // Проверяем соседние клетки
-            addPossibleTarget(possibleTargets, cells, x-1, y);
-            addPossibleTarget(possibleTargets, cells, x+1, y);
-            addPossibleTarget(possibleTargets, cells, x, y-1);
-            addPossibleTarget(possibleTargets, cells, x, y+1);
-        }
-        
-        // Если есть возможные цели для "умного" выстрела
-        if (!possibleTargets.isEmpty()) {
-            return possibleTargets.get(new Random().nextInt(possibleTargets.size()));
-        }
-        
-        // Иначе случайный выстрел
-        for (int x = 0; x < cells.length; x++) {
-            for (int y = 0; y < cells[x].length; y++) {
-                if (cells[x][y].getStatus() == CellStatus.EMPTY) {
-                    possibleTargets.add(new int[]{x, y});
-                }
-            }
-        }
-        
-        if (!possibleTargets.isEmpty()) {
-            return possibleTargets.get(new Random().nextInt(possibleTargets.size()));
-        }
-        
-        return null;
+    /**
+     * Выстрел AI в выбранную клетку и учёт результата в памяти AI
+     */
+    public GameSession.FireResult applyAIMove(GameSession session, int[] target) {
+        String aiName = session.getPlayer2().getUsername();
+        Board opponentBoard = session.getOpponentBoard(aiName);
+        GameSession.FireResult result = session.fireAtOpponent(aiName, target[0], target[1]);
+        session.getAiMemory().record(result, opponentBoard);
+        return result;
     }
     
-    private void addPossibleTarget(List<int[]> targets, Cell[][] cells, int x, int y) {
-        if (x >= 0 && x < cells.length && y >= 0 && y < cells[0].length) {
-            if (cells[x][y].getStatus() == CellStatus.EMPTY) {
-                targets.add(new int[]{x, y});
-            }
+    /**
+     * Начало хода человека в PVE: запуск предварительного расчёта следующего хода AI
+     */
+    public void startSpeculation(GameSession session) {
+        if (session.getPlayer2() == null || !session.getPlayer2().isAI()) {
+            return;
         }
+        speculation.start(session.getSessionId(), session.getPlayer1Board(), session.getAiDifficulty());
+    }
+    
+    /**
+     * Конец игры: предварительный расчёт больше не нужен
+     */
+    public void cancelSpeculation(UUID sessionId) {
+        speculation.cancel(sessionId);
+    }
+    
+    /**
+     * Клетка {x, y} для выстрела AI заданного уровня, null если стрелять некуда
+     */
+    public int[] chooseTarget(Board board, AiDifficulty difficulty, RandomGenerator random) {
+        int index = strategyRegistry.get(difficulty).chooseTarget(board, random);
+        return index >= 0 ? new int[]{BoardBits.x(index), BoardBits.y(index)} : null;
+    }
+    
+    /**
+     * То же с памятью AI; после выстрела результат нужно передать в {@link AiMemory#record}
+     */
+    public int[] chooseTarget(Board board, AiMemory memory, AiDifficulty difficulty, RandomGenerator random) {
+        memory.sync(board);
+        int index = strategyRegistry.get(difficulty).chooseTarget(board, memory, random);
+        return index >= 0 ? new int[]{BoardBits.x(index), BoardBits.y(index)} : null;
     }
 }
\ No newline at end of file
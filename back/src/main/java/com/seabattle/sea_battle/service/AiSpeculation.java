@@ -0,0 +1,213 @@
+// back\src\main\java\com\seabattle\sea_battle\service\AiSpeculation.java
+package com.seabattle.sea_battle.service;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Component;
+
+import com.seabattle.sea_battle.config.GameProperties;
+import com.seabattle.sea_battle.model.Board;
+import com.seabattle.sea_battle.model.enums.AiDifficulty;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Предварительный расчёт хода AI, пока думает игрок.
+ * Пока ходит человек, его доска не меняется, поэтому первый выстрел следующего хода AI
+ * можно посчитать заранее: расчёт запускается в начале хода человека в фоновом пуле
+ * с низким приоритетом и используется, если доска всё ещё той же версии.
+ * Считаются только дорогие стратегии ({@link AiStrategy#isSpeculative()}).
+ *
+ * Незавершённый к началу хода AI расчёт отменяется, ход считается как обычно.
+ * Метрики: попадания (расчёт использован), устаревшие, опоздавшие, отменённые
+ * по концу игры и потраченное впустую время.
+ */
+@Slf4j
+@Component
+public class AiSpeculation {
+
+    private final AiStrategyRegistry strategyRegistry;
+    private final boolean enabled;
+    private final ThreadPoolExecutor executor;
+
+    // Текущий расчёт по сессии (не больше одного)
+    private final Map<UUID, Speculation> speculations = new ConcurrentHashMap<>();
+
+    private final LongAdder started = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder stale = new LongAdder();
+    private final LongAdder late = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder usedNanos = new LongAdder();
+    private final LongAdder wastedNanos = new LongAdder();
+
+    public AiSpeculation(AiStrategyRegistry strategyRegistry, GameProperties gameProperties) {
+        this.strategyRegistry = strategyRegistry;
+        this.enabled = gameProperties.isAiSpeculationEnabled();
+        int threads = Math.max(1, gameProperties.getAiSpeculationThreads());
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, gameProperties.getAiSpeculationQueueCapacity())), runnable -> {
+                Thread thread = new Thread(runnable, "ai-speculation-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            });
+    }
+
+    /**
+     * Запуск расчёта следующего хода AI по доске человека (в начале хода человека).
+     * Если расчёт для этой версии доски уже идёт, новый не запускается.
+     */
+    public void start(UUID sessionId, Board humanBoard, AiDifficulty difficulty) {
+        if (!enabled || !strategyRegistry.supports(difficulty)) {
+            return;
+        }
+        AiStrategy strategy = strategyRegistry.get(difficulty);
+        if (!strategy.isSpeculative()) {
+            return;
+        }
+
+        long version = humanBoard.getVersion();
+        Speculation current = speculations.get(sessionId);
+        if (current != null && current.boardVersion == version) {
+            return;
+        }
+
+        Speculation speculation = new Speculation(version);
+        speculation.task = new FutureTask<>(() -> {
+            long start = System.nanoTime();
+            try {
+                return strategy.chooseTarget(humanBoard, ThreadLocalRandom.current());
+            } finally {
+                speculation.nanos = System.nanoTime() - start;
+                speculation.finished = true;
+                if (speculation.discarded) {
+                    accountWaste(speculation);
+                }
+            }
+        });
+
+        discard(speculations.put(sessionId, speculation), stale);
+        try {
+            executor.execute(speculation.task);
+            started.increment();
+        } catch (RejectedExecutionException e) {
+            // Очередь заполнена - ход посчитается обычным образом
+            rejected.increment();
+            speculations.remove(sessionId, speculation);
+        }
+    }
+
+    /**
+     * Готовый ход для текущей версии доски человека или -1 (тогда ход считается как обычно).
+     * Расчёт в любом случае снимается с сессии.
+     */
+    public int take(UUID sessionId, Board humanBoard) {
+        Speculation speculation = speculations.remove(sessionId);
+        if (speculation == null) {
+            return -1;
+        }
+        if (speculation.boardVersion != humanBoard.getVersion()) {
+            discard(speculation, stale);
+            return -1;
+        }
+        if (!speculation.task.isDone()) {
+            discard(speculation, late);
+            return -1;
+        }
+
+        try {
+            int target = speculation.task.get();
+            if (target >= 0) {
+                hits.increment();
+                usedNanos.add(speculation.nanos);
+            }
+            return target;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.error("AI speculation failed", e.getCause());
+        }
+        return -1;
+    }
+
+    /**
+     * Отмена расчёта (конец или отмена игры)
+     */
+    public void cancel(UUID sessionId) {
+        discard(speculations.remove(sessionId), cancelled);
+    }
+
+    /**
+     * Метрики для /api/game/status
+     */
+    public Map<String, Object> getStatistics() {
+        long hitCount = hits.sum();
+        long startedCount = started.sum();
+        return Map.of(
+            "enabled", enabled,
+            "started", startedCount,
+            "hits", hitCount,
+            "hitRate", startedCount > 0 ? (double) hitCount / startedCount : 0.0,
+            "stale", stale.sum(),
+            "late", late.sum(),
+            "cancelled", cancelled.sum(),
+            "rejected", rejected.sum(),
+            "usedMs", TimeUnit.NANOSECONDS.toMillis(usedNanos.sum()),
+            "wastedMs", TimeUnit.NANOSECONDS.toMillis(wastedNanos.sum())
+        );
+    }
+
+    /**
+     * Снятие ненужного расчёта: не начатый не выполнится, идущий прерывается;
+     * время уже потраченного расчёта учитывается как потраченное впустую
+     */
+    private void discard(Speculation speculation, LongAdder reason) {
+        if (speculation == null) {
+            return;
+        }
+        reason.increment();
+        speculation.discarded = true;
+        speculation.task.cancel(true);
+        if (speculation.finished) {
+            accountWaste(speculation);
+        }
+    }
+
+    /**
+     * Учёт времени снятого расчёта ровно один раз (его может вызвать и задача, и discard)
+     */
+    private void accountWaste(Speculation speculation) {
+        if (speculation.wasteAccounted.compareAndSet(false, true)) {
+            wastedNanos.add(speculation.nanos);
+        }
+    }
+
+    private static class Speculation {
+        final long boardVersion;
+        final AtomicBoolean wasteAccounted = new AtomicBoolean();
+        FutureTask<Integer> task;
+        volatile long nanos;
+        volatile boolean finished;
+        volatile boolean discarded;
+
+        Speculation(long boardVersion) {
+            this.boardVersion = boardVersion;
+        }
+    }
+}
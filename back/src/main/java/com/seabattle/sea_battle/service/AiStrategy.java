@@ -0,0 +1,44 @@
+// back\src\main\java\com\seabattle\sea_battle\service\AiStrategy.java
+package com.seabattle.sea_battle.service;
+
+import java.util.random.RandomGenerator;
+
+import com.seabattle.sea_battle.model.AiMemory;
+import com.seabattle.sea_battle.model.Board;
+import com.seabattle.sea_battle.model.enums.AiDifficulty;
+
+/**
+ * Стратегия выбора цели для AI.
+ * Реализация - Spring компонент; {@link AiStrategyRegistry} находит все реализации
+ * и выдаёт их по уровню сложности, поэтому новый уровень не требует изменений
+ * в AIService и GamePlayService.
+ */
+public interface AiStrategy {
+
+    /**
+     * Уровень, который обслуживает стратегия (один на уровень)
+     */
+    AiDifficulty getDifficulty();
+
+    /**
+     * Индекс клетки (x * 10 + y) для выстрела по доске противника, -1 если стрелять некуда.
+     * Стратегия видит только то, что видно противнику: попадания, промахи, потопленные корабли.
+     */
+    int chooseTarget(Board opponentBoard, RandomGenerator random);
+
+    /**
+     * То же с памятью сессии ({@link AiMemory}, уже синхронизированной с доской).
+     * По умолчанию память не используется; стратегии с пошаговым состоянием переопределяют метод.
+     */
+    default int chooseTarget(Board opponentBoard, AiMemory memory, RandomGenerator random) {
+        return chooseTarget(opponentBoard, random);
+    }
+
+    /**
+     * Выбор цели дорогой и его стоит считать заранее, пока думает игрок ({@link AiSpeculation}).
+     * Такая стратегия не должна зависеть от памяти сессии: расчёт идёт без неё.
+     */
+    default boolean isSpeculative() {
+        return false;
+    }
+}
@@ -0,0 +1,53 @@
+// back\src\main\java\com\seabattle\sea_battle\service\AiStrategyRegistry.java
+package com.seabattle.sea_battle.service;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.seabattle.sea_battle.model.enums.AiDifficulty;
+
+/**
+ * Реестр стратегий AI по уровню сложности
+ */
+@Component
+public class AiStrategyRegistry {
+
+    private final Map<AiDifficulty, AiStrategy> strategies = new EnumMap<>(AiDifficulty.class);
+
+    public AiStrategyRegistry(List<AiStrategy> strategies) {
+        for (AiStrategy strategy : strategies) {
+            AiStrategy previous = this.strategies.put(strategy.getDifficulty(), strategy);
+            if (previous != null) {
+                throw new IllegalStateException("Duplicate AI strategy for " + strategy.getDifficulty()
+                    + ": " + previous.getClass().getSimpleName() + ", " + strategy.getClass().getSimpleName());
+            }
+        }
+    }
+
+    /**
+     * Стратегия уровня; IllegalArgumentException, если уровень не зарегистрирован
+     */
+    public AiStrategy get(AiDifficulty difficulty) {
+        AiStrategy strategy = strategies.get(difficulty);
+        if (strategy == null) {
+            throw new IllegalArgumentException("AI difficulty not supported: " + difficulty);
+        }
+        return strategy;
+    }
+
+    public boolean supports(AiDifficulty difficulty) {
+        return strategies.containsKey(difficulty);
+    }
+
+    /**
+     * Все зарегистрированные стратегии в порядке уровней
+     */
+    public Collection<AiStrategy> getStrategies() {
+        return Collections.unmodifiableCollection(strategies.values());
+    }
+}
@@ -0,0 +1,108 @@
+// back\src\main\java\com\seabattle\sea_battle\service\AiTurnExecutor.java
+package com.seabattle.sea_battle.service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import com.seabattle.sea_battle.config.GameProperties;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Ограниченный пул потоков для ходов AI в PVE: HTTP запрос выстрела игрока
+ * возвращается сразу после его собственного выстрела, серия выстрелов AI
+ * выполняется здесь и рассылается по SSE. Ход - цепочка шагов: выбор клетки в этом пуле,
+ * выстрел командой в очереди сессии, следующий выбор снова здесь; поток пула не ждёт команду.
+ * Начатый ход всегда ставится в очередь и не теряется. Незавершённых ходов не больше
+ * потоков плюс game.ai-turn-queue-capacity: при заполнении {@link #hasCapacity()} ложно,
+ * и новый выстрел игрока в PVE отклоняется до того, как он породит ход AI.
+ */
+@Slf4j
+@Component
+public class AiTurnExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final int threads;
+    private final int queueCapacity;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final AtomicInteger activeTurns = new AtomicInteger();
+    private final LongAdder turnNanos = new LongAdder();
+
+    public AiTurnExecutor(GameProperties gameProperties) {
+        int configured = gameProperties.getAiTurnThreads();
+        this.threads = configured > 0 ? configured : Runtime.getRuntime().availableProcessors();
+        this.queueCapacity = Math.max(1, gameProperties.getAiTurnQueueCapacity());
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "ai-turn-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    /**
+     * Есть место для нового хода AI
+     */
+    public boolean hasCapacity() {
+        return activeTurns.get() < threads + queueCapacity;
+    }
+
+    /**
+     * Запуск хода AI в пуле; ход завершается вместе с возвращённым им future
+     */
+    public void execute(Supplier<CompletableFuture<Void>> turn) {
+        submitted.increment();
+        activeTurns.incrementAndGet();
+        long start = System.nanoTime();
+        CompletableFuture.supplyAsync(turn, executor)
+            .thenCompose(steps -> steps)
+            .whenComplete((result, error) -> {
+                if (error != null) {
+                    failed.increment();
+                    log.error("AI turn failed", error);
+                }
+                completed.increment();
+                turnNanos.add(System.nanoTime() - start);
+                activeTurns.decrementAndGet();
+            });
+    }
+
+    /**
+     * Пул для следующих шагов уже начатого хода
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Метрики для /api/game/status
+     */
+    public Map<String, Object> getStatistics() {
+        long done = completed.sum();
+        return Map.of(
+            "threads", threads,
+            "queueCapacity", queueCapacity,
+            "queued", executor.getQueue().size(),
+            "active", executor.getActiveCount(),
+            "turns", activeTurns.get(),
+            "submitted", submitted.sum(),
+            "completed", done,
+            "failed", failed.sum(),
+            "avgTurnMicros", done > 0 ? TimeUnit.NANOSECONDS.toMicros(turnNanos.sum() / done) : 0L
+        );
+    }
+}
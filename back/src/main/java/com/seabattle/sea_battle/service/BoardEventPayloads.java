@@ -0,0 +1,62 @@
+// back\src\main\java\com\seabattle\sea_battle\service\BoardEventPayloads.java
+package com.seabattle.sea_battle.service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Содержимое SSE событий об изменении досок.
+ * BOARD_DELTA несёт только изменившиеся клетки и номер изменения в сессии:
+ * номера идут подряд, поэтому клиент, увидевший пропуск, запрашивает полный
+ * снимок (/game-state, поле boardSequence) и продолжает с него. Применение
+ * дельты идемпотентно - повтор уже учтённых клеток в снимке безопасен.
+ * Полные доски (OWNER_/OPPONENT_BOARD_UPDATE) остаются для совместимости.
+ */
+public final class BoardEventPayloads {
+
+    public static final String BOARD_DELTA = "BOARD_DELTA";
+
+    private BoardEventPayloads() {
+    }
+
+    /**
+     * Изменение доски boardOwner: клетки вида {x, y, status}
+     */
+    public static Map<String, Object> boardDelta(long sequence, String boardOwner, long boardVersion,
+                                                 List<Map<String, Object>> cells) {
+        return Map.of(
+            "seq", sequence,
+            "boardOwner", boardOwner,
+            "version", boardVersion,
+            "cells", cells
+        );
+    }
+
+    public static Map<String, Object> cell(int x, int y, String status) {
+        return Map.of("x", x, "y", y, "status", status);
+    }
+
+    /**
+     * Полная доска (старый формат OWNER_BOARD_UPDATE / OPPONENT_BOARD_UPDATE)
+     */
+    public static Map<String, Object> fullBoard(String playerName, String[][] board) {
+        return Map.of(
+            "board", board,
+            "playerName", playerName,
+            "timestamp", System.currentTimeMillis()
+        );
+    }
+
+    /**
+     * Одна клетка (старый формат CELL_UPDATE)
+     */
+    public static Map<String, Object> cellUpdate(String playerName, int x, int y, String status) {
+        return Map.of(
+            "x", x,
+            "y", y,
+            "status", status,
+            "playerName", playerName,
+            "timestamp", System.currentTimeMillis()
+        );
+    }
+}
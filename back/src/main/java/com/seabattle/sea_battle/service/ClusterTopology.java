@@ -0,0 +1,120 @@
+// back\src\main\java\com\seabattle\sea_battle\service\ClusterTopology.java
+package com.seabattle.sea_battle.service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.stereotype.Component;
+
+import com.seabattle.sea_battle.config.GameProperties;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Состав кластера и владельцы ключей. Узлы - game.cluster-nodes ("id=http://host:port"),
+ * этот узел - game.node-id; без списка узлов кластер из одного узла и всё принадлежит ему.
+ * - Сессия принадлежит узлу, владеющему её sessionId на кольце ({@link ShardRing}); новая
+ *   сессия получает ID, который принадлежит создающему её узлу.
+ * - Регистрация "игрок - активная сессия" хранится на узле, владеющем именем игрока, -
+ *   поэтому "одна активная игра на игрока" проверяется в одном месте для всего кластера.
+ */
+@Slf4j
+@Getter
+@Component
+public class ClusterTopology {
+
+    private final String selfId;
+    // ID узла -> базовый URL, в порядке конфигурации
+    private final Map<String, String> nodeUrls;
+    private final ShardRing ring;
+
+    public ClusterTopology(GameProperties gameProperties) {
+        this.selfId = gameProperties.getNodeId();
+        Map<String, String> urls = parseNodes(gameProperties.getClusterNodes());
+        if (urls.isEmpty()) {
+            urls.put(selfId, "");
+        }
+        if (!urls.containsKey(selfId)) {
+            throw new IllegalArgumentException(
+                String.format("game.node-id %s is not listed in game.cluster-nodes %s", selfId, urls.keySet())
+            );
+        }
+        this.nodeUrls = Collections.unmodifiableMap(urls);
+        this.ring = new ShardRing(urls.keySet(), gameProperties.getShardVirtualNodes());
+        if (isClustered()) {
+            log.info("Node {} in cluster of {} nodes: {}", selfId, urls.size(), urls);
+        }
+    }
+
+    public boolean isClustered() {
+        return nodeUrls.size() > 1;
+    }
+
+    public boolean isLocal(String nodeId) {
+        return selfId.equals(nodeId);
+    }
+
+    /**
+     * Узел, владеющий сессией
+     */
+    public String ownerOfSession(UUID sessionId) {
+        return isClustered() ? ring.ownerOf(sessionId) : selfId;
+    }
+
+    /**
+     * Узел, хранящий регистрацию игрока в активной сессии
+     */
+    public String ownerOfPlayer(String playerName) {
+        return isClustered() ? ring.ownerOf("player:" + playerName) : selfId;
+    }
+
+    /**
+     * ID новой сессии, принадлежащий этому узлу (в среднем N попыток на N узлов)
+     */
+    public UUID newSessionId() {
+        UUID sessionId = UUID.randomUUID();
+        while (!isLocal(ownerOfSession(sessionId))) {
+            sessionId = UUID.randomUUID();
+        }
+        return sessionId;
+    }
+
+    public String urlOf(String nodeId) {
+        String url = nodeUrls.get(nodeId);
+        if (url == null || url.isEmpty()) {
+            throw new IllegalStateException("Unknown shard node: " + nodeId);
+        }
+        return url;
+    }
+
+    /**
+     * Состав кластера для /api/game/status
+     */
+    public Map<String, Object> getStatistics() {
+        return Map.of(
+            "nodeId", selfId,
+            "nodes", nodeUrls.keySet(),
+            "ringPoints", ring.getPoints()
+        );
+    }
+
+    private static Map<String, String> parseNodes(List<String> nodes) {
+        Map<String, String> urls = new LinkedHashMap<>();
+        if (nodes == null) {
+            return urls;
+        }
+        for (String node : nodes) {
+            int separator = node.indexOf('=');
+            if (separator <= 0 || separator == node.length() - 1) {
+                throw new IllegalArgumentException("game.cluster-nodes entry must be id=url: " + node);
+            }
+            String url = node.substring(separator + 1).trim();
+            urls.put(node.substring(0, separator).trim(), url.endsWith("/") ? url.substring(0, url.length() - 1) : url);
+        }
+        return urls;
+    }
+}
@@ -0,0 +1,27 @@
+// back\src\main\java\com\seabattle\sea_battle\service\DensityAiStrategy.java
+package com.seabattle.sea_battle.service;
+
+import java.util.random.RandomGenerator;
+
+import org.springframework.stereotype.Component;
+
+import com.seabattle.sea_battle.model.Board;
+import com.seabattle.sea_battle.model.DensityTargeter;
+import com.seabattle.sea_battle.model.enums.AiDifficulty;
+
+/**
+ * MEDIUM: клетка с наибольшей плотностью вероятности ({@link DensityTargeter})
+ */
+@Component
+public class DensityAiStrategy implements AiStrategy {
+
+    @Override
+    public AiDifficulty getDifficulty() {
+        return AiDifficulty.MEDIUM;
+    }
+
+    @Override
+    public int chooseTarget(Board opponentBoard, RandomGenerator random) {
+        return DensityTargeter.local().pickTarget(opponentBoard, random);
+    }
+}
@@ -0,0 +1,193 @@
+// back\src\main\java\com\seabattle\sea_battle\service\DiskSessionStore.java
+package com.seabattle.sea_battle.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import com.seabattle.sea_battle.model.GameSession;
+import com.seabattle.sea_battle.model.SessionCodec;
+
+/**
+ * Файлы усыплённых сессий: файл на сессию в подкаталогах по первому байту ID, чтобы в одном
+ * каталоге не скапливались сотни тысяч файлов. Каталог создаётся при первом усыплении, файлы
+ * сессий прошлого запуска при этом удаляются - после перезапуска сессии восстанавливает журнал.
+ * Удаляются только файлы вида xx/<uuid>.session и опустевшие подкаталоги xx, остальное в каталоге
+ * не трогается. Каталог захватывается блокировкой файла .lock: второй процесс с тем же каталогом
+ * (например, узел кластера с общим game.hibernate-dir) не усыпляет сессии, а не удаляет чужие файлы.
+ * В heap остаётся индекс ID -> размер записи. Ошибки ввода-вывода - UncheckedIOException.
+ */
+public class DiskSessionStore implements SessionHibernationStore {
+
+    private static final String SUFFIX = ".session";
+    private static final String LOCK_FILE = ".lock";
+    private static final Pattern SHARD = Pattern.compile("[0-9a-f]{2}");
+    private static final Pattern SESSION_FILE = Pattern.compile("[0-9a-f]{8}(-[0-9a-f]{4}){3}-[0-9a-f]{12}\\.session");
+    // Оценка heap на запись индекса (узел ConcurrentHashMap, UUID, Integer)
+    private static final long INDEX_BYTES = 96;
+
+    private final Path directory;
+    private final Map<UUID, Integer> sizes = new ConcurrentHashMap<>();
+    private final AtomicLong storedBytes = new AtomicLong();
+    private volatile boolean prepared;
+    // Держит блокировку каталога до конца процесса
+    private FileChannel lockChannel;
+
+    public DiskSessionStore(String directory) {
+        this.directory = Paths.get(directory);
+    }
+
+    @Override
+    public boolean put(GameSession session) {
+        prepare();
+        UUID sessionId = session.getSessionId();
+        byte[] data = SessionCodec.encode(session);
+        Path path = pathOf(sessionId);
+        try {
+            Files.createDirectories(path.getParent());
+            Files.write(path, data);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write hibernated session " + sessionId, e);
+        }
+        Integer previous = sizes.put(sessionId, data.length);
+        storedBytes.addAndGet(data.length - (previous != null ? previous : 0));
+        return true;
+    }
+
+    @Override
+    public GameSession get(UUID sessionId) {
+        if (!sizes.containsKey(sessionId)) {
+            return null;
+        }
+        try {
+            return SessionCodec.decode(Files.readAllBytes(pathOf(sessionId)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read hibernated session " + sessionId, e);
+        }
+    }
+
+    @Override
+    public void remove(UUID sessionId) {
+        Integer size = sizes.remove(sessionId);
+        if (size == null) {
+            return;
+        }
+        storedBytes.addAndGet(-size);
+        try {
+            Files.deleteIfExists(pathOf(sessionId));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot delete hibernated session " + sessionId, e);
+        }
+    }
+
+    @Override
+    public boolean contains(UUID sessionId) {
+        return sizes.containsKey(sessionId);
+    }
+
+    @Override
+    public int size() {
+        return sizes.size();
+    }
+
+    @Override
+    public long getStoredBytes() {
+        return storedBytes.get();
+    }
+
+    @Override
+    public long getHeapBytesPerSession() {
+        return INDEX_BYTES;
+    }
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        return Map.of(
+            "store", "disk",
+            "directory", directory.toAbsolutePath().toString(),
+            "records", sizes.size(),
+            "diskBytes", storedBytes.get()
+        );
+    }
+
+    private Path pathOf(UUID sessionId) {
+        String id = sessionId.toString();
+        return directory.resolve(id.substring(0, 2)).resolve(id + SUFFIX);
+    }
+
+    private void prepare() {
+        if (prepared) {
+            return;
+        }
+        synchronized (this) {
+            if (prepared) {
+                return;
+            }
+            try {
+                Files.createDirectories(directory);
+                lock();
+                deletePreviousSessions();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot prepare hibernation directory " + directory.toAbsolutePath(), e);
+            }
+            prepared = true;
+        }
+    }
+
+    private void lock() throws IOException {
+        FileChannel channel = FileChannel.open(directory.resolve(LOCK_FILE),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // Каталог уже захвачен в этой же JVM
+            lock = null;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        if (lock == null) {
+            channel.close();
+            throw new IllegalStateException("Hibernation directory " + directory.toAbsolutePath()
+                + " is used by another process");
+        }
+        lockChannel = channel;
+    }
+
+    /**
+     * Удаление файлов сессий, оставшихся от прошлого запуска, - только своих по имени
+     */
+    private void deletePreviousSessions() throws IOException {
+        try (DirectoryStream<Path> shards = Files.newDirectoryStream(directory,
+                path -> Files.isDirectory(path) && SHARD.matcher(path.getFileName().toString()).matches())) {
+            for (Path shard : shards) {
+                boolean empty = true;
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(shard)) {
+                    for (Path file : files) {
+                        if (Files.isRegularFile(file) && SESSION_FILE.matcher(file.getFileName().toString()).matches()) {
+                            Files.delete(file);
+                        } else {
+                            empty = false;
+                        }
+                    }
+                }
+                if (empty) {
+                    Files.delete(shard);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,155 @@
+// back\src\main\java\com\seabattle\sea_battle\service\FleetLayoutPool.java
+package com.seabattle.sea_battle.service;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Component;
+
+import com.seabattle.sea_battle.config.GameProperties;
+import com.seabattle.sea_battle.model.FleetLayout;
+import com.seabattle.sea_battle.model.FleetPlacer;
+import com.seabattle.sea_battle.model.ShipPlacements;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Пул заранее сгенерированных равномерно случайных расстановок флота.
+ * Расстановки хранятся как пары long (см. {@link FleetLayout}) в кольцевом буфере,
+ * выдача - O(1). Когда в пуле остаётся меньше нижнего порога, фоновые потоки
+ * дозаполняют его до полной ёмкости. При пустом пуле расстановка генерируется
+ * на месте быстрым (неравномерным) генератором и считается промахом.
+ */
+@Slf4j
+@Component
+public class FleetLayoutPool {
+
+    private final int capacity;
+    private final int lowWater;
+    private final int refillThreads;
+    private final ExecutorService refillExecutor;
+
+    // Кольцевой буфер: расстановка i занимает ячейки 2*i и 2*i+1
+    private final long[] layouts;
+    private int head;
+    private int size;
+
+    // Сколько фоновых заполнителей сейчас работает
+    private final AtomicInteger activeRefills = new AtomicInteger();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder generated = new LongAdder();
+
+    public FleetLayoutPool(GameProperties gameProperties) {
+        this.capacity = Math.max(1, gameProperties.getLayoutPoolSize());
+        this.lowWater = Math.min(gameProperties.getLayoutPoolLowWater(), capacity - 1);
+        this.refillThreads = Math.max(1, gameProperties.getLayoutPoolRefillThreads());
+        this.layouts = new long[capacity * 2];
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.refillExecutor = Executors.newFixedThreadPool(refillThreads, runnable -> {
+            Thread thread = new Thread(runnable, "fleet-layout-pool-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+
+        // Начальное заполнение в фоне
+        triggerRefill();
+    }
+
+    /**
+     * Выдача расстановки из пула (или сгенерированной на месте, если пул пуст)
+     */
+    public FleetLayout take() {
+        FleetLayout layout = null;
+        int remaining;
+
+        synchronized (this) {
+            if (size > 0) {
+                layout = new FleetLayout(layouts[head * 2], layouts[head * 2 + 1]);
+                head = (head + 1) % capacity;
+                size--;
+            }
+            remaining = size;
+        }
+
+        if (remaining < lowWater) {
+            triggerRefill();
+        }
+
+        if (layout != null) {
+            hits.increment();
+            return layout;
+        }
+
+        misses.increment();
+        int[] positions = new int[ShipPlacements.fleetSize()];
+        FleetPlacer.local().generate(ThreadLocalRandom.current(), positions);
+        return FleetLayout.of(positions);
+    }
+
+    /**
+     * Статистика пула для /api/game/status
+     */
+    public Map<String, Object> getStatistics() {
+        int currentSize;
+        synchronized (this) {
+            currentSize = size;
+        }
+        return Map.of(
+            "size", currentSize,
+            "capacity", capacity,
+            "lowWater", lowWater,
+            "refillThreads", refillThreads,
+            "hits", hits.sum(),
+            "misses", misses.sum(),
+            "generated", generated.sum()
+        );
+    }
+
+    private void triggerRefill() {
+        // Запускаем не больше refillThreads заполнителей одновременно
+        while (true) {
+            int active = activeRefills.get();
+            if (active >= refillThreads) {
+                return;
+            }
+            if (activeRefills.compareAndSet(active, active + 1)) {
+                refillExecutor.execute(this::refill);
+            }
+        }
+    }
+
+    private void refill() {
+        FleetPlacer placer = FleetPlacer.local();
+        int[] positions = new int[ShipPlacements.fleetSize()];
+
+        try {
+            while (true) {
+                placer.generateUniform(ThreadLocalRandom.current(), positions);
+                long lo = FleetLayout.encodeLo(positions);
+                long hi = FleetLayout.encodeHi(positions);
+
+                synchronized (this) {
+                    if (size == capacity) {
+                        return;
+                    }
+                    int tail = (head + size) % capacity;
+                    layouts[tail * 2] = lo;
+                    layouts[tail * 2 + 1] = hi;
+                    size++;
+                }
+                generated.increment();
+            }
+        } catch (RuntimeException e) {
+            log.error("Fleet layout pool refill failed", e);
+        } finally {
+            activeRefills.decrementAndGet();
+        }
+    }
+}
@@ -1,16 +1,17 @@
 // back\src\main\java\com\seabattle\sea_battle\service\GamePlayService.java
 package com.seabattle.sea_battle.service;
 
+import com.seabattle.sea_battle.config.GameProperties;
 import com.seabattle.sea_battle.dto.*;
 import com.seabattle.sea_battle.model.*;
 import com.seabattle.sea_battle.model.enums.CellStatus;
 import com.seabattle.sea_battle.model.enums.GameStatus;
-
-import jakarta.transaction.Transactional;
+import com.seabattle.sea_battle.model.enums.GameType;
 
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Service
@@ -18,30 +19,55 @@ public class GamePlayService {
     
     private final GameSessionManager sessionManager;
     private final AIService aiService;
-    private final SseNotificationService sseService; // Добавляем это поле
+    private final SseNotificationService sseService;
+    private final FleetLayoutPool fleetLayoutPool;
+    private final GameProperties gameProperties;
+    private final AiTurnExecutor aiTurnExecutor;
+    private final SessionMailbox sessionMailbox;
+    private final SessionJournal journal;
     
-    // Обновляем конструктор:
     public GamePlayService(GameSessionManager sessionManager, AIService aiService,
-                          SseNotificationService sseService) { // Добавляем параметр
+                          SseNotificationService sseService,
+                          FleetLayoutPool fleetLayoutPool,
+                          GameProperties gameProperties,
+                          AiTurnExecutor aiTurnExecutor,
+                          SessionMailbox sessionMailbox) {
         this.sessionManager = sessionManager;
         this.aiService = aiService;
-        this.sseService = sseService; // Инициализируем
+        this.sseService = sseService;
+        this.fleetLayoutPool = fleetLayoutPool;
+        this.gameProperties = gameProperties;
+        this.aiTurnExecutor = aiTurnExecutor;
+        this.sessionMailbox = sessionMailbox;
+        this.journal = sessionManager.getJournal();
+        // Сессия удалена по таймауту - предварительный расчёт хода AI больше не нужен
+        sessionManager.addSessionRemovalListener(aiService::cancelSpeculation);
+        // Уснувшая сессия после пробуждения - другие объекты, расчёт по старой доске не держим
+        sessionManager.addSessionHibernationListener(aiService::cancelSpeculation);
     }
     
     /**
-     * Расстановка кораблей игроком
+     * Расстановка кораблей игроком (команда в очереди сессии)
      */
-    public boolean placeShips(UUID sessionId, PlaceShipsRequest request) {
-        GameSession session = sessionManager.getGameSession(sessionId);
-        
-        if (session == null) {
-            throw new IllegalArgumentException("Game session not found");
-        }
-        
-        if (session.getStatus().equals(GameStatus.IN_PROGRESS)) {
-            throw new IllegalStateException("Cannot place ships, game already started");
-        }
-        
+    public CompletableFuture<Boolean> placeShips(UUID sessionId, PlaceShipsRequest request) {
+        return sessionMailbox.submit(sessionId, () -> executePlaceShips(sessionId, request));
+    }
+    
+    /**
+     * Автоматическая расстановка кораблей (команда в очереди сессии)
+     */
+    public CompletableFuture<Void> autoPlaceShips(UUID sessionId, String playerName) {
+        return sessionMailbox.submit(sessionId, () -> executeAutoPlaceShips(sessionId, playerName));
+    }
+    
+    /**
+     * Выстрел по противнику (команда в очереди сессии)
+     */
+    public CompletableFuture<FireResponse> fire(UUID sessionId, FireRequest request) {
+        return sessionMailbox.submit(sessionId, () -> executeFire(sessionId, request));
+    }
+    
+    private boolean executePlaceShips(UUID sessionId, PlaceShipsRequest request) {
         // Конвертируем DTO в модели кораблей
         List<Ship> ships = request.getShips().stream()
                 .map(shipReq -> new Ship(
@@ -52,40 +78,64 @@ public class GamePlayService {
                 ))
                 .collect(Collectors.toList());
         
-        Board playerBoard = session.getPlayerBoard(request.getPlayerName());
-        boolean success = playerBoard.placeShips(ships);
+        GameSession session;
+        boolean success;
+        for (int attempt = 1; ; attempt++) {
+            session = requireSession(sessionId, attempt);
+            
+            if (session.getStatus().equals(GameStatus.IN_PROGRESS)) {
+                throw new IllegalStateException("Cannot place ships, game already started");
+            }
+            
+            synchronized (session) {
+                if (session.isHibernated()) {
+                    // Сессию усыпили после получения - отпускаем её и расставляем в разбуженной
+                    continue;
+                }
+                Board playerBoard = session.getPlayerBoard(request.getPlayerName());
+                success = playerBoard.placeShips(ships);
+                if (success) {
+                    session.playerReady(request.getPlayerName());
+                    journal.shipsPlaced(sessionId, request.getPlayerName(), playerBoard.getLayout());
+                }
+            }
+            break;
+        }
         
         if (success) {
-        session.playerReady(request.getPlayerName());
-        
-        // Уведомляем через SSE о готовности игрока
-        sseService.sendToAllInGame(sessionId, "PLAYER_READY", Map.of(
-            "player", request.getPlayerName(),
-            "ready", true
-        ));
-        
-        // Если оба игрока готовы
-        if (session.isPlayer1Ready() && session.isPlayer2Ready()) {
-            sseService.notifyGameStarted(sessionId);
+            // Уведомляем через SSE о готовности игрока
+            sseService.sendToAllInGame(sessionId, "PLAYER_READY", Map.of(
+                "player", request.getPlayerName(),
+                "ready", true
+            ));
+            
+            // Если оба игрока готовы
+            if (session.isPlayer1Ready() && session.isPlayer2Ready()) {
+                sseService.notifyGameStarted(sessionId);
+                // Первым ходит игрок - AI тем временем считает свой ход
+                aiService.startSpeculation(session);
+            }
         }
-    }
         
         return success;
     }
     
-    /**
-     * Автоматическая расстановка кораблей
-     */
-    public void autoPlaceShips(UUID sessionId, String playerName) {
-        GameSession session = sessionManager.getGameSession(sessionId);
-        
-        if (session == null) {
-            throw new IllegalArgumentException("Game session not found");
+    private void executeAutoPlaceShips(UUID sessionId, String playerName) {
+        GameSession session;
+        for (int attempt = 1; ; attempt++) {
+            session = requireSession(sessionId, attempt);
+            
+            synchronized (session) {
+                if (session.isHibernated()) {
+                    continue;
+                }
+                FleetLayout layout = fleetLayoutPool.take();
+                session.getPlayerBoard(playerName).applyLayout(layout);
+                session.playerReady(playerName);
+                journal.shipsPlaced(sessionId, playerName, layout);
+            }
+            break;
         }
-        
-        Board playerBoard = session.getPlayerBoard(playerName);
-        playerBoard.placeShipsAutomatically();
-        session.playerReady(playerName);
 
         // Уведомляем через SSE
         sseService.sendToAllInGame(sessionId, "PLAYER_READY", Map.of(
@@ -96,6 +146,8 @@ public class GamePlayService {
         
         if (session.isPlayer1Ready() && session.isPlayer2Ready()) {
             sseService.notifyGameStarted(sessionId);
+            // Первым ходит игрок - AI тем временем считает свой ход
+            aiService.startSpeculation(session);
         }
     }
     
@@ -103,59 +155,82 @@ public class GamePlayService {
      * Получение состояния доски
      */
     public BoardStateResponse getBoardState(UUID sessionId, String playerName, boolean isOwner) {
+        String[][] boardState = getBoardView(sessionId, playerName, isOwner).getState();
+        return new BoardStateResponse(playerName, boardState, isOwner);
+    }
+    
+    /**
+     * Состояние доски в упакованном виде (2 бита на клетку, 25 байт)
+     */
+    public byte[] getPackedBoardState(UUID sessionId, String playerName, boolean isOwner) {
+        return getBoardView(sessionId, playerName, isOwner).getPacked();
+    }
+    
+    /**
+     * Закэшированное представление доски текущей версии (для ETag и готовых байт ответа)
+     */
+    public BoardView getBoardView(UUID sessionId, String playerName, boolean isOwner) {
+        Board board = resolveBoard(sessionId, playerName, isOwner);
+        if (board == null) {
+            throw new IllegalArgumentException("Opponent board not available");
+        }
+        return board.getView(isOwner);
+    }
+    
+    /**
+     * Версия сессии для ETag состояния игры
+     */
+    public long getGameStateVersion(UUID sessionId) {
         GameSession session = sessionManager.getGameSession(sessionId);
         
         if (session == null) {
             throw new IllegalArgumentException("Game session not found");
         }
-        
-        Board board;
-        if (isOwner) {
-            board = session.getPlayerBoard(playerName);
-        } else {
-            board = session.getOpponentBoard(playerName);
-        }
-        
-        String[][] boardState = board.getBoardState(isOwner);
-        return new BoardStateResponse(playerName, boardState, isOwner);
+        return session.getVersion();
     }
     
-    /**
-     * Выстрел по противнику
-     */
-    @Transactional
-    public FireResponse fire(UUID sessionId, FireRequest request) {
+    private Board resolveBoard(UUID sessionId, String playerName, boolean isOwner) {
         GameSession session = sessionManager.getGameSession(sessionId);
         
         if (session == null) {
             throw new IllegalArgumentException("Game session not found");
         }
         
-        if (!session.getStatus().equals(GameStatus.IN_PROGRESS)) {
-            throw new IllegalStateException("Game is not in progress");
+        if (isOwner) {
+            return session.getPlayerBoard(playerName);
         }
-        
-        // Выполняем выстрел
-        GameSession.FireResult result = session.fireAtOpponent(request.getPlayerName(), request.getX(), request.getY());
-        GameSession.FireResult aiResult = result;
-        // Получаем обновленные доски
-        String opponentName = session.getOpponentName(request.getPlayerName());
+        return session.getOpponentBoard(playerName);
+    }
     
-        // Доска игрока, получившего выстрел (с обновленным статусом клетки)
-        Board targetBoard = session.getPlayerBoard(opponentName);
-        String[][] updatedTargetBoard = targetBoard.getBoardState(true);
-        
-        // Доска противника для стреляющего (с видимыми результатами)
-        String[][] opponentViewForShooter = targetBoard.getBoardState(false);
-        
-        // 1. Отправляем обновление конкретной клетки игроку, получившему выстрел
-        String cellStatusStr = result.isHit() ? "HIT" : "MISS";
-        sseService.sendCellUpdate(sessionId, opponentName, request.getX(), request.getY(), cellStatusStr);
-        
-        // 2. Отправляем обновление доски противника стреляющему игроку
-        sseService.sendOwnerBoardUpdate(sessionId, opponentName, updatedTargetBoard);
-        sseService.sendOpponentBoardUpdate(sessionId, request.getPlayerName(), opponentViewForShooter);
+    private FireResponse executeFire(UUID sessionId, FireRequest request) {
+        // Порядок выстрелов задаёт очередь команд; блокировка сессии - общая с реестром
+        // (подключение, завершение, таймеры, усыпление), она здесь не конкурирует
+        GameSession session;
+        GameSession.FireResult result;
+        for (int attempt = 1; ; attempt++) {
+            session = requireSession(sessionId, attempt);
+            
+            if (!session.getStatus().equals(GameStatus.IN_PROGRESS)) {
+                throw new IllegalStateException("Game is not in progress");
+            }
+            // Промах отдаёт ход AI: без места в пуле ходов AI выстрел не принимается
+            if (isAiGame(session) && !aiTurnExecutor.hasCapacity()) {
+                throw new IllegalStateException("AI is busy, try again");
+            }
+            
+            synchronized (session) {
+                if (session.isHibernated()) {
+                    continue;
+                }
+                result = session.fireAtOpponent(request.getPlayerName(), request.getX(), request.getY());
+                journal.shotFired(session, request.getPlayerName(), result.getX(), result.getY());
+            }
+            break;
+        }
+        String opponentName = session.getOpponentName(request.getPlayerName());
         
+        // Изменение доски получившего выстрел
+        publishBoardChange(session, opponentName, request.getPlayerName(), result);
 
         // Формируем результат для SSE
         Map<String, Object> fireResult = new HashMap<>();
@@ -164,10 +239,11 @@ public class GamePlayService {
         fireResult.put("x", result.getX());
         fireResult.put("y", result.getY());
         fireResult.put("shooter", request.getPlayerName());
+        putFleetInfo(fireResult, result);
         
         // 1. Уведомляем всех о результате выстрела
         sseService.notifyFireResult(sessionId, request.getPlayerName(), fireResult);
-        if(session.getGameType().equals(com.seabattle.sea_battle.model.enums.GameType.PVP)){
+        if(session.getGameType().equals(GameType.PVP)){
             sseService.notifyFireResult(sessionId, session.getOpponentName(request.getPlayerName()), fireResult);
         }
         // // 2. Уведомляем игрока о необходимости обновить доску
@@ -179,31 +255,10 @@ public class GamePlayService {
             sseService.notifyTurnChange(sessionId, session.getCurrentTurn());
         }
         
-        if (session.getGameType().equals(com.seabattle.sea_battle.model.enums.GameType.PVE) && 
-            session.getPlayer2().isAI() && !result.isHit()) {
-            GameSession.FireResult airesult = aiService.makeAIMove(session);
-            
-            targetBoard = session.getPlayer1Board();
-            updatedTargetBoard = targetBoard.getBoardState(true);
-
-            cellStatusStr = result.isHit() ? "HIT" : "MISS";
-            sseService.sendCellUpdate(sessionId, request.getPlayerName(), result.getX(), result.getY(), cellStatusStr);
-
-            sseService.sendOwnerBoardUpdate(sessionId, request.getPlayerName(), updatedTargetBoard);
-            // Уведомляем о ходе AI
-            Map<String, Object> aiFireResult = new HashMap<>();
-            aiFireResult.put("hit", airesult.isHit());
-            aiFireResult.put("sunk", airesult.isSunk());
-            aiFireResult.put("x", airesult.getX());
-            aiFireResult.put("y", airesult.getY());
-            aiFireResult.put("shooter", session.getOpponentName(request.getPlayerName()));
-            aiFireResult.put("isAI", true);
-
-            sseService.notifyFireResult(sessionId, request.getPlayerName(), aiFireResult);
-
-            if (session.getPlayer1Board().allShipsSunk()) {
-                sseService.notifyGameOver(sessionId, session.getOpponentName(request.getPlayerName()), session.getStatus());
-            }
+        // Ход AI - в отдельном пуле, ответ игроку не ждёт его
+        if (isAiGame(session) && !result.isHit()) {
+            GameSession aiSession = session;
+            aiTurnExecutor.execute(() -> playAiTurn(aiSession, request.getPlayerName()));
         }
 
         // Формируем ответ
@@ -212,11 +267,9 @@ public class GamePlayService {
             (result.isSunk() ? "Hit! Ship sunk!" : "Hit!") : 
             "Miss!";
         
-        if (result.isGameOver() || aiResult.isGameOver()) {
+        if (result.isGameOver()) {
             message += " Game!";
-            sessionManager.finishGameSession(sessionId, session.getStatus());
-            sseService.notifyGameOver(sessionId, request.getPlayerName(), session.getStatus());
-            sseService.notifyGameOver(sessionId, session.getOpponentName(request.getPlayerName()), session.getStatus());
+            finishGame(session, request.getPlayerName());
         }
         
         return new FireResponse(
@@ -224,11 +277,169 @@ public class GamePlayService {
             result.isSunk(),
             result.isGameOver(),
             message,
-            cellStatus
+            cellStatus,
+            result.getFleetStatus()
         );
     }
     
-    public void Aifire(UUID sessionId, boolean hit){
+    /**
+     * Ход AI в PVE: AI стреляет, пока попадает; каждый выстрел сразу рассылается по SSE.
+     * Выполняется в {@link AiTurnExecutor}, ошибки логируются там же. Выбор клетки идёт
+     * в потоке хода AI, а сам выстрел - командой в очереди сессии; следующий выстрел
+     * выбирается снова в пуле ходов AI, когда команда выполнена (поток её не ждёт).
+     */
+    private CompletableFuture<Void> playAiTurn(GameSession session, String humanName) {
+        UUID sessionId = session.getSessionId();
+        String aiName = session.getPlayer2().getUsername();
+        
+        if (!isTurnOf(session, aiName)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        int[] target = aiService.chooseAIMove(session);
+        if (target == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return sessionMailbox.submit(sessionId, () -> executeAiShot(sessionId, humanName, aiName, target))
+            .thenComposeAsync(again -> {
+                // Между выстрелами сессию могли усыпить и разбудить - дальше работаем с живой
+                GameSession live = again ? sessionManager.getGameSession(sessionId) : null;
+                return live != null ? playAiTurn(live, humanName) : CompletableFuture.<Void>completedFuture(null);
+            }, aiTurnExecutor.getExecutor());
+    }
+    
+    /**
+     * Продолжение игры AI в PVE сессии, восстановленной из журнала: если сбой пришёлся
+     * на ход AI, ход запускается заново, иначе AI заранее считает ход, пока думает игрок
+     */
+    public void resumeAiTurn(GameSession session) {
+        if (!isAiGame(session) || session.getStatus() != GameStatus.IN_PROGRESS) {
+            return;
+        }
+        if (isTurnOf(session, session.getPlayer2().getUsername())) {
+            aiTurnExecutor.execute(() -> playAiTurn(session, session.getPlayer1().getUsername()));
+        } else {
+            aiService.startSpeculation(session);
+        }
+    }
+    
+    /**
+     * Выстрел AI (команда в очереди сессии); true - AI попал и стреляет снова
+     */
+    private boolean executeAiShot(UUID sessionId, String humanName, String aiName, int[] target) {
+        GameSession session;
+        GameSession.FireResult airesult;
+        for (int attempt = 1; ; attempt++) {
+            session = sessionManager.sessionForLock(sessionId, attempt);
+            if (session == null) {
+                return false;
+            }
+            synchronized (session) {
+                if (session.isHibernated()) {
+                    continue;
+                }
+                // Игра могла закончиться (отмена, таймаут), пока AI выбирал клетку
+                if (!isTurnOf(session, aiName)) {
+                    return false;
+                }
+                airesult = aiService.applyAIMove(session, target);
+                journal.shotFired(session, aiName, airesult.getX(), airesult.getY());
+            }
+            break;
+        }
+        
+        publishBoardChange(session, humanName, aiName, airesult);
+        // Уведомляем о ходе AI
+        Map<String, Object> aiFireResult = new HashMap<>();
+        aiFireResult.put("hit", airesult.isHit());
+        aiFireResult.put("sunk", airesult.isSunk());
+        aiFireResult.put("x", airesult.getX());
+        aiFireResult.put("y", airesult.getY());
+        aiFireResult.put("shooter", aiName);
+        aiFireResult.put("isAI", true);
+        putFleetInfo(aiFireResult, airesult);
+
+        sseService.notifyFireResult(sessionId, humanName, aiFireResult);
+
+        if (airesult.isGameOver()) {
+            finishGame(session, aiName);
+            return false;
+        }
+        if (!airesult.isHit()) {
+            sseService.notifyTurnChange(sessionId, session.getCurrentTurn());
+            aiService.startSpeculation(session);
+            return false;
+        }
+        return true;
+    }
+    
+    /**
+     * Сессия команды под её блокировкой, попытка attempt (см. {@link GameSessionManager#sessionForLock})
+     */
+    private GameSession requireSession(UUID sessionId, int attempt) {
+        GameSession session = sessionManager.sessionForLock(sessionId, attempt);
+        
+        if (session == null) {
+            throw new IllegalArgumentException("Game session not found");
+        }
+        return session;
+    }
+    
+    private static boolean isAiGame(GameSession session) {
+        return session.getGameType() == GameType.PVE && session.getPlayer2() != null && session.getPlayer2().isAI();
+    }
+    
+    private static boolean isTurnOf(GameSession session, String playerName) {
+        return session.getStatus() == GameStatus.IN_PROGRESS && session.isPlayerTurn(playerName);
+    }
+    
+    /**
+     * Завершение сессии после победного выстрела и уведомление игроков
+     */
+    private void finishGame(GameSession session, String winnerName) {
+        UUID sessionId = session.getSessionId();
+        aiService.cancelSpeculation(sessionId);
+        sessionManager.finishGameSession(sessionId, session.getStatus());
+        sseService.notifyGameOver(sessionId, winnerName, session.getStatus());
+        sseService.notifyGameOver(sessionId, session.getOpponentName(winnerName), session.getStatus());
+    }
+    
+    /**
+     * Рассылка изменения доски после выстрела: дельта с номером изменения всем игрокам сессии,
+     * полные доски - только в режиме совместимости (game.sse-full-board-updates)
+     */
+    private void publishBoardChange(GameSession session, String targetName, String shooterName,
+                                    GameSession.FireResult result) {
+        UUID sessionId = session.getSessionId();
+        Board targetBoard = session.getPlayerBoard(targetName);
+        String cellStatus = result.isHit() ? CellStatus.HIT.name() : CellStatus.MISS.name();
+        
+        sseService.sendBoardDelta(sessionId, session.nextBoardSequence(), targetName, targetBoard.getVersion(),
+            List.of(BoardEventPayloads.cell(result.getX(), result.getY(), cellStatus)));
+        
+        if (gameProperties.isSseFullBoardUpdates()) {
+            sseService.sendCellUpdate(sessionId, targetName, result.getX(), result.getY(), cellStatus);
+            sseService.sendOwnerBoardUpdate(sessionId, targetName, targetBoard.getView(true).getState());
+            sseService.sendOpponentBoardUpdate(sessionId, shooterName, targetBoard.getView(false).getState());
+        }
+    }
+    
+    /**
+     * Состояние флота цели и потопленный корабль для SSE события выстрела
+     */
+    private void putFleetInfo(Map<String, Object> fireResult, GameSession.FireResult result) {
+        fireResult.put("fleetStatus", result.getFleetStatus());
+        Ship sunkShip = result.getSunkShip();
+        if (sunkShip != null) {
+            fireResult.put("sunkShip", Map.of(
+                "length", sunkShip.getLength(),
+                "horizontal", sunkShip.isHorizontal(),
+                "x", sunkShip.getX(),
+                "y", sunkShip.getY()
+            ));
+        }
+    }
+    
+    public void aiFire(UUID sessionId, boolean hit){
         GameSession session = sessionManager.getGameSession(sessionId);
         
         if (session == null) {
@@ -298,6 +509,13 @@ public class GamePlayService {
      * Получение полного состояния игры
      */
     public Map<String, Object> getGameState(UUID sessionId, String playerName) {
+        return getGameState(sessionId, playerName, false);
+    }
+    
+    /**
+     * Получение полного состояния игры; packed - доски в упакованном виде (base64)
+     */
+    public Map<String, Object> getGameState(UUID sessionId, String playerName, boolean packed) {
         GameSession session = sessionManager.getGameSession(sessionId);
         
         if (session == null) {
@@ -308,10 +526,15 @@ public class GamePlayService {
         state.put("sessionId", sessionId);
         state.put("status", session.getStatus());
         state.put("gameType", session.getGameType());
+        if (session.getGameType() == GameType.PVE) {
+            state.put("aiDifficulty", session.getAiDifficulty());
+        }
         state.put("currentTurn", session.getCurrentTurn());
         state.put("createdAt", session.getCreatedAt());
         state.put("startedAt", session.getStartedAt());
         state.put("finishedAt", session.getFinishedAt());
+        // Номер последнего BOARD_DELTA, которому соответствует снимок досок
+        state.put("boardSequence", session.getBoardSequence());
         
         // Информация о игроках
         state.put("player1", Map.of(
@@ -329,8 +552,15 @@ public class GamePlayService {
         }
         
         // Состояние досок
-        state.put("playerBoard", getBoardState(sessionId, playerName, true));
-        state.put("opponentBoard", getBoardState(sessionId, playerName, false));
+        if (packed) {
+            state.put("playerBoard", new PackedBoardStateResponse(
+                playerName, getPackedBoardState(sessionId, playerName, true), true));
+            state.put("opponentBoard", new PackedBoardStateResponse(
+                playerName, getPackedBoardState(sessionId, playerName, false), false));
+        } else {
+            state.put("playerBoard", getBoardState(sessionId, playerName, true));
+            state.put("opponentBoard", getBoardState(sessionId, playerName, false));
+        }
         
         return state;
     }
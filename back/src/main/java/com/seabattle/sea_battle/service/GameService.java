@@ -9,6 +9,7 @@ import com.seabattle.sea_battle.repository.GameRepository;
 import org.springframework.stereotype.Service;
 
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import java.util.List;
 
@@ -19,13 +20,18 @@ public class GameService {
     private final AIService aiService;
     private final GameRepository gameRepository; 
     private final SseNotificationService sseService;
+    private final FleetLayoutPool fleetLayoutPool;
+    private final SessionMailbox sessionMailbox;
     
     public GameService(GameSessionManager sessionManager, AIService aiService, 
-                   GameRepository gameRepository, SseNotificationService sseService) {
+                   GameRepository gameRepository, SseNotificationService sseService,
+                   FleetLayoutPool fleetLayoutPool, SessionMailbox sessionMailbox) {
         this.sessionManager = sessionManager;
         this.aiService = aiService;
         this.gameRepository = gameRepository;
         this.sseService = sseService; 
+        this.fleetLayoutPool = fleetLayoutPool;
+        this.sessionMailbox = sessionMailbox;
     }
     
     public List<GameHistoryResponse> getAllGameHistory() {
@@ -60,7 +66,7 @@ public class GameService {
         if (!canCreateNewSession()) {
             throw new IllegalStateException(
                 "Cannot create new game session. Maximum limit reached: " + 
-                sessionManager.getGameProperties().getMaxActiveSessions()
+                sessionManager.getSessionCapacity()
             );
         }
         
@@ -71,9 +77,16 @@ public class GameService {
         GameSession session = new GameSession(player1, request.getGameType());
         
         // Если это игра против AI, сразу создаем AI игрока
+        // (расстановка AI берётся из пула готовых расстановок)
         if (request.getGameType() == GameType.PVE) {
-            Player aiPlayer = aiService.getAI();
-            session.connectSecondPlayer(aiPlayer);
+            if (request.getAiDifficulty() != null) {
+                if (!aiService.getStrategyRegistry().supports(request.getAiDifficulty())) {
+                    throw new IllegalArgumentException("AI difficulty not supported: " + request.getAiDifficulty());
+                }
+                session.setAiDifficulty(request.getAiDifficulty());
+            }
+            Player aiPlayer = aiService.createAIPlayer(session.getAiDifficulty());
+            session.connectSecondPlayer(aiPlayer, fleetLayoutPool.take());
         }
         
         // Регистрируем сессию в менеджере
@@ -120,8 +133,14 @@ public class GameService {
         sessionManager.finishGameSession(sessionId, finalStatus);
     }
     
-    public void cancelGame(UUID sessionId) {
-        sessionManager.cancelGameSession(sessionId);
+    /**
+     * Отмена игры (команда в очереди сессии - после уже принятых выстрелов)
+     */
+    public CompletableFuture<Void> cancelGame(UUID sessionId) {
+        return sessionMailbox.submit(sessionId, () -> {
+            aiService.cancelSpeculation(sessionId);
+            sessionManager.cancelGameSession(sessionId);
+        });
     }
     
     public SessionInfoResponse getSessionInfo(UUID sessionId) {
@@ -153,7 +172,7 @@ public class GameService {
     
     public boolean canCreateNewSession() {
         return sessionManager.getActiveSessionsCount() < 
-               sessionManager.getGameProperties().getMaxActiveSessions();
+               sessionManager.getSessionCapacity();
     }
     
 }
\ No newline at end of file
@@ -1,14 +1,24 @@
 // back\src\main\java\com\seabattle\sea_battle\service\GameSessionManager.java
 package com.seabattle.sea_battle.service;
 
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import com.seabattle.sea_battle.config.GameProperties;
@@ -16,118 +26,307 @@ import com.seabattle.sea_battle.model.Game;
 import com.seabattle.sea_battle.model.GameSession;
 import com.seabattle.sea_battle.model.Player;
 import com.seabattle.sea_battle.model.PlayerSession;
+import com.seabattle.sea_battle.model.SessionCodec;
 import com.seabattle.sea_battle.model.enums.GameStatus;
 import com.seabattle.sea_battle.model.enums.GameType;
 import com.seabattle.sea_battle.repository.GameRepository;
 
 import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
 
-
+/**
+ * Реестр активных сессий без глобальной блокировки.
+ * Лимит активных сессий - резервирование места в AtomicInteger (CAS); сам лимит - maxActiveSessions
+ * и, если включён, бюджет памяти ({@link SessionMemoryBudget}). "Одна активная игра
+ * на игрока" - putIfAbsent в activePlayerSessions; подключение и завершение блокируют
+ * только свою сессию, а запись результата в БД идёт вне любых блокировок.
+ * Завершение сессии выполняется ровно один раз (повторный вызов ничего не делает).
+ *
+ * Для лобби и статистики ведутся индекс ожидающих PVP сессий и счётчики по статусу
+ * и типу; они обновляются при каждой смене статуса ({@link GameSession.StatusListener}),
+ * поэтому запросы не обходят все сессии.
+ *
+ * Все сроки сессий обслуживает одно колесо таймеров ({@link HashedTimingWheel}), у сессии
+ * не больше одного таймера, он переставляется при смене статуса:
+ * - WAITING_FOR_PLAYER дольше sessionTimeout - отмена (никто не подключился);
+ * - PLACING_SHIPS дольше placementTimeout - отмена (расстановка брошена);
+ * - завершённая сессия удаляется через cleanupInterval (чтобы игроки успели получить результат).
+ * При удалении сессии вызываются подписчики ({@link #addSessionRemovalListener}) - например,
+ * закрытие SSE соединений.
+ *
+ * В кластере ({@link ClusterTopology}) реестр хранит только сессии своего узла, а регистрацию
+ * игрока - только для игроков, чьё имя принадлежит этому узлу; регистрация и проверка игроков
+ * других узлов идут через {@link ShardTransport}.
+ *
+ * Создание, подключение и завершение сессий записываются в {@link SessionJournal}; сессии,
+ * собранные из журнала после перезапуска, возвращаются в реестр через {@link #restoreSession}.
+ *
+ * Если задан hibernateAfterMs (по умолчанию усыпление выключено и хранилище не создаётся),
+ * сессия в расстановке или игре, к которой не обращались дольше него, усыпляется:
+ * её компактная запись ({@link SessionCodec}) уходит в {@link SessionHibernationStore} - на диск или
+ * вне heap (game.hibernate-store), место под лимит активных сессий освобождается. Следующее
+ * обращение через {@link #getGameSession} будит сессию - прозрачно для вызывающего. Статус спящей сессии не меняется (любая смена идёт
+ * через обращение), поэтому индексы и счётчики по статусу её не замечают.
+ */
+@Slf4j
 @Getter
 @Component
 public class GameSessionManager {
     
+    // Попыток взять под блокировку живую копию сессии (копию могут усыпить между получением
+    // и блокировкой); получение - обращение к сессии, поэтому даже второй попытки почти не бывает
+    static final int SESSION_LOCK_ATTEMPTS = 3;
+    
     private final Map<UUID, GameSession> activeGameSessions = new ConcurrentHashMap<>();
     private final Map<String, PlayerSession> activePlayerSessions = new ConcurrentHashMap<>();
     private final GameProperties gameProperties;
     private final GameRepository gameRepository;
     
+    // Занятые места под лимит активных сессий (резервируются до добавления в activeGameSessions)
+    private final AtomicInteger sessionCount = new AtomicInteger();
+    // Сессии, для которых завершение уже выполнено
+    private final Set<UUID> finishedSessions = ConcurrentHashMap.newKeySet();
+    // Создаваемые сессии: игроки уже зарегистрированы, в реестре сессии ещё нет
+    private final Set<UUID> pendingSessions = ConcurrentHashMap.newKeySet();
+    
+    // PVP сессии в статусе WAITING_FOR_PLAYER
+    private final Map<UUID, GameSession> waitingIndex = new ConcurrentHashMap<>();
+    // Сессии в реестре по статусу и типу
+    private final Map<GameStatus, LongAdder> statusCounts = counters(GameStatus.class);
+    private final Map<GameType, LongAdder> typeCounts = counters(GameType.class);
+    
+    // Таймеры сессий: один поток на все сессии, не больше одного таймера на сессию;
+    // сработавшие (завершение с записью в БД, освобождение игроков, удаление) - в отдельном пуле
+    private final HashedTimingWheel sessionTimers;
+    private final ExecutorService timerExpiry;
+    private final Map<UUID, HashedTimingWheel.Timeout> pendingTimers = new ConcurrentHashMap<>();
+    private final List<Consumer<UUID>> removalListeners = new CopyOnWriteArrayList<>();
+    private final LongAdder expiredSessions = new LongAdder();
+    
+    // Ёмкость по памяти
+    private final SessionMemoryBudget memoryBudget;
+    private final int sessionCapacity;
+    
+    // Узлы кластера и вызовы реестра на других узлах
+    private final ClusterTopology topology;
+    private final ShardTransport shardTransport;
+    
+    // Журнал команд сессий для восстановления после перезапуска
+    private final SessionJournal journal;
+    
+    // Спящие сессии: записи в хранилище (null - усыпление выключено), пробуждение одной сессии - под одной из блокировок
+    private final SessionHibernationStore hibernationStore;
+    private final Object[] rehydrationLocks = new Object[64];
+    private final ScheduledExecutorService hibernator;
+    private final List<Consumer<UUID>> hibernationListeners = new CopyOnWriteArrayList<>();
+    private final LongAdder hibernations = new LongAdder();
+    private final LongAdder hibernationFailures = new LongAdder();
+    private final LongAdder rehydrations = new LongAdder();
+    private final LongAdder rehydrationNanos = new LongAdder();
+    private final AtomicLong maxRehydrationNanos = new AtomicLong();
+    
+    /**
+     * Реестр единственного узла (без кластера и журнала)
+     */
     public GameSessionManager(GameProperties gameProperties, GameRepository gameRepository) {
+        this(gameProperties, gameRepository, new ClusterTopology(gameProperties), null);
+    }
+    
+    /**
+     * Реестр узла кластера без журнала
+     */
+    public GameSessionManager(GameProperties gameProperties, GameRepository gameRepository,
+                              ClusterTopology topology, ShardTransport shardTransport) {
+        this(gameProperties, gameRepository, topology, shardTransport, SessionJournal.disabled());
+    }
+    
+    @Autowired
+    public GameSessionManager(GameProperties gameProperties, GameRepository gameRepository,
+                              ClusterTopology topology, ShardTransport shardTransport,
+                              SessionJournal journal) {
+        if (topology.isClustered() && shardTransport == null) {
+            throw new IllegalArgumentException("Shard transport is required for a cluster of nodes");
+        }
         this.gameProperties = gameProperties;
         this.gameRepository = gameRepository;
+        this.topology = topology;
+        this.shardTransport = shardTransport;
+        this.journal = journal;
+        this.memoryBudget = new SessionMemoryBudget(gameProperties);
+        int maxSessions = gameProperties.getMaxActiveSessions();
+        this.sessionCapacity = maxSessions > 0
+            ? Math.min(maxSessions, memoryBudget.getCapacity())
+            : memoryBudget.getCapacity();
+        AtomicInteger expiryThread = new AtomicInteger();
+        this.timerExpiry = Executors.newFixedThreadPool(Math.max(1, gameProperties.getTimerExpiryThreads()),
+            runnable -> {
+                Thread thread = new Thread(runnable, "session-expiry-" + expiryThread.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        this.sessionTimers = new HashedTimingWheel("session-timers",
+            gameProperties.getTimerTickMs(), gameProperties.getTimerWheelSize(), timerExpiry);
+        
+        for (int i = 0; i < rehydrationLocks.length; i++) {
+            rehydrationLocks[i] = new Object();
+        }
+        if (gameProperties.getHibernateAfterMs() > 0) {
+            this.hibernationStore = hibernationStore(gameProperties);
+            long interval = Math.max(1, gameProperties.getHibernateCheckIntervalMs());
+            this.hibernator = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "session-hibernator");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            });
+            hibernator.scheduleWithFixedDelay(() -> hibernateIdleSessions(gameProperties.getHibernateAfterMs()),
+                interval, interval, TimeUnit.MILLISECONDS);
+        } else {
+            this.hibernationStore = null;
+            this.hibernator = null;
+        }
     }
     
     /**
      * Создание новой игровой сессии с проверкой лимитов
      */
-    public synchronized GameSession createGameSession(GameSession session) {
-        // Проверяем максимальное количество активных сессий
-        if (activeGameSessions.size() >= gameProperties.getMaxActiveSessions()) {
-            throw new IllegalStateException(
-                String.format("Maximum active sessions reached (%d)", 
-                gameProperties.getMaxActiveSessions())
-            );
+    public GameSession createGameSession(GameSession session) {
+        // Сессия должна принадлежать этому узлу - иначе запросы к ней уйдут на другой
+        if (!topology.isLocal(topology.ownerOfSession(session.getSessionId()))) {
+            session.setSessionId(topology.newSessionId());
         }
         
-        // Проверяем, что игрок не участвует уже в другой игре
-        String playerName = session.getPlayer1().getUsername();
-        if (isPlayerInActiveGame(playerName)) {
-            throw new IllegalArgumentException(
-                String.format("Player %s is already in an active game", playerName)
-            );
+        // Резервируем место под лимит активных сессий
+        reserveSlot();
+        UUID sessionId = session.getSessionId();
+        // Регистрируем игроков (не больше одной активной игры) до публикации сессии: к сессии,
+        // которую придётся убрать, никто не успеет подключиться. Второй игрок уже есть
+        // у сессии из подбора соперника - она попадает в реестр сразу в расстановке
+        pendingSessions.add(sessionId);
+        String player1 = session.getPlayer1().getUsername();
+        Player player2 = session.getPlayer2();
+        boolean claimed = false;
+        try {
+            claimPlayer(player1, sessionId);
+            claimed = true;
+            if (player2 != null && !player2.isAI()) {
+                claimPlayer(player2.getUsername(), sessionId);
+            }
+            // В журнал - до появления в реестре, чтобы команды сессии не опередили её создание
+            journal.sessionCreated(session);
+        } catch (RuntimeException e) {
+            if (claimed) {
+                releasePlayer(player1, sessionId);
+                if (player2 != null && !player2.isAI()) {
+                    releasePlayer(player2.getUsername(), sessionId);
+                }
+            }
+            pendingSessions.remove(sessionId);
+            sessionCount.decrementAndGet();
+            throw e;
         }
-        
-        // Регистрируем игрока
-        PlayerSession playerSession = new PlayerSession(playerName, session.getSessionId());
-        activePlayerSessions.put(playerName, playerSession);
-        
-        // Сохраняем игровую сессию
-        activeGameSessions.put(session.getSessionId(), session);
-        
+        activeGameSessions.put(sessionId, session);
+        register(session);
+        pendingSessions.remove(sessionId);
+
         return session;
     }
     
     /**
      * Подключение игрока к существующей сессии
      */
-    public synchronized GameSession joinGameSession(UUID sessionId, String playerName) {
-        GameSession session = activeGameSessions.get(sessionId);
-        
-        if (session == null) {
-            throw new IllegalArgumentException("Game session not found");
-        }
-    
-        synchronized (session) {
-            if (session.getStatus() != GameStatus.WAITING_FOR_PLAYER) {
-                throw new IllegalStateException("Game session is not waiting for players");
-            }
-        
-            if (session.getGameType() != GameType.PVP) {
-                throw new IllegalStateException("Only PVP games can be joined");
+    public GameSession joinGameSession(UUID sessionId, String playerName) {
+        for (int attempt = 1; ; attempt++) {
+            GameSession session = sessionForLock(sessionId, attempt);
+            
+            if (session == null) {
+                throw new IllegalArgumentException("Game session not found");
             }
         
-            // Проверяем, что игрок не участвует уже в другой игре
-            if (isPlayerInActiveGame(playerName)) {
-                throw new IllegalArgumentException(
-                    String.format("Player %s is already in an active game", playerName)
-                );
+            synchronized (session) {
+                if (session.isHibernated()) {
+                    // Сессию усыпили после получения - отпускаем её и подключаемся к разбуженной
+                    continue;
+                }
+                if (session.getStatus() != GameStatus.WAITING_FOR_PLAYER) {
+                    throw new IllegalStateException("Game session is not waiting for players");
+                }
+            
+                if (session.getGameType() != GameType.PVP) {
+                    throw new IllegalStateException("Only PVP games can be joined");
+                }
+            
+                // Регистрируем игрока (не больше одной активной игры)
+                claimPlayer(playerName, sessionId);
+            
+                // Создаем и подключаем игрока
+                try {
+                    session.connectSecondPlayer(new Player(playerName));
+                } catch (RuntimeException e) {
+                    releasePlayer(playerName, sessionId);
+                    throw e;
+                }
+                journal.playerJoined(sessionId, playerName);
             }
-        
-            // Создаем и подключаем игрока
-            Player player2 = new Player(playerName);
-            session.connectSecondPlayer(player2);
-        
-            // Регистрируем игрока
-            PlayerSession playerSession = new PlayerSession(playerName, sessionId);
-            activePlayerSessions.put(playerName, playerSession);
-        }
 
-        return session;
+            return session;
+        }
     }
     
     /*
-     * Проверка участия игрока в активной игре
+     * Проверка участия игрока в активной игре (на любом узле кластера)
      */
     public boolean isPlayerInActiveGame(String playerName) {
+        return findPlayerSession(playerName) != null;
+    }
+    
+    /**
+     * ID активной сессии игрока (сессия может быть на другом узле) или null
+     */
+    public UUID findPlayerSession(String playerName) {
+        String home = topology.ownerOfPlayer(playerName);
+        return topology.isLocal(home)
+            ? findPlayerSessionLocally(playerName)
+            : shardTransport.findPlayerSession(home, playerName);
+    }
+    
+    /**
+     * Активная сессия игрока по регистрации на этом узле (игрок принадлежит ему)
+     */
+    public UUID findPlayerSessionLocally(String playerName) {
         PlayerSession playerSession = activePlayerSessions.get(playerName);
         
         if (playerSession == null) {
-            return false;
+            return null;
         }
         
-        GameSession gameSession = activeGameSessions.get(playerSession.getGameSessionId());
-        
-        if (gameSession == null) {
-            // Игровая сессия не найдена, удаляем запись игрока
-            activePlayerSessions.remove(playerName);
-            return false;
+        if (!isSessionActive(playerSession.getGameSessionId())) {
+            // Сессия завершена или удалена, удаляем запись игрока (если её не заменили)
+            activePlayerSessions.remove(playerName, playerSession);
+            return null;
         }
         
-        // Проверяем статус игры
-        GameStatus status = gameSession.getStatus();
-        return status == GameStatus.WAITING_FOR_PLAYER || 
-               status == GameStatus.PLACING_SHIPS ||
-               status == GameStatus.IN_PROGRESS;
+        return playerSession.getGameSessionId();
+    }
+    
+    /**
+     * Сессия этого узла есть в реестре и не завершена
+     */
+    public boolean isSessionActiveLocally(UUID sessionId) {
+        if (pendingSessions.contains(sessionId)) {
+            // Сессия создаётся: игроки уже зарегистрированы, в реестр она попадёт следом
+            return true;
+        }
+        GameSession session = activeGameSessions.get(sessionId);
+        // Спят только сессии в расстановке или игре
+        return session != null ? isActive(session) : isHibernated(sessionId);
+    }
+    
+    /**
+     * Сессия есть в реестре или спит; без отметки обращения и без пробуждения
+     */
+    public boolean hasGameSession(UUID sessionId) {
+        return activeGameSessions.containsKey(sessionId) || isHibernated(sessionId);
     }
     
     public void saveCompletedGame(GameSession session, GameStatus finalStatus) {
@@ -137,117 +336,576 @@ public class GameSessionManager {
     /**
      * Завершение игровой сессии
      */
-    public synchronized void finishGameSession(UUID sessionId, GameStatus finalStatus) {
-        GameSession session = activeGameSessions.get(sessionId);
-        
-        if (session != null) {
-            Game game = session.finishGame(finalStatus);
+    public void finishGameSession(UUID sessionId, GameStatus finalStatus) {
+        finishGameSession(sessionId, finalStatus, null);
+    }
+    
+    /**
+     * Завершение сессии, если она в статусе expectedStatus (null - в любом);
+     * false, если статус другой или сессия уже завершена
+     */
+    private boolean finishGameSession(UUID sessionId, GameStatus finalStatus, GameStatus expectedStatus) {
+        for (int attempt = 1; ; attempt++) {
+            GameSession session = sessionForLock(sessionId, attempt);
+            
+            if (session == null) {
+                return false;
+            }
+            
+            Game game;
+            synchronized (session) {
+                if (session.isHibernated()) {
+                    // Сессию усыпили после получения - отпускаем её и завершаем разбуженную
+                    continue;
+                }
+                if (expectedStatus != null && session.getStatus() != expectedStatus) {
+                    return false;
+                }
+                // Завершение выполняется один раз, даже при одновременных вызовах
+                if (!finishedSessions.add(sessionId)) {
+                    return false;
+                }
+                game = session.finishGame(finalStatus);
+                journal.sessionFinished(sessionId, finalStatus);
+            }
             // Освобождаем игроков
             if (session.getPlayer1() != null) {
-                activePlayerSessions.remove(session.getPlayer1().getUsername());
+                releasePlayer(session.getPlayer1().getUsername(), sessionId);
             }
             if (session.getPlayer2() != null && !session.getPlayer2().isAI()) {
-                activePlayerSessions.remove(session.getPlayer2().getUsername());
+                releasePlayer(session.getPlayer2().getUsername(), sessionId);
             }
             
-            
             gameRepository.save(game);
             // Удаляем из активных через некоторое время
             // (в реальном приложении можно переместить в архив)
             scheduleSessionRemoval(sessionId);
+            return true;
         }
     }
     
     /**
-     * Отмена игровой сессии (например, при таймауте)
+     * Возврат в реестр сессии, собранной из журнала после перезапуска: игроки регистрируются
+     * заново, сроки статуса отсчитываются с момента восстановления. Игра, победный выстрел
+     * которой записан, а завершение - нет, завершается (результат попадает в БД); сессия,
+     * которой не хватило места или игрок которой уже занят, отменяется. true - сессия активна
      */
-    public synchronized void cancelGameSession(UUID sessionId) {
-        GameSession session = activeGameSessions.get(sessionId);
+    public boolean restoreSession(GameSession session) {
+        UUID sessionId = session.getSessionId();
+        try {
+            reserveSlot();
+        } catch (IllegalStateException e) {
+            log.warn("Session {} not restored: {}", sessionId, e.getMessage());
+            journal.sessionFinished(sessionId, GameStatus.CANCELLED);
+            return false;
+        }
+        activeGameSessions.put(sessionId, session);
+        register(session);
         
-        if (session != null) {
-            finishGameSession(sessionId, GameStatus.CANCELLED);
-            // Освобождаем игроков
-            if (session.getPlayer1() != null) {
-                activePlayerSessions.remove(session.getPlayer1().getUsername());
-            }
-            if (session.getPlayer2() != null && !session.getPlayer2().isAI()) {
-                activePlayerSessions.remove(session.getPlayer2().getUsername());
+        if (!isActive(session)) {
+            finishGameSession(sessionId, session.getStatus());
+            return false;
+        }
+        try {
+            claimPlayer(session.getPlayer1().getUsername(), sessionId);
+            Player player2 = session.getPlayer2();
+            if (player2 != null && !player2.isAI()) {
+                claimPlayer(player2.getUsername(), sessionId);
             }
-            
-            activeGameSessions.remove(sessionId);
+        } catch (RuntimeException e) {
+            log.warn("Session {} not restored: {}", sessionId, e.getMessage());
+            cancelGameSession(sessionId);
+            return false;
         }
+        return true;
+    }
+    
+    /**
+     * Отмена игровой сессии (например, при таймауте)
+     */
+    public void cancelGameSession(UUID sessionId) {
+        finishGameSession(sessionId, GameStatus.CANCELLED);
+        removeSession(sessionId);
     }
     
     /**
-     * Получение активной сессии по ID
+     * Получение активной сессии по ID (спящая сессия будится)
      */
     public GameSession getGameSession(UUID sessionId) {
-        return activeGameSessions.get(sessionId);
+        while (true) {
+            GameSession session = activeGameSessions.get(sessionId);
+            if (session == null) {
+                session = rehydrate(sessionId);
+                if (session == null) {
+                    return null;
+                }
+            }
+            // Отметка обращения - под блокировкой, как и усыпление: она не достаётся усыплённой копии
+            synchronized (session) {
+                if (!session.isHibernated()) {
+                    session.touch();
+                    return session;
+                }
+            }
+            // Копию усыпили между чтением реестра и блокировкой - будим запись хранилища
+        }
+    }
+    
+    /**
+     * Сессия для команды под её блокировкой; attempt > 1 - прошлую копию усыпили между получением
+     * и блокировкой. После {@link #SESSION_LOCK_ATTEMPTS} попыток - IllegalStateException
+     */
+    GameSession sessionForLock(UUID sessionId, int attempt) {
+        if (attempt > SESSION_LOCK_ATTEMPTS) {
+            throw new IllegalStateException("Game session is busy, try again");
+        }
+        return getGameSession(sessionId);
+    }
+    
+    /**
+     * Усыпление сессий в расстановке или игре, к которым не обращались дольше idleMillis;
+     * возвращает число усыплённых
+     */
+    public int hibernateIdleSessions(long idleMillis) {
+        if (hibernationStore == null) {
+            return 0;
+        }
+        long idleSince = System.currentTimeMillis() - idleMillis;
+        int hibernated = 0;
+        for (GameSession session : activeGameSessions.values()) {
+            if (session.getLastAccessMillis() > idleSince) {
+                continue;
+            }
+            try {
+                hibernated += hibernate(session, idleSince) ? 1 : 0;
+            } catch (RuntimeException e) {
+                hibernationFailures.increment();
+                log.warn("Session {} not hibernated: {}", session.getSessionId(), e.getMessage());
+            }
+        }
+        return hibernated;
+    }
+    
+    /**
+     * Подписка на усыпление сессии (вызывается с ID сессии в потоке усыпления) - например,
+     * чтобы отпустить ссылки на объекты сессии, которые после пробуждения будут другими
+     */
+    public void addSessionHibernationListener(Consumer<UUID> listener) {
+        hibernationListeners.add(listener);
     }
     
     /**
-     * Получение всех активных сессий
+     * Количество спящих сессий
+     */
+    public int getHibernatedSessionsCount() {
+        return hibernationStore != null ? hibernationStore.size() : 0;
+    }
+    
+    /**
+     * Метрики усыпления: спящие сессии, задержка пробуждения, сэкономленный heap
+     */
+    public Map<String, Object> getHibernationStatistics() {
+        if (hibernationStore == null) {
+            return Map.of("hibernateAfterMs", 0L, "hibernatedSessions", 0);
+        }
+        long woken = rehydrations.sum();
+        int hibernated = hibernationStore.size();
+        long heapSaved = memoryBudget.getBytesPerSession() - hibernationStore.getHeapBytesPerSession();
+        return Map.ofEntries(
+            Map.entry("hibernateAfterMs", gameProperties.getHibernateAfterMs()),
+            Map.entry("hibernatedSessions", hibernated),
+            Map.entry("hibernations", hibernations.sum()),
+            Map.entry("failures", hibernationFailures.sum()),
+            Map.entry("rehydrations", woken),
+            Map.entry("avgRehydrationMicros", woken > 0 ? rehydrationNanos.sum() / woken / 1000 : 0),
+            Map.entry("maxRehydrationMicros", maxRehydrationNanos.get() / 1000),
+            Map.entry("storedBytes", hibernationStore.getStoredBytes()),
+            Map.entry("heapBytesSaved", hibernated * Math.max(0, heapSaved)),
+            Map.entry("store", hibernationStore.getStatistics())
+        );
+    }
+    
+    /**
+     * Подписка на удаление сессии из реестра (вызывается с ID сессии, в том числе
+     * из потока таймеров - обработчик должен быть быстрым)
+     */
+    public void addSessionRemovalListener(Consumer<UUID> listener) {
+        removalListeners.add(listener);
+    }
+    
+    /**
+     * Получение всех активных сессий (без спящих - они не будятся)
      */
     public Map<UUID, GameSession> getAllActiveSessions() {
         return new ConcurrentHashMap<>(activeGameSessions);
     }
     
     /**
-     * Получение количества активных сессий
+     * Получение количества активных сессий в памяти (спящие место под лимит не занимают)
      */
     public int getActiveSessionsCount() {
-        return activeGameSessions.size();
+        return sessionCount.get();
     }
     
     
+    /**
+     * Ёмкость и запас по бюджету памяти (для /api/game/capacity)
+     */
+    public Map<String, Object> getCapacityStatistics() {
+        return Map.of(
+            "sessionCapacity", sessionCapacity,
+            "maxActiveSessions", gameProperties.getMaxActiveSessions(),
+            "memory", memoryBudget.getStatistics(getActiveSessionsCount())
+        );
+    }
+    
     /**
      * Получение сессий, ожидающих второго игрока
      */
     public List<GameSession> getWaitingSessions() {
-        return activeGameSessions.values().stream()
-                .filter(session -> session.getStatus() == GameStatus.WAITING_FOR_PLAYER)
-                .collect(Collectors.toList());
+        return new ArrayList<>(waitingIndex.values());
+    }
+    
+    /**
+     * Количество сессий, ожидающих второго игрока
+     */
+    public int getWaitingSessionsCount() {
+        return waitingIndex.size();
+    }
+    
+    /**
+     * Количество сессий в реестре с заданным статусом
+     */
+    public long countByStatus(GameStatus status) {
+        return statusCounts.get(status).sum();
+    }
+    
+    /**
+     * Количество сессий в реестре заданного типа
+     */
+    public long countByType(GameType gameType) {
+        return typeCounts.get(gameType).sum();
     }
     
     /**
      * Получение статистики по сессиям
      */
     public Map<String, Object> getSessionStatistics() {
-        long waitingCount = activeGameSessions.values().stream()
-                .filter(s -> s.getStatus() == GameStatus.WAITING_FOR_PLAYER)
-                .count();
+        Map<GameStatus, Long> byStatus = new EnumMap<>(GameStatus.class);
+        statusCounts.forEach((status, count) -> byStatus.put(status, count.sum()));
         
-        long inProgressCount = activeGameSessions.values().stream()
-                .filter(s -> s.getStatus() == GameStatus.IN_PROGRESS)
-                .count();
-        
-        long pvpCount = activeGameSessions.values().stream()
-                .filter(s -> s.getGameType() == GameType.PVP)
-                .count();
-        
-        long pveCount = activeGameSessions.values().stream()
-                .filter(s -> s.getGameType() == GameType.PVE)
-                .count();
-        
-        return Map.of(
-            "totalSessions", getActiveSessionsCount(),
-            "waitingSessions", waitingCount,
-            "inProgressSessions", inProgressCount,
-            "pvpSessions", pvpCount,
-            "pveSessions", pveCount,
-            "activePlayers", activePlayerSessions.size(),
-            "maxSessions", gameProperties.getMaxActiveSessions()
+        return Map.ofEntries(
+            Map.entry("totalSessions", getActiveSessionsCount()),
+            Map.entry("hibernatedSessions", getHibernatedSessionsCount()),
+            Map.entry("waitingSessions", getWaitingSessionsCount()),
+            Map.entry("inProgressSessions", countByStatus(GameStatus.IN_PROGRESS)),
+            Map.entry("pvpSessions", countByType(GameType.PVP)),
+            Map.entry("pveSessions", countByType(GameType.PVE)),
+            Map.entry("activePlayers", activePlayerSessions.size()),
+            Map.entry("maxSessions", sessionCapacity),
+            Map.entry("sessionsByStatus", byStatus),
+            Map.entry("expiredSessions", expiredSessions.sum()),
+            Map.entry("timers", sessionTimers.getStatistics())
         );
     }
     
+    /**
+     * Удаление завершённой сессии через cleanupInterval (время получить результат)
+     */
     private void scheduleSessionRemoval(UUID sessionId) {
-        // В реальном приложении можно использовать ScheduledExecutorService
-        // Для простоты удалим сразу, но лучше дать время на получение результата
-        new Timer().schedule(new TimerTask() {
-            @Override
-            public void run() {
-                activeGameSessions.remove(sessionId);
-            }
-        }, 60000); // Удалить через 1 минуту после завершения
+        scheduleTimer(sessionId, gameProperties.getCleanupInterval(), () -> removeSession(sessionId));
+    }
+    
+    /**
+     * Таймер сессии по её текущему статусу (вызывается под блокировкой сессии)
+     */
+    private void scheduleExpiry(GameSession session) {
+        GameStatus status = session.getStatus();
+        long timeout;
+        if (status == GameStatus.WAITING_FOR_PLAYER) {
+            timeout = gameProperties.getSessionTimeout();
+        } else if (status == GameStatus.PLACING_SHIPS) {
+            timeout = gameProperties.getPlacementTimeout();
+        } else {
+            // Игра идёт или завершена - предыдущий срок больше не действует
+            cancelTimer(session.getSessionId());
+            return;
+        }
+        
+        UUID sessionId = session.getSessionId();
+        if (timeout <= 0) {
+            cancelTimer(sessionId);
+            return;
+        }
+        scheduleTimer(sessionId, timeout, () -> expireSession(sessionId, status));
+    }
+    
+    /**
+     * Отмена сессии, пробывшей в статусе status дольше допустимого
+     */
+    private void expireSession(UUID sessionId, GameStatus status) {
+        if (finishGameSession(sessionId, GameStatus.CANCELLED, status)) {
+            expiredSessions.increment();
+            log.info("Session {} cancelled after timeout in status {}", sessionId, status);
+            removeSession(sessionId);
+        }
+    }
+    
+    /**
+     * Замена таймера сессии (предыдущий отменяется, O(1))
+     */
+    private void scheduleTimer(UUID sessionId, long delayMs, Runnable action) {
+        HashedTimingWheel.Timeout timeout = sessionTimers.schedule(() -> {
+            // Снимаем сработавший таймер с сессии (если его не успели заменить)
+            pendingTimers.computeIfPresent(sessionId, (id, current) -> current.isExpired() ? null : current);
+            action.run();
+        }, delayMs, TimeUnit.MILLISECONDS);
+        HashedTimingWheel.Timeout previous = pendingTimers.put(sessionId, timeout);
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+    
+    private void cancelTimer(UUID sessionId) {
+        HashedTimingWheel.Timeout timeout = pendingTimers.remove(sessionId);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+    
+    /**
+     * Резервирование места под новую сессию; при достижении лимита - IllegalStateException
+     */
+    private void reserveSlot() {
+        int max = sessionCapacity;
+        while (true) {
+            int current = sessionCount.get();
+            if (current >= max) {
+                throw new IllegalStateException(
+                    String.format("Maximum active sessions reached (%d)", max)
+                );
+            }
+            if (sessionCount.compareAndSet(current, current + 1)) {
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Удаление сессии из реестра с освобождением места
+     */
+    private void removeSession(UUID sessionId) {
+        if (isHibernated(sessionId)) {
+            // Будим, чтобы снять сессию с индексов и счётчиков как обычно
+            rehydrate(sessionId);
+        }
+        GameSession session = activeGameSessions.remove(sessionId);
+        if (session != null) {
+            unregister(session);
+            cancelTimer(sessionId);
+            finishedSessions.remove(sessionId);
+            sessionCount.decrementAndGet();
+            for (Consumer<UUID> listener : removalListeners) {
+                try {
+                    listener.accept(sessionId);
+                } catch (RuntimeException e) {
+                    log.error("Session removal listener failed for {}", sessionId, e);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Усыпление сессии, если она всё ещё в реестре, в расстановке или игре и не использовалась
+     * с idleSince; под блокировкой сессии - команды и таймеры её не меняют в это время.
+     * Запись появляется раньше, чем сессия уходит из реестра: читатель видит одно из двух.
+     * Усыплённая копия помечается: взявший её до усыпления видит отметку под блокировкой
+     * и берёт разбуженную сессию заново. Хранилище без места - сессия остаётся в реестре
+     */
+    private boolean hibernate(GameSession session, long idleSince) {
+        UUID sessionId = session.getSessionId();
+        synchronized (session) {
+            GameStatus status = session.getStatus();
+            if ((status != GameStatus.PLACING_SHIPS && status != GameStatus.IN_PROGRESS)
+                    || session.getLastAccessMillis() > idleSince
+                    || activeGameSessions.get(sessionId) != session) {
+                return false;
+            }
+            if (!hibernationStore.put(session)) {
+                return false;
+            }
+            activeGameSessions.remove(sessionId, session);
+            session.setStatusListener(null);
+            session.setHibernated(true);
+        }
+        sessionCount.decrementAndGet();
+        hibernations.increment();
+        for (Consumer<UUID> listener : hibernationListeners) {
+            try {
+                listener.accept(sessionId);
+            } catch (RuntimeException e) {
+                log.error("Session hibernation listener failed for {}", sessionId, e);
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Пробуждение спящей сессии (одновременные обращения будят её один раз); null - такой нет.
+     * Место под лимит занимается без проверки: игра уже идёт, освободит место следующее усыпление
+     */
+    private GameSession rehydrate(UUID sessionId) {
+        if (!isHibernated(sessionId)) {
+            // Сессии нет или её только что разбудили
+            return activeGameSessions.get(sessionId);
+        }
+        synchronized (rehydrationLocks[(sessionId.hashCode() & Integer.MAX_VALUE) % rehydrationLocks.length]) {
+            GameSession session = activeGameSessions.get(sessionId);
+            if (session != null) {
+                return session;
+            }
+            long start = System.nanoTime();
+            session = hibernationStore.get(sessionId);
+            if (session == null) {
+                return null;
+            }
+            session.setStatusListener(this::onStatusChange);
+            sessionCount.incrementAndGet();
+            activeGameSessions.put(sessionId, session);
+            hibernationStore.remove(sessionId);
+            long elapsed = System.nanoTime() - start;
+            
+            rehydrations.increment();
+            rehydrationNanos.add(elapsed);
+            maxRehydrationNanos.accumulateAndGet(elapsed, Math::max);
+            return session;
+        }
+    }
+    
+    /**
+     * Подписка на смену статуса и учёт сессии в индексах (под блокировкой сессии,
+     * под которой меняется и статус - счётчики не пропускают переходы)
+     */
+    private void register(GameSession session) {
+        synchronized (session) {
+            session.setStatusListener(this::onStatusChange);
+            typeCounts.get(session.getGameType()).increment();
+            countStatus(session, session.getStatus(), 1);
+            scheduleExpiry(session);
+        }
+    }
+    
+    private void unregister(GameSession session) {
+        synchronized (session) {
+            session.setStatusListener(null);
+            typeCounts.get(session.getGameType()).decrement();
+            countStatus(session, session.getStatus(), -1);
+        }
+    }
+    
+    private void onStatusChange(GameSession session, GameStatus previous, GameStatus current) {
+        countStatus(session, previous, -1);
+        countStatus(session, current, 1);
+        scheduleExpiry(session);
+    }
+    
+    private void countStatus(GameSession session, GameStatus status, int delta) {
+        statusCounts.get(status).add(delta);
+        if (status == GameStatus.WAITING_FOR_PLAYER && session.getGameType() == GameType.PVP) {
+            if (delta > 0) {
+                waitingIndex.put(session.getSessionId(), session);
+            } else {
+                waitingIndex.remove(session.getSessionId());
+            }
+        }
+    }
+    
+    private static <E extends Enum<E>> Map<E, LongAdder> counters(Class<E> type) {
+        Map<E, LongAdder> counters = new EnumMap<>(type);
+        for (E value : type.getEnumConstants()) {
+            counters.put(value, new LongAdder());
+        }
+        return counters;
+    }
+    
+    /**
+     * Регистрация игрока в сессии на узле, которому принадлежит игрок (при подключении -
+     * под блокировкой сессии, для игрока другого узла это сетевой вызов)
+     */
+    private void claimPlayer(String playerName, UUID sessionId) {
+        String home = topology.ownerOfPlayer(playerName);
+        if (topology.isLocal(home)) {
+            claimPlayerLocally(playerName, sessionId);
+        } else {
+            shardTransport.claimPlayer(home, playerName, sessionId);
+        }
+    }
+    
+    private void releasePlayer(String playerName, UUID sessionId) {
+        String home = topology.ownerOfPlayer(playerName);
+        if (topology.isLocal(home)) {
+            releasePlayerLocally(playerName, sessionId);
+        } else {
+            shardTransport.releasePlayer(home, playerName, sessionId);
+        }
+    }
+    
+    /**
+     * Регистрация игрока этого узла в сессии; IllegalArgumentException, если он уже в активной игре.
+     * Запись от завершённой или удалённой сессии заменяется.
+     */
+    public void claimPlayerLocally(String playerName, UUID sessionId) {
+        PlayerSession claim = new PlayerSession(playerName, sessionId);
+        while (true) {
+            PlayerSession existing = activePlayerSessions.putIfAbsent(playerName, claim);
+            if (existing == null) {
+                return;
+            }
+            if (isSessionActive(existing.getGameSessionId())) {
+                throw new IllegalArgumentException(
+                    String.format("Player %s is already in an active game", playerName)
+                );
+            }
+            activePlayerSessions.remove(playerName, existing);
+        }
+    }
+    
+    /**
+     * Снятие регистрации игрока этого узла, если она относится к этой сессии
+     */
+    public void releasePlayerLocally(String playerName, UUID sessionId) {
+        activePlayerSessions.computeIfPresent(playerName,
+            (name, playerSession) -> sessionId.equals(playerSession.getGameSessionId()) ? null : playerSession);
+    }
+    
+    /**
+     * Активность сессии на узле-владельце
+     */
+    private boolean isSessionActive(UUID sessionId) {
+        String owner = topology.ownerOfSession(sessionId);
+        return topology.isLocal(owner)
+            ? isSessionActiveLocally(sessionId)
+            : shardTransport.isSessionActive(owner, sessionId);
+    }
+    
+    private boolean isHibernated(UUID sessionId) {
+        return hibernationStore != null && hibernationStore.contains(sessionId);
+    }
+    
+    private static SessionHibernationStore hibernationStore(GameProperties gameProperties) {
+        if ("offheap".equalsIgnoreCase(gameProperties.getHibernateStore())) {
+            return new OffHeapSessionStore(gameProperties.getOffHeapStoreMaxMb() * 1024L * 1024L);
+        }
+        return new DiskSessionStore(gameProperties.getHibernateDir());
+    }
+    
+    private static boolean isActive(GameSession session) {
+        if (session == null) {
+            return false;
+        }
+        GameStatus status = session.getStatus();
+        return status == GameStatus.WAITING_FOR_PLAYER || 
+               status == GameStatus.PLACING_SHIPS ||
+               status == GameStatus.IN_PROGRESS;
     }
 }
\ No newline at end of file
@@ -0,0 +1,257 @@
+// back\src\main\java\com\seabattle\sea_battle\service\HashedTimingWheel.java
+package com.seabattle.sea_battle.service;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Хешированное колесо таймеров: один поток обслуживает любое число отложенных задач.
+ * Колесо из wheelSize ячеек по tick; задача попадает в ячейку своего срока и число
+ * полных оборотов до него. Постановка - добавление в очередь, отмена - смена состояния
+ * (обе O(1)); отменённые задачи убираются, когда поток проходит их ячейку.
+ * Точность срабатывания - один tick. Поток колеса только отмечает срабатывание и передаёт
+ * задачу executor: долгая задача (БД, HTTP, диск) не задерживает остальные сроки.
+ */
+@Slf4j
+public final class HashedTimingWheel {
+
+    private static final int MAX_TRANSFER_PER_TICK = 100_000;
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final long startNanos;
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+    private final Thread worker;
+    private final Executor executor;
+    private volatile boolean running = true;
+
+    // Номер текущего тика (только поток колеса)
+    private long tick;
+
+    private final LongAdder scheduled = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+
+    public HashedTimingWheel(String name, long tickMillis, int wheelSize, Executor executor) {
+        this.executor = executor;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, tickMillis));
+        // Размер - степень двойки, чтобы ячейка считалась маской
+        int size = Integer.highestOneBit(Math.max(2, wheelSize) * 2 - 1);
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.startNanos = System.nanoTime();
+
+        this.worker = new Thread(this::run, name);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Выполнить task через delay; возвращает дескриптор для отмены
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        long deadline = System.nanoTime() - startNanos + unit.toNanos(Math.max(0, delay));
+        Timeout timeout = new Timeout(this, task, deadline);
+        scheduled.increment();
+        pending.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Остановка потока колеса (невыполненные задачи отбрасываются)
+     */
+    public void stop() {
+        running = false;
+        worker.interrupt();
+    }
+
+    /**
+     * Метрики для /api/game/status
+     */
+    public Map<String, Object> getStatistics() {
+        long scheduledCount = scheduled.sum();
+        long expiredCount = expired.sum();
+        long cancelledCount = cancelled.sum();
+        return Map.of(
+            "tickMs", TimeUnit.NANOSECONDS.toMillis(tickNanos),
+            "wheelSize", wheel.length,
+            "scheduled", scheduledCount,
+            "expired", expiredCount,
+            "cancelled", cancelledCount,
+            "pending", scheduledCount - expiredCount - cancelledCount
+        );
+    }
+
+    private void run() {
+        while (running) {
+            long deadline = tickNanos * (tick + 1);
+            if (!waitUntil(deadline)) {
+                return;
+            }
+            transferPending();
+            expireBucket(wheel[(int) (tick & mask)]);
+            tick++;
+        }
+    }
+
+    /**
+     * Ожидание конца тика (время от старта колеса); false если колесо остановлено
+     */
+    private boolean waitUntil(long deadline) {
+        while (running) {
+            long sleep = deadline - (System.nanoTime() - startNanos);
+            if (sleep <= 0) {
+                return true;
+            }
+            LockSupport.parkNanos(this, sleep);
+        }
+        return false;
+    }
+
+    private void transferPending() {
+        for (int i = 0; i < MAX_TRANSFER_PER_TICK; i++) {
+            Timeout timeout = pending.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.state != Timeout.ST_INIT) {
+                continue;
+            }
+            long expiresAtTick = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (expiresAtTick - tick) / wheel.length;
+            // Просроченные (срок уже прошёл) - в текущую ячейку
+            long ticks = Math.max(expiresAtTick, tick);
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    private void expireBucket(Bucket bucket) {
+        Timeout timeout = bucket.head;
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            if (timeout.state != Timeout.ST_INIT) {
+                bucket.remove(timeout);
+            } else if (timeout.remainingRounds <= 0) {
+                bucket.remove(timeout);
+                timeout.expire();
+            } else {
+                timeout.remainingRounds--;
+            }
+            timeout = next;
+        }
+    }
+
+    /**
+     * Дескриптор отложенной задачи
+     */
+    public static final class Timeout {
+        private static final int ST_INIT = 0;
+        private static final int ST_CANCELLED = 1;
+        private static final int ST_EXPIRED = 2;
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE =
+            AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        private final HashedTimingWheel owner;
+        private final Runnable task;
+        // Срок в наносекундах от старта колеса
+        private final long deadline;
+        private volatile int state = ST_INIT;
+
+        // Поля ячейки - только поток колеса
+        private long remainingRounds;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(HashedTimingWheel owner, Runnable task, long deadline) {
+            this.owner = owner;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Отмена; false, если задача уже выполнена или отменена
+         */
+        public boolean cancel() {
+            if (!STATE.compareAndSet(this, ST_INIT, ST_CANCELLED)) {
+                return false;
+            }
+            owner.cancelled.increment();
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state == ST_CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state == ST_EXPIRED;
+        }
+
+        private void expire() {
+            if (!STATE.compareAndSet(this, ST_INIT, ST_EXPIRED)) {
+                return;
+            }
+            owner.expired.increment();
+            try {
+                owner.executor.execute(this::run);
+            } catch (RejectedExecutionException e) {
+                log.warn("Timer task rejected: {}", e.getMessage());
+            }
+        }
+
+        private void run() {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                log.error("Timer task failed", e);
+            }
+        }
+    }
+
+    /**
+     * Двусвязный список задач ячейки (только поток колеса)
+     */
+    private static final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.prev = tail;
+            timeout.next = null;
+            if (tail == null) {
+                head = timeout;
+            } else {
+                tail.next = timeout;
+            }
+            tail = timeout;
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.prev == null) {
+                head = timeout.next;
+            } else {
+                timeout.prev.next = timeout.next;
+            }
+            if (timeout.next == null) {
+                tail = timeout.prev;
+            } else {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+// back\src\main\java\com\seabattle\sea_battle\service\HttpShardTransport.java
+package com.seabattle.sea_battle.service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+
+import org.springframework.stereotype.Component;
+
+import com.seabattle.sea_battle.config.GameProperties;
+import com.seabattle.sea_battle.config.ShardSecretInterceptor;
+
+/**
+ * Вызовы другого узла по HTTP (/internal/shard, {@link com.seabattle.sea_battle.controller.ShardController}).
+ * Ответы - текст: ID сессии, true/false; 409 - игрок уже в активной игре.
+ * Каждый вызов несёт общий секрет узлов (game.shard-secret) в заголовке X-Shard-Secret.
+ */
+@Component
+public class HttpShardTransport implements ShardTransport {
+
+    private static final String BASE_PATH = "/internal/shard";
+
+    private final ClusterTopology topology;
+    private final HttpClient client;
+    private final Duration timeout;
+    private final String secret;
+
+    public HttpShardTransport(ClusterTopology topology, GameProperties gameProperties) {
+        this.topology = topology;
+        this.timeout = Duration.ofMillis(gameProperties.getShardRequestTimeoutMs());
+        this.secret = gameProperties.getShardSecret();
+        this.client = HttpClient.newBuilder()
+            .connectTimeout(timeout)
+            .build();
+    }
+
+    @Override
+    public void claimPlayer(String nodeId, String playerName, UUID sessionId) {
+        HttpResponse<String> response = send(nodeId, "POST", "/players/" + encode(playerName) + "/claim?sessionId=" + sessionId);
+        if (response.statusCode() == 409) {
+            throw new IllegalArgumentException(response.body());
+        }
+        expectOk(nodeId, response);
+    }
+
+    @Override
+    public void releasePlayer(String nodeId, String playerName, UUID sessionId) {
+        expectOk(nodeId, send(nodeId, "POST", "/players/" + encode(playerName) + "/release?sessionId=" + sessionId));
+    }
+
+    @Override
+    public UUID findPlayerSession(String nodeId, String playerName) {
+        HttpResponse<String> response = send(nodeId, "GET", "/players/" + encode(playerName) + "/session");
+        if (response.statusCode() == 204) {
+            return null;
+        }
+        expectOk(nodeId, response);
+        return UUID.fromString(response.body().trim());
+    }
+
+    @Override
+    public boolean isSessionActive(String nodeId, UUID sessionId) {
+        HttpResponse<String> response = send(nodeId, "GET", "/sessions/" + sessionId + "/active");
+        expectOk(nodeId, response);
+        return Boolean.parseBoolean(response.body().trim());
+    }
+
+    private HttpResponse<String> send(String nodeId, String method, String path) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(topology.urlOf(nodeId) + BASE_PATH + path))
+            .timeout(timeout)
+            .header(ShardSecretInterceptor.SECRET_HEADER, secret)
+            .method(method, HttpRequest.BodyPublishers.noBody())
+            .build();
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            throw new IllegalStateException("Shard node " + nodeId + " is unavailable: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while calling shard node " + nodeId, e);
+        }
+    }
+
+    private static void expectOk(String nodeId, HttpResponse<String> response) {
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(
+                String.format("Shard node %s answered %d: %s", nodeId, response.statusCode(), response.body())
+            );
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+}
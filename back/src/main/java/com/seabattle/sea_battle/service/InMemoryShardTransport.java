@@ -0,0 +1,57 @@
+// back\src\main\java\com\seabattle\sea_battle\service\InMemoryShardTransport.java
+package com.seabattle.sea_battle.service;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Несколько узлов в одной JVM: вызов "другого узла" - прямой вызов его реестра.
+ * Для локального стенда кластера и нагрузочных проверок без сети; считает межузловые вызовы.
+ */
+public class InMemoryShardTransport implements ShardTransport {
+
+    private final Map<String, GameSessionManager> nodes = new ConcurrentHashMap<>();
+    private final LongAdder calls = new LongAdder();
+
+    /**
+     * Узел кластера; его реестр должен быть создан с этим транспортом
+     */
+    public void register(String nodeId, GameSessionManager manager) {
+        nodes.put(nodeId, manager);
+    }
+
+    @Override
+    public void claimPlayer(String nodeId, String playerName, UUID sessionId) {
+        node(nodeId).claimPlayerLocally(playerName, sessionId);
+    }
+
+    @Override
+    public void releasePlayer(String nodeId, String playerName, UUID sessionId) {
+        node(nodeId).releasePlayerLocally(playerName, sessionId);
+    }
+
+    @Override
+    public UUID findPlayerSession(String nodeId, String playerName) {
+        return node(nodeId).findPlayerSessionLocally(playerName);
+    }
+
+    @Override
+    public boolean isSessionActive(String nodeId, UUID sessionId) {
+        return node(nodeId).isSessionActiveLocally(sessionId);
+    }
+
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    private GameSessionManager node(String nodeId) {
+        GameSessionManager manager = nodes.get(nodeId);
+        if (manager == null) {
+            throw new IllegalStateException("Shard node " + nodeId + " is unavailable");
+        }
+        calls.increment();
+        return manager;
+    }
+}
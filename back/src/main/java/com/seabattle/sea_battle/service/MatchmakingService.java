@@ -0,0 +1,428 @@
+// back\src\main\java\com\seabattle\sea_battle\service\MatchmakingService.java
+package com.seabattle.sea_battle.service;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.seabattle.sea_battle.config.GameProperties;
+import com.seabattle.sea_battle.model.GameSession;
+import com.seabattle.sea_battle.model.Player;
+import com.seabattle.sea_battle.model.enums.GameType;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Подбор соперника для PVP вместо опроса /waiting-sessions и гонки за подключение.
+ * Игрок встаёт в очередь своего предпочтения (ConcurrentLinkedQueue, без блокировок; разные
+ * предпочтения - разные очереди). Набор очередей задан настройкой game.matchmaking-preferences
+ * и создаётся при старте; с другим предпочтением в очередь не встать. Пары составляет поток,
+ * поставивший заявку: после постановки он забирает из очереди две ждущие заявки и создаёт для них
+ * сессию. Разбирает очередь один поток за раз - остальные только добавляют заявки, а разбирающий
+ * перед выходом проверяет, не осталось ли пар. Сессия попадает в реестр сразу с обоими игроками
+ * (в расстановке), поэтому подключиться к ней через /join нельзя. Отдельного потока подбора нет -
+ * разные очереди разбираются параллельно на потоках запросов.
+ * Оба игрока получают MATCH_FOUND по SSE (/api/sse/matchmaking).
+ *
+ * Заявка: WAITING -> CLAIMED (забрана в пару) -> MATCHED, или WAITING -> CANCELLED (выход
+ * из очереди, таймаут game.matchmaking-timeout, игрок начал другую игру). Если пара не сложилась,
+ * заявка возвращается в WAITING и в очередь. Отменённые заявки не удаляются из очереди сразу -
+ * их отбрасывает следующий разбор. Отмена заявки в CLAIMED не ждёт итога пары (создание сессии
+ * может вызывать другой узел): она оставляет причину, и несложившаяся пара отменяет заявку
+ * вместо возврата в очередь.
+ */
+@Slf4j
+@Service
+public class MatchmakingService {
+
+    public static final String DEFAULT_PREFERENCE = "any";
+    private static final int MAX_PREFERENCE_LENGTH = 32;
+
+    private static final int WAITING = 0;
+    private static final int CLAIMED = 1;
+    private static final int MATCHED = 2;
+    private static final int CANCELLED = 3;
+
+    private final GameSessionManager sessionManager;
+    private final SseNotificationService sseService;
+    private final long timeoutMs;
+
+    // Очереди по предпочтению (набор постоянный) и заявки по игроку (не больше одной на игрока)
+    private final Map<String, Bucket> buckets;
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder matchedPairs = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder requeued = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+
+    public MatchmakingService(GameProperties gameProperties, GameSessionManager sessionManager,
+                              SseNotificationService sseService) {
+        this.sessionManager = sessionManager;
+        this.sseService = sseService;
+        this.timeoutMs = gameProperties.getMatchmakingTimeout();
+        Map<String, Bucket> configured = new HashMap<>();
+        configured.put(DEFAULT_PREFERENCE, new Bucket(DEFAULT_PREFERENCE));
+        for (String preference : gameProperties.getMatchmakingPreferences()) {
+            String normalized = normalize(preference);
+            configured.putIfAbsent(normalized, new Bucket(normalized));
+        }
+        this.buckets = Map.copyOf(configured);
+    }
+
+    /**
+     * Постановка игрока в очередь подбора. Если соперник уже ждёт, пара составляется сразу
+     * и future заявки к возврату завершён сессией
+     */
+    public Ticket enqueue(String playerName, String preference) {
+        if (playerName == null || playerName.isBlank()) {
+            throw new IllegalArgumentException("Player name is required");
+        }
+        if (sessionManager.isPlayerInActiveGame(playerName)) {
+            throw new IllegalArgumentException(
+                String.format("Player %s is already in an active game", playerName)
+            );
+        }
+        if (sessionManager.getActiveSessionsCount() >= sessionManager.getSessionCapacity()) {
+            throw new IllegalStateException(
+                "Cannot start matchmaking. Maximum limit reached: " + sessionManager.getSessionCapacity()
+            );
+        }
+
+        Bucket bucket = bucket(normalize(preference));
+        Ticket ticket = new Ticket(playerName, bucket.preference);
+        if (tickets.putIfAbsent(playerName, ticket) != null) {
+            throw new IllegalArgumentException(
+                String.format("Player %s is already in matchmaking queue", playerName)
+            );
+        }
+        enqueued.increment();
+        if (timeoutMs > 0) {
+            ticket.timeout = sessionManager.getSessionTimers()
+                .schedule(() -> expire(ticket), timeoutMs, TimeUnit.MILLISECONDS);
+        }
+
+        bucket.offer(ticket);
+        drain(bucket);
+        return ticket;
+    }
+
+    /**
+     * Выход из очереди; false, если игрок не в очереди или пара уже составлена.
+     * Для заявки, забранной в пару, результат известен после создания сессии
+     */
+    public CompletableFuture<Boolean> leave(String playerName) {
+        Ticket ticket = tickets.get(playerName);
+        if (ticket == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return cancel(ticket, "Left matchmaking queue").thenApply(left -> {
+            if (left) {
+                cancelled.increment();
+            }
+            return left;
+        });
+    }
+
+    /**
+     * Состояние игрока: QUEUED (в очереди), MATCHED (в активной игре), NOT_QUEUED
+     */
+    public Map<String, Object> getPlayerStatus(String playerName) {
+        Ticket ticket = tickets.get(playerName);
+        if (ticket != null && ticket.state.get() != CANCELLED) {
+            return Map.of(
+                "status", "QUEUED",
+                "player", playerName,
+                "preference", ticket.preference,
+                "waitingMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - ticket.enqueuedAt)
+            );
+        }
+        GameSession session = activeSession(playerName);
+        if (session != null) {
+            return matchPayload(session, playerName);
+        }
+        return Map.of("status", "NOT_QUEUED", "player", playerName);
+    }
+
+    /**
+     * SSE соединение игрока в очереди; если пара составлена до подписки - MATCH_FOUND сразу
+     */
+    public SseEmitter subscribe(String playerName) {
+        SseEmitter emitter = sseService.registerMatchmaking(playerName);
+        Ticket ticket = tickets.get(playerName);
+        if (ticket == null || ticket.state.get() == MATCHED) {
+            GameSession session = activeSession(playerName);
+            if (session != null) {
+                sseService.notifyMatchmaking(playerName, "MATCH_FOUND", matchPayload(session, playerName));
+            }
+        }
+        return emitter;
+    }
+
+    /**
+     * Метрики для /api/game/status
+     */
+    public Map<String, Object> getStatistics() {
+        long matchedPlayers = matchedPairs.sum() * 2;
+        return Map.of(
+            "queued", tickets.size(),
+            "buckets", buckets.size(),
+            "enqueued", enqueued.sum(),
+            "matchedPairs", matchedPairs.sum(),
+            "cancelled", cancelled.sum(),
+            "expired", expired.sum(),
+            "failed", failed.sum(),
+            "requeued", requeued.sum(),
+            "avgWaitMs", matchedPlayers > 0 ? waitNanos.sum() / 1e6 / matchedPlayers : 0.0
+        );
+    }
+
+    /**
+     * Составление пар, пока в очереди есть хотя бы две заявки. Разбирает один поток: кто не взял
+     * разбор, выходит сразу - его заявка уже в очереди и посчитана, а разбирающий после снятия
+     * отметки ещё раз проверяет размер. Две ждущие заявки не остаются без пары
+     */
+    private void drain(Bucket bucket) {
+        while (bucket.size.get() >= 2 && bucket.draining.compareAndSet(false, true)) {
+            try {
+                while (bucket.size.get() >= 2) {
+                    Ticket first = bucket.pollWaiting();
+                    if (first == null) {
+                        // Остались только отменённые заявки
+                        break;
+                    }
+                    Ticket second = bucket.pollWaiting();
+                    if (second == null) {
+                        release(bucket, first);
+                        break;
+                    }
+                    pair(bucket, first, second);
+                }
+            } finally {
+                bucket.draining.set(false);
+            }
+        }
+    }
+
+    /**
+     * Сессия для двух забранных заявок; если один из игроков успел начать другую игру,
+     * его заявка отменяется, а второй возвращается в очередь
+     */
+    private void pair(Bucket bucket, Ticket first, Ticket second) {
+        GameSession session = new GameSession(new Player(first.playerName), GameType.PVP);
+        session.connectSecondPlayer(new Player(second.playerName));
+        try {
+            sessionManager.createGameSession(session);
+        } catch (IllegalArgumentException e) {
+            for (Ticket ticket : new Ticket[]{first, second}) {
+                if (sessionManager.isPlayerInActiveGame(ticket.playerName)) {
+                    fail(ticket, e.getMessage());
+                } else {
+                    release(bucket, ticket);
+                }
+            }
+            return;
+        } catch (IllegalStateException e) {
+            // Лимит сессий
+            fail(first, e.getMessage());
+            fail(second, e.getMessage());
+            return;
+        }
+
+        matchedPairs.increment();
+        complete(first, session);
+        complete(second, session);
+        log.debug("Matched {} and {} in session {}", first.playerName, second.playerName, session.getSessionId());
+    }
+
+    private void complete(Ticket ticket, GameSession session) {
+        ticket.state.set(MATCHED);
+        finish(ticket);
+        waitNanos.add(System.nanoTime() - ticket.enqueuedAt);
+        ticket.match.complete(session);
+        sseService.notifyMatchmaking(ticket.playerName, "MATCH_FOUND", matchPayload(session, ticket.playerName));
+    }
+
+    private void fail(Ticket ticket, String reason) {
+        ticket.state.set(CANCELLED);
+        finish(ticket);
+        failed.increment();
+        notifyCancelled(ticket, reason);
+    }
+
+    /**
+     * Возврат забранной заявки в очередь (пара не сложилась); заявка, которую отменили,
+     * пока она была в паре, отменяется. Состояние меняется до чтения причины, а cancel
+     * пишет причину до чтения состояния - хотя бы один из них видит другого
+     */
+    private void release(Bucket bucket, Ticket ticket) {
+        ticket.state.set(WAITING);
+        String reason = ticket.cancelReason;
+        if (reason != null && ticket.state.compareAndSet(WAITING, CANCELLED)) {
+            finish(ticket);
+            notifyCancelled(ticket, reason);
+            return;
+        }
+        requeued.increment();
+        bucket.offer(ticket);
+    }
+
+    private void expire(Ticket ticket) {
+        cancel(ticket, "No opponent found in time").thenAccept(done -> {
+            if (done) {
+                expired.increment();
+            }
+        });
+    }
+
+    /**
+     * Отмена ждущей заявки; true - заявка отменена. Итог заявки, забранной в пару, решает поток
+     * подбора: причина отмены остаётся в заявке, результат - по завершении match
+     */
+    private CompletableFuture<Boolean> cancel(Ticket ticket, String reason) {
+        while (true) {
+            int state = ticket.state.get();
+            if (state == WAITING) {
+                if (ticket.state.compareAndSet(WAITING, CANCELLED)) {
+                    finish(ticket);
+                    notifyCancelled(ticket, reason);
+                    return CompletableFuture.completedFuture(true);
+                }
+            } else if (state == CLAIMED) {
+                ticket.cancelReason = reason;
+                if (ticket.state.get() != WAITING) {
+                    return ticket.match.handle((session, error) -> session == null);
+                }
+                // Пара не сложилась, заявка уже в очереди - отменяем её здесь
+            } else {
+                return CompletableFuture.completedFuture(false);
+            }
+        }
+    }
+
+    private void finish(Ticket ticket) {
+        tickets.remove(ticket.playerName, ticket);
+        HashedTimingWheel.Timeout timeout = ticket.timeout;
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    private void notifyCancelled(Ticket ticket, String reason) {
+        ticket.match.completeExceptionally(new IllegalStateException(reason));
+        sseService.notifyMatchmaking(ticket.playerName, "MATCHMAKING_CANCELLED", Map.of(
+            "player", ticket.playerName,
+            "preference", ticket.preference,
+            "reason", reason
+        ));
+    }
+
+    private GameSession activeSession(String playerName) {
+        UUID sessionId = sessionManager.findPlayerSession(playerName);
+        return sessionId != null ? sessionManager.getGameSession(sessionId) : null;
+    }
+
+    private static Map<String, Object> matchPayload(GameSession session, String playerName) {
+        String player1 = session.getPlayer1().getUsername();
+        String opponent = playerName.equals(player1) ? session.getPlayer2().getUsername() : player1;
+        return Map.of(
+            "status", "MATCHED",
+            "player", playerName,
+            "sessionId", session.getSessionId(),
+            "opponent", opponent
+        );
+    }
+
+    private Bucket bucket(String preference) {
+        Bucket bucket = buckets.get(preference);
+        if (bucket == null) {
+            throw new IllegalArgumentException("Unknown matchmaking preference, use one of: " + buckets.keySet());
+        }
+        return bucket;
+    }
+
+    private static String normalize(String preference) {
+        if (preference == null || preference.isBlank()) {
+            return DEFAULT_PREFERENCE;
+        }
+        String normalized = preference.trim().toLowerCase(Locale.ROOT);
+        if (normalized.length() > MAX_PREFERENCE_LENGTH) {
+            throw new IllegalArgumentException("Matchmaking preference is too long");
+        }
+        return normalized;
+    }
+
+    /**
+     * Заявка игрока; match завершается сессией, когда пара составлена,
+     * или исключением, если заявка отменена
+     */
+    public static final class Ticket {
+        private final String playerName;
+        private final String preference;
+        private final long enqueuedAt = System.nanoTime();
+        private final CompletableFuture<GameSession> match = new CompletableFuture<>();
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+        private volatile HashedTimingWheel.Timeout timeout;
+        // Причина отмены, пришедшей, пока заявка была в паре
+        private volatile String cancelReason;
+
+        Ticket(String playerName, String preference) {
+            this.playerName = playerName;
+            this.preference = preference;
+        }
+
+        public String getPlayerName() { return playerName; }
+        public String getPreference() { return preference; }
+        public CompletableFuture<GameSession> getMatch() { return match; }
+    }
+
+    /**
+     * Очередь одного предпочтения; size - заявок в очереди, включая отменённые (увеличивается
+     * после добавления, поэтому может ненадолго отставать от очереди, но не опережать её);
+     * draining - очередь сейчас разбирает один из потоков
+     */
+    private static final class Bucket {
+        private final String preference;
+        private final Queue<Ticket> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Bucket(String preference) {
+            this.preference = preference;
+        }
+
+        void offer(Ticket ticket) {
+            queue.offer(ticket);
+            size.incrementAndGet();
+        }
+
+        /**
+         * Следующая ждущая заявка, забранная в пару (CLAIMED); отменённые отбрасываются
+         */
+        Ticket pollWaiting() {
+            Ticket ticket;
+            while ((ticket = queue.poll()) != null) {
+                size.decrementAndGet();
+                if (ticket.state.compareAndSet(WAITING, CLAIMED)) {
+                    return ticket;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+// back\src\main\java\com\seabattle\sea_battle\service\MonteCarloAiStrategy.java
+package com.seabattle.sea_battle.service;
+
+import java.util.random.RandomGenerator;
+
+import org.springframework.stereotype.Component;
+
+import com.seabattle.sea_battle.model.Board;
+import com.seabattle.sea_battle.model.enums.AiDifficulty;
+
+/**
+ * HARD: Монте-Карло по совместимым расстановкам с бюджетом времени ({@link MonteCarloTargeting})
+ */
+@Component
+public class MonteCarloAiStrategy implements AiStrategy {
+
+    private final MonteCarloTargeting monteCarloTargeting;
+
+    public MonteCarloAiStrategy(MonteCarloTargeting monteCarloTargeting) {
+        this.monteCarloTargeting = monteCarloTargeting;
+    }
+
+    @Override
+    public AiDifficulty getDifficulty() {
+        return AiDifficulty.HARD;
+    }
+
+    @Override
+    public int chooseTarget(Board opponentBoard, RandomGenerator random) {
+        return monteCarloTargeting.pickTarget(opponentBoard, random);
+    }
+
+    @Override
+    public boolean isSpeculative() {
+        return true;
+    }
+}
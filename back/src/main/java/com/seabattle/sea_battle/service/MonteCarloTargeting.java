@@ -0,0 +1,185 @@
+// back\src\main\java\com\seabattle\sea_battle\service\MonteCarloTargeting.java
+package com.seabattle.sea_battle.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.random.RandomGenerator;
+
+import org.springframework.stereotype.Component;
+
+import com.seabattle.sea_battle.config.GameProperties;
+import com.seabattle.sea_battle.model.Board;
+import com.seabattle.sea_battle.model.BoardBits;
+import com.seabattle.sea_battle.model.DensityTargeter;
+import com.seabattle.sea_battle.model.FleetSampler;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Выбор цели для AI уровня HARD: Монте-Карло по расстановкам флота, совместимым
+ * с видом доски для противника ({@link FleetSampler}). Выборка идёт параллельно
+ * в отдельном ForkJoinPool (по умолчанию по числу ядер) и на вызывающем потоке;
+ * выстрел - в клетку, где корабль встретился в наибольшем числе образцов.
+ *
+ * Ход ограничен бюджетом времени: выборка прекращается на 90% бюджета, задачи,
+ * не завершившиеся к концу бюджета, отменяются и не учитываются. Поэтому
+ * перегруженный пул замедляет только качество хода, а не другие сессии.
+ * Если не набралось ни одного образца, ход делается по плотности (MEDIUM).
+ */
+@Slf4j
+@Component
+public class MonteCarloTargeting {
+
+    private final ForkJoinPool pool;
+    private final int parallelism;
+    private final long budgetNanos;
+    private final int maxSamples;
+
+    private final LongAdder moves = new LongAdder();
+    private final LongAdder samples = new LongAdder();
+    private final LongAdder moveNanos = new LongAdder();
+    private final LongAdder overruns = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+    private volatile long lastSamplesPerSecond;
+
+    public MonteCarloTargeting(GameProperties gameProperties) {
+        int configured = gameProperties.getAiHardParallelism();
+        this.parallelism = configured > 0 ? configured : Runtime.getRuntime().availableProcessors();
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, gameProperties.getAiHardBudgetMs()));
+        this.maxSamples = Math.max(1, gameProperties.getAiHardMaxSamples());
+        this.pool = new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("ai-monte-carlo-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * Индекс клетки (x * 10 + y) для выстрела по board, -1 если стрелять некуда
+     */
+    public int pickTarget(Board board, RandomGenerator random) {
+        long start = System.nanoTime();
+        long deadline = start + budgetNanos;
+        long samplingDeadline = start + budgetNanos * 9 / 10;
+
+        FleetSampler sampler = new FleetSampler(board);
+        int perTask = (maxSamples + parallelism - 1) / parallelism;
+        SplittableRandom root = new SplittableRandom(random.nextLong());
+
+        // Последний элемент массива - число принятых образцов
+        List<ForkJoinTask<int[]>> tasks = new ArrayList<>(parallelism - 1);
+        for (int i = 1; i < parallelism; i++) {
+            SplittableRandom taskRandom = root.split();
+            tasks.add(pool.submit(() -> run(sampler, taskRandom, samplingDeadline, perTask)));
+        }
+
+        int[] counts = run(sampler, root, samplingDeadline, perTask);
+        for (ForkJoinTask<int[]> task : tasks) {
+            merge(counts, await(task, deadline));
+        }
+
+        int accepted = counts[BoardBits.CELLS];
+        long elapsed = System.nanoTime() - start;
+        record(accepted, elapsed);
+
+        if (accepted == 0) {
+            fallbacks.increment();
+            return DensityTargeter.local().pickTarget(board, random);
+        }
+        return best(board, counts, random);
+    }
+
+    /**
+     * Метрики для /api/game/status
+     */
+    public Map<String, Object> getStatistics() {
+        long totalNanos = moveNanos.sum();
+        long totalSamples = samples.sum();
+        return Map.of(
+            "parallelism", parallelism,
+            "budgetMs", TimeUnit.NANOSECONDS.toMillis(budgetNanos),
+            "moves", moves.sum(),
+            "samples", totalSamples,
+            "samplesPerSecond", totalNanos > 0 ? totalSamples * 1_000_000_000L / totalNanos : 0L,
+            "lastSamplesPerSecond", lastSamplesPerSecond,
+            "budgetOverruns", overruns.sum(),
+            "fallbacks", fallbacks.sum()
+        );
+    }
+
+    private static int[] run(FleetSampler sampler, SplittableRandom random, long deadline, int maxSamples) {
+        int[] counts = new int[BoardBits.CELLS + 1];
+        counts[BoardBits.CELLS] = sampler.sample(random, counts, deadline, maxSamples);
+        return counts;
+    }
+
+    /**
+     * Результат задачи, если она успела до конца бюджета, иначе null (задача отменяется)
+     */
+    private int[] await(ForkJoinTask<int[]> task, long deadline) {
+        try {
+            return task.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            task.cancel(false);
+        } catch (InterruptedException e) {
+            task.cancel(false);
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.error("Monte Carlo sampling task failed", e.getCause());
+        }
+        return null;
+    }
+
+    private static void merge(int[] counts, int[] part) {
+        if (part == null) {
+            return;
+        }
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += part[i];
+        }
+    }
+
+    private void record(int accepted, long elapsed) {
+        moves.increment();
+        samples.add(accepted);
+        moveNanos.add(elapsed);
+        if (elapsed > budgetNanos) {
+            overruns.increment();
+        }
+        lastSamplesPerSecond = elapsed > 0 ? accepted * 1_000_000_000L / elapsed : 0;
+    }
+
+    /**
+     * Непростреленная клетка, чаще всего занятая кораблём в образцах; равные - случайно
+     */
+    private static int best(Board board, int[] counts, RandomGenerator random) {
+        int bestIndex = -1;
+        int bestCount = -1;
+        int ties = 0;
+
+        for (int index = 0; index < BoardBits.CELLS; index++) {
+            if (board.isShotAt(BoardBits.x(index), BoardBits.y(index))) {
+                continue;
+            }
+            if (counts[index] > bestCount) {
+                bestCount = counts[index];
+                bestIndex = index;
+                ties = 1;
+            } else if (counts[index] == bestCount && random.nextInt(++ties) == 0) {
+                bestIndex = index;
+            }
+        }
+
+        return bestIndex;
+    }
+}
@@ -0,0 +1,451 @@
+// back\src\main\java\com\seabattle\sea_battle\service\OffHeapSessionStore.java
+package com.seabattle.sea_battle.service;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+
+import com.seabattle.sea_battle.model.GameSession;
+import com.seabattle.sea_battle.model.SessionCodec;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Усыплённые сессии вне heap: записи фиксированного размера ({@link SessionCodec#RECORD_BYTES} -
+ * флоты и плоскости выстрелов обеих досок, статус, ход, готовность, версии) в прямых буферах по
+ * 16 384 записи. Индекс ID -> запись - таблица с открытой адресацией (линейное пробирование,
+ * удаление сдвигом назад, заполнение не больше половины) тоже в прямом буфере; ключ хранится
+ * в самой записи. Освобождённые записи связаны в список через первые 4 байта.
+ *
+ * Имена игроков - номера в словаре, устроенном так же: запись имени {@value #NAME_BYTES} байт
+ * (счётчик ссылок, хеш, UTF-8 до {@value #MAX_NAME_BYTES} байт) и свой индекс. Сессия с более
+ * длинным именем не принимается. В heap на сессию не остаётся ничего - сборщик мусора видит
+ * несколько десятков буферов вместо графа объектов каждой сессии.
+ *
+ * Объём записей ограничен maxBytes; кроме того, прямые буферы ограничены -XX:MaxDirectMemorySize
+ * (по умолчанию - размер heap). Места нет - {@link #put} возвращает false и сессия остаётся в
+ * реестре, а прежняя запись той же сессии - в хранилище. Все операции под монитором хранилища.
+ */
+@Slf4j
+public class OffHeapSessionStore implements SessionHibernationStore {
+
+    private static final int CHUNK_SHIFT = 14;
+    private static final int CHUNK_RECORDS = 1 << CHUNK_SHIFT;
+    private static final int MIN_INDEX_SLOTS = 1 << 12;
+    private static final int NO_RECORD = -1;
+
+    // Запись имени: счётчик ссылок, хеш, длина, байты
+    private static final int NAME_BYTES = 64;
+    private static final int NAME_HASH = 4;
+    private static final int NAME_LENGTH = 8;
+    private static final int NAME_DATA = 10;
+    public static final int MAX_NAME_BYTES = NAME_BYTES - NAME_DATA;
+
+    private final long maxBytes;
+    private final Slab sessions = new Slab(SessionCodec.RECORD_BYTES);
+    private final Slab names = new Slab(NAME_BYTES);
+    private final Index sessionIndex = new Index(this::sessionHash);
+    private final Index nameIndex = new Index(this::nameHash);
+    private long rejected;
+
+    public OffHeapSessionStore(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public synchronized boolean put(GameSession session) {
+        String player1Name = session.getPlayer1().getUsername();
+        byte[] player1Bytes = player1Name.getBytes(StandardCharsets.UTF_8);
+        byte[] player2Bytes = session.getPlayer2() != null
+            ? session.getPlayer2().getUsername().getBytes(StandardCharsets.UTF_8)
+            : null;
+        if (player1Bytes.length > MAX_NAME_BYTES || (player2Bytes != null && player2Bytes.length > MAX_NAME_BYTES)) {
+            rejected++;
+            return false;
+        }
+        long msb = session.getSessionId().getMostSignificantBits();
+        long lsb = session.getSessionId().getLeastSignificantBits();
+        int hash = hash(msb, lsb);
+        int slot = sessionIndex.find(hash, record -> hasKey(record, msb, lsb));
+        // Замена не добавляет ячеек индекса; старая запись остаётся, пока новая не записана
+        boolean replacing = sessionIndex.record(slot) != NO_RECORD;
+
+        int record = replacing || reserve(sessionIndex) ? allocate(sessions) : NO_RECORD;
+        int player1 = record != NO_RECORD ? intern(player1Bytes) : NO_RECORD;
+        int player2 = player1 != NO_RECORD && player2Bytes != null ? intern(player2Bytes) : SessionCodec.NO_NAME;
+        if (record == NO_RECORD || player1 == NO_RECORD || (player2Bytes != null && player2 == NO_RECORD)) {
+            release(player1);
+            sessions.free(record);
+            rejected++;
+            return false;
+        }
+        try {
+            SessionCodec.writeRecord(session, sessions.chunk(record), sessions.offset(record),
+                name -> name.equals(player1Name) ? player1 : player2);
+        } catch (RuntimeException e) {
+            release(player1);
+            release(player2);
+            sessions.free(record);
+            throw e;
+        }
+        if (replacing) {
+            // Индекс сессий не менялся с поиска - ячейка старой записи та же
+            removeSession(slot);
+        }
+        sessionIndex.insert(hash, record);
+        return true;
+    }
+
+    @Override
+    public synchronized GameSession get(UUID sessionId) {
+        int record = sessionIndex.record(findSession(sessionId));
+        if (record == NO_RECORD) {
+            return null;
+        }
+        return SessionCodec.readRecord(sessions.chunk(record), sessions.offset(record), this::name);
+    }
+
+    @Override
+    public synchronized void remove(UUID sessionId) {
+        int slot = findSession(sessionId);
+        if (sessionIndex.record(slot) != NO_RECORD) {
+            removeSession(slot);
+        }
+    }
+
+    @Override
+    public synchronized boolean contains(UUID sessionId) {
+        return sessionIndex.record(findSession(sessionId)) != NO_RECORD;
+    }
+
+    @Override
+    public synchronized int size() {
+        return sessionIndex.size;
+    }
+
+    @Override
+    public synchronized long getStoredBytes() {
+        return sessions.bytes() + names.bytes() + sessionIndex.bytes() + nameIndex.bytes();
+    }
+
+    @Override
+    public long getHeapBytesPerSession() {
+        return 0;
+    }
+
+    @Override
+    public synchronized Map<String, Object> getStatistics() {
+        return Map.of(
+            "store", "offheap",
+            "records", sessionIndex.size,
+            "recordBytes", SessionCodec.RECORD_BYTES,
+            "allocatedRecords", sessions.allocated,
+            "playerNames", nameIndex.size,
+            "sessionIndexSlots", sessionIndex.mask + 1,
+            "nameIndexSlots", nameIndex.mask + 1,
+            "offHeapBytes", getStoredBytes(),
+            "maxBytes", maxBytes,
+            "rejected", rejected
+        );
+    }
+
+    private int findSession(UUID sessionId) {
+        long msb = sessionId.getMostSignificantBits();
+        long lsb = sessionId.getLeastSignificantBits();
+        return sessionIndex.find(hash(msb, lsb), record -> hasKey(record, msb, lsb));
+    }
+
+    private boolean hasKey(int record, long msb, long lsb) {
+        ByteBuffer chunk = sessions.chunk(record);
+        int offset = sessions.offset(record);
+        return chunk.getLong(offset) == msb && chunk.getLong(offset + 8) == lsb;
+    }
+
+    private void removeSession(int slot) {
+        int record = sessionIndex.record(slot);
+        ByteBuffer chunk = sessions.chunk(record);
+        int offset = sessions.offset(record);
+        release(SessionCodec.recordPlayer1(chunk, offset));
+        release(SessionCodec.recordPlayer2(chunk, offset));
+        sessionIndex.delete(slot);
+        sessions.free(record);
+    }
+
+    private int sessionHash(int record) {
+        ByteBuffer chunk = sessions.chunk(record);
+        int offset = sessions.offset(record);
+        return hash(chunk.getLong(offset), chunk.getLong(offset + 8));
+    }
+
+    private static int hash(long msb, long lsb) {
+        long h = (msb ^ Long.rotateLeft(lsb, 32)) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Номер имени со счётчиком ссылок +1 (новое имя - новая запись); NO_RECORD - места нет
+     */
+    private int intern(byte[] name) {
+        int hash = 1;
+        for (byte b : name) {
+            hash = 31 * hash + b;
+        }
+        hash *= 0x9E3779B9;
+        int nameHash = hash;
+        int slot = nameIndex.find(hash, record -> nameHash(record) == nameHash && hasName(record, name));
+        int record = nameIndex.record(slot);
+        if (record == NO_RECORD) {
+            record = reserve(nameIndex) ? allocate(names) : NO_RECORD;
+            if (record == NO_RECORD) {
+                return NO_RECORD;
+            }
+            ByteBuffer chunk = names.chunk(record);
+            int offset = names.offset(record);
+            chunk.putInt(offset, 0);
+            chunk.putInt(offset + NAME_HASH, hash);
+            chunk.putShort(offset + NAME_LENGTH, (short) name.length);
+            chunk.put(offset + NAME_DATA, name);
+            nameIndex.insert(hash, record);
+        }
+        ByteBuffer chunk = names.chunk(record);
+        int offset = names.offset(record);
+        chunk.putInt(offset, chunk.getInt(offset) + 1);
+        return record;
+    }
+
+    private void release(int name) {
+        if (name == NO_RECORD) {
+            return;
+        }
+        ByteBuffer chunk = names.chunk(name);
+        int offset = names.offset(name);
+        int references = chunk.getInt(offset) - 1;
+        chunk.putInt(offset, references);
+        if (references == 0) {
+            nameIndex.delete(nameIndex.find(nameHash(name), record -> record == name));
+            names.free(name);
+        }
+    }
+
+    private boolean hasName(int record, byte[] name) {
+        ByteBuffer chunk = names.chunk(record);
+        int offset = names.offset(record);
+        if (chunk.getShort(offset + NAME_LENGTH) != name.length) {
+            return false;
+        }
+        for (int i = 0; i < name.length; i++) {
+            if (chunk.get(offset + NAME_DATA + i) != name[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String name(int record) {
+        ByteBuffer chunk = names.chunk(record);
+        int offset = names.offset(record);
+        byte[] name = new byte[chunk.getShort(offset + NAME_LENGTH)];
+        chunk.get(offset + NAME_DATA, name);
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    private int nameHash(int record) {
+        return names.chunk(record).getInt(names.offset(record) + NAME_HASH);
+    }
+
+    /**
+     * Рост индекса заранее, если следующая вставка превысит заполнение, - в пределах maxBytes;
+     * false - места нет
+     */
+    private boolean reserve(Index index) {
+        if (!index.needsGrowth()) {
+            return true;
+        }
+        // Старая и новая таблицы живут одновременно, пока записи переносятся
+        if (getStoredBytes() + index.bytes() * 2 > maxBytes) {
+            return false;
+        }
+        try {
+            index.grow();
+            return true;
+        } catch (OutOfMemoryError e) {
+            log.warn("Off-heap session store cannot grow its index at {} sessions: {}",
+                sessionIndex.size, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Запись из списка свободных или новая; новый буфер - только в пределах maxBytes
+     */
+    private int allocate(Slab slab) {
+        if (slab.needsChunk() && getStoredBytes() + slab.chunkBytes > maxBytes) {
+            return NO_RECORD;
+        }
+        try {
+            return slab.allocate();
+        } catch (OutOfMemoryError e) {
+            log.warn("Off-heap session store is out of direct memory at {} sessions: {}",
+                sessionIndex.size, e.getMessage());
+            return NO_RECORD;
+        }
+    }
+
+    /**
+     * Записи фиксированного размера в прямых буферах со списком свободных записей
+     */
+    private static final class Slab {
+        private final int recordBytes;
+        private final int chunkBytes;
+        private final List<ByteBuffer> chunks = new ArrayList<>();
+        private int allocated;
+        private int free = NO_RECORD;
+
+        Slab(int recordBytes) {
+            this.recordBytes = recordBytes;
+            this.chunkBytes = CHUNK_RECORDS * recordBytes;
+        }
+
+        boolean needsChunk() {
+            return free == NO_RECORD && allocated == chunks.size() * CHUNK_RECORDS;
+        }
+
+        int allocate() {
+            if (free != NO_RECORD) {
+                int record = free;
+                free = chunk(record).getInt(offset(record));
+                return record;
+            }
+            if (needsChunk()) {
+                chunks.add(ByteBuffer.allocateDirect(chunkBytes).order(ByteOrder.nativeOrder()));
+            }
+            return allocated++;
+        }
+
+        void free(int record) {
+            if (record == NO_RECORD) {
+                return;
+            }
+            chunk(record).putInt(offset(record), free);
+            free = record;
+        }
+
+        ByteBuffer chunk(int record) {
+            return chunks.get(record >>> CHUNK_SHIFT);
+        }
+
+        int offset(int record) {
+            return (record & (CHUNK_RECORDS - 1)) * recordBytes;
+        }
+
+        long bytes() {
+            return (long) chunks.size() * chunkBytes;
+        }
+    }
+
+    /**
+     * Таблица с открытой адресацией номер записи + 1 (0 - пусто) в прямом буфере; хеш записи
+     * для перестройки и сдвига берётся из самой записи. Растёт только через {@link #grow} -
+     * вставка не выделяет память
+     */
+    private static final class Index {
+        private final IntUnaryOperator recordHash;
+        private ByteBuffer table;
+        private int mask;
+        private int size;
+
+        Index(IntUnaryOperator recordHash) {
+            this.recordHash = recordHash;
+            resize(MIN_INDEX_SLOTS);
+        }
+
+        /**
+         * Ячейка записи, для которой matches, или первая пустая на пути пробирования
+         */
+        int find(int hash, IntPredicate matches) {
+            int slot = hash & mask;
+            while (true) {
+                int record = record(slot);
+                if (record == NO_RECORD || matches.test(record)) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        int record(int slot) {
+            return table.getInt(slot << 2) - 1;
+        }
+
+        boolean needsGrowth() {
+            return (size + 1) << 1 > mask + 1;
+        }
+
+        void grow() {
+            resize((mask + 1) << 1);
+        }
+
+        /**
+         * Вставка; место под неё заранее обеспечивает {@link #grow}
+         */
+        void insert(int hash, int record) {
+            int slot = hash & mask;
+            while (record(slot) != NO_RECORD) {
+                slot = (slot + 1) & mask;
+            }
+            table.putInt(slot << 2, record + 1);
+            size++;
+        }
+
+        /**
+         * Удаление без пометок: следующие элементы цепочки, чья исходная ячейка не лежит
+         * между дыркой и ними, сдвигаются в дырку
+         */
+        void delete(int slot) {
+            int hole = slot;
+            int next = (hole + 1) & mask;
+            while (true) {
+                int record = record(next);
+                if (record == NO_RECORD) {
+                    break;
+                }
+                int home = recordHash.applyAsInt(record) & mask;
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    table.putInt(hole << 2, record + 1);
+                    hole = next;
+                }
+                next = (next + 1) & mask;
+            }
+            table.putInt(hole << 2, 0);
+            size--;
+        }
+
+        long bytes() {
+            return table.capacity();
+        }
+
+        private void resize(int slots) {
+            ByteBuffer previous = table;
+            int previousSlots = previous != null ? mask + 1 : 0;
+            table = ByteBuffer.allocateDirect(slots << 2).order(ByteOrder.nativeOrder());
+            mask = slots - 1;
+            for (int i = 0; i < previousSlots; i++) {
+                int record = previous.getInt(i << 2) - 1;
+                if (record == NO_RECORD) {
+                    continue;
+                }
+                int slot = recordHash.applyAsInt(record) & mask;
+                while (record(slot) != NO_RECORD) {
+                    slot = (slot + 1) & mask;
+                }
+                table.putInt(slot << 2, record + 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+// back\src\main\java\com\seabattle\sea_battle\service\RandomHuntAiStrategy.java
+package com.seabattle.sea_battle.service;
+
+import java.util.random.RandomGenerator;
+
+import org.springframework.stereotype.Component;
+
+import com.seabattle.sea_battle.model.AiMemory;
+import com.seabattle.sea_battle.model.Board;
+import com.seabattle.sea_battle.model.enums.AiDifficulty;
+
+/**
+ * EASY: случайные выстрелы, после попадания - случайная соседняя клетка,
+ * после второго попадания - вдоль корабля. Состояние ведёт {@link AiMemory} сессии.
+ */
+@Component
+public class RandomHuntAiStrategy implements AiStrategy {
+
+    @Override
+    public AiDifficulty getDifficulty() {
+        return AiDifficulty.EASY;
+    }
+
+    @Override
+    public int chooseTarget(Board board, RandomGenerator random) {
+        // Без памяти сессии - восстанавливаем её по доске
+        AiMemory memory = new AiMemory();
+        memory.sync(board);
+        return memory.pickTarget(random);
+    }
+
+    @Override
+    public int chooseTarget(Board board, AiMemory memory, RandomGenerator random) {
+        return memory.pickTarget(random);
+    }
+}
@@ -0,0 +1,44 @@
+// back\src\main\java\com\seabattle\sea_battle\service\SessionHibernationStore.java
+package com.seabattle.sea_battle.service;
+
+import java.util.Map;
+import java.util.UUID;
+
+import com.seabattle.sea_battle.model.GameSession;
+
+/**
+ * Хранилище усыплённых сессий вне реестра: {@link DiskSessionStore} (файл на сессию) или
+ * {@link OffHeapSessionStore} (записи фиксированного размера вне heap). Выбирается настройкой
+ * game.hibernate-store. Запись пишется до ухода сессии из реестра и удаляется после её возвращения -
+ * порядок и исключение повторного пробуждения обеспечивает {@link GameSessionManager}.
+ */
+public interface SessionHibernationStore {
+
+    /**
+     * Запись сессии; false - места нет, сессия остаётся в реестре
+     */
+    boolean put(GameSession session);
+
+    /**
+     * Сессия из записи (запись остаётся) или null, если её нет
+     */
+    GameSession get(UUID sessionId);
+
+    void remove(UUID sessionId);
+
+    boolean contains(UUID sessionId);
+
+    int size();
+
+    /**
+     * Байт под записи (на диске или вне heap)
+     */
+    long getStoredBytes();
+
+    /**
+     * Оценка heap, который хранилище держит на одну запись
+     */
+    long getHeapBytesPerSession();
+
+    Map<String, Object> getStatistics();
+}
@@ -0,0 +1,690 @@
+// back\src\main\java\com\seabattle\sea_battle\service\SessionJournal.java
+package com.seabattle.sea_battle.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32C;
+
+import org.springframework.stereotype.Component;
+
+import com.seabattle.sea_battle.config.GameProperties;
+import com.seabattle.sea_battle.model.FleetLayout;
+import com.seabattle.sea_battle.model.GameSession;
+import com.seabattle.sea_battle.model.Player;
+import com.seabattle.sea_battle.model.enums.AiDifficulty;
+import com.seabattle.sea_battle.model.enums.GameStatus;
+import com.seabattle.sea_battle.model.enums.GameType;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Журнал команд сессий (создание, подключение, расстановка, выстрел, завершение) для
+ * восстановления активных игр после перезапуска JVM. Включается явно (game.journal-enabled):
+ * выключенный журнал не создаёт каталог и сегменты, а команды в него ничего не пишут.
+ *
+ * Запись - только добавление в конец текущего сегмента, отображённого в память (MappedByteBuffer):
+ * запись кодируется в буфер потока и одним копированием попадает в страницы файла, без системных
+ * вызовов. Страницы принадлежат ядру, поэтому записанное переживает падение JVM; на диск их
+ * сбрасывает поток сброса раз в journalFlushIntervalMs одним force на все записи за интервал
+ * (group commit). С journalSyncWrites команда ждёт этого сброса - тогда не теряется и при сбое ОС.
+ *
+ * Запись: длина тела, CRC32C тела, тело (тип, ID сессии, данные). Недописанная запись
+ * (падение посреди копирования) не проходит проверку CRC, чтение сегмента на ней заканчивается.
+ *
+ * Сегмент фиксированного размера; когда место кончается, запись продолжается в заранее
+ * подготовленном потоком сброса файле. Сегмент удаляется, когда все сессии с записями в нём
+ * завершены. При старте сегменты читаются по порядку, незавершённые сессии собираются заново
+ * и передаются реестру ({@link SessionRecovery}).
+ */
+@Slf4j
+@Component
+public class SessionJournal {
+
+    // Типы записей
+    private static final byte CREATE = 1;
+    private static final byte JOIN = 2;
+    private static final byte PLACE = 3;
+    private static final byte FIRE = 4;
+    private static final byte FINISH = 5;
+
+    // Заголовок записи: длина тела и CRC32C тела
+    private static final int RECORD_HEADER_BYTES = 8;
+    // Заголовок сегмента: порядковый номер (0 - подготовленный, ещё не использованный сегмент)
+    private static final int SEGMENT_HEADER_BYTES = 8;
+    private static final int PAGE_BYTES = 4096;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentBytes;
+    private final long flushIntervalMs;
+    private final boolean syncWrites;
+
+    private final ThreadLocal<Encoder> encoders = ThreadLocal.withInitial(Encoder::new);
+
+    // Под блокировкой журнала: текущий сегмент и сегменты с записями каждой незавершённой сессии
+    private volatile Segment current;
+    private long nextSequence = 1;
+    private final Map<UUID, List<Segment>> liveSessions = new HashMap<>();
+
+    // Поток сброса: закрытые сегменты (последний force), сегменты на удаление, запасной сегмент
+    private final Queue<Segment> sealed = new ConcurrentLinkedQueue<>();
+    private final Queue<Segment> obsolete = new ConcurrentLinkedQueue<>();
+    private final AtomicReference<Segment> spare = new AtomicReference<>();
+    private final AtomicLong fileNumbers = new AtomicLong();
+    private final Object flushMonitor = new Object();
+    private final Thread flusher;
+    private volatile boolean running;
+
+    // Сессии, собранные из журнала при старте (забирает SessionRecovery)
+    private List<GameSession> recovered = new ArrayList<>();
+
+    private final AtomicInteger segments = new AtomicInteger();
+    private final LongAdder records = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder rollovers = new LongAdder();
+    private final LongAdder deletedSegments = new LongAdder();
+    private final LongAdder skippedRecords = new LongAdder();
+    private long replayedRecords;
+    private long replayMillis;
+    private int recoveredSessions;
+
+    public SessionJournal(GameProperties gameProperties) {
+        this.enabled = gameProperties.isJournalEnabled();
+        this.directory = Paths.get(gameProperties.getJournalDir());
+        this.segmentBytes = Math.max(1, gameProperties.getJournalSegmentSizeMb()) * 1024 * 1024;
+        this.flushIntervalMs = Math.max(1, gameProperties.getJournalFlushIntervalMs());
+        this.syncWrites = gameProperties.isJournalSyncWrites();
+
+        if (!enabled) {
+            this.flusher = null;
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            replay();
+            activate(createSegment());
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot open session journal in " + directory.toAbsolutePath(), e);
+        }
+
+        this.running = true;
+        this.flusher = new Thread(this::runFlusher, "session-journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Журнал, который ничего не пишет (реестр без восстановления - например, в бенчмарках)
+     */
+    public static SessionJournal disabled() {
+        GameProperties properties = new GameProperties();
+        properties.setJournalEnabled(false);
+        return new SessionJournal(properties);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Сессия добавлена в реестр (второй игрок уже может быть: AI с флотом или соперник из подбора)
+     */
+    public void sessionCreated(GameSession session) {
+        if (!enabled) {
+            return;
+        }
+        byte[] player1 = utf8(session.getPlayer1().getUsername());
+        Player player2 = session.getPlayer2();
+        byte[] player2Name = utf8(player2 != null ? player2.getUsername() : "");
+        byte[] gameType = utf8(session.getGameType().name());
+        byte[] difficulty = utf8(session.getAiDifficulty() != null ? session.getAiDifficulty().name() : "");
+        FleetLayout player2Fleet = session.getPlayer2Board() != null ? session.getPlayer2Board().getLayout() : null;
+
+        Encoder encoder = encoders.get();
+        ByteBuffer out = encoder.begin(CREATE, session.getSessionId(),
+            8 + 2 + 2 + 2 + 2 + 1 + 1 + 16 + gameType.length + difficulty.length + player1.length + player2Name.length);
+        putString(out, gameType);
+        putString(out, difficulty);
+        out.putLong(session.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        putString(out, player1);
+        putString(out, player2Name);
+        out.put((byte) (player2 != null && player2.isAI() ? 1 : 0));
+        out.put((byte) (player2Fleet != null ? 1 : 0));
+        if (player2Fleet != null) {
+            out.putLong(player2Fleet.getLo());
+            out.putLong(player2Fleet.getHi());
+        }
+        append(session.getSessionId(), CREATE, encoder);
+    }
+
+    /**
+     * Второй игрок подключился к PVP сессии
+     */
+    public void playerJoined(UUID sessionId, String playerName) {
+        if (!enabled) {
+            return;
+        }
+        byte[] name = utf8(playerName);
+        Encoder encoder = encoders.get();
+        putString(encoder.begin(JOIN, sessionId, 2 + name.length), name);
+        append(sessionId, JOIN, encoder);
+    }
+
+    /**
+     * Игрок расставил флот (вручную или из пула) и готов к игре
+     */
+    public void shipsPlaced(UUID sessionId, String playerName, FleetLayout layout) {
+        if (!enabled || layout == null) {
+            return;
+        }
+        byte[] name = utf8(playerName);
+        Encoder encoder = encoders.get();
+        ByteBuffer out = encoder.begin(PLACE, sessionId, 2 + name.length + 16);
+        putString(out, name);
+        out.putLong(layout.getLo());
+        out.putLong(layout.getHi());
+        append(sessionId, PLACE, encoder);
+    }
+
+    /**
+     * Выстрел игрока или AI (результат при восстановлении считается заново)
+     */
+    public void shotFired(GameSession session, String shooterName, int x, int y) {
+        if (!enabled) {
+            return;
+        }
+        Encoder encoder = encoders.get();
+        ByteBuffer out = encoder.begin(FIRE, session.getSessionId(), 3);
+        out.put((byte) (shooterName.equals(session.getPlayer1().getUsername()) ? 1 : 2));
+        out.put((byte) x);
+        out.put((byte) y);
+        append(session.getSessionId(), FIRE, encoder);
+    }
+
+    /**
+     * Сессия завершена - её записи больше не нужны
+     */
+    public void sessionFinished(UUID sessionId, GameStatus finalStatus) {
+        if (!enabled) {
+            return;
+        }
+        byte[] status = utf8(finalStatus.name());
+        Encoder encoder = encoders.get();
+        putString(encoder.begin(FINISH, sessionId, 2 + status.length), status);
+        append(sessionId, FINISH, encoder);
+    }
+
+    /**
+     * Незавершённые сессии, собранные из журнала при старте (отдаются один раз)
+     */
+    public synchronized List<GameSession> takeRecoveredSessions() {
+        List<GameSession> sessions = recovered;
+        recovered = new ArrayList<>();
+        return sessions;
+    }
+
+    /**
+     * Метрики для /api/game/status
+     */
+    public Map<String, Object> getStatistics() {
+        if (!enabled) {
+            return Map.of("enabled", false);
+        }
+        int live;
+        synchronized (this) {
+            live = liveSessions.size();
+        }
+        return Map.ofEntries(
+            Map.entry("enabled", true),
+            Map.entry("directory", directory.toAbsolutePath().toString()),
+            Map.entry("syncWrites", syncWrites),
+            Map.entry("segments", segments.get()),
+            Map.entry("liveSessions", live),
+            Map.entry("records", records.sum()),
+            Map.entry("bytesWritten", bytesWritten.sum()),
+            Map.entry("flushes", flushes.sum()),
+            Map.entry("rollovers", rollovers.sum()),
+            Map.entry("deletedSegments", deletedSegments.sum()),
+            Map.entry("skippedRecords", skippedRecords.sum()),
+            Map.entry("replayedRecords", replayedRecords),
+            Map.entry("replayMs", replayMillis),
+            Map.entry("recoveredSessions", recoveredSessions)
+        );
+    }
+
+    /**
+     * Остановка потока сброса и последний force
+     */
+    @PreDestroy
+    public void close() {
+        if (!enabled || !running) {
+            return;
+        }
+        running = false;
+        flusher.interrupt();
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    /**
+     * Копирование закодированной записи в текущий сегмент; записи сессии, которой журнал
+     * не знает (уже завершена или создана до включения журнала), пропускаются
+     */
+    private void append(UUID sessionId, byte type, Encoder encoder) {
+        int length = encoder.seal();
+        Segment segment;
+        int end;
+        synchronized (this) {
+            if (type != CREATE && !liveSessions.containsKey(sessionId)) {
+                skippedRecords.increment();
+                return;
+            }
+            if (current.position + length > segmentBytes) {
+                roll();
+            }
+            segment = current;
+            segment.buffer.put(segment.position, encoder.buffer.array(), 0, length);
+            end = segment.position + length;
+            segment.position = end;
+            track(sessionId, type, segment);
+        }
+        records.increment();
+        bytesWritten.add(length);
+        if (syncWrites) {
+            awaitFlushed(segment, end);
+        }
+    }
+
+    /**
+     * Учёт сегментов с записями сессии (под блокировкой журнала или при чтении журнала на старте);
+     * false - записи этой сессии не нужны
+     */
+    private boolean track(UUID sessionId, byte type, Segment segment) {
+        if (type == CREATE) {
+            List<Segment> previous = liveSessions.put(sessionId, new ArrayList<>(2));
+            if (previous != null) {
+                previous.forEach(this::release);
+            }
+        }
+        List<Segment> sessionSegments = liveSessions.get(sessionId);
+        if (sessionSegments == null) {
+            return false;
+        }
+        if (type == FINISH) {
+            liveSessions.remove(sessionId);
+            sessionSegments.forEach(this::release);
+        } else if (sessionSegments.isEmpty() || sessionSegments.get(sessionSegments.size() - 1) != segment) {
+            sessionSegments.add(segment);
+            segment.liveSessions++;
+        }
+        return true;
+    }
+
+    private void release(Segment segment) {
+        segment.liveSessions--;
+        if (segment.liveSessions == 0 && segment != current) {
+            obsolete.add(segment);
+        }
+    }
+
+    /**
+     * Переход на следующий сегмент (под блокировкой журнала); файл обычно уже подготовлен
+     */
+    private void roll() {
+        Segment previous = current;
+        Segment next = spare.getAndSet(null);
+        if (next == null) {
+            try {
+                next = createSegment();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot create journal segment", e);
+            }
+        }
+        activate(next);
+        rollovers.increment();
+        sealed.add(previous);
+        if (previous.liveSessions == 0) {
+            obsolete.add(previous);
+        }
+    }
+
+    private void activate(Segment segment) {
+        segment.sequence = nextSequence++;
+        segment.buffer.putLong(0, segment.sequence);
+        segment.position = SEGMENT_HEADER_BYTES;
+        current = segment;
+    }
+
+    private Segment createSegment() throws IOException {
+        Path path = directory.resolve(String.format("%s%016d%s",
+            SEGMENT_PREFIX, fileNumbers.getAndIncrement(), SEGMENT_SUFFIX));
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        }
+        // Страницы выделяются заранее - первая запись в страницу не ждёт её выделения
+        for (int offset = 0; offset < segmentBytes; offset += PAGE_BYTES) {
+            buffer.put(offset, (byte) 0);
+        }
+        segments.incrementAndGet();
+        return new Segment(path, buffer);
+    }
+
+    // ===== Поток сброса =====
+
+    private void runFlusher() {
+        while (running) {
+            try {
+                Thread.sleep(flushIntervalMs);
+            } catch (InterruptedException e) {
+                break;
+            }
+            try {
+                flush();
+                deleteObsolete();
+                if (spare.get() == null) {
+                    Segment prepared = createSegment();
+                    if (!spare.compareAndSet(null, prepared)) {
+                        delete(prepared);
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                log.error("Session journal flush failed", e);
+            }
+        }
+    }
+
+    /**
+     * Один force на все записи, добавленные с прошлого сброса
+     */
+    private void flush() {
+        Segment segment;
+        while ((segment = sealed.poll()) != null) {
+            force(segment);
+        }
+        force(current);
+        if (syncWrites) {
+            synchronized (flushMonitor) {
+                flushMonitor.notifyAll();
+            }
+        }
+    }
+
+    private void force(Segment segment) {
+        int end = segment.position;
+        int flushed = segment.flushed;
+        if (end > flushed) {
+            segment.buffer.force(flushed, end - flushed);
+            segment.flushed = end;
+            flushes.increment();
+        }
+    }
+
+    private void awaitFlushed(Segment segment, int end) {
+        synchronized (flushMonitor) {
+            while (segment.flushed < end && running) {
+                try {
+                    flushMonitor.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void deleteObsolete() {
+        Segment segment;
+        while ((segment = obsolete.poll()) != null) {
+            delete(segment);
+        }
+    }
+
+    private void delete(Segment segment) {
+        try {
+            if (Files.deleteIfExists(segment.path)) {
+                segments.decrementAndGet();
+                deletedSegments.increment();
+            }
+        } catch (IOException e) {
+            log.warn("Cannot delete journal segment {}: {}", segment.path, e.getMessage());
+        }
+    }
+
+    // ===== Чтение при старте =====
+
+    /**
+     * Чтение всех сегментов по порядку и сборка незавершённых сессий
+     */
+    private void replay() throws IOException {
+        long started = System.currentTimeMillis();
+        List<Segment> found = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path path : files) {
+                String name = path.getFileName().toString();
+                long number = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+                fileNumbers.set(Math.max(fileNumbers.get(), number + 1));
+
+                Segment segment;
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                    segment = new Segment(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+                }
+                segments.incrementAndGet();
+                segment.sequence = segment.buffer.capacity() >= SEGMENT_HEADER_BYTES ? segment.buffer.getLong(0) : 0;
+                if (segment.sequence <= 0) {
+                    // Подготовленный, но не использованный сегмент
+                    delete(segment);
+                    continue;
+                }
+                found.add(segment);
+            }
+        }
+        found.sort(Comparator.comparingLong(segment -> segment.sequence));
+
+        Map<UUID, GameSession> sessions = new LinkedHashMap<>();
+        for (Segment segment : found) {
+            nextSequence = Math.max(nextSequence, segment.sequence + 1);
+            // Пока сегмент читается, он не удаляется, даже если активных сессий в нём пока нет
+            current = segment;
+            replaySegment(segment, sessions);
+            current = null;
+            if (segment.liveSessions == 0) {
+                obsolete.add(segment);
+            }
+        }
+        deleteObsolete();
+
+        recovered = new ArrayList<>(sessions.values());
+        recoveredSessions = recovered.size();
+        replayMillis = System.currentTimeMillis() - started;
+        if (!found.isEmpty()) {
+            log.info("Session journal: {} records in {} segments replayed in {} ms, {} sessions to recover",
+                replayedRecords, found.size(), replayMillis, recoveredSessions);
+        }
+    }
+
+    private void replaySegment(Segment segment, Map<UUID, GameSession> sessions) {
+        ByteBuffer buffer = segment.buffer;
+        CRC32C crc = new CRC32C();
+        int position = SEGMENT_HEADER_BYTES;
+        int limit = buffer.capacity();
+        while (position + RECORD_HEADER_BYTES <= limit) {
+            int length = buffer.getInt(position);
+            if (length == 0) {
+                break;
+            }
+            if (length < 17 || position + RECORD_HEADER_BYTES + length > limit) {
+                log.warn("Journal segment {}: corrupt record at offset {}", segment.path, position);
+                break;
+            }
+            ByteBuffer body = buffer.slice(position + RECORD_HEADER_BYTES, length);
+            crc.reset();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+                // Запись не дописана (падение посреди копирования) - дальше записей нет
+                log.warn("Journal segment {}: torn record at offset {}", segment.path, position);
+                break;
+            }
+            position += RECORD_HEADER_BYTES + length;
+            replayedRecords++;
+
+            byte type = body.get();
+            UUID sessionId = new UUID(body.getLong(), body.getLong());
+            if (!track(sessionId, type, segment)) {
+                continue;
+            }
+            try {
+                apply(type, sessionId, body, sessions);
+            } catch (RuntimeException e) {
+                // Сессию не восстановить - её записи больше не нужны
+                log.warn("Journal: session {} cannot be replayed: {}", sessionId, e.getMessage());
+                sessions.remove(sessionId);
+                track(sessionId, FINISH, segment);
+            }
+        }
+        segment.position = position;
+    }
+
+    /**
+     * Повтор команды над собираемой сессией
+     */
+    private static void apply(byte type, UUID sessionId, ByteBuffer in, Map<UUID, GameSession> sessions) {
+        if (type == CREATE) {
+            GameType gameType = GameType.valueOf(getString(in));
+            String difficulty = getString(in);
+            long createdAt = in.getLong();
+            GameSession session = new GameSession(new Player(getString(in)), gameType);
+            session.setSessionId(sessionId);
+            session.setCreatedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(createdAt), ZoneId.systemDefault()));
+            if (!difficulty.isEmpty()) {
+                session.setAiDifficulty(AiDifficulty.valueOf(difficulty));
+            }
+            String player2 = getString(in);
+            boolean player2AI = in.get() != 0;
+            FleetLayout player2Fleet = in.get() != 0 ? new FleetLayout(in.getLong(), in.getLong()) : null;
+            if (!player2.isEmpty()) {
+                session.connectSecondPlayer(new Player(player2, player2AI), player2Fleet);
+            }
+            sessions.put(sessionId, session);
+            return;
+        }
+
+        GameSession session = sessions.get(sessionId);
+        if (session == null) {
+            return;
+        }
+        switch (type) {
+            case JOIN -> session.connectSecondPlayer(new Player(getString(in)));
+            case PLACE -> {
+                String playerName = getString(in);
+                session.getPlayerBoard(playerName).applyLayout(new FleetLayout(in.getLong(), in.getLong()));
+                session.playerReady(playerName);
+            }
+            case FIRE -> {
+                String shooter = in.get() == 1 ? session.getPlayer1().getUsername() : session.getPlayer2().getUsername();
+                session.fireAtOpponent(shooter, in.get(), in.get());
+            }
+            case FINISH -> sessions.remove(sessionId);
+            default -> throw new IllegalStateException("Unknown journal record type " + type);
+        }
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void putString(ByteBuffer out, byte[] value) {
+        out.putShort((short) value.length);
+        out.put(value);
+    }
+
+    private static String getString(ByteBuffer in) {
+        byte[] value = new byte[in.getShort() & 0xFFFF];
+        in.get(value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Буфер кодирования записи (свой у каждого потока, на выстрел без выделения памяти)
+     */
+    private static final class Encoder {
+        private final CRC32C crc = new CRC32C();
+        private ByteBuffer buffer = ByteBuffer.allocate(256);
+
+        ByteBuffer begin(byte type, UUID sessionId, int payloadBytes) {
+            int size = RECORD_HEADER_BYTES + 17 + payloadBytes;
+            if (size > buffer.capacity()) {
+                buffer = ByteBuffer.allocate(size);
+            }
+            buffer.clear();
+            buffer.position(RECORD_HEADER_BYTES);
+            buffer.put(type);
+            buffer.putLong(sessionId.getMostSignificantBits());
+            buffer.putLong(sessionId.getLeastSignificantBits());
+            return buffer;
+        }
+
+        /**
+         * Заголовок записи (длина и CRC32C тела); возвращает длину записи
+         */
+        int seal() {
+            int length = buffer.position();
+            int bodyLength = length - RECORD_HEADER_BYTES;
+            crc.reset();
+            crc.update(buffer.array(), RECORD_HEADER_BYTES, bodyLength);
+            buffer.putInt(0, bodyLength);
+            buffer.putInt(4, (int) crc.getValue());
+            return length;
+        }
+    }
+
+    private static final class Segment {
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        private long sequence;
+        // Конец записанного (меняется под блокировкой журнала) и сброшенного на диск
+        private volatile int position;
+        private volatile int flushed;
+        // Незавершённых сессий с записями в сегменте (под блокировкой журнала)
+        private int liveSessions;
+
+        Segment(Path path, MappedByteBuffer buffer) {
+            this.path = path;
+            this.buffer = buffer;
+        }
+    }
+}
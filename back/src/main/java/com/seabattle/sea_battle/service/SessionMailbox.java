@@ -0,0 +1,179 @@
+// back\src\main\java\com\seabattle\sea_battle\service\SessionMailbox.java
+package com.seabattle.sea_battle.service;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import com.seabattle.sea_battle.config.GameProperties;
+
+/**
+ * Очередь команд сессии: команды одной сессии (расстановка, готовность, выстрел, выстрел AI,
+ * отмена) выполняются строго по одной и в порядке поступления, разные сессии - параллельно
+ * на общем пуле потоков. Результат команды возвращается как CompletableFuture.
+ *
+ * Очередь сессии разбирает не больше одного потока пула; отправивший поток (HTTP запрос) только
+ * ставит команду и не выполняет команды других игроков. За проход выполняется до
+ * game.session-command-batch команд, остаток - следующей задачей пула.
+ * Команда, отправленная из команды той же сессии, выполняется сразу - иначе поток ждал бы сам себя.
+ * Долгие вычисления (выбор хода AI) в команду не входят - только применение результата.
+ *
+ * Очередь снимается, когда сессия удалена и очередь пуста и не разбирается: удаление сессии во время
+ * прохода её не снимает (иначе следующая команда завела бы вторую очередь и второй поток), очередь
+ * снимет сам проход, проверив сессию без обращения к ней ({@link GameSessionManager#hasGameSession}).
+ */
+@Component
+public class SessionMailbox {
+
+    // Сессия, команды которой выполняет текущий поток
+    private static final ThreadLocal<UUID> CURRENT_SESSION = new ThreadLocal<>();
+
+    private final ThreadPoolExecutor executor;
+    private final int threads;
+    private final int batch;
+
+    private final Map<UUID, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private final GameSessionManager sessionManager;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder inline = new LongAdder();
+    private final LongAdder drains = new LongAdder();
+
+    public SessionMailbox(GameProperties gameProperties, GameSessionManager sessionManager) {
+        this.sessionManager = sessionManager;
+        int configured = gameProperties.getSessionCommandThreads();
+        this.threads = configured > 0 ? configured : Runtime.getRuntime().availableProcessors();
+        this.batch = Math.max(1, gameProperties.getSessionCommandBatch());
+
+        // В очереди пула не больше одной задачи на сессию - ограничена числом сессий
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "session-commands-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        // Очередь удалённой сессии снимается, если она простаивает; иначе её снимет проход
+        sessionManager.addSessionRemovalListener(this::removeIfIdle);
+    }
+
+    /**
+     * Постановка команды в очередь сессии; исключение команды завершает future
+     */
+    public <T> CompletableFuture<T> submit(UUID sessionId, Supplier<T> command) {
+        submitted.increment();
+        CompletableFuture<T> future = new CompletableFuture<>();
+        if (sessionId.equals(CURRENT_SESSION.get())) {
+            // Вложенная команда своей сессии
+            inline.increment();
+            execute(command, future);
+        } else {
+            Mailbox mailbox = mailboxes.computeIfAbsent(sessionId, Mailbox::new);
+            mailbox.commands.add(() -> execute(command, future));
+            mailbox.schedule();
+        }
+        return future;
+    }
+
+    /**
+     * Команда без результата
+     */
+    public CompletableFuture<Void> submit(UUID sessionId, Runnable command) {
+        return submit(sessionId, () -> {
+            command.run();
+            return null;
+        });
+    }
+
+    /**
+     * Метрики для /api/game/status
+     */
+    public Map<String, Object> getStatistics() {
+        long drainCount = drains.sum();
+        long done = completed.sum() + failed.sum();
+        return Map.of(
+            "threads", threads,
+            "batch", batch,
+            "mailboxes", mailboxes.size(),
+            "queued", executor.getQueue().size(),
+            "submitted", submitted.sum(),
+            "completed", completed.sum(),
+            "failed", failed.sum(),
+            "inline", inline.sum(),
+            "avgCommandsPerDrain", drainCount > 0 ? (double) done / drainCount : 0.0
+        );
+    }
+
+    private void removeIfIdle(UUID sessionId) {
+        mailboxes.computeIfPresent(sessionId, (id, mailbox) -> mailbox.isIdle() ? null : mailbox);
+    }
+
+    private <T> void execute(Supplier<T> command, CompletableFuture<T> future) {
+        try {
+            future.complete(command.get());
+            completed.increment();
+        } catch (RuntimeException e) {
+            failed.increment();
+            future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Очередь одной сессии; scheduled - очередь уже разбирается или стоит в пуле
+     */
+    private final class Mailbox implements Runnable {
+        private final UUID sessionId;
+        private final Queue<Runnable> commands = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        Mailbox(UUID sessionId) {
+            this.sessionId = sessionId;
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                executor.execute(this);
+            }
+        }
+
+        private boolean isIdle() {
+            return !scheduled.get() && commands.isEmpty();
+        }
+
+        @Override
+        public void run() {
+            CURRENT_SESSION.set(sessionId);
+            try {
+                Runnable command;
+                for (int i = 0; i < batch && (command = commands.poll()) != null; i++) {
+                    command.run();
+                }
+            } finally {
+                CURRENT_SESSION.remove();
+                drains.increment();
+                scheduled.set(false);
+            }
+
+            if (!commands.isEmpty()) {
+                schedule();
+            } else if (!sessionManager.hasGameSession(sessionId)) {
+                // Сессию удалили во время прохода или очередь создана командой после удаления
+                removeIfIdle(sessionId);
+            }
+        }
+    }
+}
@@ -0,0 +1,178 @@
+// back\src\main\java\com\seabattle\sea_battle\service\SessionMemoryBudget.java
+package com.seabattle.sea_battle.service;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import com.seabattle.sea_battle.config.GameProperties;
+import com.seabattle.sea_battle.model.AiMemory;
+import com.seabattle.sea_battle.model.Board;
+import com.seabattle.sea_battle.model.GameSession;
+import com.seabattle.sea_battle.model.Player;
+import com.seabattle.sea_battle.model.PlayerSession;
+import com.seabattle.sea_battle.model.enums.GameType;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Допуск новых сессий по бюджету памяти в дополнение к maxActiveSessions
+ * (game.session-memory-budget-enabled). Выключен - ёмкость по памяти не ограничена, размер сессии берётся из game.session-bytes-estimate
+ * (или FALLBACK_SESSION_BYTES) только для отчётов, ничего не измеряется.
+ *
+ * Включён и размер не задан - он измеряется при старте по счётчику выделений потока: строится
+ * SAMPLES полностью "выросших" сессий (обе доски расставлены, построены представления досок
+ * для REST, память AI, записи игроков). Это оценка сверху - в неё входят и временные объекты,
+ * примерно вдвое больше удерживаемого; явных сборок мусора при старте нет. К размеру добавляется
+ * game.session-overhead-bytes - то, что сессия занимает вне своего графа объектов (записи реестра,
+ * таймер, очередь команд, SSE).
+ *
+ * Бюджет - game.session-heap-budget-mb или доля game.session-heap-fraction от максимального heap;
+ * ёмкость = бюджет / байт на сессию.
+ */
+@Slf4j
+@Getter
+public class SessionMemoryBudget {
+
+    // Если не удался ни один замер
+    private static final long FALLBACK_SESSION_BYTES = 16 * 1024;
+    private static final int WARMUP_SAMPLES = 32;
+    private static final int SAMPLES = 1000;
+
+    // Как получен размер сессии: configured, allocated, fallback
+    private final String measurement;
+    private final long measuredSessionBytes;
+    private final long overheadBytes;
+    private final long bytesPerSession;
+    private final long heapMaxBytes;
+    private final long budgetBytes;
+    private final int capacity;
+    private final boolean enabled;
+
+    public SessionMemoryBudget(GameProperties gameProperties) {
+        this.enabled = gameProperties.isSessionMemoryBudgetEnabled();
+        long configured = gameProperties.getSessionBytesEstimate();
+        if (configured > 0) {
+            this.measurement = "configured";
+            this.measuredSessionBytes = configured;
+        } else {
+            long allocated = enabled ? measureSessionBytes() : 0;
+            this.measurement = allocated > 0 ? "allocated" : "fallback";
+            this.measuredSessionBytes = allocated > 0 ? allocated : FALLBACK_SESSION_BYTES;
+        }
+        this.overheadBytes = Math.max(0, gameProperties.getSessionOverheadBytes());
+        this.bytesPerSession = Math.max(1, measuredSessionBytes + overheadBytes);
+
+        this.heapMaxBytes = Runtime.getRuntime().maxMemory();
+        long budgetMb = gameProperties.getSessionHeapBudgetMb();
+        this.budgetBytes = budgetMb > 0
+            ? budgetMb * 1024 * 1024
+            : (long) (heapMaxBytes * gameProperties.getSessionHeapFraction());
+        this.capacity = enabled ? (int) Math.min(Integer.MAX_VALUE, budgetBytes / bytesPerSession) : Integer.MAX_VALUE;
+        if (enabled) {
+            log.info("Session memory budget: {} MB of {} MB heap, {} bytes per session ({}), capacity {} sessions",
+                budgetBytes >> 20, heapMaxBytes >> 20, bytesPerSession, measurement, capacity);
+        }
+    }
+
+    /**
+     * Бюджет и фактическое использование heap для /api/game/capacity
+     */
+    public Map<String, Object> getStatistics(int activeSessions) {
+        long usedBytes = activeSessions * bytesPerSession;
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        return Map.ofEntries(
+            Map.entry("enabled", enabled),
+            Map.entry("activeSessions", activeSessions),
+            Map.entry("capacity", capacity),
+            Map.entry("headroomSessions", Math.max(0, capacity - activeSessions)),
+            Map.entry("bytesPerSession", bytesPerSession),
+            Map.entry("measuredSessionBytes", measuredSessionBytes),
+            Map.entry("measurement", measurement),
+            Map.entry("overheadBytes", overheadBytes),
+            Map.entry("budgetBytes", budgetBytes),
+            Map.entry("usedBytes", usedBytes),
+            Map.entry("headroomBytes", Math.max(0, budgetBytes - usedBytes)),
+            Map.entry("heapMaxBytes", heapMaxBytes),
+            Map.entry("heapUsedBytes", heap.getUsed()),
+            Map.entry("heapLiveAfterGcBytes", liveHeapAfterGc())
+        );
+    }
+
+    /**
+     * Выделено на одну "выросшую" сессию; 0 - JVM не считает выделения потока.
+     * Перед замером - прогрев, чтобы загрузка классов и статические таблицы в него не попали
+     */
+    private static long measureSessionBytes() {
+        com.sun.management.ThreadMXBean threads = allocationCounter();
+        if (threads == null) {
+            return 0;
+        }
+        SplittableRandom random = new SplittableRandom(0);
+        for (int i = 0; i < WARMUP_SAMPLES; i++) {
+            sampleSession(random);
+        }
+
+        long threadId = Thread.currentThread().threadId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < SAMPLES; i++) {
+            sampleSession(random);
+        }
+        return (threads.getThreadAllocatedBytes(threadId) - allocatedBefore) / SAMPLES;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads;
+        }
+        return null;
+    }
+
+    /**
+     * Сессия в максимальном размере: игроки, доски, представления досок, память AI, записи игроков
+     */
+    private static Object[] sampleSession(SplittableRandom random) {
+        String name = "sample-player-name-" + random.nextInt(1_000_000);
+        GameSession session = new GameSession(new Player(name + "-1"), GameType.PVP);
+        session.connectSecondPlayer(new Player(name + "-2"));
+        for (Board board : new Board[]{session.getPlayer1Board(), session.getPlayer2Board()}) {
+            board.placeShipsAutomatically(random);
+            board.getView(true).getJson(name);
+            board.getView(false).getJson(name);
+        }
+        session.playerReady(session.getPlayer1().getUsername());
+        session.playerReady(session.getPlayer2().getUsername());
+        AiMemory memory = new AiMemory();
+        memory.sync(session.getPlayer1Board());
+        session.setAiMemory(memory);
+
+        UUID sessionId = session.getSessionId();
+        return new Object[]{
+            session,
+            new PlayerSession(session.getPlayer1().getUsername(), sessionId),
+            new PlayerSession(session.getPlayer2().getUsername(), sessionId)
+        };
+    }
+
+    /**
+     * Занято в heap после последней сборки (живые объекты); -1, если JVM не сообщает
+     */
+    private static long liveHeapAfterGc() {
+        long live = 0;
+        boolean reported = false;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            MemoryUsage usage = pool.getType() == MemoryType.HEAP ? pool.getCollectionUsage() : null;
+            if (usage != null) {
+                live += usage.getUsed();
+                reported = true;
+            }
+        }
+        return reported ? live : -1;
+    }
+}
@@ -0,0 +1,44 @@
+// back\src\main\java\com\seabattle\sea_battle\service\SessionRecovery.java
+package com.seabattle.sea_battle.service;
+
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.seabattle.sea_battle.model.GameSession;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Возврат незавершённых сессий из журнала ({@link SessionJournal}) в реестр при старте -
+ * до того, как сервер начнёт принимать запросы. Прерванный ход AI запускается заново.
+ */
+@Slf4j
+@Component
+public class SessionRecovery {
+
+    private final GameSessionManager sessionManager;
+    private final GamePlayService gamePlayService;
+
+    public SessionRecovery(GameSessionManager sessionManager, GamePlayService gamePlayService) {
+        this.sessionManager = sessionManager;
+        this.gamePlayService = gamePlayService;
+    }
+
+    @PostConstruct
+    public void recover() {
+        List<GameSession> sessions = sessionManager.getJournal().takeRecoveredSessions();
+        if (sessions.isEmpty()) {
+            return;
+        }
+        int restored = 0;
+        for (GameSession session : sessions) {
+            if (sessionManager.restoreSession(session)) {
+                gamePlayService.resumeAiTurn(session);
+                restored++;
+            }
+        }
+        log.info("Restored {} of {} sessions from the journal", restored, sessions.size());
+    }
+}
@@ -0,0 +1,104 @@
+// back\src\main\java\com\seabattle\sea_battle\service\ShardRing.java
+package com.seabattle.sea_battle.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Кольцо согласованного хеширования: у каждого узла virtualNodes точек на кольце,
+ * ключ принадлежит узлу первой точки по часовой стрелке от хеша ключа.
+ * При добавлении или удалении узла переезжает примерно 1/N ключей, остальные остаются на месте.
+ * Неизменяемое: смена состава узлов - новое кольцо.
+ */
+public final class ShardRing {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final List<String> nodes;
+    // Точки кольца по возрастанию и их узлы
+    private final long[] tokens;
+    private final String[] owners;
+
+    public ShardRing(Collection<String> nodes, int virtualNodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("Shard ring needs at least one node");
+        }
+        int points = Math.max(1, virtualNodes);
+        this.nodes = List.copyOf(nodes);
+
+        long[][] ring = new long[this.nodes.size() * points][];
+        int index = 0;
+        for (int node = 0; node < this.nodes.size(); node++) {
+            for (int point = 0; point < points; point++) {
+                ring[index++] = new long[]{hash(this.nodes.get(node) + "#" + point), node};
+            }
+        }
+        // При совпадении хешей порядок по номеру узла - кольцо одинаково на всех узлах
+        Arrays.sort(ring, (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+        this.tokens = new long[ring.length];
+        this.owners = new String[ring.length];
+        for (int i = 0; i < ring.length; i++) {
+            tokens[i] = ring[i][0];
+            owners[i] = this.nodes.get((int) ring[i][1]);
+        }
+    }
+
+    /**
+     * Узел-владелец ключа
+     */
+    public String ownerOf(long keyHash) {
+        int index = Arrays.binarySearch(tokens, keyHash);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == tokens.length ? 0 : index];
+    }
+
+    public String ownerOf(String key) {
+        return ownerOf(hash(key));
+    }
+
+    public String ownerOf(UUID key) {
+        return ownerOf(hash(key));
+    }
+
+    public List<String> getNodes() {
+        return nodes;
+    }
+
+    public int getPoints() {
+        return tokens.length;
+    }
+
+    /**
+     * 64-битный хеш строки: FNV-1a по UTF-8 и перемешивание (у FNV слабые старшие биты)
+     */
+    public static long hash(String key) {
+        long hash = FNV_OFFSET;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return mix(hash);
+    }
+
+    public static long hash(UUID key) {
+        return mix(key.getMostSignificantBits() * 31 + key.getLeastSignificantBits());
+    }
+
+    /**
+     * Финализатор MurmurHash3 (fmix64)
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
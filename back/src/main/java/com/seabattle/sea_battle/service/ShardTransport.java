@@ -0,0 +1,34 @@
+// back\src\main\java\com\seabattle\sea_battle\service\ShardTransport.java
+package com.seabattle.sea_battle.service;
+
+import java.util.UUID;
+
+/**
+ * Вызовы реестра сессий на другом узле кластера: регистрация игроков хранится на узле,
+ * владеющем именем игрока, а активность сессии знает узел, владеющий сессией.
+ * Реализации: {@link HttpShardTransport} (узлы - отдельные JVM) и {@link InMemoryShardTransport}
+ * (несколько узлов в одной JVM - для локального стенда и нагрузочных проверок).
+ * Недоступность узла - IllegalStateException.
+ */
+public interface ShardTransport {
+
+    /**
+     * Регистрация игрока в сессии на его узле; IllegalArgumentException, если он уже в активной игре
+     */
+    void claimPlayer(String nodeId, String playerName, UUID sessionId);
+
+    /**
+     * Снятие регистрации игрока, если она относится к этой сессии
+     */
+    void releasePlayer(String nodeId, String playerName, UUID sessionId);
+
+    /**
+     * Активная сессия игрока по регистрации на его узле или null
+     */
+    UUID findPlayerSession(String nodeId, String playerName);
+
+    /**
+     * Сессия есть на узле-владельце и ещё не завершена
+     */
+    boolean isSessionActive(String nodeId, UUID sessionId);
+}
@@ -8,12 +8,10 @@ import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import com.seabattle.sea_battle.model.enums.GameStatus;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
@@ -21,11 +19,12 @@ public class SseNotificationService {
     
     private final Map<String, SseEmitter> playerEmitters = new ConcurrentHashMap<>();
     private final Map<UUID, Map<String, SseEmitter>> gameEmitters = new ConcurrentHashMap<>();
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
+    // Игроки в очереди подбора соперника (сессии у них ещё нет)
+    private final Map<String, SseEmitter> matchmakingEmitters = new ConcurrentHashMap<>();
     
-    public SseNotificationService() {
-        // Регулярная очистка "мертвых" соединений
-        scheduler.scheduleAtFixedRate(this::cleanupDeadConnections, 1, 1, TimeUnit.MINUTES);
+    public SseNotificationService(GameSessionManager sessionManager) {
+        // Соединения сессии закрываются при её удалении из реестра (таймеры менеджера)
+        sessionManager.addSessionRemovalListener(this::closeSession);
     }
     
     /**
@@ -159,35 +158,33 @@ public class SseNotificationService {
      * Отправка обновления конкретной клетки
      */
     public void sendCellUpdate(UUID sessionId, String playerName, int x, int y, String status) {
-        sendToPlayer(playerName, sessionId, "CELL_UPDATE", Map.of(
-            "x", x,
-            "y", y,
-            "status", status,
-            "playerName", playerName,
-            "timestamp", System.currentTimeMillis()
-        ));
+        sendToPlayer(playerName, sessionId, "CELL_UPDATE",
+            BoardEventPayloads.cellUpdate(playerName, x, y, status));
     }
 
     /**
      * Отправка обновления доски противника (вид для стреляющего)
      */
     public void sendOpponentBoardUpdate(UUID sessionId, String playerName, String[][] BoardState) {
-        sendToPlayer(playerName, sessionId, "OPPONENT_BOARD_UPDATE", Map.of(
-            "board", BoardState,
-            "playerName", playerName,
-            "timestamp", System.currentTimeMillis()
-        ));
+        sendToPlayer(playerName, sessionId, "OPPONENT_BOARD_UPDATE",
+            BoardEventPayloads.fullBoard(playerName, BoardState));
     }
 
     /**
      * Отправка обновления доски владельца (вид для стреляющего)
      */
     public void sendOwnerBoardUpdate(UUID sessionId, String playerName, String[][] BoardState) {
-        sendToPlayer(playerName, sessionId, "OWNER_BOARD_UPDATE", Map.of(
-            "board", BoardState,
-            "playerName", playerName,
-            "timestamp", System.currentTimeMillis()
-        ));
+        sendToPlayer(playerName, sessionId, "OWNER_BOARD_UPDATE",
+            BoardEventPayloads.fullBoard(playerName, BoardState));
+    }
+
+    /**
+     * Изменившиеся клетки доски boardOwner всем игрокам сессии
+     */
+    public void sendBoardDelta(UUID sessionId, long sequence, String boardOwner, long boardVersion,
+                               List<Map<String, Object>> cells) {
+        sendToAllInGame(sessionId, BoardEventPayloads.BOARD_DELTA,
+            BoardEventPayloads.boardDelta(sequence, boardOwner, boardVersion, cells));
     }
 
     /**
@@ -234,6 +231,79 @@ public void notifyGameStarted(UUID sessionId) {
         sendToPlayer(playerName, sessionId, "HEARTBEAT", Map.of("status", "alive"));
     }
     
+    /**
+     * Регистрация SSE соединения игрока, ожидающего соперника в очереди подбора
+     */
+    public SseEmitter registerMatchmaking(String playerName) {
+        SseEmitter emitter = new SseEmitter(30L * 60 * 1000); // 30 минут timeout
+        
+        SseEmitter previous = matchmakingEmitters.put(playerName, emitter);
+        if (previous != null) {
+            previous.complete();
+        }
+        
+        emitter.onCompletion(() -> matchmakingEmitters.remove(playerName, emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError((ex) -> {
+            log.error("Matchmaking SSE error for {}: {}", playerName, ex.getMessage());
+            matchmakingEmitters.remove(playerName, emitter);
+        });
+        
+        try {
+            emitter.send(SseEmitter.event()
+                .name("CONNECTED")
+                .data(Map.of(
+                    "type", "CONNECTED",
+                    "player", playerName,
+                    "timestamp", System.currentTimeMillis()
+                )));
+        } catch (IOException e) {
+            log.error("Failed to send initial matchmaking SSE message", e);
+        }
+        
+        log.debug("Matchmaking SSE connection registered for {}", playerName);
+        return emitter;
+    }
+    
+    /**
+     * Итог подбора игроку (MATCH_FOUND - соперник найден, MATCHMAKING_CANCELLED - ожидание
+     * прекращено); соединение подбора после этого закрывается
+     */
+    public void notifyMatchmaking(String playerName, String eventName, Map<String, Object> data) {
+        SseEmitter emitter = matchmakingEmitters.remove(playerName);
+        if (emitter == null) {
+            log.debug("No matchmaking SSE connection found for {}", playerName);
+            return;
+        }
+        try {
+            emitter.send(SseEmitter.event()
+                .name(eventName)
+                .data(Map.of(
+                    "type", eventName,
+                    "data", data,
+                    "timestamp", System.currentTimeMillis()
+                )));
+            emitter.complete();
+        } catch (IOException e) {
+            log.error("Failed to send matchmaking SSE to {}", playerName, e);
+        }
+    }
+    
+    /**
+     * Закрытие всех соединений сессии (сессия удалена из реестра)
+     */
+    public void closeSession(UUID sessionId) {
+        Map<String, SseEmitter> gamePlayers = gameEmitters.remove(sessionId);
+        if (gamePlayers == null) {
+            return;
+        }
+        gamePlayers.forEach((playerName, emitter) -> {
+            playerEmitters.remove(playerName + "_" + sessionId, emitter);
+            emitter.complete();
+        });
+        log.debug("SSE connections closed for session {}", sessionId);
+    }
+    
     private void cleanupGameEmitter(UUID sessionId, String playerName) {
         Map<String, SseEmitter> gamePlayers = gameEmitters.get(sessionId);
         if (gamePlayers != null) {
@@ -243,15 +313,4 @@ public void notifyGameStarted(UUID sessionId) {
             }
         }
     }
-    
-    private void cleanupDeadConnections() {
-        playerEmitters.entrySet().removeIf(entry -> {
-            SseEmitter emitter = entry.getValue();
-            if (emitter == null) {
-                return true;
-            }
-            // Можно добавить дополнительную логику проверки
-            return false;
-        });
-    }
 }
\ No newline at end of file
@@ -0,0 +1,199 @@
+// back\src\test\java\com\seabattle\sea_battle\bench\AiBenchmark.java
+package com.seabattle.sea_battle.bench;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+
+import com.seabattle.sea_battle.config.GameProperties;
+import com.seabattle.sea_battle.model.AiMemory;
+import com.seabattle.sea_battle.model.Board;
+import com.seabattle.sea_battle.model.BoardBits;
+import com.seabattle.sea_battle.model.GameSession;
+import com.seabattle.sea_battle.model.enums.AiDifficulty;
+import com.seabattle.sea_battle.service.AIService;
+import com.seabattle.sea_battle.service.AiSpeculation;
+import com.seabattle.sea_battle.service.AiStrategy;
+import com.seabattle.sea_battle.service.AiStrategyRegistry;
+import com.seabattle.sea_battle.service.DensityAiStrategy;
+import com.seabattle.sea_battle.service.MonteCarloAiStrategy;
+import com.seabattle.sea_battle.service.MonteCarloTargeting;
+import com.seabattle.sea_battle.service.RandomHuntAiStrategy;
+
+/**
+ * Стратегии AI по уровням сложности (@Param difficulty), расстановки одинаковые для всех уровней (по seed):
+ * - chooseTarget - время выбора цели (us/move), gc.alloc.rate.norm - память на ход. Позиции - партии,
+ *   прерванные на случайном ходу (от пустой доски до почти потопленного флота); выбор цели доску
+ *   и память не меняет, поэтому позиции готовятся один раз и берутся по кругу;
+ * - playGame - партия до победы: время на партию, счётчики shots/games - выстрелов до победы
+ *   (shots / games), cpuMicros / games - процессорное время на партию всего процесса: для HARD
+ *   вместе с потоками выборки, у остальных уровней оно совпадает со временем партии.
+ * HARD ограничен бюджетом на ход (hardBudgetMs); hardParallelism=1 - выборка в один поток
+ * (0 - все ядра), для сравнения масштабирования: -p difficulty=HARD -p hardParallelism=0,1.
+ * Реестр собирается вручную: новую стратегию нужно добавить и в {@link #registry}.
+ * Запуск - см. {@link Benchmarks}: java ... com.seabattle.sea_battle.bench.AiBenchmark [опции JMH]
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AiBenchmark {
+
+    private static final int POSITIONS = 256;
+    private static final long SEED = 42L;
+
+    private static final com.sun.management.OperatingSystemMXBean OS =
+        (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+
+    @Param({"EASY", "MEDIUM", "HARD"})
+    public AiDifficulty difficulty;
+
+    @Param({"20"})
+    public long hardBudgetMs;
+
+    @Param({"0"})
+    public int hardParallelism;
+
+    private MonteCarloTargeting monteCarlo;
+    private AiStrategy strategy;
+    private Board[] boards;
+    private AiMemory[] memories;
+    private SplittableRandom random;
+    private SplittableRandom layouts;
+    private int next;
+
+    /**
+     * Счётчики партий playGame за итерацию
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class GameCounters {
+        public long games;
+        public long shots;
+        public long cpuMicros;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            games = 0;
+            shots = 0;
+            cpuMicros = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        monteCarlo = monteCarlo(hardBudgetMs, hardParallelism);
+        strategy = registry(monteCarlo).get(difficulty);
+        boards = new Board[POSITIONS];
+        memories = new AiMemory[POSITIONS];
+
+        SplittableRandom positions = new SplittableRandom(SEED);
+        for (int i = 0; i < POSITIONS; i++) {
+            Board board = new Board("bench");
+            board.placeShipsAutomatically(positions);
+            int shots = positions.nextInt(BoardBits.CELLS * 3 / 4);
+            for (int shot = 0; shot < shots && !board.allShipsSunk(); shot++) {
+                int cell = positions.nextInt(BoardBits.CELLS);
+                board.takeShot(BoardBits.x(cell), BoardBits.y(cell));
+            }
+            AiMemory memory = new AiMemory();
+            memory.sync(board);
+            boards[i] = board;
+            memories[i] = memory;
+        }
+        random = new SplittableRandom(SEED + 1);
+        layouts = new SplittableRandom(SEED + 2);
+    }
+
+    @TearDown(Level.Trial)
+    public void printSampling() {
+        if (difficulty == AiDifficulty.HARD) {
+            System.out.println("HARD sampling: " + monteCarlo.getStatistics());
+        }
+    }
+
+    @Benchmark
+    public int chooseTarget() {
+        int position = next;
+        next = (position + 1) % POSITIONS;
+        return strategy.chooseTarget(boards[position], memories[position], random);
+    }
+
+    @Benchmark
+    public int playGame(GameCounters counters) {
+        long cpuStart = OS.getProcessCpuTime();
+        Board board = new Board("bench");
+        board.placeShipsAutomatically(layouts);
+        AiMemory memory = new AiMemory();
+
+        int shots = 0;
+        while (!board.allShipsSunk()) {
+            memory.sync(board);
+            int target = strategy.chooseTarget(board, memory, random);
+            int x = BoardBits.x(target);
+            int y = BoardBits.y(target);
+            boolean hit = board.takeShot(x, y);
+            memory.record(new GameSession.FireResult(hit, board.getLastSunkShip() != null,
+                board.allShipsSunk(), x, y), board);
+            shots++;
+        }
+
+        counters.games++;
+        counters.shots += shots;
+        counters.cpuMicros += TimeUnit.NANOSECONDS.toMicros(OS.getProcessCpuTime() - cpuStart);
+        return shots;
+    }
+
+    /**
+     * Те же стратегии, что Spring находит по @Component
+     */
+    static AiStrategyRegistry registry(MonteCarloTargeting monteCarlo) {
+        return new AiStrategyRegistry(List.of(
+            new RandomHuntAiStrategy(),
+            new DensityAiStrategy(),
+            new MonteCarloAiStrategy(monteCarlo)
+        ));
+    }
+
+    /**
+     * AIService поверх реестра; speculation - предварительный расчёт хода (1 поток)
+     */
+    static AIService aiService(AiStrategyRegistry registry, boolean speculation) {
+        GameProperties properties = new GameProperties();
+        properties.setAiSpeculationEnabled(speculation);
+        return new AIService(registry, new AiSpeculation(registry, properties));
+    }
+
+    static MonteCarloTargeting monteCarlo(long hardBudgetMs, int parallelism) {
+        GameProperties properties = new GameProperties();
+        properties.setAiHardBudgetMs(hardBudgetMs);
+        properties.setAiHardParallelism(parallelism);
+        // Без ограничения числа образцов: весь бюджет уходит на выборку
+        properties.setAiHardMaxSamples(Integer.MAX_VALUE);
+        return new MonteCarloTargeting(properties);
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Benchmarks.run(AiBenchmark.class, args);
+    }
+}
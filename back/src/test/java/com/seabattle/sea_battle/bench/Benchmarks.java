@@ -0,0 +1,32 @@
+// back\src\test\java\com\seabattle\sea_battle\bench\Benchmarks.java
+package com.seabattle.sea_battle.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Запуск JMH бенчмарков одного класса из его main. Аргументы - обычные опции JMH
+ * (например -p sessions=100000 -t 8 -f 0), профилировщик GC включён всегда:
+ * gc.alloc.rate.norm - выделенная память на операцию, gc.count и gc.time - сборки.
+ * Проверки бенчмарков выполняются в @TearDown: нарушение - ошибка запуска, а не строка вывода.
+ * Запуск (нужен classpath тестов):
+ *     mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/test-cp.txt -Dmdep.includeScope=test
+ *     java -cp target/test-classes:target/classes:$(cat target/test-cp.txt) com.seabattle.sea_battle.bench.BoardBenchmark
+ */
+final class Benchmarks {
+
+    private Benchmarks() {
+    }
+
+    static void run(Class<?> benchmark, String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder()
+            .parent(new CommandLineOptions(args))
+            .include(benchmark.getName() + "\\.")
+            .addProfiler(GCProfiler.class)
+            .build()).run();
+    }
+}
@@ -0,0 +1,117 @@
+// back\src\test\java\com\seabattle\sea_battle\bench\BoardBenchmark.java
+package com.seabattle.sea_battle.bench;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+
+import com.seabattle.sea_battle.model.Board;
+import com.seabattle.sea_battle.model.BoardBits;
+import com.seabattle.sea_battle.model.FleetLayout;
+
+/**
+ * Игровое поле на битовых плоскостях:
+ * - sinkFleet - доска из готовой расстановки и обстрел всех 100 клеток в случайном порядке
+ *   (проверка - флот потоплен);
+ * - packedState - упакованный вид доски для противника (то, что уходит клиенту).
+ * Расстановки и порядок выстрелов готовятся заранее (по seed), вызов берёт следующие по кругу.
+ * Расстановка флота - {@link PlacementBenchmark}.
+ * Запуск - см. {@link Benchmarks}: java ... com.seabattle.sea_battle.bench.BoardBenchmark [опции JMH]
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+    private static final int LAYOUTS = 256;
+    private static final long SEED = 7L;
+
+    private FleetLayout[] layouts;
+    private int[][] shotOrders;
+    private Board[] halfShotBoards;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        layouts = new FleetLayout[LAYOUTS];
+        shotOrders = new int[LAYOUTS][];
+        halfShotBoards = new Board[LAYOUTS];
+
+        SplittableRandom setup = new SplittableRandom(SEED);
+        for (int i = 0; i < LAYOUTS; i++) {
+            Board board = new Board("bench");
+            board.placeShipsAutomatically(setup);
+            layouts[i] = board.getLayout();
+            shotOrders[i] = shuffledCells(setup);
+
+            for (int shot = 0; shot < BoardBits.CELLS / 2; shot++) {
+                int cell = shotOrders[i][shot];
+                board.takeShot(BoardBits.x(cell), BoardBits.y(cell));
+            }
+            halfShotBoards[i] = board;
+        }
+    }
+
+    @Benchmark
+    public int sinkFleet() {
+        int layout = nextIndex();
+        Board board = new Board("bench");
+        board.applyLayout(layouts[layout]);
+
+        int hits = 0;
+        for (int cell : shotOrders[layout]) {
+            if (board.takeShot(BoardBits.x(cell), BoardBits.y(cell))) {
+                hits++;
+            }
+        }
+        if (!board.allShipsSunk()) {
+            throw new IllegalStateException("Board not sunk after full sweep");
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public byte[] packedState() {
+        return halfShotBoards[nextIndex()].getPackedState(false);
+    }
+
+    private int nextIndex() {
+        int index = next;
+        next = (index + 1) % LAYOUTS;
+        return index;
+    }
+
+    private static int[] shuffledCells(SplittableRandom random) {
+        int[] cells = new int[BoardBits.CELLS];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = i;
+        }
+        for (int i = cells.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = cells[i];
+            cells[i] = cells[j];
+            cells[j] = swap;
+        }
+        return cells;
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Benchmarks.run(BoardBenchmark.class, args);
+    }
+}
@@ -0,0 +1,258 @@
+// back\src\test\java\com\seabattle\sea_battle\bench\HibernationBenchmark.java
+package com.seabattle.sea_battle.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+
+import com.seabattle.sea_battle.config.GameProperties;
+import com.seabattle.sea_battle.model.Board;
+import com.seabattle.sea_battle.model.BoardBits;
+import com.seabattle.sea_battle.model.GameSession;
+import com.seabattle.sea_battle.model.Player;
+import com.seabattle.sea_battle.model.enums.GameStatus;
+import com.seabattle.sea_battle.model.enums.GameType;
+import com.seabattle.sea_battle.service.GameSessionManager;
+
+/**
+ * Усыпление простаивающих сессий: sessions PVP партий в расстановке и в середине игры
+ * в хранилище store (disk - файлы, offheap - прямые буферы):
+ * - hibernate - усыпление всех сессий разом (SingleShotTime, на все sessions);
+ * - rehydrate - пробуждение одной сессии обращением через getGameSession, p50/p99/max;
+ *   когда разбужены все, они усыпляются снова - вне замера.
+ * Проверка: разбуженная сессия совпадает с исходной (статус, ход, версии, обе доски),
+ * после запуска игра на разбуженных сессиях продолжается. Размер записи в хранилище -
+ * storedBytes в статистике усыпления.
+ * Запуск - см. {@link Benchmarks}: java ... com.seabattle.sea_battle.bench.HibernationBenchmark [-p store=offheap]
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HibernationBenchmark {
+
+    /**
+     * Реестр с sessions партиями и их состояние до усыпления
+     */
+    @State(Scope.Thread)
+    public static class Sessions {
+
+        @Param({"disk", "offheap"})
+        public String store;
+
+        @Param({"20000"})
+        public int sessions;
+
+        Path directory;
+        GameSessionManager manager;
+        SplittableRandom random;
+        final List<UUID> ids = new ArrayList<>();
+        final List<Expected> expected = new ArrayList<>();
+        int mismatched;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("hibernation-bench");
+            GameProperties properties = new GameProperties();
+            properties.setMaxActiveSessions(Integer.MAX_VALUE);
+            properties.setSessionBytesEstimate(1);
+            // Усыпление вызывается явно: фоновый поиск не успеет сработать
+            properties.setHibernateAfterMs(TimeUnit.DAYS.toMillis(1));
+            properties.setHibernateCheckIntervalMs(TimeUnit.DAYS.toMillis(1));
+            properties.setHibernateDir(directory.toString());
+            properties.setHibernateStore(store);
+            manager = new GameSessionManager(properties, SessionRegistryBenchmark.repository(0));
+
+            random = new SplittableRandom(11);
+            for (int i = 0; i < sessions; i++) {
+                GameSession session = start(manager, "h-" + i, random);
+                ids.add(session.getSessionId());
+                expected.add(new Expected(session));
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void checkSessions() throws IOException {
+            System.out.println(store + ": " + manager.getHibernationStatistics());
+            wakeAll();
+            // Игра продолжается на разбуженных сессиях
+            for (UUID id : ids) {
+                GameSession session = manager.getGameSession(id);
+                if (session.getStatus() == GameStatus.IN_PROGRESS) {
+                    fire(session, random);
+                }
+            }
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+            if (mismatched > 0 || manager.getHibernatedSessionsCount() > 0) {
+                throw new IllegalStateException(mismatched + " rehydrated sessions mismatched, "
+                    + manager.getHibernatedSessionsCount() + " still hibernated");
+            }
+        }
+
+        /**
+         * Пробуждение всех сессий со сравнением с исходными (уже разбуженные просто берутся из реестра)
+         */
+        void wakeAll() {
+            for (int i = 0; i < sessions; i++) {
+                mismatched += expected.get(i).matches(manager.getGameSession(ids.get(i))) ? 0 : 1;
+            }
+        }
+    }
+
+    /**
+     * Следующая спящая сессия; разбуженная проверяется перед следующим пробуждением
+     */
+    @State(Scope.Thread)
+    public static class Asleep {
+        int next;
+        GameSession woken;
+
+        @Setup(Level.Trial)
+        public void setUp(Sessions sessions) {
+            sessions.manager.hibernateIdleSessions(0);
+        }
+
+        @Setup(Level.Invocation)
+        public void nextSession(Sessions sessions) {
+            if (woken != null) {
+                sessions.mismatched += sessions.expected.get(next).matches(woken) ? 0 : 1;
+                next++;
+                woken = null;
+            }
+            if (next == sessions.sessions) {
+                sessions.manager.hibernateIdleSessions(0);
+                next = 0;
+            }
+        }
+    }
+
+    /**
+     * Все сессии разбужены перед усыплением; после него спят все
+     */
+    @State(Scope.Thread)
+    public static class Awake {
+
+        @Setup(Level.Iteration)
+        public void wakeAll(Sessions sessions) {
+            sessions.wakeAll();
+        }
+
+        @TearDown(Level.Iteration)
+        public void checkHibernated(Sessions sessions) {
+            if (sessions.manager.getHibernatedSessionsCount() != sessions.sessions) {
+                throw new IllegalStateException(sessions.manager.getHibernatedSessionsCount() + " of "
+                    + sessions.sessions + " sessions hibernated");
+            }
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int hibernate(Sessions sessions, Awake awake) {
+        return sessions.manager.hibernateIdleSessions(0);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public GameSession rehydrate(Sessions sessions, Asleep asleep) {
+        asleep.woken = sessions.manager.getGameSession(sessions.ids.get(asleep.next));
+        return asleep.woken;
+    }
+
+    /**
+     * Партия: подключение, обе расстановки и случайное число выстрелов (часть сессий - в расстановке)
+     */
+    private static GameSession start(GameSessionManager manager, String name, SplittableRandom random) {
+        GameSession session = manager.createGameSession(new GameSession(new Player(name + "a"), GameType.PVP));
+        manager.joinGameSession(session.getSessionId(), name + "b");
+        session.getPlayer1Board().placeShipsAutomatically(random.split());
+        session.playerReady(name + "a");
+        if (random.nextInt(5) == 0) {
+            return session;
+        }
+        session.getPlayer2Board().placeShipsAutomatically(random.split());
+        session.playerReady(name + "b");
+        int shots = random.nextInt(BoardBits.CELLS);
+        for (int i = 0; i < shots && session.getStatus() == GameStatus.IN_PROGRESS; i++) {
+            fire(session, random);
+        }
+        if (session.getStatus() != GameStatus.IN_PROGRESS) {
+            return start(manager, name + "x", random);
+        }
+        return session;
+    }
+
+    private static void fire(GameSession session, SplittableRandom random) {
+        String shooter = session.getCurrentTurn();
+        Board target = session.getOpponentBoard(shooter);
+        int cell = random.nextInt(BoardBits.CELLS);
+        while (target.isShotAt(BoardBits.x(cell), BoardBits.y(cell))) {
+            cell = random.nextInt(BoardBits.CELLS);
+        }
+        synchronized (session) {
+            session.fireAtOpponent(shooter, BoardBits.x(cell), BoardBits.y(cell));
+        }
+    }
+
+    /**
+     * Состояние сессии до усыпления (в упакованном виде)
+     */
+    private static final class Expected {
+        private final GameStatus status;
+        private final String turn;
+        private final long version;
+        private final long boardSequence;
+        private final byte[] board1;
+        private final byte[] board2;
+
+        Expected(GameSession session) {
+            this.status = session.getStatus();
+            this.turn = session.getCurrentTurn();
+            this.version = session.getVersion();
+            this.boardSequence = session.getBoardSequence();
+            this.board1 = session.getPlayer1Board().getPackedState(true);
+            this.board2 = session.getPlayer2Board().getPackedState(true);
+        }
+
+        boolean matches(GameSession session) {
+            return session != null
+                && session.getStatus() == status
+                && session.getCurrentTurn().equals(turn)
+                && session.getVersion() == version
+                && session.getBoardSequence() == boardSequence
+                && Arrays.equals(session.getPlayer1Board().getPackedState(true), board1)
+                && Arrays.equals(session.getPlayer2Board().getPackedState(true), board2);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Benchmarks.run(HibernationBenchmark.class, args);
+    }
+}
@@ -0,0 +1,326 @@
+// back\src\test\java\com\seabattle\sea_battle\bench\JournalBenchmark.java
+package com.seabattle.sea_battle.bench;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+
+import com.seabattle.sea_battle.config.GameProperties;
+import com.seabattle.sea_battle.model.Board;
+import com.seabattle.sea_battle.model.BoardBits;
+import com.seabattle.sea_battle.model.GameSession;
+import com.seabattle.sea_battle.model.Player;
+import com.seabattle.sea_battle.model.enums.GameStatus;
+import com.seabattle.sea_battle.model.enums.GameType;
+import com.seabattle.sea_battle.service.ClusterTopology;
+import com.seabattle.sea_battle.service.GameSessionManager;
+import com.seabattle.sea_battle.service.SessionJournal;
+
+/**
+ * Журнал команд сессий:
+ * - shot - задержка выстрела (блокировка сессии + выстрел + запись в журнал, как в /fire),
+ *   p50/p99/p99.9: без журнала, с журналом и с ожиданием group commit (journalSyncWrites).
+ *   4 потока (-t меняет число) играют полные PVP партии; начало партии и выбор клетки - вне
+ *   замера. Сегменты маленькие - чтобы были переходы на новый сегмент (rollovers в статистике);
+ * - recover - восстановление: games партий прерываются на случайном выстреле, журнал
+ *   открывается заново - время разбора. Проверка: собранные сессии совпадают с живыми
+ *   (статус, ход, обе доски), после завершения восстановленных игр на диске остаются только
+ *   текущий и подготовленный сегменты.
+ * Запуск - см. {@link Benchmarks}: java ... com.seabattle.sea_battle.bench.JournalBenchmark [-p mode=sync]
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JournalBenchmark {
+
+    private static final int SEGMENT_MB = 4;
+
+    /**
+     * Реестр сессий с журналом в режиме mode
+     */
+    @State(Scope.Benchmark)
+    public static class Journal {
+
+        @Param({"off", "journal", "sync"})
+        public String mode;
+
+        Path directory;
+        SessionJournal journal;
+        GameSessionManager manager;
+        final AtomicInteger threads = new AtomicInteger();
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("journal-bench");
+            GameProperties properties = properties(directory);
+            properties.setJournalEnabled(!mode.equals("off"));
+            properties.setJournalSyncWrites(mode.equals("sync"));
+            properties.setJournalFlushIntervalMs(mode.equals("sync") ? 1 : 10);
+            journal = new SessionJournal(properties);
+            manager = manager(properties, journal);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            System.out.println(mode + ": " + journal.getStatistics());
+            journal.close();
+            deleteDirectory(directory);
+        }
+    }
+
+    /**
+     * Партия потока и следующий выстрел в ней
+     */
+    @State(Scope.Thread)
+    public static class Game {
+        SplittableRandom random;
+        String prefix;
+        int games;
+        GameSession session;
+        String shooter;
+        int cell;
+
+        @Setup(Level.Trial)
+        public void setUp(Journal journal) {
+            int thread = journal.threads.incrementAndGet();
+            random = new SplittableRandom(thread);
+            prefix = journal.mode + "-" + thread + "-";
+        }
+
+        /**
+         * Завершение выигранной партии, новая партия и выбор клетки - вне замера выстрела
+         */
+        @Setup(Level.Invocation)
+        public void nextShot(Journal journal) {
+            if (session != null && session.getStatus() != GameStatus.IN_PROGRESS) {
+                journal.manager.finishGameSession(session.getSessionId(), session.getStatus());
+                session = null;
+            }
+            if (session == null) {
+                session = start(journal.manager, journal.journal, prefix + games++, random);
+            }
+            shooter = session.getCurrentTurn();
+            cell = unshotCell(session.getOpponentBoard(shooter), random);
+        }
+    }
+
+    /**
+     * Журнал с прерванными партиями, закрытый как при остановке узла
+     */
+    @State(Scope.Thread)
+    public static class Recovery {
+
+        @Param({"8000"})
+        public int games;
+
+        Path directory;
+        GameProperties properties;
+        List<GameSession> live;
+        SessionJournal reopened;
+        List<GameSession> restored;
+
+        @Setup(Level.Iteration)
+        public void write() throws IOException {
+            directory = Files.createTempDirectory("journal-recovery");
+            properties = properties(directory);
+            SessionJournal journal = new SessionJournal(properties);
+            GameSessionManager manager = manager(properties, journal);
+
+            SplittableRandom random = new SplittableRandom(7);
+            live = new ArrayList<>();
+            for (int game = 0; game < games; game++) {
+                String name = "r-" + game;
+                GameSession session;
+                if (random.nextInt(10) == 0) {
+                    // Ждёт соперника
+                    session = manager.createGameSession(new GameSession(new Player(name + "a"), GameType.PVP));
+                } else {
+                    session = start(manager, journal, name, random);
+                    int shots = random.nextInt(BoardBits.CELLS * 2);
+                    for (int i = 0; i < shots && session.getStatus() == GameStatus.IN_PROGRESS; i++) {
+                        String shooter = session.getCurrentTurn();
+                        if (shot(journal, session, shooter, unshotCell(session.getOpponentBoard(shooter), random))
+                                .isGameOver()) {
+                            manager.finishGameSession(session.getSessionId(), session.getStatus());
+                        }
+                    }
+                }
+                if (manager.isSessionActiveLocally(session.getSessionId())) {
+                    live.add(session);
+                }
+            }
+            journal.close();
+        }
+
+        @TearDown(Level.Iteration)
+        public void check() throws IOException, InterruptedException {
+            Map<UUID, GameSession> recovered = new HashMap<>();
+            for (GameSession session : restored) {
+                recovered.put(session.getSessionId(), session);
+            }
+            int mismatched = 0;
+            for (GameSession session : live) {
+                mismatched += same(session, recovered.remove(session.getSessionId())) ? 0 : 1;
+            }
+            Map<String, Object> statistics = reopened.getStatistics();
+            if (mismatched > 0 || !recovered.isEmpty()) {
+                throw new IllegalStateException(mismatched + " mismatched, " + recovered.size() + " unexpected sessions");
+            }
+
+            // Восстановленные игры завершаются - старые сегменты больше не нужны
+            GameSessionManager restarted = manager(properties, reopened);
+            for (GameSession session : restored) {
+                restarted.restoreSession(session);
+                restarted.finishGameSession(session.getSessionId(), GameStatus.CANCELLED);
+            }
+            Thread.sleep(properties.getJournalFlushIntervalMs() * 5);
+            int segments = countSegments(directory);
+            System.out.printf("recovery: %d live, %s records, %s segment files, %d left after finishing%n",
+                live.size(), statistics.get("replayedRecords"), statistics.get("segments"), segments);
+            reopened.close();
+            deleteDirectory(directory);
+            if (segments > 2) {
+                throw new IllegalStateException(segments + " segment files left after all games finished");
+            }
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public GameSession.FireResult shot(Journal journal, Game game) {
+        return shot(journal.journal, game.session, game.shooter, game.cell);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public List<GameSession> recover(Recovery recovery) {
+        // Перезапуск: новый журнал на том же каталоге
+        recovery.reopened = new SessionJournal(recovery.properties);
+        recovery.restored = recovery.reopened.takeRecoveredSessions();
+        return recovery.restored;
+    }
+
+    /**
+     * Новая PVP партия: подключение второго игрока и расстановка обоих флотов
+     */
+    private static GameSession start(GameSessionManager manager, SessionJournal journal, String name,
+                                     SplittableRandom random) {
+        GameSession session = manager.createGameSession(new GameSession(new Player(name + "a"), GameType.PVP));
+        manager.joinGameSession(session.getSessionId(), name + "b");
+        for (String playerName : new String[]{name + "a", name + "b"}) {
+            Board board = session.getPlayerBoard(playerName);
+            board.placeShipsAutomatically(random.split());
+            session.playerReady(playerName);
+            journal.shipsPlaced(session.getSessionId(), playerName, board.getLayout());
+        }
+        return session;
+    }
+
+    private static int unshotCell(Board target, SplittableRandom random) {
+        int cell = random.nextInt(BoardBits.CELLS);
+        while (target.isShotAt(BoardBits.x(cell), BoardBits.y(cell))) {
+            cell = random.nextInt(BoardBits.CELLS);
+        }
+        return cell;
+    }
+
+    /**
+     * Выстрел игрока shooter в клетку cell, как команда /fire
+     */
+    private static GameSession.FireResult shot(SessionJournal journal, GameSession session, String shooter,
+                                               int cell) {
+        GameSession.FireResult result;
+        synchronized (session) {
+            result = session.fireAtOpponent(shooter, BoardBits.x(cell), BoardBits.y(cell));
+            journal.shotFired(session, shooter, result.getX(), result.getY());
+        }
+        return result;
+    }
+
+    private static boolean same(GameSession live, GameSession recovered) {
+        if (recovered == null || live.getStatus() != recovered.getStatus()
+                || !live.getCurrentTurn().equals(recovered.getCurrentTurn())
+                || !sameBoard(live.getPlayer1Board(), recovered.getPlayer1Board())) {
+            return false;
+        }
+        if (live.getPlayer2Board() == null) {
+            return recovered.getPlayer2Board() == null;
+        }
+        return recovered.getPlayer2Board() != null && sameBoard(live.getPlayer2Board(), recovered.getPlayer2Board());
+    }
+
+    private static boolean sameBoard(Board live, Board recovered) {
+        return Arrays.equals(live.getPackedState(true), recovered.getPackedState(true))
+            && live.allShipsSunk() == recovered.allShipsSunk();
+    }
+
+    private static GameProperties properties(Path directory) {
+        GameProperties properties = new GameProperties();
+        properties.setMaxActiveSessions(Integer.MAX_VALUE);
+        properties.setSessionBytesEstimate(1);
+        properties.setJournalEnabled(true);
+        properties.setJournalDir(directory.toString());
+        properties.setJournalSegmentSizeMb(SEGMENT_MB);
+        return properties;
+    }
+
+    private static GameSessionManager manager(GameProperties properties, SessionJournal journal) {
+        return new GameSessionManager(properties, SessionRegistryBenchmark.repository(0),
+            new ClusterTopology(properties), null, journal);
+    }
+
+    private static int countSegments(Path directory) throws IOException {
+        int count = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path ignored : files) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static void deleteDirectory(Path directory) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Benchmarks.run(JournalBenchmark.class, args);
+    }
+}
@@ -0,0 +1,182 @@
+// back\src\test\java\com\seabattle\sea_battle\bench\MatchmakingBenchmark.java
+package com.seabattle.sea_battle.bench;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+
+import com.seabattle.sea_battle.config.GameProperties;
+import com.seabattle.sea_battle.model.GameSession;
+import com.seabattle.sea_battle.model.Player;
+import com.seabattle.sea_battle.model.enums.GameType;
+import com.seabattle.sea_battle.service.GameSessionManager;
+import com.seabattle.sea_battle.service.MatchmakingService;
+import com.seabattle.sea_battle.service.SseNotificationService;
+
+/**
+ * Подбор соперника под нагрузкой, потоков по числу ядер (-t меняет число), время до пары
+ * (SampleTime: p50/p99/max):
+ * - matchmaking - поток ставит в очередь подбора двух игроков одного предпочтения
+ *   (preferences очередей) и ждёт пары для обоих;
+ * - lobby - прежний путь через лобби: поток создаёт сессию и подключает гостя к случайной
+ *   из /waiting-sessions, при отказе - снова (retries - проигранные гонки за подключение).
+ * Составленная сессия отменяется, чтобы реестр не рос. Проверка: в сессии два разных игрока
+ * из одной очереди, среди них тот, кто её ждал; после запуска нет ожидающих сессий.
+ * Запуск - см. {@link Benchmarks}: java ... com.seabattle.sea_battle.bench.MatchmakingBenchmark [-p preferences=4 -t 8]
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+public class MatchmakingBenchmark {
+
+    @Param({"1"})
+    public int preferences;
+
+    private GameSessionManager manager;
+    private MatchmakingService matchmaking;
+    private final AtomicInteger threads = new AtomicInteger();
+    private final AtomicInteger violations = new AtomicInteger();
+
+    /**
+     * Имена игроков потока и его пары и отказы подключения за итерацию
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Client {
+        public long pairs;
+        public long retries;
+        String prefix;
+        SplittableRandom random;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp(MatchmakingBenchmark benchmark) {
+            int thread = benchmark.threads.incrementAndGet();
+            prefix = "t" + thread + "-";
+            random = new SplittableRandom(thread);
+        }
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            pairs = 0;
+            retries = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        GameProperties properties = properties();
+        for (int i = 0; i < preferences; i++) {
+            properties.getMatchmakingPreferences().add("pref-" + i);
+        }
+        manager = new GameSessionManager(properties, SessionRegistryBenchmark.repository(0));
+        matchmaking = new MatchmakingService(properties, manager, new SseNotificationService(manager));
+    }
+
+    @TearDown(Level.Trial)
+    public void checkPairs() {
+        System.out.println("matchmaking: " + matchmaking.getStatistics());
+        if (violations.get() > 0 || manager.getWaitingSessionsCount() > 0) {
+            throw new IllegalStateException(violations.get() + " wrong pairs, "
+                + manager.getWaitingSessionsCount() + " sessions left waiting");
+        }
+    }
+
+    @Benchmark
+    public void matchmaking(Client client) {
+        int number = client.next++;
+        String preference = "pref-" + number % preferences;
+        String first = client.prefix + number + "a";
+        String second = client.prefix + number + "b";
+        MatchmakingService.Ticket firstTicket = matchmaking.enqueue(first, preference);
+        MatchmakingService.Ticket secondTicket = matchmaking.enqueue(second, preference);
+        // Пару второму игроку может составить другой поток - его заявка тоже в очереди
+        check(firstTicket.getMatch().join(), first);
+        check(secondTicket.getMatch().join(), second);
+        client.pairs++;
+    }
+
+    @Benchmark
+    public void lobby(Client client) {
+        String name = client.prefix + client.next++;
+        manager.createGameSession(new GameSession(new Player(name + "-host"), GameType.PVP));
+        while (true) {
+            List<GameSession> waiting = manager.getWaitingSessions();
+            if (waiting.isEmpty()) {
+                // свою сессию забрали, чужие ещё не созданы
+                continue;
+            }
+            GameSession session = waiting.get(client.random.nextInt(waiting.size()));
+            try {
+                manager.joinGameSession(session.getSessionId(), name + "-guest");
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                // сессию уже занял (или занял и отменил) другой игрок
+                client.retries++;
+                continue;
+            }
+            if (!session.getPlayer2().getUsername().equals(name + "-guest")) {
+                violations.incrementAndGet();
+            }
+            manager.cancelGameSession(session.getSessionId());
+            client.pairs++;
+            return;
+        }
+    }
+
+    /**
+     * Сессия из одной очереди, с двумя разными игроками, среди которых playerName;
+     * отменяется (проверяют оба игрока пары, повторная отмена ничего не делает)
+     */
+    private void check(GameSession session, String playerName) {
+        String player1 = session.getPlayer1().getUsername();
+        String player2 = session.getPlayer2().getUsername();
+        if (player1.equals(player2) || !(playerName.equals(player1) || playerName.equals(player2))
+                || preference(player1) != preference(player2)) {
+            violations.incrementAndGet();
+        }
+        manager.cancelGameSession(session.getSessionId());
+    }
+
+    /**
+     * Очередь игрока: номер пары потока (t1-17a) по модулю preferences
+     */
+    private int preference(String playerName) {
+        int number = Integer.parseInt(playerName.substring(playerName.indexOf('-') + 1, playerName.length() - 1));
+        return number % preferences;
+    }
+
+    private static GameProperties properties() {
+        GameProperties properties = new GameProperties();
+        properties.setMaxActiveSessions(Integer.MAX_VALUE);
+        // Ёмкость здесь не проверяется - без замера размера сессии при каждом запуске
+        properties.setSessionBytesEstimate(1);
+        return properties;
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Benchmarks.run(MatchmakingBenchmark.class, args);
+    }
+}
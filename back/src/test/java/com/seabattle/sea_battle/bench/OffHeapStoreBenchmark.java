@@ -0,0 +1,215 @@
+// back\src\test\java\com\seabattle\sea_battle\bench\OffHeapStoreBenchmark.java
+package com.seabattle.sea_battle.bench;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+
+import com.seabattle.sea_battle.model.Board;
+import com.seabattle.sea_battle.model.BoardBits;
+import com.seabattle.sea_battle.model.GameSession;
+import com.seabattle.sea_battle.model.Player;
+import com.seabattle.sea_battle.model.enums.GameStatus;
+import com.seabattle.sea_battle.model.enums.GameType;
+import com.seabattle.sea_battle.service.OffHeapSessionStore;
+
+/**
+ * Сессии вне heap ({@link OffHeapSessionStore}) против ConcurrentHashMap<UUID, GameSession>
+ * (@Param store): sessions PVP партий в середине игры загружаются в хранилище, затем:
+ * - access - обращение к случайной сессии: чтение, выстрел, запись обратно (для offheap -
+ *   разбор и запись записи), каждое сотое обращение заменяет сессию новой, законченная игра
+ *   тоже заменяется; p50/p99, сборки во время обращений - gc.count и gc.time профилировщика;
+ * - fullGc - полная сборка с загруженными сессиями: сколько стоит обход живых объектов.
+ * Проверка: каждая сотая загруженная сессия читается обратно и совпадает с исходной,
+ * после запуска все отслеживаемые сессии на месте.
+ * Запуск - см. {@link Benchmarks} (1 000 000 сессий на heap - около 3 ГБ, форк с -Xmx4g):
+ *     java ... com.seabattle.sea_battle.bench.OffHeapStoreBenchmark [-p sessions=100000]
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-XX:MaxDirectMemorySize=1g"})
+public class OffHeapStoreBenchmark {
+
+    @Param({"offheap", "heap"})
+    public String store;
+
+    @Param({"1000000"})
+    public int sessions;
+
+    private Sessions stored;
+    private SplittableRandom random;
+    private long[] msb;
+    private long[] lsb;
+    private int counter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        stored = store.equals("heap") ? new HeapSessions() : new OffHeapSessions();
+        random = new SplittableRandom(5);
+        msb = new long[sessions];
+        lsb = new long[sessions];
+        for (int i = 0; i < sessions; i++) {
+            GameSession session = newSession();
+            stored.put(session);
+            msb[i] = session.getSessionId().getMostSignificantBits();
+            lsb[i] = session.getSessionId().getLeastSignificantBits();
+            if (i % 100 == 0 && !same(session, stored.get(session.getSessionId()))) {
+                throw new IllegalStateException("Session " + session.getSessionId() + " changed in the " + store + " store");
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void checkSessions() {
+        int missing = 0;
+        for (int i = 0; i < sessions; i += 100) {
+            missing += stored.get(new UUID(msb[i], lsb[i])) != null ? 0 : 1;
+        }
+        if (missing > 0) {
+            throw new IllegalStateException(missing + " sessions missing from the " + store + " store");
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public GameSession access() {
+        int k = random.nextInt(sessions);
+        UUID id = new UUID(msb[k], lsb[k]);
+        GameSession session = stored.get(id);
+        if (random.nextInt(100) == 0 || session.getStatus() != GameStatus.IN_PROGRESS) {
+            stored.remove(id);
+            session = newSession();
+            msb[k] = session.getSessionId().getMostSignificantBits();
+            lsb[k] = session.getSessionId().getLeastSignificantBits();
+        } else {
+            fire(session, random);
+        }
+        stored.put(session);
+        return session;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void fullGc() {
+        System.gc();
+    }
+
+    /**
+     * Партия в середине игры: оба флота расставлены, случайное число выстрелов
+     */
+    private GameSession newSession() {
+        while (true) {
+            String name = "o-" + counter++;
+            GameSession session = new GameSession(new Player(name + "a"), GameType.PVP);
+            session.connectSecondPlayer(new Player(name + "b"));
+            for (String playerName : new String[]{name + "a", name + "b"}) {
+                session.getPlayerBoard(playerName).placeShipsAutomatically(random.split());
+                session.playerReady(playerName);
+            }
+            int shots = random.nextInt(BoardBits.CELLS);
+            for (int i = 0; i < shots && session.getStatus() == GameStatus.IN_PROGRESS; i++) {
+                fire(session, random);
+            }
+            if (session.getStatus() == GameStatus.IN_PROGRESS) {
+                return session;
+            }
+        }
+    }
+
+    private static void fire(GameSession session, SplittableRandom random) {
+        String shooter = session.getCurrentTurn();
+        Board target = session.getOpponentBoard(shooter);
+        int cell = random.nextInt(BoardBits.CELLS);
+        while (target.isShotAt(BoardBits.x(cell), BoardBits.y(cell))) {
+            cell = random.nextInt(BoardBits.CELLS);
+        }
+        synchronized (session) {
+            session.fireAtOpponent(shooter, BoardBits.x(cell), BoardBits.y(cell));
+        }
+    }
+
+    private static boolean same(GameSession expected, GameSession actual) {
+        return actual != null
+            && actual.getStatus() == expected.getStatus()
+            && actual.getCurrentTurn().equals(expected.getCurrentTurn())
+            && actual.getVersion() == expected.getVersion()
+            && actual.isPlayer2Ready() == expected.isPlayer2Ready()
+            && actual.getPlayer2().getUsername().equals(expected.getPlayer2().getUsername())
+            && Arrays.equals(actual.getPlayer1Board().getPackedState(true), expected.getPlayer1Board().getPackedState(true))
+            && Arrays.equals(actual.getPlayer2Board().getPackedState(true), expected.getPlayer2Board().getPackedState(true));
+    }
+
+    private interface Sessions {
+        void put(GameSession session);
+
+        GameSession get(UUID sessionId);
+
+        void remove(UUID sessionId);
+    }
+
+    private static final class HeapSessions implements Sessions {
+        private final Map<UUID, GameSession> sessions = new ConcurrentHashMap<>();
+
+        @Override
+        public void put(GameSession session) {
+            sessions.put(session.getSessionId(), session);
+        }
+
+        @Override
+        public GameSession get(UUID sessionId) {
+            return sessions.get(sessionId);
+        }
+
+        @Override
+        public void remove(UUID sessionId) {
+            sessions.remove(sessionId);
+        }
+    }
+
+    private static final class OffHeapSessions implements Sessions {
+        private final OffHeapSessionStore store = new OffHeapSessionStore(Long.MAX_VALUE);
+
+        @Override
+        public void put(GameSession session) {
+            if (!store.put(session)) {
+                throw new IllegalStateException("Off-heap store is full at " + store.size() + " sessions");
+            }
+        }
+
+        @Override
+        public GameSession get(UUID sessionId) {
+            return store.get(sessionId);
+        }
+
+        @Override
+        public void remove(UUID sessionId) {
+            store.remove(sessionId);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Benchmarks.run(OffHeapStoreBenchmark.class, args);
+    }
+}
@@ -0,0 +1,104 @@
+// back\src\test\java\com\seabattle\sea_battle\bench\PlacementBenchmark.java
+package com.seabattle.sea_battle.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+
+import com.seabattle.sea_battle.model.Board;
+import com.seabattle.sea_battle.model.FleetPlacer;
+import com.seabattle.sea_battle.model.ShipPlacements;
+import com.seabattle.sea_battle.model.Ship;
+
+/**
+ * Расстановка флота:
+ * - manualPlaceShips - проверка и применение ручной расстановки (проверка - расстановка принята);
+ * - autoPlaceShips - авторасстановка на доске;
+ * - generateFleet - генерация позиций флота, распределение времени (SampleTime: p50/p99/max).
+ * Запуск - см. {@link Benchmarks}: java ... com.seabattle.sea_battle.bench.PlacementBenchmark [-p seed=7]
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlacementBenchmark {
+
+    @Param({"42"})
+    public long seed;
+
+    private List<Ship> fleet;
+    private Board board;
+    private FleetPlacer placer;
+    private SplittableRandom random;
+    private int[] positions;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fleet = manualFleet();
+        board = new Board("bench");
+        placer = new FleetPlacer();
+        random = new SplittableRandom(seed);
+        positions = new int[ShipPlacements.fleetSize()];
+    }
+
+    @Benchmark
+    public Board manualPlaceShips() {
+        if (!board.placeShips(fleet)) {
+            throw new IllegalStateException("Reference fleet rejected");
+        }
+        return board;
+    }
+
+    @Benchmark
+    public Board autoPlaceShips() {
+        board.placeShipsAutomatically(random);
+        return board;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    public int[] generateFleet() {
+        placer.generate(random, positions);
+        return positions;
+    }
+
+    /**
+     * Та же расстановка, что и в клиенте по умолчанию
+     */
+    private static List<Ship> manualFleet() {
+        List<Ship> ships = new ArrayList<>();
+        ships.add(new Ship(4, true, 0, 0));
+        ships.add(new Ship(3, true, 0, 2));
+        ships.add(new Ship(3, true, 4, 2));
+        ships.add(new Ship(2, true, 0, 4));
+        ships.add(new Ship(2, true, 3, 4));
+        ships.add(new Ship(2, true, 6, 4));
+        ships.add(new Ship(1, true, 0, 6));
+        ships.add(new Ship(1, true, 2, 6));
+        ships.add(new Ship(1, true, 4, 6));
+        ships.add(new Ship(1, true, 6, 6));
+        return ships;
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Benchmarks.run(PlacementBenchmark.class, args);
+    }
+}
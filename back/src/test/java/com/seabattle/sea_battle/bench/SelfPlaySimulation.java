@@ -0,0 +1,200 @@
+// back\src\test\java\com\seabattle\sea_battle\bench\SelfPlaySimulation.java
+package com.seabattle.sea_battle.bench;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+
+import com.seabattle.sea_battle.model.AiMemory;
+import com.seabattle.sea_battle.model.Board;
+import com.seabattle.sea_battle.model.FleetLayout;
+import com.seabattle.sea_battle.model.FleetPlacer;
+import com.seabattle.sea_battle.model.GameSession;
+import com.seabattle.sea_battle.model.Player;
+import com.seabattle.sea_battle.model.ShipPlacements;
+import com.seabattle.sea_battle.model.enums.AiDifficulty;
+import com.seabattle.sea_battle.model.enums.GameType;
+import com.seabattle.sea_battle.service.AIService;
+import com.seabattle.sea_battle.service.MonteCarloTargeting;
+
+/**
+ * Партии AI против AI без HTTP и SSE: те же GameSession, Board и стратегии AIService,
+ * что и в игре. Пара уровней (@Param pair, включая игру с самим собой), первый ход
+ * чередуется; партии идут параллельно в потоках по числу ядер (-t меняет число).
+ *
+ * Партий в секунду, счётчики games/leftWins/shots; после запуска выводятся доля побед
+ * левого уровня, выстрелов на партию и распределение числа выстрелов победителя.
+ * Каждая партия получает свой генератор из seed и номера партии, поэтому результат
+ * партии EASY/MEDIUM воспроизводим; HARD ограничен временем (hardBudgetMs) и
+ * воспроизводится только приблизительно.
+ *
+ * Запуск - см. {@link Benchmarks}: java ... com.seabattle.sea_battle.bench.SelfPlaySimulation [-p pair=MEDIUM-HARD]
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+public class SelfPlaySimulation {
+
+    // Больше выстрелов в партии быть не может (по 100 клеток на доске)
+    private static final int MAX_SHOTS = 200;
+
+    @Param({"EASY-EASY", "EASY-MEDIUM", "MEDIUM-MEDIUM"})
+    public String pair;
+
+    @Param({"42"})
+    public long seed;
+
+    @Param({"20"})
+    public long hardBudgetMs;
+
+    private AiDifficulty[] seats;
+    private MonteCarloTargeting monteCarlo;
+    private AIService aiService;
+    private final AtomicInteger games = new AtomicInteger();
+    private final AtomicInteger leftWins = new AtomicInteger();
+    private final AtomicLong shots = new AtomicLong();
+    private final AtomicLongArray winningShots = new AtomicLongArray(MAX_SHOTS + 1);
+
+    /**
+     * Партии потока за итерацию: сыграно, побед левого уровня, выстрелов
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Results {
+        public long games;
+        public long leftWins;
+        public long shots;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            games = 0;
+            leftWins = 0;
+            shots = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String[] levels = pair.split("-");
+        seats = new AiDifficulty[]{AiDifficulty.valueOf(levels[0]), AiDifficulty.valueOf(levels[1])};
+        monteCarlo = AiBenchmark.monteCarlo(hardBudgetMs, 1);
+        aiService = AiBenchmark.aiService(AiBenchmark.registry(monteCarlo), false);
+    }
+
+    @TearDown(Level.Trial)
+    public void printResults() {
+        long total = 0;
+        long[] counts = new long[MAX_SHOTS + 1];
+        for (int i = 0; i <= MAX_SHOTS; i++) {
+            counts[i] = winningShots.get(i);
+            total += counts[i];
+        }
+        int played = Math.max(1, games.get());
+        System.out.printf("%s: %,d games, left wins %.1f%%, %.1f shots/game, winner shots p10 %d, p50 %d, p90 %d%n",
+            pair, games.get(), 100.0 * leftWins.get() / played, (double) shots.get() / played,
+            percentile(counts, total, 10), percentile(counts, total, 50), percentile(counts, total, 90));
+        if (seats[0] == AiDifficulty.HARD || seats[1] == AiDifficulty.HARD) {
+            System.out.println("HARD: " + monteCarlo.getStatistics());
+        }
+    }
+
+    @Benchmark
+    public int game(Results results) {
+        int game = games.getAndIncrement();
+        int[] shotsBySeat = new int[2];
+        int winner = play(aiService, seats, game, seed, shotsBySeat);
+        if (winner == 0) {
+            leftWins.incrementAndGet();
+            results.leftWins++;
+        }
+        winningShots.incrementAndGet(shotsBySeat[winner]);
+        shots.addAndGet(shotsBySeat[0] + shotsBySeat[1]);
+        results.games++;
+        results.shots += shotsBySeat[0] + shotsBySeat[1];
+        return winner;
+    }
+
+    /**
+     * Одна партия; seats[0] ходит первым в чётных партиях, seats[1] - в нечётных.
+     * @return победившее место (индекс в seats), выстрелы мест - в shotsBySeat
+     */
+    static int play(AIService aiService, AiDifficulty[] seats, int game, long seed, int[] shotsBySeat) {
+        SplittableRandom random = new SplittableRandom(seed ^ (game * 0x9E3779B97F4A7C15L));
+        int firstSeat = game & 1;
+
+        Player first = new Player("seat" + firstSeat + "_" + seats[firstSeat], true);
+        Player second = new Player("seat" + (1 - firstSeat) + "_" + seats[1 - firstSeat], true);
+        GameSession session = new GameSession(first, GameType.PVE);
+        session.getPlayer1Board().placeShipsAutomatically(random);
+        session.connectSecondPlayer(second, layout(random));
+        session.playerReady(first.getUsername());
+        AiMemory[] memories = {new AiMemory(), new AiMemory()};
+
+        for (int shot = 0; shot < MAX_SHOTS; shot++) {
+            String shooter = session.getCurrentTurn();
+            int seat = shooter.equals(first.getUsername()) ? firstSeat : 1 - firstSeat;
+
+            Board board = session.getOpponentBoard(shooter);
+            int[] target = aiService.chooseTarget(board, memories[seat], seats[seat], random);
+            if (target == null) {
+                break;
+            }
+            GameSession.FireResult result = session.fireAtOpponent(shooter, target[0], target[1]);
+            memories[seat].record(result, board);
+            shotsBySeat[seat]++;
+            if (result.isGameOver()) {
+                return seat;
+            }
+        }
+        throw new IllegalStateException("Game " + game + " did not finish");
+    }
+
+    private static FleetLayout layout(SplittableRandom random) {
+        int[] positions = new int[ShipPlacements.fleetSize()];
+        FleetPlacer.local().generateUniform(random, positions);
+        return FleetLayout.of(positions);
+    }
+
+    /**
+     * Перцентиль по гистограмме: counts[i] - партий, выигранных за i выстрелов
+     */
+    private static int percentile(long[] counts, long total, int percent) {
+        long rank = total * percent / 100;
+        long seen = 0;
+        for (int shots = 0; shots < counts.length; shots++) {
+            seen += counts[shots];
+            if (seen > rank) {
+                return shots;
+            }
+        }
+        return 0;
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Benchmarks.run(SelfPlaySimulation.class, args);
+    }
+}
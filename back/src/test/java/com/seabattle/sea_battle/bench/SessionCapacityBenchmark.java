@@ -0,0 +1,128 @@
+// back\src\test\java\com\seabattle\sea_battle\bench\SessionCapacityBenchmark.java
+package com.seabattle.sea_battle.bench;
+
+import java.lang.management.ManagementFactory;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+
+import com.seabattle.sea_battle.config.GameProperties;
+import com.seabattle.sea_battle.model.AiMemory;
+import com.seabattle.sea_battle.model.Board;
+import com.seabattle.sea_battle.model.GameSession;
+import com.seabattle.sea_battle.model.Player;
+import com.seabattle.sea_battle.model.enums.GameType;
+import com.seabattle.sea_battle.service.GameSessionManager;
+import com.seabattle.sea_battle.service.SessionMemoryBudget;
+
+/**
+ * Сколько одновременных сессий помещается в heap форка при допуске по бюджету памяти.
+ * Вызов - заполнение нового реестра "выросшими" сессиями (обе доски расставлены, представления
+ * досок построены, память AI), пока допуск не откажет; после итерации выводятся принятые сессии,
+ * оценка байт на сессию и фактический прирост heap после GC.
+ * Проверка: допуск принял хотя бы одну сессию и не больше расчётной ёмкости.
+ * Форк с -Xmx512m, другой размер heap - опцией JMH -jvmArgsAppend.
+ * Запуск - см. {@link Benchmarks}: java ... com.seabattle.sea_battle.bench.SessionCapacityBenchmark [-jvmArgsAppend -Xmx4g]
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx512m")
+public class SessionCapacityBenchmark {
+
+    private GameSessionManager manager;
+    private long baseline;
+    private int admitted;
+
+    @Setup(Level.Iteration)
+    public void emptyRegistry() {
+        manager = null;
+        baseline = liveHeap();
+        GameProperties properties = new GameProperties();
+        properties.setSessionMemoryBudgetEnabled(true);
+        properties.setMaxActiveSessions(0);
+        manager = new GameSessionManager(properties, SessionRegistryBenchmark.repository(0));
+    }
+
+    @TearDown(Level.Iteration)
+    public void checkCapacity() {
+        long live = liveHeap();
+        long heapMax = Runtime.getRuntime().maxMemory();
+        SessionMemoryBudget budget = manager.getMemoryBudget();
+        System.out.printf("admitted: %,d sessions (capacity %,d)%n", admitted, manager.getSessionCapacity());
+        System.out.printf("estimate: %,d bytes/session (%s %,d + overhead %,d), budget %,d MB of %,d MB%n",
+            budget.getBytesPerSession(), budget.getMeasurement(), budget.getMeasuredSessionBytes(), budget.getOverheadBytes(),
+            budget.getBudgetBytes() >> 20, heapMax >> 20);
+        System.out.printf("actual:   %,d bytes/session retained after GC, live heap %,d MB (%.0f%% of max)%n",
+            admitted > 0 ? (live - baseline) / admitted : 0, live >> 20, 100.0 * live / heapMax);
+        int capacity = manager.getSessionCapacity();
+        // Таймеры сессий держат реестр - без отмены он переживёт итерацию
+        for (UUID sessionId : manager.getAllActiveSessions().keySet()) {
+            manager.cancelGameSession(sessionId);
+        }
+        if (admitted == 0 || admitted > capacity) {
+            throw new IllegalStateException(admitted + " sessions admitted, capacity " + capacity);
+        }
+    }
+
+    @Benchmark
+    public int fill() {
+        SplittableRandom random = new SplittableRandom(42);
+        admitted = 0;
+        try {
+            while (true) {
+                grow(manager, "player-" + admitted, random);
+                admitted++;
+            }
+        } catch (IllegalStateException e) {
+            // допуск отказал - бюджет исчерпан
+        }
+        return admitted;
+    }
+
+    /**
+     * PVP сессия через реестр, доведённая до максимального размера
+     */
+    private static void grow(GameSessionManager manager, String name, SplittableRandom random) {
+        GameSession session = manager.createGameSession(new GameSession(new Player(name + "a"), GameType.PVP));
+        manager.joinGameSession(session.getSessionId(), name + "b");
+        for (Board board : new Board[]{session.getPlayer1Board(), session.getPlayer2Board()}) {
+            board.placeShipsAutomatically(random);
+            board.getView(true).getJson(name);
+            board.getView(false).getJson(name);
+        }
+        session.playerReady(session.getPlayer1().getUsername());
+        session.playerReady(session.getPlayer2().getUsername());
+        AiMemory memory = new AiMemory();
+        memory.sync(session.getPlayer1Board());
+        session.setAiMemory(memory);
+    }
+
+    private static long liveHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Benchmarks.run(SessionCapacityBenchmark.class, args);
+    }
+}
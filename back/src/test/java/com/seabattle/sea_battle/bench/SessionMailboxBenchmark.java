@@ -0,0 +1,209 @@
+// back\src\test\java\com\seabattle\sea_battle\bench\SessionMailboxBenchmark.java
+package com.seabattle.sea_battle.bench;
+
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+
+import com.seabattle.sea_battle.config.GameProperties;
+import com.seabattle.sea_battle.model.Board;
+import com.seabattle.sea_battle.model.BoardBits;
+import com.seabattle.sea_battle.model.GameSession;
+import com.seabattle.sea_battle.model.Player;
+import com.seabattle.sea_battle.model.enums.GameStatus;
+import com.seabattle.sea_battle.model.enums.GameType;
+import com.seabattle.sea_battle.service.GameSessionManager;
+import com.seabattle.sea_battle.service.SessionMailbox;
+
+/**
+ * Конкурентные выстрелы в одни и те же PVP сессии: 32 потока (как HTTP запросы, -t меняет число)
+ * стреляют в случайную сессию от имени игрока, чей ход они видят, в клетку, которую видят
+ * непростреленной, и ждут ответа; законченная игра заменяется новой. Выстрелов в секунду
+ * и счётчики accepted/rejected (не его ход, клетка прострелена, игра окончена).
+ * Режимы (@Param mode): без синхронизации, блокировка сессии, очередь команд сессии.
+ * Проверка - принятых выстрелов по доске столько же, сколько простреленных клеток на ней
+ * (иначе два выстрела прошли в одну клетку); для unsafe расхождения ожидаемы и только выводятся.
+ * Запуск - см. {@link Benchmarks}: java ... com.seabattle.sea_battle.bench.SessionMailboxBenchmark [-p sessions=64]
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(32)
+public class SessionMailboxBenchmark {
+
+    @Param({"unsafe", "lock", "mailbox"})
+    public String mode;
+
+    @Param({"16"})
+    public int sessions;
+
+    private GameSessionManager manager;
+    private SessionMailbox mailbox;
+    private SplittableRandom setup;
+    private final AtomicInteger gameNumber = new AtomicInteger();
+    private final Queue<Match> matches = new ConcurrentLinkedQueue<>();
+    private AtomicReferenceArray<Match> slots;
+
+    /**
+     * Генератор потока и его принятые и отклонённые выстрелы за итерацию
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Shooter {
+        public long accepted;
+        public long rejected;
+        SplittableRandom random;
+
+        @Setup(Level.Trial)
+        public void setUp(SessionMailboxBenchmark benchmark) {
+            random = benchmark.split();
+        }
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            accepted = 0;
+            rejected = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        GameProperties properties = new GameProperties();
+        properties.setMaxActiveSessions(Integer.MAX_VALUE);
+        manager = new GameSessionManager(properties, SessionRegistryBenchmark.repository(0));
+        mailbox = new SessionMailbox(properties, manager);
+        setup = new SplittableRandom(42L);
+
+        // Слоты с играми; законченная игра заменяется новой
+        slots = new AtomicReferenceArray<>(sessions);
+        for (int i = 0; i < sessions; i++) {
+            slots.set(i, match(setup));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void checkBoards() {
+        int corrupted = 0;
+        for (Match match : matches) {
+            corrupted += shotCells(match.session.getPlayer1Board()) != match.shotsAtPlayer1.get() ? 1 : 0;
+            corrupted += shotCells(match.session.getPlayer2Board()) != match.shotsAtPlayer2.get() ? 1 : 0;
+        }
+        System.out.printf("%s: %,d games, %d/%d boards corrupted%n", mode, matches.size(), corrupted, matches.size() * 2);
+        if (corrupted > 0 && !mode.equals("unsafe")) {
+            throw new IllegalStateException(corrupted + " boards accepted two shots into one cell");
+        }
+    }
+
+    @Benchmark
+    public void shot(Shooter shooter) {
+        SplittableRandom random = shooter.random;
+        int slot = random.nextInt(sessions);
+        Match match = slots.get(slot);
+        GameSession session = match.session;
+        // Клиент стреляет, когда видит свой ход, в клетку, которую видит непростреленной
+        String player = session.getCurrentTurn();
+        boolean first = player.equals(session.getPlayer1().getUsername());
+        Board target = first ? session.getPlayer2Board() : session.getPlayer1Board();
+        int cell = random.nextInt(BoardBits.CELLS);
+        while (target.isShotAt(BoardBits.x(cell), BoardBits.y(cell)) && random.nextInt(8) != 0) {
+            cell = random.nextInt(BoardBits.CELLS);
+        }
+        int x = BoardBits.x(cell);
+        int y = BoardBits.y(cell);
+        Runnable shot = () -> {
+            if (session.getStatus() != GameStatus.IN_PROGRESS) {
+                throw new IllegalStateException("Game is not in progress");
+            }
+            GameSession.FireResult result = session.fireAtOpponent(player, x, y);
+            (first ? match.shotsAtPlayer2 : match.shotsAtPlayer1).incrementAndGet();
+            if (result.isGameOver()) {
+                slots.compareAndSet(slot, match, match(new SplittableRandom(x)));
+            }
+        };
+        try {
+            switch (mode) {
+                case "unsafe" -> shot.run();
+                case "lock" -> {
+                    synchronized (session) {
+                        shot.run();
+                    }
+                }
+                default -> mailbox.submit(session.getSessionId(), shot).join();
+            }
+            shooter.accepted++;
+        } catch (RuntimeException e) {
+            // не его ход, клетка уже прострелена, игра окончена
+            shooter.rejected++;
+        }
+    }
+
+    synchronized SplittableRandom split() {
+        return setup.split();
+    }
+
+    private Match match(SplittableRandom random) {
+        Match match = new Match(game(manager, mode + "-" + gameNumber.incrementAndGet(), random));
+        matches.add(match);
+        return match;
+    }
+
+    private static GameSession game(GameSessionManager manager, String name, SplittableRandom random) {
+        GameSession session = manager.createGameSession(new GameSession(new Player(name + "a"), GameType.PVP));
+        manager.joinGameSession(session.getSessionId(), name + "b");
+        session.getPlayer1Board().placeShipsAutomatically(random);
+        session.getPlayer2Board().placeShipsAutomatically(random);
+        session.playerReady(session.getPlayer1().getUsername());
+        session.playerReady(session.getPlayer2().getUsername());
+        return session;
+    }
+
+    private static long shotCells(Board board) {
+        long shot = 0;
+        for (int cell = 0; cell < BoardBits.CELLS; cell++) {
+            shot += board.isShotAt(BoardBits.x(cell), BoardBits.y(cell)) ? 1 : 0;
+        }
+        return shot;
+    }
+
+    /**
+     * Игра и число принятых выстрелов по каждой доске
+     */
+    private static final class Match {
+        final GameSession session;
+        final AtomicLong shotsAtPlayer1 = new AtomicLong();
+        final AtomicLong shotsAtPlayer2 = new AtomicLong();
+
+        Match(GameSession session) {
+            this.session = session;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Benchmarks.run(SessionMailboxBenchmark.class, args);
+    }
+}
@@ -0,0 +1,187 @@
+// back\src\test\java\com\seabattle\sea_battle\bench\SessionRegistryBenchmark.java
+package com.seabattle.sea_battle.bench;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+
+import com.seabattle.sea_battle.config.GameProperties;
+import com.seabattle.sea_battle.model.GameSession;
+import com.seabattle.sea_battle.model.Player;
+import com.seabattle.sea_battle.model.enums.GameStatus;
+import com.seabattle.sea_battle.model.enums.GameType;
+import com.seabattle.sea_battle.repository.GameRepository;
+import com.seabattle.sea_battle.service.GameSessionManager;
+
+/**
+ * Конкурентная нагрузка на реестр сессий, 64 потока (-t меняет число):
+ * - game - создание PVP сессии, подключение второго игрока и завершение игры
+ *   (сохранение в БД имитируется задержкой saveMicros), игр в секунду;
+ * - createAtCap - создание и отмена сессий при лимите cap меньше числа потоков:
+ *   одновременно удержанных сессий не больше лимита;
+ * - samePlayer - все потоки создают и отменяют сессию одному и тому же игроку:
+ *   активная игра у игрока не больше одной.
+ * Нарушение инварианта считается в violations и проваливает запуск в @TearDown.
+ * Запуск - см. {@link Benchmarks}: java ... com.seabattle.sea_battle.bench.SessionRegistryBenchmark [-p saveMicros=0]
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(64)
+public class SessionRegistryBenchmark {
+
+    private static final long HOLD_MICROS = 50L;
+
+    @Param({"200"})
+    public long saveMicros;
+
+    @Param({"16"})
+    public int cap;
+
+    private GameSessionManager manager;
+    private GameSessionManager capped;
+    private final AtomicInteger threads = new AtomicInteger();
+    private final AtomicInteger held = new AtomicInteger();
+    private final AtomicInteger violations = new AtomicInteger();
+
+    /**
+     * Имена игроков потока и его созданные и отклонённые сессии за итерацию
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Client {
+        public long created;
+        public long rejected;
+        String prefix;
+        long games;
+
+        @Setup(Level.Trial)
+        public void setUp(SessionRegistryBenchmark benchmark) {
+            prefix = "t" + benchmark.threads.incrementAndGet() + "-";
+        }
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            created = 0;
+            rejected = 0;
+        }
+
+        String nextName() {
+            return prefix + games++;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        manager = manager(Integer.MAX_VALUE, saveMicros);
+        capped = manager(cap, 0);
+    }
+
+    @TearDown(Level.Trial)
+    public void checkInvariants() {
+        if (violations.get() > 0) {
+            throw new IllegalStateException(violations.get() + " sessions over the cap or a second game for one player");
+        }
+    }
+
+    @Benchmark
+    public void game(Client client) {
+        String name = client.nextName();
+        GameSession session = manager.createGameSession(new GameSession(new Player(name + "a"), GameType.PVP));
+        manager.joinGameSession(session.getSessionId(), name + "b");
+        manager.finishGameSession(session.getSessionId(), GameStatus.PLAYER1_WON);
+        client.created++;
+    }
+
+    @Benchmark
+    public void createAtCap(Client client) {
+        GameSession session;
+        try {
+            session = capped.createGameSession(new GameSession(new Player(client.nextName()), GameType.PVP));
+        } catch (IllegalStateException e) {
+            // лимит
+            client.rejected++;
+            return;
+        }
+        hold(session, cap, client);
+    }
+
+    @Benchmark
+    public void samePlayer(Client client) {
+        GameSession session;
+        try {
+            session = capped.createGameSession(new GameSession(new Player("same"), GameType.PVP));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            // игрок уже в игре; лимит - место резервируется до проверки игрока
+            client.rejected++;
+            return;
+        }
+        hold(session, 1, client);
+    }
+
+    /**
+     * Сессия удерживается HOLD_MICROS (чтобы потоки упирались в лимит) и отменяется;
+     * удержанных одновременно не больше limit
+     */
+    private void hold(GameSession session, int limit, Client client) {
+        client.created++;
+        if (held.incrementAndGet() > limit) {
+            violations.incrementAndGet();
+        }
+        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(HOLD_MICROS));
+        held.decrementAndGet();
+        capped.cancelGameSession(session.getSessionId());
+    }
+
+    private static GameSessionManager manager(int maxSessions, long saveMicros) {
+        GameProperties properties = new GameProperties();
+        properties.setMaxActiveSessions(maxSessions);
+        return new GameSessionManager(properties, repository(saveMicros));
+    }
+
+    /**
+     * Репозиторий без БД: save ждёт saveMicros, как запись в базу
+     */
+    static GameRepository repository(long saveMicros) {
+        return (GameRepository) Proxy.newProxyInstance(GameRepository.class.getClassLoader(),
+            new Class<?>[]{GameRepository.class}, (proxy, method, args) -> {
+                if (method.getName().equals("save")) {
+                    LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(saveMicros));
+                    return args[0];
+                }
+                if (method.getName().equals("hashCode")) {
+                    return System.identityHashCode(proxy);
+                }
+                if (method.getName().equals("equals")) {
+                    return proxy == args[0];
+                }
+                throw new UnsupportedOperationException(method.getName());
+            });
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Benchmarks.run(SessionRegistryBenchmark.class, args);
+    }
+}
@@ -0,0 +1,131 @@
+// back\src\test\java\com\seabattle\sea_battle\bench\SessionTimerBenchmark.java
+package com.seabattle.sea_battle.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+
+import com.seabattle.sea_battle.config.GameProperties;
+import com.seabattle.sea_battle.model.GameSession;
+import com.seabattle.sea_battle.model.Player;
+import com.seabattle.sea_battle.model.enums.GameStatus;
+import com.seabattle.sea_battle.model.enums.GameType;
+import com.seabattle.sea_battle.service.GameSessionManager;
+import com.seabattle.sea_battle.service.HashedTimingWheel;
+
+/**
+ * Таймеры сессий на одном колесе:
+ * - finishedGame - игры в секунду (создание, подключение, завершение); удаление завершённых
+ *   сессий - по таймеру cleanupInterval;
+ * - abandonedGame - сессии, брошенные в ожидании второго игрока и в расстановке, отменяются
+ *   по таймаутам timeoutMs;
+ * - scheduleCancel - постановка и отмена таймера с далёким сроком (перестановка срока сессии).
+ * Проверка: потоков сработавших таймеров не больше пула (на таймер поток не создаётся),
+ * после запуска все сессии удаляются таймерами за timeoutMs * 20.
+ * Запуск - см. {@link Benchmarks}: java ... com.seabattle.sea_battle.bench.SessionTimerBenchmark [-p timeoutMs=1000]
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SessionTimerBenchmark {
+
+    private static final int EXPIRY_THREADS = 2;
+
+    @Param({"300"})
+    public long timeoutMs;
+
+    private GameSessionManager manager;
+    private HashedTimingWheel wheel;
+    private final Runnable task = () -> { };
+    private long games;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        manager = manager(timeoutMs);
+        wheel = new HashedTimingWheel("bench-timers", 100, 512, Runnable::run);
+    }
+
+    @TearDown(Level.Trial)
+    public void checkTimers() throws InterruptedException {
+        wheel.stop();
+        boolean drained = awaitEmpty(manager, timeoutMs * 20);
+        System.out.println("sessions: " + manager.getSessionStatistics());
+        // Пул сработавших таймеров фиксированный: потоков не больше, чем задано
+        long expiryThreads = Thread.getAllStackTraces().keySet().stream()
+            .filter(thread -> thread.getName().startsWith("session-expiry-"))
+            .count();
+        if (expiryThreads > EXPIRY_THREADS) {
+            throw new IllegalStateException(expiryThreads + " timer expiry threads, expected at most " + EXPIRY_THREADS);
+        }
+        if (!drained) {
+            throw new IllegalStateException(manager.getActiveSessionsCount() + " sessions not removed by timers");
+        }
+    }
+
+    @Benchmark
+    public void finishedGame() {
+        String name = "p" + games++;
+        GameSession session = manager.createGameSession(new GameSession(new Player(name + "a"), GameType.PVP));
+        manager.joinGameSession(session.getSessionId(), name + "b");
+        manager.finishGameSession(session.getSessionId(), GameStatus.PLAYER1_WON);
+    }
+
+    @Benchmark
+    public void abandonedGame() {
+        String name = "a" + games++;
+        // Ожидание второго игрока и расстановка
+        manager.createGameSession(new GameSession(new Player(name + "w"), GameType.PVP));
+        GameSession placing = manager.createGameSession(new GameSession(new Player(name + "a"), GameType.PVP));
+        manager.joinGameSession(placing.getSessionId(), name + "b");
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void scheduleCancel() {
+        wheel.schedule(task, 10, TimeUnit.MINUTES).cancel();
+    }
+
+    private static boolean awaitEmpty(GameSessionManager manager, long maxWaitMs) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        while (manager.getActiveSessionsCount() > 0) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        return true;
+    }
+
+    private static GameSessionManager manager(long timeoutMs) {
+        GameProperties properties = new GameProperties();
+        properties.setMaxActiveSessions(Integer.MAX_VALUE);
+        properties.setSessionTimeout(timeoutMs);
+        properties.setPlacementTimeout(timeoutMs);
+        properties.setCleanupInterval(timeoutMs);
+        properties.setTimerTickMs(10);
+        properties.setTimerExpiryThreads(EXPIRY_THREADS);
+        return new GameSessionManager(properties, SessionRegistryBenchmark.repository(0));
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Benchmarks.run(SessionTimerBenchmark.class, args);
+    }
+}
@@ -0,0 +1,269 @@
+// back\src\test\java\com\seabattle\sea_battle\bench\ShardingBenchmark.java
+package com.seabattle.sea_battle.bench;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+
+import com.seabattle.sea_battle.config.GameProperties;
+import com.seabattle.sea_battle.model.GameSession;
+import com.seabattle.sea_battle.model.Player;
+import com.seabattle.sea_battle.model.enums.GameStatus;
+import com.seabattle.sea_battle.model.enums.GameType;
+import com.seabattle.sea_battle.service.ClusterTopology;
+import com.seabattle.sea_battle.service.GameSessionManager;
+import com.seabattle.sea_battle.service.InMemoryShardTransport;
+import com.seabattle.sea_battle.service.ShardRing;
+
+/**
+ * Шардирование сессий:
+ * - ownerOf - поиск владельца ключа на кольце из 3 узлов с points виртуальными точками; при
+ *   подготовке выводятся доли ключей по узлам и сколько ключей переезжает при добавлении
+ *   четвёртого узла (ожидается ~1/4, проверка - все на новый узел); сравнение равномерности -
+ *   -p points=1,16,128,512;
+ * - game - кластер из nodes узлов в одной JVM (InMemoryShardTransport), 16 потоков играют
+ *   (создание на случайном узле, подключение и завершение на узле-владельце) - игр в секунду,
+ *   межузловых вызовов на игру выводятся после запуска; проверка - сессия создаётся на своём узле;
+ * - samePlayer - один и тот же игрок одновременно создаёт игру на всех узлах: активная игра
+ *   у него не больше одной.
+ * Запуск - см. {@link Benchmarks}: java ... com.seabattle.sea_battle.bench.ShardingBenchmark [-p nodes=5]
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShardingBenchmark {
+
+    private static final int RING_NODES = 3;
+    private static final int RING_KEYS = 1_000_000;
+    private static final long HOLD_MICROS = 50L;
+
+    /**
+     * Кольцо и ключи для поиска владельца
+     */
+    @State(Scope.Thread)
+    public static class Ring {
+
+        @Param({"128"})
+        public int points;
+
+        ShardRing ring;
+        UUID[] keys;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            ring = new ShardRing(nodeIds(RING_NODES), points);
+            keys = new UUID[4096];
+            SplittableRandom random = new SplittableRandom(1);
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = new UUID(random.nextLong(), random.nextLong());
+            }
+            balance();
+            growth();
+        }
+
+        private void balance() {
+            Map<String, Integer> counts = new HashMap<>();
+            SplittableRandom random = new SplittableRandom(1);
+            for (int i = 0; i < RING_KEYS; i++) {
+                counts.merge(ring.ownerOf(new UUID(random.nextLong(), random.nextLong())), 1, Integer::sum);
+            }
+            int min = counts.values().stream().min(Integer::compare).orElse(0);
+            int max = counts.values().stream().max(Integer::compare).orElse(0);
+            System.out.printf("ring %d nodes x %3d points: share min %.1f%%, max %.1f%% (ideal %.1f%%)%n",
+                RING_NODES, points, 100.0 * min / RING_KEYS, 100.0 * max / RING_KEYS, 100.0 / RING_NODES);
+        }
+
+        private void growth() {
+            ShardRing after = new ShardRing(nodeIds(RING_NODES + 1), points);
+            String added = "node-" + RING_NODES;
+            int moved = 0;
+            int movedElsewhere = 0;
+            SplittableRandom random = new SplittableRandom(2);
+            for (int i = 0; i < RING_KEYS; i++) {
+                UUID key = new UUID(random.nextLong(), random.nextLong());
+                String owner = after.ownerOf(key);
+                if (!owner.equals(ring.ownerOf(key))) {
+                    moved++;
+                    movedElsewhere += owner.equals(added) ? 0 : 1;
+                }
+            }
+            System.out.printf("add node %d -> %d: %.1f%% of keys moved (ideal %.1f%%)%n",
+                RING_NODES, RING_NODES + 1, 100.0 * moved / RING_KEYS, 100.0 / (RING_NODES + 1));
+            if (movedElsewhere > 0) {
+                throw new IllegalStateException(movedElsewhere + " keys moved between old nodes");
+            }
+        }
+    }
+
+    /**
+     * Кластер из nodes узлов
+     */
+    @State(Scope.Benchmark)
+    public static class Cluster {
+
+        @Param({"1", "3"})
+        public int nodes;
+
+        InMemoryShardTransport transport;
+        List<GameSessionManager> managers;
+        final Map<String, GameSessionManager> byId = new HashMap<>();
+        final AtomicInteger threads = new AtomicInteger();
+        final AtomicLong games = new AtomicLong();
+        final AtomicInteger held = new AtomicInteger();
+        final AtomicInteger violations = new AtomicInteger();
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            transport = new InMemoryShardTransport();
+            managers = cluster(nodes, transport);
+            for (GameSessionManager manager : managers) {
+                byId.put(manager.getTopology().getSelfId(), manager);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void checkCluster() {
+            if (games.get() > 0) {
+                System.out.printf("%d node(s): %.2f cross-node calls/game%n",
+                    nodes, (double) transport.getCalls() / games.get());
+            }
+            if (violations.get() > 0) {
+                throw new IllegalStateException(violations.get() + " sessions on a foreign node or second games for one player");
+            }
+        }
+    }
+
+    /**
+     * Номер потока, имена его игроков и созданные и отклонённые сессии за итерацию
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Client {
+        public long created;
+        public long rejected;
+        int thread;
+        SplittableRandom random;
+        long games;
+
+        @Setup(Level.Trial)
+        public void setUp(Cluster cluster) {
+            thread = cluster.threads.getAndIncrement();
+            random = new SplittableRandom(thread);
+        }
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            created = 0;
+            rejected = 0;
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public String ownerOf(Ring ring) {
+        UUID key = ring.keys[ring.next];
+        ring.next = (ring.next + 1) & (ring.keys.length - 1);
+        return ring.ring.ownerOf(key);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void game(Cluster cluster, Client client) {
+        String name = "g" + client.thread + "-" + client.games++;
+        GameSessionManager creator = cluster.managers.get(client.random.nextInt(cluster.nodes));
+        GameSession session = creator.createGameSession(new GameSession(new Player(name + "a"), GameType.PVP));
+        UUID sessionId = session.getSessionId();
+        // Запрос подключения маршрутизируется на владельца сессии
+        GameSessionManager owner = cluster.byId.get(creator.getTopology().ownerOfSession(sessionId));
+        if (owner != creator) {
+            cluster.violations.incrementAndGet();
+        }
+        owner.joinGameSession(sessionId, name + "b");
+        owner.finishGameSession(sessionId, GameStatus.PLAYER1_WON);
+        cluster.games.incrementAndGet();
+        client.created++;
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void samePlayer(Cluster cluster, Client client) {
+        GameSessionManager node = cluster.managers.get(client.thread % cluster.nodes);
+        GameSession session;
+        try {
+            session = node.createGameSession(new GameSession(new Player("same-player"), GameType.PVP));
+        } catch (IllegalArgumentException e) {
+            // уже в активной игре на каком-то узле
+            client.rejected++;
+            return;
+        }
+        client.created++;
+        if (cluster.held.incrementAndGet() > 1) {
+            cluster.violations.incrementAndGet();
+        }
+        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(HOLD_MICROS));
+        cluster.held.decrementAndGet();
+        node.cancelGameSession(session.getSessionId());
+    }
+
+    private static List<GameSessionManager> cluster(int nodes, InMemoryShardTransport transport) {
+        List<String> members = new ArrayList<>();
+        for (String nodeId : nodeIds(nodes)) {
+            members.add(nodeId + "=inmemory://" + nodeId);
+        }
+        List<GameSessionManager> cluster = new ArrayList<>();
+        for (String nodeId : nodeIds(nodes)) {
+            GameProperties properties = new GameProperties();
+            properties.setMaxActiveSessions(Integer.MAX_VALUE);
+            // Ёмкость здесь не проверяется - без замера размера сессии для каждого узла
+            properties.setSessionBytesEstimate(1);
+            properties.setNodeId(nodeId);
+            properties.setClusterNodes(nodes > 1 ? members : List.of());
+            GameSessionManager manager = new GameSessionManager(properties, SessionRegistryBenchmark.repository(0),
+                new ClusterTopology(properties), transport);
+            transport.register(nodeId, manager);
+            cluster.add(manager);
+        }
+        return cluster;
+    }
+
+    private static List<String> nodeIds(int nodes) {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < nodes; i++) {
+            ids.add("node-" + i);
+        }
+        return ids;
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Benchmarks.run(ShardingBenchmark.class, args);
+    }
+}
@@ -0,0 +1,155 @@
+// back\src\test\java\com\seabattle\sea_battle\bench\SpeculationBenchmark.java
+package com.seabattle.sea_battle.bench;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+
+import com.seabattle.sea_battle.model.Board;
+import com.seabattle.sea_battle.model.BoardBits;
+import com.seabattle.sea_battle.model.FleetLayout;
+import com.seabattle.sea_battle.model.FleetPlacer;
+import com.seabattle.sea_battle.model.GameSession;
+import com.seabattle.sea_battle.model.Player;
+import com.seabattle.sea_battle.model.ShipPlacements;
+import com.seabattle.sea_battle.model.enums.AiDifficulty;
+import com.seabattle.sea_battle.model.enums.GameType;
+import com.seabattle.sea_battle.service.AIService;
+
+/**
+ * Задержка ответа AI уровня HARD в PVE с предварительным расчётом хода и без него (@Param speculation).
+ * "Человек" стреляет в случайную клетку, думая thinkMs перед каждым выстрелом; замеряется
+ * только первый выстрел AI после промаха человека (то, что видит игрок до первого события SSE),
+ * p50/p90/max. Ход человека и остальные выстрелы AI - вне замера. После запуска выводятся
+ * метрики предварительного расчёта.
+ * Запуск - см. {@link Benchmarks}: java ... com.seabattle.sea_battle.bench.SpeculationBenchmark [-p thinkMs=10]
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class SpeculationBenchmark {
+
+    @Param({"false", "true"})
+    public boolean speculation;
+
+    @Param({"30"})
+    public long thinkMs;
+
+    @Param({"20"})
+    public long hardBudgetMs;
+
+    @Param({"42"})
+    public long seed;
+
+    private AIService aiService;
+    private SplittableRandom random;
+    private GameSession session;
+    private GameSession.FireResult aiShot;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        aiService = AiBenchmark.aiService(AiBenchmark.registry(AiBenchmark.monteCarlo(hardBudgetMs, 0)), speculation);
+        random = new SplittableRandom(seed);
+    }
+
+    @TearDown(Level.Trial)
+    public void printSpeculation() {
+        if (session != null) {
+            aiService.cancelSpeculation(session.getSessionId());
+        }
+        if (speculation) {
+            System.out.println("speculation: " + aiService.getSpeculation().getStatistics());
+        }
+    }
+
+    /**
+     * Ход человека: думает, стреляет в случайную непростреленную клетку, пока не промахнётся;
+     * выигранная партия сменяется новой
+     */
+    @Setup(Level.Invocation)
+    public void humanTurn() throws InterruptedException {
+        while (true) {
+            if (session == null) {
+                session = newGame();
+            }
+            TimeUnit.MILLISECONDS.sleep(thinkMs);
+            Board aiBoard = session.getPlayer2Board();
+            int cell;
+            do {
+                cell = random.nextInt(BoardBits.CELLS);
+            } while (aiBoard.isShotAt(BoardBits.x(cell), BoardBits.y(cell)));
+            GameSession.FireResult shot = session.fireAtOpponent(session.getPlayer1().getUsername(),
+                BoardBits.x(cell), BoardBits.y(cell));
+            if (shot.isGameOver()) {
+                aiService.cancelSpeculation(session.getSessionId());
+                session = null;
+            } else if (!shot.isHit()) {
+                return;
+            }
+        }
+    }
+
+    @Benchmark
+    public GameSession.FireResult firstAiShot() {
+        aiShot = aiService.makeAIMove(session);
+        return aiShot;
+    }
+
+    /**
+     * Остаток хода AI: до промаха или победы
+     */
+    @TearDown(Level.Invocation)
+    public void restOfAiTurn() {
+        while (aiShot.isHit() && !aiShot.isGameOver()) {
+            aiShot = aiService.makeAIMove(session);
+        }
+        if (aiShot.isGameOver()) {
+            aiService.cancelSpeculation(session.getSessionId());
+            session = null;
+        } else {
+            aiService.startSpeculation(session);
+        }
+    }
+
+    /**
+     * Партия человек против HARD, расчёт хода AI начинается сразу
+     */
+    private GameSession newGame() {
+        Player human = new Player("human", false);
+        GameSession game = new GameSession(human, GameType.PVE);
+        game.setAiDifficulty(AiDifficulty.HARD);
+        game.getPlayer1Board().placeShipsAutomatically(random);
+        game.connectSecondPlayer(aiService.createAIPlayer(AiDifficulty.HARD), layout(random));
+        game.playerReady(human.getUsername());
+        aiService.startSpeculation(game);
+        return game;
+    }
+
+    private static FleetLayout layout(SplittableRandom random) {
+        int[] positions = new int[ShipPlacements.fleetSize()];
+        FleetPlacer.local().generateUniform(random, positions);
+        return FleetLayout.of(positions);
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Benchmarks.run(SpeculationBenchmark.class, args);
+    }
+}
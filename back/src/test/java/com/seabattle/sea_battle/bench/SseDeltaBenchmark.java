@@ -0,0 +1,177 @@
+// back\src\test\java\com\seabattle\sea_battle\bench\SseDeltaBenchmark.java
+package com.seabattle.sea_battle.bench;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+
+import com.seabattle.sea_battle.model.Board;
+import com.seabattle.sea_battle.model.BoardBits;
+import com.seabattle.sea_battle.service.BoardEventPayloads;
+
+/**
+ * SSE трафик на один выстрел (PVP, оба игрока подключены), @Param events:
+ * fullBoards - старый вариант, CELL_UPDATE и две полные доски; delta - BOARD_DELTA обоим игрокам.
+ * Вызов - выстрел по доске и сборка его кадров "event:...\ndata:...\n\n" с тем же конвертом
+ * {type, data, timestamp}, что формирует SseNotificationService; потопленная доска сменяется новой.
+ * Время на выстрел, счётчик bytes - байт кадров за итерацию; байт на выстрел выводятся после запуска.
+ * Запуск - см. {@link Benchmarks}: java ... com.seabattle.sea_battle.bench.SseDeltaBenchmark [-p events=delta]
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SseDeltaBenchmark {
+
+    private static final String TARGET = "target";
+    private static final String SHOOTER = "shooter";
+    private static final int RECIPIENTS = 2;
+
+    @Param({"fullBoards", "delta"})
+    public String events;
+
+    private SplittableRandom random;
+    private Board board;
+    private int[] order;
+    private int next;
+    private long sequence;
+    private long shots;
+    private long totalBytes;
+
+    /**
+     * Байт кадров за итерацию
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Traffic {
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        random = new SplittableRandom(42L);
+        newBoard();
+    }
+
+    @TearDown(Level.Trial)
+    public void printTraffic() {
+        System.out.printf("%s: %,.0f bytes/shot over %,d shots%n", events, totalBytes / (double) shots, shots);
+    }
+
+    @Benchmark
+    public long shot(Traffic traffic) {
+        if (next == order.length || board.allShipsSunk()) {
+            newBoard();
+        }
+        int cell = order[next++];
+        int x = BoardBits.x(cell);
+        int y = BoardBits.y(cell);
+        String status = board.takeShot(x, y) ? "HIT" : "MISS";
+
+        long bytes;
+        if (events.equals("delta")) {
+            Map<String, Object> delta = BoardEventPayloads.boardDelta(++sequence, TARGET, board.getVersion(),
+                List.of(BoardEventPayloads.cell(x, y, status)));
+            bytes = RECIPIENTS * frame(BoardEventPayloads.BOARD_DELTA, delta);
+        } else {
+            bytes = frame("CELL_UPDATE", BoardEventPayloads.cellUpdate(TARGET, x, y, status))
+                + frame("OWNER_BOARD_UPDATE", BoardEventPayloads.fullBoard(TARGET, board.getView(true).getState()))
+                + frame("OPPONENT_BOARD_UPDATE", BoardEventPayloads.fullBoard(SHOOTER, board.getView(false).getState()));
+        }
+        shots++;
+        totalBytes += bytes;
+        traffic.bytes += bytes;
+        return bytes;
+    }
+
+    private void newBoard() {
+        board = new Board(TARGET);
+        board.placeShipsAutomatically(random);
+        order = shuffledCells(random);
+        next = 0;
+    }
+
+    private static int[] shuffledCells(SplittableRandom random) {
+        int[] cells = new int[BoardBits.CELLS];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = i;
+        }
+        for (int i = cells.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = cells[i];
+            cells[i] = cells[j];
+            cells[j] = tmp;
+        }
+        return cells;
+    }
+
+    /**
+     * Размер SSE кадра в байтах
+     */
+    private static long frame(String eventName, Object data) {
+        StringBuilder json = new StringBuilder();
+        writeJson(json, Map.of("type", eventName, "data", data, "timestamp", System.currentTimeMillis()));
+        String frame = "event:" + eventName + "\ndata:" + json + "\n\n";
+        return frame.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    /**
+     * Минимальная JSON сериализация для Map, List, массивов, строк, чисел и boolean
+     */
+    private static void writeJson(StringBuilder out, Object value) {
+        if (value instanceof Map<?, ?> map) {
+            out.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (!first) out.append(',');
+                first = false;
+                out.append('"').append(entry.getKey()).append("\":");
+                writeJson(out, entry.getValue());
+            }
+            out.append('}');
+        } else if (value instanceof List<?> list) {
+            out.append('[');
+            for (int i = 0; i < list.size(); i++) {
+                if (i > 0) out.append(',');
+                writeJson(out, list.get(i));
+            }
+            out.append(']');
+        } else if (value instanceof Object[] array) {
+            writeJson(out, List.of(array));
+        } else if (value instanceof String string) {
+            out.append('"').append(string).append('"');
+        } else {
+            out.append(value);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Benchmarks.run(SseDeltaBenchmark.class, args);
+    }
+}
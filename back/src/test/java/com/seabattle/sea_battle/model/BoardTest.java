@@ -0,0 +1,180 @@
+// back\src\test\java\com\seabattle\sea_battle\model\BoardTest.java
+package com.seabattle.sea_battle.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.seabattle.sea_battle.model.enums.CellStatus;
+
+/**
+ * Доска на битовых плоскостях: расстановка, выстрелы, потопление, счётчики флота и виды доски
+ */
+class BoardTest {
+
+    @Test
+    void placesValidFleet() {
+        Board board = new Board("p");
+
+        assertTrue(board.placeShips(fleet()));
+        assertEquals(10, board.getShips().size());
+        assertEquals(20, board.getFleetStatus().getRemainingShipCells());
+        assertEquals(10, board.getFleetStatus().getRemainingShips());
+        assertEquals(CellStatus.SHIP, board.getCellStatus(3, 0));
+        assertEquals(CellStatus.EMPTY, board.getCellStatus(4, 0));
+        assertSame(board.getShips().get(0), board.getShipAt(2, 0));
+        assertNull(board.getShipAt(9, 9));
+    }
+
+    @Test
+    void rejectsTouchingShipsAndIncompleteFleet() {
+        List<Ship> touching = fleet();
+        // Однопалубник по диагонали от четырёхпалубника
+        touching.set(9, new Ship(1, true, 4, 1));
+        assertFalse(new Board("p").placeShips(touching));
+
+        List<Ship> incomplete = fleet();
+        incomplete.remove(9);
+        assertFalse(new Board("p").placeShips(incomplete));
+    }
+
+    @Test
+    void missAndRepeatedShot() {
+        Board board = placedBoard();
+        long placed = board.getVersion();
+
+        assertFalse(board.takeShot(9, 9));
+        assertEquals(CellStatus.MISS, board.getCellStatus(9, 9));
+        assertTrue(board.isShotAt(9, 9));
+        assertTrue(board.getVersion() > placed);
+
+        // Повторный выстрел ничего не меняет
+        long version = board.getVersion();
+        assertFalse(board.takeShot(9, 9));
+        assertEquals(CellStatus.MISS, board.getCellStatus(9, 9));
+        assertEquals(version, board.getVersion());
+    }
+
+    @Test
+    void hitsAndSinksShip() {
+        Board board = placedBoard();
+        Ship ship = board.getShipAt(0, 4);
+
+        assertTrue(board.takeShot(0, 4));
+        assertEquals(CellStatus.HIT, board.getCellStatus(0, 4));
+        assertFalse(ship.isSunk());
+        assertNull(board.getLastSunkShip());
+        assertEquals(19, board.getFleetStatus().getRemainingShipCells());
+        assertEquals(3, (int) board.getFleetStatus().getRemainingByLength().get(2));
+
+        assertTrue(board.takeShot(1, 4));
+        assertTrue(ship.isSunk());
+        assertEquals(2, ship.getHits());
+        assertSame(ship, board.getLastSunkShip());
+        assertEquals(18, board.getFleetStatus().getRemainingShipCells());
+        assertEquals(2, (int) board.getFleetStatus().getRemainingByLength().get(2));
+        assertEquals(9, board.getFleetStatus().getRemainingShips());
+        assertFalse(board.allShipsSunk());
+
+        // Следующий выстрел сбрасывает потопленный корабль
+        assertFalse(board.takeShot(9, 9));
+        assertNull(board.getLastSunkShip());
+    }
+
+    @Test
+    void allShipsSunkAfterEveryShipCellIsHit() {
+        Board board = placedBoard();
+
+        for (Ship ship : fleet()) {
+            for (int i = 0; i < ship.getLength(); i++) {
+                int x = ship.isHorizontal() ? ship.getX() + i : ship.getX();
+                int y = ship.isHorizontal() ? ship.getY() : ship.getY() + i;
+                assertFalse(board.allShipsSunk());
+                assertTrue(board.takeShot(x, y));
+            }
+        }
+
+        assertTrue(board.allShipsSunk());
+        assertTrue(board.getShips().stream().allMatch(Ship::isSunk));
+        assertEquals(0, board.getFleetStatus().getRemainingShipCells());
+        assertEquals(0, board.getFleetStatus().getRemainingShips());
+    }
+
+    @Test
+    void opponentViewHidesShips() {
+        Board board = placedBoard();
+        board.takeShot(0, 0);
+        board.takeShot(9, 9);
+
+        String[][] owner = board.getBoardState(true);
+        String[][] opponent = board.getBoardState(false);
+
+        assertEquals("HIT", owner[0][0]);
+        assertEquals("HIT", opponent[0][0]);
+        assertEquals("MISS", opponent[9][9]);
+        assertEquals("SHIP", owner[1][0]);
+        assertEquals("EMPTY", opponent[1][0]);
+        assertEquals(CellStatus.EMPTY, board.getOpponentView()[1][0].getStatus());
+        assertSame(board.getShipAt(1, 0), board.getCells()[1][0].getShip());
+    }
+
+    @Test
+    void packedStateMatchesBoardState() {
+        Board board = placedBoard();
+        board.takeShot(0, 0);
+        board.takeShot(9, 9);
+        board.takeShot(0, 4);
+        board.takeShot(1, 4);
+        String[] codes = {"EMPTY", "SHIP", "HIT", "MISS"};
+
+        for (boolean owner : new boolean[]{true, false}) {
+            byte[] packed = board.getPackedState(owner);
+            String[][] state = board.getBoardState(owner);
+            assertEquals(Board.PACKED_SIZE, packed.length);
+            for (int index = 0; index < BoardBits.CELLS; index++) {
+                int code = (packed[index >> 2] >> ((index & 3) << 1)) & 3;
+                assertEquals(state[BoardBits.x(index)][BoardBits.y(index)], codes[code]);
+            }
+        }
+    }
+
+    @Test
+    void rejectsShotOutsideBoard() {
+        Board board = placedBoard();
+
+        assertThrows(IllegalArgumentException.class, () -> board.takeShot(10, 0));
+        assertThrows(IllegalArgumentException.class, () -> board.takeShot(0, -1));
+    }
+
+    static Board placedBoard() {
+        Board board = new Board("p");
+        assertTrue(board.placeShips(fleet()));
+        return board;
+    }
+
+    /**
+     * Полный флот: 1x4, 2x3, 3x2, 4x1, корабли не касаются друг друга
+     */
+    static List<Ship> fleet() {
+        List<Ship> ships = new ArrayList<>();
+        ships.add(new Ship(4, true, 0, 0));
+        ships.add(new Ship(3, true, 0, 2));
+        ships.add(new Ship(3, true, 5, 2));
+        ships.add(new Ship(2, true, 0, 4));
+        ships.add(new Ship(2, true, 4, 4));
+        ships.add(new Ship(2, true, 7, 4));
+        ships.add(new Ship(1, true, 0, 6));
+        ships.add(new Ship(1, true, 2, 6));
+        ships.add(new Ship(1, true, 4, 6));
+        ships.add(new Ship(1, true, 6, 6));
+        return ships;
+    }
+}
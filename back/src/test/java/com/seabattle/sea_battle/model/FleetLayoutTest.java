@@ -0,0 +1,83 @@
+// back\src\test\java\com\seabattle\sea_battle\model\FleetLayoutTest.java
+package com.seabattle.sea_battle.model;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Компактная запись расстановки: позиции флота переживают кодирование,
+ * доска из расстановки - полный флот по правилам, а расставленная доска
+ * восстанавливается по своей расстановке
+ */
+class FleetLayoutTest {
+
+    @Test
+    void positionsSurviveEncoding() {
+        SplittableRandom random = new SplittableRandom(7);
+        int[] positions = new int[ShipPlacements.fleetSize()];
+        for (int i = 0; i < 1_000; i++) {
+            FleetPlacer.local().generate(random, positions);
+            FleetLayout layout = FleetLayout.of(positions);
+
+            FleetLayout decoded = new FleetLayout(layout.getLo(), layout.getHi());
+            assertArrayEquals(positions, decoded.positions());
+        }
+    }
+
+    @Test
+    void appliedLayoutIsLegalFleet() {
+        SplittableRandom random = new SplittableRandom(11);
+        int[] positions = new int[ShipPlacements.fleetSize()];
+        for (int i = 0; i < 200; i++) {
+            FleetPlacer.local().generateUniform(random, positions);
+            Board board = new Board("p");
+            board.applyLayout(FleetLayout.of(positions));
+
+            // Те же корабли проходят обычную проверку расстановки
+            List<Ship> ships = new ArrayList<>();
+            for (Ship ship : board.getShips()) {
+                ships.add(new Ship(ship.getLength(), ship.isHorizontal(), ship.getX(), ship.getY()));
+            }
+            Board placed = new Board("p");
+            assertTrue(placed.placeShips(ships));
+            assertEquals(10, board.getShips().size());
+            for (int x = 0; x < BoardBits.SIZE; x++) {
+                for (int y = 0; y < BoardBits.SIZE; y++) {
+                    assertEquals(placed.getCellStatus(x, y), board.getCellStatus(x, y));
+                }
+            }
+        }
+    }
+
+    @Test
+    void boardSurvivesLayoutRoundTrip() {
+        Board original = BoardTest.placedBoard();
+        FleetLayout layout = original.getLayout();
+
+        Board restored = new Board("p");
+        restored.applyLayout(layout);
+
+        assertArrayEquals(original.getBoardState(true), restored.getBoardState(true));
+        for (int i = 0; i < original.getShips().size(); i++) {
+            Ship expected = original.getShips().get(i);
+            Ship actual = restored.getShips().get(i);
+            assertEquals(expected.getLength(), actual.getLength());
+            assertEquals(expected.isHorizontal(), actual.isHorizontal());
+            assertEquals(expected.getX(), actual.getX());
+            assertEquals(expected.getY(), actual.getY());
+        }
+    }
+
+    @Test
+    void incompleteFleetHasNoLayout() {
+        assertNull(new Board("p").getLayout());
+    }
+}
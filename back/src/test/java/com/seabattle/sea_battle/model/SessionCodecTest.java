@@ -0,0 +1,199 @@
+// back\src\test\java\com\seabattle\sea_battle\model\SessionCodecTest.java
+package com.seabattle.sea_battle.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.seabattle.sea_battle.model.enums.AiDifficulty;
+import com.seabattle.sea_battle.model.enums.GameStatus;
+import com.seabattle.sea_battle.model.enums.GameType;
+
+/**
+ * Двоичная запись сессии: поля сессии, расстановки, выстрелы и версии переживают запись,
+ * попадания, потопленные корабли и счётчики флота пересчитываются при чтении. Запись
+ * фиксированного размера хранит вместо имён номера из словаря вызывающего
+ */
+class SessionCodecTest {
+
+    @Test
+    void keepsGameInProgress() {
+        GameSession session = startedGame();
+        // a топит четырёхпалубник и промахивается, b топит двухпалубник и промахивается
+        fire(session, "a", 0, 0, 1, 0, 2, 0, 3, 0, 9, 9);
+        fire(session, "b", 0, 4, 1, 4, 9, 8);
+        session.nextBoardSequence();
+        session.nextBoardSequence();
+
+        GameSession decoded = SessionCodec.decode(SessionCodec.encode(session));
+
+        assertEquals(session.getSessionId(), decoded.getSessionId());
+        assertEquals(GameType.PVP, decoded.getGameType());
+        assertEquals(GameStatus.IN_PROGRESS, decoded.getStatus());
+        assertEquals("a", decoded.getCurrentTurn());
+        assertEquals("b", decoded.getPlayer2().getUsername());
+        assertFalse(decoded.getPlayer2().isAI());
+        assertTrue(decoded.isPlayer1Ready());
+        assertTrue(decoded.isPlayer2Ready());
+        assertEquals(session.getAiDifficulty(), decoded.getAiDifficulty());
+        assertEquals(session.getCreatedAt(), decoded.getCreatedAt());
+        assertEquals(session.getStartedAt(), decoded.getStartedAt());
+        // Версии сохраняются: ETag клиентов остаются действительными
+        assertEquals(session.getVersion(), decoded.getVersion());
+        assertEquals(session.getPlayer1Board().getVersion(), decoded.getPlayer1Board().getVersion());
+        assertEquals(2, decoded.getBoardSequence());
+        assertSameCells(session.getPlayer1Board(), decoded.getPlayer1Board());
+        assertSameCells(session.getPlayer2Board(), decoded.getPlayer2Board());
+
+        // Пересчитано по расстановке и выстрелам
+        Ship sunkOfB = decoded.getPlayer2Board().getShipAt(0, 0);
+        assertTrue(sunkOfB.isSunk());
+        assertEquals(4, sunkOfB.getHits());
+        assertTrue(decoded.getPlayer1Board().getShipAt(1, 4).isSunk());
+        assertEquals(16, decoded.getPlayer2Board().getFleetStatus().getRemainingShipCells());
+        assertEquals(18, decoded.getPlayer1Board().getFleetStatus().getRemainingShipCells());
+        assertEquals(9, decoded.getPlayer1Board().getFleetStatus().getRemainingShips());
+        assertEquals(0, (int) decoded.getPlayer2Board().getFleetStatus().getRemainingByLength().get(4));
+    }
+
+    @Test
+    void keepsSessionsBeforeTheGame() {
+        GameSession waiting = new GameSession(new Player("w"), GameType.PVP);
+        GameSession decodedWaiting = SessionCodec.decode(SessionCodec.encode(waiting));
+
+        assertEquals(GameStatus.WAITING_FOR_PLAYER, decodedWaiting.getStatus());
+        assertNull(decodedWaiting.getPlayer2());
+        assertNull(decodedWaiting.getStartedAt());
+        assertEquals("w", decodedWaiting.getCurrentTurn());
+        assertNull(decodedWaiting.getPlayer1Board().getLayout());
+
+        GameSession placing = new GameSession(new Player("h"), GameType.PVE);
+        placing.setAiDifficulty(AiDifficulty.HARD);
+        placing.connectSecondPlayer(new Player("AI", true));
+        GameSession decodedPlacing = SessionCodec.decode(SessionCodec.encode(placing));
+
+        assertEquals(GameStatus.PLACING_SHIPS, decodedPlacing.getStatus());
+        assertEquals(AiDifficulty.HARD, decodedPlacing.getAiDifficulty());
+        assertTrue(decodedPlacing.getPlayer2().isAI());
+        assertTrue(decodedPlacing.isPlayer2Ready());
+        assertFalse(decodedPlacing.isPlayer1Ready());
+        assertNull(decodedPlacing.getPlayer1Board().getLayout());
+        assertEquals(placing.getPlayer2Board().getLayout().getLo(), decodedPlacing.getPlayer2Board().getLayout().getLo());
+        assertEquals(placing.getPlayer2Board().getLayout().getHi(), decodedPlacing.getPlayer2Board().getLayout().getHi());
+        assertEquals(placing.getVersion(), decodedPlacing.getVersion());
+    }
+
+    @Test
+    void decodedGameContinues() {
+        GameSession session = startedGame();
+        fire(session, "a", 0, 0, 9, 9);
+        GameSession decoded = SessionCodec.decode(SessionCodec.encode(session));
+
+        // Одинаковые выстрелы в обе копии дают одинаковый результат до конца игры
+        int[] next = new int[2];
+        while (session.getStatus() == GameStatus.IN_PROGRESS) {
+            String shooter = session.getCurrentTurn();
+            int player = shooter.equals("a") ? 0 : 1;
+            Board target = session.getOpponentBoard(shooter);
+            while (target.isShotAt(BoardBits.x(next[player]), BoardBits.y(next[player]))) {
+                next[player]++;
+            }
+            int x = BoardBits.x(next[player]);
+            int y = BoardBits.y(next[player]);
+
+            GameSession.FireResult expected = session.fireAtOpponent(shooter, x, y);
+            GameSession.FireResult actual = decoded.fireAtOpponent(shooter, x, y);
+            assertEquals(expected.isHit(), actual.isHit());
+            assertEquals(expected.isSunk(), actual.isSunk());
+            assertEquals(expected.isGameOver(), actual.isGameOver());
+        }
+        assertEquals(session.getStatus(), decoded.getStatus());
+        assertEquals(session.getVersion(), decoded.getVersion());
+    }
+
+    @Test
+    void fixedRecordsShareBufferThroughNameDictionary() {
+        GameSession game = startedGame();
+        fire(game, "a", 0, 0, 9, 9);
+        GameSession waiting = new GameSession(new Player("a"), GameType.PVP);
+        List<String> names = new ArrayList<>();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(SessionCodec.RECORD_BYTES * 2);
+
+        for (int i = 0; i < 2; i++) {
+            SessionCodec.writeRecord(i == 0 ? game : waiting, buffer, i * SessionCodec.RECORD_BYTES, name -> {
+                int number = names.indexOf(name);
+                if (number < 0) {
+                    names.add(name);
+                    number = names.size() - 1;
+                }
+                return number;
+            });
+        }
+
+        int second = SessionCodec.RECORD_BYTES;
+        assertEquals(List.of("a", "b"), names);
+        assertEquals(game.getSessionId(), SessionCodec.recordId(buffer, 0));
+        assertEquals(waiting.getSessionId(), SessionCodec.recordId(buffer, second));
+        assertEquals(1, SessionCodec.recordPlayer2(buffer, 0));
+        assertEquals(0, SessionCodec.recordPlayer1(buffer, second));
+        assertEquals(SessionCodec.NO_NAME, SessionCodec.recordPlayer2(buffer, second));
+
+        GameSession decoded = SessionCodec.readRecord(buffer, 0, names::get);
+        assertEquals("b", decoded.getCurrentTurn());
+        assertEquals(game.getVersion(), decoded.getVersion());
+        assertEquals(game.getStartedAt(), decoded.getStartedAt());
+        assertSameCells(game.getPlayer2Board(), decoded.getPlayer2Board());
+        assertEquals(19, decoded.getPlayer2Board().getFleetStatus().getRemainingShipCells());
+
+        GameSession decodedWaiting = SessionCodec.readRecord(buffer, second, names::get);
+        assertEquals(GameStatus.WAITING_FOR_PLAYER, decodedWaiting.getStatus());
+        assertNull(decodedWaiting.getPlayer2());
+        assertEquals(waiting.getVersion(), decodedWaiting.getVersion());
+    }
+
+    @Test
+    void rejectsUnknownFormat() {
+        byte[] data = SessionCodec.encode(new GameSession(new Player("w"), GameType.PVP));
+        data[0] = 42;
+
+        assertThrows(IllegalArgumentException.class, () -> SessionCodec.decode(data));
+    }
+
+    /**
+     * PVP партия a против b, у обоих флот из {@link BoardTest#fleet()}, ход у a
+     */
+    private static GameSession startedGame() {
+        GameSession session = new GameSession(new Player("a"), GameType.PVP);
+        session.connectSecondPlayer(new Player("b"));
+        for (String playerName : new String[]{"a", "b"}) {
+            assertTrue(session.getPlayerBoard(playerName).placeShips(BoardTest.fleet()));
+            session.playerReady(playerName);
+        }
+        return session;
+    }
+
+    /**
+     * Выстрелы игрока по парам координат
+     */
+    private static void fire(GameSession session, String shooter, int... cells) {
+        for (int i = 0; i < cells.length; i += 2) {
+            session.fireAtOpponent(shooter, cells[i], cells[i + 1]);
+        }
+    }
+
+    private static void assertSameCells(Board expected, Board actual) {
+        for (int x = 0; x < BoardBits.SIZE; x++) {
+            for (int y = 0; y < BoardBits.SIZE; y++) {
+                assertEquals(expected.getCellStatus(x, y), actual.getCellStatus(x, y), "cell " + x + "," + y);
+            }
+        }
+    }
+}
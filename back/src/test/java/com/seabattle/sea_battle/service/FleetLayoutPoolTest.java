@@ -0,0 +1,73 @@
+// back\src\test\java\com\seabattle\sea_battle\service\FleetLayoutPoolTest.java
+package com.seabattle.sea_battle.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.seabattle.sea_battle.config.GameProperties;
+import com.seabattle.sea_battle.model.Board;
+import com.seabattle.sea_battle.model.FleetLayout;
+
+/**
+ * Пул расстановок: заполняется в фоне, выдаёт полный флот, учитывает попадания и промахи
+ */
+class FleetLayoutPoolTest {
+
+    @Test
+    void servesFilledPoolAndRefillsBelowLowWater() throws InterruptedException {
+        FleetLayoutPool pool = new FleetLayoutPool(properties(64, 16));
+        assertTrue(awaitSize(pool, 64), "pool is filled in the background");
+
+        for (int i = 0; i < 60; i++) {
+            assertFleet(pool.take());
+        }
+        assertEquals(60L, pool.getStatistics().get("hits"));
+        assertEquals(0L, pool.getStatistics().get("misses"));
+        assertTrue(awaitSize(pool, 64), "pool is refilled after dropping below the low-water mark");
+    }
+
+    @Test
+    void generatesInPlaceWhenEmpty() {
+        FleetLayoutPool pool = new FleetLayoutPool(properties(1, 0));
+
+        long served = 0;
+        while ((long) pool.getStatistics().get("misses") == 0) {
+            assertFleet(pool.take());
+            served++;
+        }
+        assertEquals(served, (long) pool.getStatistics().get("hits") + (long) pool.getStatistics().get("misses"));
+    }
+
+    private static void assertFleet(FleetLayout layout) {
+        Board board = new Board("p");
+        board.applyLayout(layout);
+        assertEquals(10, board.getShips().size());
+    }
+
+    private static boolean awaitSize(FleetLayoutPool pool, int size) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (true) {
+            Map<String, Object> statistics = pool.getStatistics();
+            if ((int) statistics.get("size") == size) {
+                return true;
+            }
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+    }
+
+    private static GameProperties properties(int size, int lowWater) {
+        GameProperties properties = new GameProperties();
+        properties.setLayoutPoolSize(size);
+        properties.setLayoutPoolLowWater(lowWater);
+        properties.setLayoutPoolRefillThreads(1);
+        return properties;
+    }
+}
@@ -0,0 +1,152 @@
+// back\src\test\java\com\seabattle\sea_battle\service\MatchmakingServiceTest.java
+package com.seabattle.sea_battle.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.seabattle.sea_battle.config.GameProperties;
+import com.seabattle.sea_battle.model.GameSession;
+import com.seabattle.sea_battle.model.enums.GameStatus;
+import com.seabattle.sea_battle.repository.GameRepository;
+
+/**
+ * Подбор соперника: пары по предпочтению, выход из очереди, таймаут, параллельная постановка
+ */
+class MatchmakingServiceTest {
+
+    private final GameProperties properties = properties();
+    private final GameSessionManager manager = new GameSessionManager(properties, mock(GameRepository.class));
+    private final MatchmakingService matchmaking =
+        new MatchmakingService(properties, manager, new SseNotificationService(manager));
+
+    @Test
+    void pairsTwoPlayersWithSamePreference() {
+        MatchmakingService.Ticket first = matchmaking.enqueue("a", "any");
+        assertNull(first.getMatch().getNow(null));
+
+        MatchmakingService.Ticket second = matchmaking.enqueue("b", "any");
+        GameSession session = second.getMatch().getNow(null);
+
+        assertNotNull(session);
+        assertSame(session, first.getMatch().getNow(null));
+        assertEquals(GameStatus.PLACING_SHIPS, session.getStatus());
+        assertEquals(Set.of("a", "b"), Set.of(session.getPlayer1().getUsername(), session.getPlayer2().getUsername()));
+        assertTrue(manager.isPlayerInActiveGame("a"));
+        assertTrue(manager.isPlayerInActiveGame("b"));
+        assertEquals("MATCHED", matchmaking.getPlayerStatus("a").get("status"));
+    }
+
+    @Test
+    void doesNotPairDifferentPreferences() {
+        matchmaking.enqueue("a", "fast");
+        MatchmakingService.Ticket other = matchmaking.enqueue("b", "slow");
+
+        assertNull(other.getMatch().getNow(null));
+        assertEquals("QUEUED", matchmaking.getPlayerStatus("a").get("status"));
+        assertEquals("QUEUED", matchmaking.getPlayerStatus("b").get("status"));
+    }
+
+    @Test
+    void rejectsUnknownPreference() {
+        IllegalArgumentException error =
+            assertThrows(IllegalArgumentException.class, () -> matchmaking.enqueue("a", "junk-1"));
+
+        assertTrue(error.getMessage().contains("any"));
+        assertEquals("NOT_QUEUED", matchmaking.getPlayerStatus("a").get("status"));
+        assertEquals(3, matchmaking.getStatistics().get("buckets"));
+        // Без предпочтения и с другим регистром - те же очереди
+        matchmaking.enqueue("b", null);
+        assertNotNull(matchmaking.enqueue("c", " ANY ").getMatch().getNow(null));
+    }
+
+    @Test
+    void rejectsSecondTicketAndPlayerInGame() {
+        matchmaking.enqueue("a", "any");
+        assertThrows(IllegalArgumentException.class, () -> matchmaking.enqueue("a", "any"));
+
+        matchmaking.enqueue("b", "any");
+        // a и b уже в игре
+        assertThrows(IllegalArgumentException.class, () -> matchmaking.enqueue("b", "any"));
+    }
+
+    @Test
+    void leaveCancelsWaitingTicket() throws Exception {
+        MatchmakingService.Ticket ticket = matchmaking.enqueue("a", "any");
+
+        assertTrue(matchmaking.leave("a").get(1, TimeUnit.SECONDS));
+        assertTrue(ticket.getMatch().isCompletedExceptionally());
+        assertEquals("NOT_QUEUED", matchmaking.getPlayerStatus("a").get("status"));
+        assertFalse(matchmaking.leave("a").get(1, TimeUnit.SECONDS));
+
+        // Отменённая заявка не попадает в пару
+        MatchmakingService.Ticket next = matchmaking.enqueue("b", "any");
+        assertNull(next.getMatch().getNow(null));
+    }
+
+    @Test
+    void ticketExpiresWithoutOpponent() throws Exception {
+        properties.setMatchmakingTimeout(50);
+        MatchmakingService expiring = new MatchmakingService(properties, manager, new SseNotificationService(manager));
+        MatchmakingService.Ticket ticket = expiring.enqueue("a", "any");
+
+        ExecutionException error = assertThrows(ExecutionException.class,
+            () -> ticket.getMatch().get(5, TimeUnit.SECONDS));
+        assertTrue(error.getCause() instanceof IllegalStateException);
+        assertEquals("NOT_QUEUED", expiring.getPlayerStatus("a").get("status"));
+    }
+
+    @Test
+    void concurrentPlayersArePairedExactlyOnce() throws Exception {
+        int players = 4_000;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<MatchmakingService.Ticket>> tickets = new ArrayList<>();
+        try {
+            for (int i = 0; i < players; i++) {
+                String name = "p" + i;
+                tickets.add(executor.submit(() -> matchmaking.enqueue(name, "any")));
+            }
+
+            Set<UUID> sessions = new HashSet<>();
+            for (int i = 0; i < players; i++) {
+                GameSession session = tickets.get(i).get(5, TimeUnit.SECONDS).getMatch().get(5, TimeUnit.SECONDS);
+                String name = "p" + i;
+                assertTrue(name.equals(session.getPlayer1().getUsername())
+                    || name.equals(session.getPlayer2().getUsername()));
+                assertTrue(manager.isPlayerInActiveGame(name));
+                sessions.add(session.getSessionId());
+            }
+            assertEquals(players / 2, sessions.size());
+            assertEquals(players / 2, manager.getActiveSessionsCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static GameProperties properties() {
+        GameProperties properties = new GameProperties();
+        properties.setMaxActiveSessions(Integer.MAX_VALUE);
+        properties.setSessionBytesEstimate(1);
+        properties.setMatchmakingTimeout(0);
+        properties.setMatchmakingPreferences(List.of("fast", "slow"));
+        return properties;
+    }
+}
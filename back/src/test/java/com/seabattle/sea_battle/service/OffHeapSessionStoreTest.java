@@ -0,0 +1,228 @@
+// back\src\test\java\com\seabattle\sea_battle\service\OffHeapSessionStoreTest.java
+package com.seabattle.sea_battle.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.seabattle.sea_battle.model.GameSession;
+import com.seabattle.sea_battle.model.Player;
+import com.seabattle.sea_battle.model.enums.GameStatus;
+import com.seabattle.sea_battle.model.enums.GameType;
+
+/**
+ * Хранилище усыплённых сессий вне heap: освобождённые записи используются повторно,
+ * имена игроков живут в словаре со счётчиком ссылок, объём не выходит за лимит
+ */
+class OffHeapSessionStoreTest {
+
+    @Test
+    void putGetRemove() {
+        OffHeapSessionStore store = new OffHeapSessionStore(Long.MAX_VALUE);
+        GameSession session = game("a", "b", 1);
+        session.fireAtOpponent("a", 0, 0);
+
+        assertTrue(store.put(session));
+        assertTrue(store.contains(session.getSessionId()));
+        assertEquals(1, store.size());
+        GameSession stored = store.get(session.getSessionId());
+        assertEquals("a", stored.getPlayer1().getUsername());
+        assertEquals("b", stored.getPlayer2().getUsername());
+        assertEquals(GameStatus.IN_PROGRESS, stored.getStatus());
+        assertEquals(session.getVersion(), stored.getVersion());
+        assertTrue(stored.getPlayer2Board().isShotAt(0, 0));
+
+        store.remove(session.getSessionId());
+        assertFalse(store.contains(session.getSessionId()));
+        assertNull(store.get(session.getSessionId()));
+        assertEquals(0, store.size());
+        assertEquals(0, statistic(store, "playerNames"));
+    }
+
+    @Test
+    void reusesFreedRecords() {
+        OffHeapSessionStore store = new OffHeapSessionStore(Long.MAX_VALUE);
+        List<GameSession> sessions = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            GameSession session = game("p" + i, "q" + i, i);
+            sessions.add(session);
+            assertTrue(store.put(session));
+        }
+        long bytes = store.getStoredBytes();
+        assertEquals(100, statistic(store, "allocatedRecords"));
+
+        // Замена пишет новую запись до освобождения старой - одна запись сверх числа сессий
+        GameSession replaced = sessions.get(0);
+        replaced.fireAtOpponent("p0", 5, 5);
+        assertTrue(store.put(replaced));
+        assertEquals(101, statistic(store, "allocatedRecords"));
+
+        // Новые сессии на месте удалённых не берут новых записей
+        for (int i = 1; i < 50; i++) {
+            store.remove(sessions.get(i).getSessionId());
+        }
+        for (int i = 0; i < 49; i++) {
+            assertTrue(store.put(game("r" + i, "s" + i, i)));
+        }
+
+        assertEquals(100, store.size());
+        assertEquals(101, statistic(store, "allocatedRecords"));
+        assertEquals(bytes, store.getStoredBytes());
+        assertTrue(store.get(replaced.getSessionId()).getPlayer2Board().isShotAt(5, 5));
+    }
+
+    @Test
+    void sharedNamesAreCountedAndReleased() {
+        OffHeapSessionStore store = new OffHeapSessionStore(Long.MAX_VALUE);
+        // Имя из многобайтовых символов в двух сессиях
+        GameSession first = game("игрок", "b", 1);
+        GameSession second = game("c", "игрок", 2);
+        GameSession waiting = new GameSession(new Player("c"), GameType.PVP);
+
+        assertTrue(store.put(first));
+        assertTrue(store.put(second));
+        assertTrue(store.put(waiting));
+        assertEquals(3, statistic(store, "playerNames"));
+
+        store.remove(first.getSessionId());
+        assertEquals(2, statistic(store, "playerNames"));
+        assertEquals("игрок", store.get(second.getSessionId()).getPlayer2().getUsername());
+
+        store.remove(second.getSessionId());
+        assertEquals(1, statistic(store, "playerNames"));
+        GameSession stored = store.get(waiting.getSessionId());
+        assertEquals("c", stored.getPlayer1().getUsername());
+        assertNull(stored.getPlayer2());
+
+        store.remove(waiting.getSessionId());
+        assertEquals(0, statistic(store, "playerNames"));
+    }
+
+    @Test
+    void rejectsTooLongPlayerName() {
+        OffHeapSessionStore store = new OffHeapSessionStore(Long.MAX_VALUE);
+        GameSession session = new GameSession(new Player("x".repeat(OffHeapSessionStore.MAX_NAME_BYTES + 1)), GameType.PVP);
+
+        assertFalse(store.put(session));
+        assertFalse(store.contains(session.getSessionId()));
+        assertEquals(0, statistic(store, "playerNames"));
+    }
+
+    @Test
+    void staysWithinMaxBytes() {
+        long maxBytes = 4L << 20;
+        OffHeapSessionStore store = new OffHeapSessionStore(maxBytes);
+
+        int stored = 0;
+        while (store.put(new GameSession(new Player("b" + stored), GameType.PVP))) {
+            stored++;
+            assertTrue(store.getStoredBytes() <= maxBytes, "stored " + store.getStoredBytes() + " bytes");
+        }
+        assertTrue(stored > 0);
+        assertEquals(stored, store.size());
+    }
+
+    @Test
+    void indexGrowthCountsAgainstMaxBytes() {
+        // Лимит - ровно буферы первой сессии: индекс расти не может
+        OffHeapSessionStore probe = new OffHeapSessionStore(Long.MAX_VALUE);
+        assertTrue(probe.put(new GameSession(new Player("b0"), GameType.PVP)));
+        long maxBytes = probe.getStoredBytes();
+        OffHeapSessionStore store = new OffHeapSessionStore(maxBytes);
+        int indexSlots = statistic(store, "sessionIndexSlots");
+
+        int stored = 0;
+        while (store.put(new GameSession(new Player("b" + stored), GameType.PVP))) {
+            stored++;
+        }
+
+        assertEquals(indexSlots / 2, stored);
+        assertEquals(indexSlots, statistic(store, "sessionIndexSlots"));
+        assertTrue(store.getStoredBytes() <= maxBytes, "stored " + store.getStoredBytes() + " bytes");
+    }
+
+    @Test
+    void failedReplacementKeepsStoredCopy() {
+        // Лимит - ровно буферы первой сессии: сессий и имён помещается по половине индекса
+        OffHeapSessionStore probe = new OffHeapSessionStore(Long.MAX_VALUE);
+        assertTrue(probe.put(new GameSession(new Player("b0"), GameType.PVP)));
+        OffHeapSessionStore store = new OffHeapSessionStore(probe.getStoredBytes());
+        List<GameSession> sessions = new ArrayList<>();
+        GameSession next = new GameSession(new Player("b0"), GameType.PVP);
+        while (store.put(next)) {
+            sessions.add(next);
+            next = new GameSession(new Player("b" + sessions.size()), GameType.PVP);
+        }
+        int stored = store.size();
+
+        // Замена с теми же именами не требует места в индексах
+        GameSession first = sessions.get(0);
+        first.setCurrentTurn("b0");
+        assertTrue(store.put(first));
+
+        // Новое имя не помещается в словарь: замена отклонена, прежняя запись цела
+        first.connectSecondPlayer(new Player("late"));
+        assertFalse(store.put(first));
+        assertEquals(stored, store.size());
+        GameSession kept = store.get(first.getSessionId());
+        assertEquals(GameStatus.WAITING_FOR_PLAYER, kept.getStatus());
+        assertNull(kept.getPlayer2());
+    }
+
+    @Test
+    void indexStaysConsistentUnderChurn() {
+        OffHeapSessionStore store = new OffHeapSessionStore(Long.MAX_VALUE);
+        SplittableRandom random = new SplittableRandom(6);
+        Map<UUID, String> expected = new HashMap<>();
+        List<UUID> ids = new ArrayList<>();
+
+        for (int op = 0; op < 20_000; op++) {
+            int action = random.nextInt(10);
+            if (action < 5 || ids.isEmpty()) {
+                String name = "p" + random.nextInt(500);
+                GameSession session = new GameSession(new Player(name), GameType.PVP);
+                assertTrue(store.put(session));
+                expected.put(session.getSessionId(), name);
+                ids.add(session.getSessionId());
+            } else {
+                UUID id = ids.remove(random.nextInt(ids.size()));
+                if (action < 8) {
+                    assertEquals(expected.get(id), store.get(id).getPlayer1().getUsername());
+                }
+                store.remove(id);
+                expected.remove(id);
+            }
+        }
+
+        assertEquals(expected.size(), store.size());
+        expected.forEach((id, name) -> assertEquals(name, store.get(id).getPlayer1().getUsername()));
+    }
+
+    /**
+     * PVP партия в игре: флоты расставлены по seed, ход у первого игрока
+     */
+    private static GameSession game(String player1, String player2, long seed) {
+        GameSession session = new GameSession(new Player(player1), GameType.PVP);
+        session.connectSecondPlayer(new Player(player2));
+        SplittableRandom random = new SplittableRandom(seed);
+        for (String playerName : new String[]{player1, player2}) {
+            session.getPlayerBoard(playerName).placeShipsAutomatically(random.split());
+            session.playerReady(playerName);
+        }
+        return session;
+    }
+
+    private static int statistic(OffHeapSessionStore store, String name) {
+        return ((Number) store.getStatistics().get(name)).intValue();
+    }
+}
@@ -0,0 +1,130 @@
+// back\src\test\java\com\seabattle\sea_battle\service\SessionHibernationTest.java
+package com.seabattle.sea_battle.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.seabattle.sea_battle.config.GameProperties;
+import com.seabattle.sea_battle.model.GameSession;
+import com.seabattle.sea_battle.model.Player;
+import com.seabattle.sea_battle.model.enums.GameStatus;
+import com.seabattle.sea_battle.model.enums.GameType;
+import com.seabattle.sea_battle.repository.GameRepository;
+
+/**
+ * Усыпление сессий: спящая сессия освобождает место в реестре, лежит файлом на диске
+ * и будится первым обращением с теми же версиями
+ */
+class SessionHibernationTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void idleGameSleepsOnDiskAndWakesOnAccess() throws IOException {
+        GameSessionManager manager = manager();
+        UUID sessionId = startedGame(manager);
+        GameSession before = manager.getGameSession(sessionId);
+        long version = before.getVersion();
+
+        assertEquals(1, manager.hibernateIdleSessions(0));
+        assertEquals(1, manager.getHibernatedSessionsCount());
+        assertEquals(0, manager.getActiveSessionsCount());
+        assertTrue(manager.getAllActiveSessions().isEmpty());
+        assertTrue(manager.isSessionActiveLocally(sessionId));
+        assertEquals(1, sessionFiles());
+
+        GameSession woken = manager.getGameSession(sessionId);
+        assertNotSame(before, woken);
+        assertEquals(GameStatus.IN_PROGRESS, woken.getStatus());
+        assertEquals(version, woken.getVersion());
+        assertEquals(0, manager.getHibernatedSessionsCount());
+        assertEquals(1, manager.getActiveSessionsCount());
+        assertEquals(0, sessionFiles());
+        assertEquals(1L, manager.getHibernationStatistics().get("rehydrations"));
+    }
+
+    @Test
+    void waitingAndRecentSessionsStayInMemory() {
+        GameSessionManager manager = manager();
+        manager.createGameSession(new GameSession(new Player("w"), GameType.PVP));
+        startedGame(manager);
+
+        // Ожидающая сессия не усыпляется, игра - только после простоя
+        assertEquals(0, manager.hibernateIdleSessions(60_000));
+        assertEquals(1, manager.hibernateIdleSessions(0));
+        assertEquals(1, manager.getActiveSessionsCount());
+        assertEquals(1, manager.getWaitingSessionsCount());
+    }
+
+    @Test
+    void finishingSleepingGameWakesItFirst() {
+        GameSessionManager manager = manager();
+        UUID sessionId = startedGame(manager);
+        manager.hibernateIdleSessions(0);
+
+        manager.finishGameSession(sessionId, GameStatus.PLAYER1_WON);
+
+        assertEquals(0, manager.getHibernatedSessionsCount());
+        assertFalse(manager.isSessionActiveLocally(sessionId));
+        assertFalse(manager.isPlayerInActiveGame("a"));
+    }
+
+    @Test
+    void disabledByDefault() throws IOException {
+        GameProperties properties = new GameProperties();
+        properties.setMaxActiveSessions(10_000);
+        properties.setHibernateDir(directory.toString());
+        GameSessionManager manager = new GameSessionManager(properties, mock(GameRepository.class));
+        startedGame(manager);
+
+        assertNull(manager.getHibernationStore());
+        assertNull(manager.getHibernator());
+        assertEquals(0, manager.hibernateIdleSessions(0));
+        assertEquals(1, manager.getActiveSessionsCount());
+        assertEquals(0, sessionFiles());
+    }
+
+    /**
+     * PVP партия a против b после расстановки обоих флотов
+     */
+    private static UUID startedGame(GameSessionManager manager) {
+        GameSession session = manager.createGameSession(new GameSession(new Player("a"), GameType.PVP));
+        manager.joinGameSession(session.getSessionId(), "b");
+        for (String playerName : new String[]{"a", "b"}) {
+            session.getPlayerBoard(playerName).placeShipsAutomatically();
+            session.playerReady(playerName);
+        }
+        assertEquals(GameStatus.IN_PROGRESS, session.getStatus());
+        return session.getSessionId();
+    }
+
+    private long sessionFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".session")).count();
+        }
+    }
+
+    private GameSessionManager manager() {
+        GameProperties properties = new GameProperties();
+        properties.setMaxActiveSessions(10_000);
+        // Усыпление вызывается явно: фоновый поиск не успеет сработать
+        properties.setHibernateAfterMs(3_600_000);
+        properties.setHibernateCheckIntervalMs(3_600_000);
+        properties.setHibernateDir(directory.toString());
+        return new GameSessionManager(properties, mock(GameRepository.class));
+    }
+}
@@ -0,0 +1,285 @@
+// back\src\test\java\com\seabattle\sea_battle\service\SessionJournalTest.java
+package com.seabattle.sea_battle.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.seabattle.sea_battle.config.GameProperties;
+import com.seabattle.sea_battle.model.Board;
+import com.seabattle.sea_battle.model.BoardBits;
+import com.seabattle.sea_battle.model.FleetLayout;
+import com.seabattle.sea_battle.model.FleetPlacer;
+import com.seabattle.sea_battle.model.GameSession;
+import com.seabattle.sea_battle.model.Player;
+import com.seabattle.sea_battle.model.ShipPlacements;
+import com.seabattle.sea_battle.model.enums.AiDifficulty;
+import com.seabattle.sea_battle.model.enums.GameStatus;
+import com.seabattle.sea_battle.model.enums.GameType;
+
+/**
+ * Журнал команд сессий: после перезапуска выстрелы повторяются по тем же клеткам,
+ * завершённые сессии не возвращаются, а их сегменты удаляются
+ */
+class SessionJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysShotsOfLiveGame() {
+        SessionJournal journal = new SessionJournal(properties());
+        GameSession session = new GameSession(new Player("a"), GameType.PVP);
+        journal.sessionCreated(session);
+        session.connectSecondPlayer(new Player("b"));
+        journal.playerJoined(session.getSessionId(), "b");
+        place(journal, session, "a", 1);
+        place(journal, session, "b", 2);
+        for (int i = 0; i < 40; i++) {
+            shoot(journal, session);
+        }
+        journal.close();
+
+        GameSession recovered = recoverOnly(session.getSessionId());
+
+        assertEquals(GameStatus.IN_PROGRESS, recovered.getStatus());
+        assertEquals(session.getCurrentTurn(), recovered.getCurrentTurn());
+        assertEquals("b", recovered.getPlayer2().getUsername());
+        assertSameCells(session.getPlayer1Board(), recovered.getPlayer1Board());
+        assertSameCells(session.getPlayer2Board(), recovered.getPlayer2Board());
+        assertEquals(session.getPlayer2Board().getFleetStatus().getRemainingShipCells(),
+            recovered.getPlayer2Board().getFleetStatus().getRemainingShipCells());
+    }
+
+    @Test
+    void replaysAiFleetBeforeHumanPlaces() {
+        SessionJournal journal = new SessionJournal(properties());
+        GameSession session = new GameSession(new Player("h"), GameType.PVE);
+        session.setAiDifficulty(AiDifficulty.HARD);
+        session.connectSecondPlayer(new Player("AI", true), layout(3));
+        journal.sessionCreated(session);
+        journal.close();
+
+        GameSession recovered = recoverOnly(session.getSessionId());
+
+        assertEquals(GameStatus.PLACING_SHIPS, recovered.getStatus());
+        assertEquals(AiDifficulty.HARD, recovered.getAiDifficulty());
+        assertTrue(recovered.getPlayer2().isAI());
+        assertTrue(recovered.isPlayer2Ready());
+        assertFalse(recovered.isPlayer1Ready());
+        assertSameCells(session.getPlayer2Board(), recovered.getPlayer2Board());
+    }
+
+    @Test
+    void finishedSessionsAreNotReplayed() {
+        SessionJournal journal = new SessionJournal(properties());
+        GameSession live = new GameSession(new Player("l"), GameType.PVP);
+        journal.sessionCreated(live);
+
+        // Партия до победы, затем FINISH
+        GameSession won = new GameSession(new Player("a"), GameType.PVP);
+        journal.sessionCreated(won);
+        won.connectSecondPlayer(new Player("b"));
+        journal.playerJoined(won.getSessionId(), "b");
+        place(journal, won, "a", 4);
+        place(journal, won, "b", 5);
+        while (won.getStatus() == GameStatus.IN_PROGRESS) {
+            shoot(journal, won);
+        }
+        journal.sessionFinished(won.getSessionId(), won.getStatus());
+
+        // Отменённая до начала игры
+        GameSession cancelled = new GameSession(new Player("c"), GameType.PVP);
+        journal.sessionCreated(cancelled);
+        journal.sessionFinished(cancelled.getSessionId(), GameStatus.CANCELLED);
+        journal.close();
+
+        SessionJournal reopened = new SessionJournal(properties());
+        try {
+            List<GameSession> recovered = reopened.takeRecoveredSessions();
+            assertEquals(1, recovered.size());
+            assertEquals(live.getSessionId(), recovered.get(0).getSessionId());
+            // Сессии отдаются один раз
+            assertTrue(reopened.takeRecoveredSessions().isEmpty());
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    void rollsOverAndDeletesSegmentsOfFinishedSessions() throws IOException {
+        SessionJournal journal = new SessionJournal(properties());
+        for (int i = 0; i < 20_000; i++) {
+            GameSession session = new GameSession(new Player("p" + i), GameType.PVP);
+            journal.sessionCreated(session);
+            session.connectSecondPlayer(new Player("q" + i));
+            journal.playerJoined(session.getSessionId(), "q" + i);
+            journal.sessionFinished(session.getSessionId(), GameStatus.CANCELLED);
+        }
+        assertTrue((long) journal.getStatistics().get("rollovers") > 0);
+        journal.close();
+
+        SessionJournal reopened = new SessionJournal(properties());
+        try {
+            assertTrue(reopened.takeRecoveredSessions().isEmpty());
+            // Остаются только новый текущий сегмент и, может быть, подготовленный
+            assertTrue(segmentFiles() <= 2, segmentFiles() + " segment files");
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    void tornRecordEndsReplay() throws IOException {
+        SessionJournal journal = new SessionJournal(properties());
+        GameSession session = new GameSession(new Player("a"), GameType.PVP);
+        journal.sessionCreated(session);
+        session.connectSecondPlayer(new Player("b"));
+        journal.playerJoined(session.getSessionId(), "b");
+        place(journal, session, "a", 6);
+        place(journal, session, "b", 7);
+        String shooter = session.getCurrentTurn();
+        shoot(journal, session);
+        journal.close();
+
+        // Портим последний байт последней записи: её CRC не сходится
+        Path segment = lastWrittenSegment();
+        byte[] data = Files.readAllBytes(segment);
+        int end = data.length - 1;
+        while (data[end] == 0) {
+            end--;
+        }
+        data[end] ^= 0x5A;
+        Files.write(segment, data);
+
+        GameSession recovered = recoverOnly(session.getSessionId());
+        // Расстановки на месте, выстрела нет
+        assertEquals(GameStatus.IN_PROGRESS, recovered.getStatus());
+        assertEquals(shooter, recovered.getCurrentTurn());
+        assertEquals(0, shotCount(recovered.getPlayer1Board()) + shotCount(recovered.getPlayer2Board()));
+    }
+
+    @Test
+    void disabledJournalWritesNothing() throws IOException {
+        GameProperties properties = properties();
+        properties.setJournalEnabled(false);
+        SessionJournal journal = new SessionJournal(properties);
+
+        journal.sessionCreated(new GameSession(new Player("a"), GameType.PVP));
+        journal.close();
+
+        assertFalse(journal.isEnabled());
+        assertEquals(0, segmentFiles());
+    }
+
+    private GameSession recoverOnly(UUID sessionId) {
+        SessionJournal reopened = new SessionJournal(properties());
+        try {
+            Map<UUID, GameSession> recovered = new HashMap<>();
+            for (GameSession session : reopened.takeRecoveredSessions()) {
+                recovered.put(session.getSessionId(), session);
+            }
+            assertEquals(1, recovered.size());
+            GameSession session = recovered.get(sessionId);
+            assertNotNull(session);
+            return session;
+        } finally {
+            reopened.close();
+        }
+    }
+
+    private static void place(SessionJournal journal, GameSession session, String playerName, long seed) {
+        FleetLayout layout = layout(seed);
+        session.getPlayerBoard(playerName).applyLayout(layout);
+        session.playerReady(playerName);
+        journal.shipsPlaced(session.getSessionId(), playerName, layout);
+    }
+
+    private static FleetLayout layout(long seed) {
+        int[] positions = new int[ShipPlacements.fleetSize()];
+        FleetPlacer.local().generate(new SplittableRandom(seed), positions);
+        return FleetLayout.of(positions);
+    }
+
+    /**
+     * Выстрел текущего игрока в первую непростреленную клетку
+     */
+    private static void shoot(SessionJournal journal, GameSession session) {
+        String shooter = session.getCurrentTurn();
+        Board target = session.getOpponentBoard(shooter);
+        int cell = 0;
+        while (target.isShotAt(BoardBits.x(cell), BoardBits.y(cell))) {
+            cell++;
+        }
+        int x = BoardBits.x(cell);
+        int y = BoardBits.y(cell);
+        session.fireAtOpponent(shooter, x, y);
+        journal.shotFired(session, shooter, x, y);
+    }
+
+    private static void assertSameCells(Board expected, Board actual) {
+        for (int x = 0; x < BoardBits.SIZE; x++) {
+            for (int y = 0; y < BoardBits.SIZE; y++) {
+                assertEquals(expected.getCellStatus(x, y), actual.getCellStatus(x, y), "cell " + x + "," + y);
+            }
+        }
+    }
+
+    private static int shotCount(Board board) {
+        int shots = 0;
+        for (int cell = 0; cell < BoardBits.CELLS; cell++) {
+            if (board.isShotAt(BoardBits.x(cell), BoardBits.y(cell))) {
+                shots++;
+            }
+        }
+        return shots;
+    }
+
+    private long segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".journal")).count();
+        }
+    }
+
+    private Path lastWrittenSegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".journal"))
+                .filter(path -> firstLong(path) > 0)
+                .max(Path::compareTo)
+                .orElseThrow();
+        }
+    }
+
+    private static long firstLong(Path path) {
+        try {
+            byte[] data = Files.readAllBytes(path);
+            return ByteBuffer.wrap(data).getLong();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private GameProperties properties() {
+        GameProperties properties = new GameProperties();
+        properties.setJournalEnabled(true);
+        properties.setJournalDir(directory.toString());
+        properties.setJournalSegmentSizeMb(1);
+        return properties;
+    }
+}
@@ -0,0 +1,122 @@
+// back\src\test\java\com\seabattle\sea_battle\service\SessionTimersTest.java
+package com.seabattle.sea_battle.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import com.seabattle.sea_battle.config.GameProperties;
+import com.seabattle.sea_battle.model.GameSession;
+import com.seabattle.sea_battle.model.Player;
+import com.seabattle.sea_battle.model.enums.GameStatus;
+import com.seabattle.sea_battle.model.enums.GameType;
+import com.seabattle.sea_battle.repository.GameRepository;
+
+/**
+ * Таймеры сессий: одно колесо на все сессии, сработавшие задачи - в пуле session-expiry
+ */
+class SessionTimersTest {
+
+    private static final int EXPIRY_THREADS = 2;
+
+    @Test
+    void threadCountDoesNotGrowWithSessions() throws InterruptedException {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        GameSessionManager manager = manager(100);
+        int before = threads.getThreadCount();
+        threads.resetPeakThreadCount();
+
+        for (int i = 0; i < 2_000; i++) {
+            GameSession session = manager.createGameSession(new GameSession(new Player("t" + i + "a"), GameType.PVP));
+            manager.joinGameSession(session.getSessionId(), "t" + i + "b");
+            manager.finishGameSession(session.getSessionId(), GameStatus.PLAYER1_WON);
+        }
+        for (int i = 0; i < 200; i++) {
+            manager.createGameSession(new GameSession(new Player("w" + i), GameType.PVP));
+        }
+
+        assertTrue(awaitEmpty(manager, 10_000), "finished and abandoned sessions are removed by timers");
+        assertTrue(threads.getPeakThreadCount() <= before + EXPIRY_THREADS,
+            "peak " + threads.getPeakThreadCount() + " threads, before " + before);
+    }
+
+    @Test
+    void slowTaskDoesNotDelayOtherTimers() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(EXPIRY_THREADS);
+        HashedTimingWheel wheel = new HashedTimingWheel("test-timers", 10, 64, executor);
+        try {
+            CountDownLatch release = new CountDownLatch(1);
+            CountDownLatch fired = new CountDownLatch(1);
+            wheel.schedule(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, 0, TimeUnit.MILLISECONDS);
+            wheel.schedule(fired::countDown, 50, TimeUnit.MILLISECONDS);
+
+            assertTrue(fired.await(2, TimeUnit.SECONDS), "timer fired while another task is still running");
+            release.countDown();
+            assertEquals(2L, wheel.getStatistics().get("expired"));
+        } finally {
+            wheel.stop();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void cancelledTimerDoesNotFire() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(EXPIRY_THREADS);
+        HashedTimingWheel wheel = new HashedTimingWheel("test-timers", 10, 64, executor);
+        try {
+            AtomicBoolean cancelledRan = new AtomicBoolean();
+            CountDownLatch fired = new CountDownLatch(1);
+            HashedTimingWheel.Timeout cancelled = wheel.schedule(() -> cancelledRan.set(true), 30, TimeUnit.MILLISECONDS);
+            wheel.schedule(fired::countDown, 60, TimeUnit.MILLISECONDS);
+
+            assertTrue(cancelled.cancel());
+            assertFalse(cancelled.cancel());
+            assertTrue(fired.await(2, TimeUnit.SECONDS));
+            assertFalse(cancelledRan.get());
+            assertTrue(cancelled.isCancelled());
+            assertEquals(1L, wheel.getStatistics().get("cancelled"));
+        } finally {
+            wheel.stop();
+            executor.shutdownNow();
+        }
+    }
+
+    private static GameSessionManager manager(long timeoutMs) {
+        GameProperties properties = new GameProperties();
+        properties.setMaxActiveSessions(10_000);
+        properties.setSessionTimeout(timeoutMs);
+        properties.setPlacementTimeout(timeoutMs);
+        properties.setCleanupInterval(timeoutMs);
+        properties.setTimerTickMs(10);
+        properties.setTimerExpiryThreads(EXPIRY_THREADS);
+        return new GameSessionManager(properties, mock(GameRepository.class));
+    }
+
+    private static boolean awaitEmpty(GameSessionManager manager, long maxWaitMs) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        while (manager.getActiveSessionsCount() > 0) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        return true;
+    }
+}
@@ -1,6 +1,27 @@
 // api/gameplayApi.js
 import { api } from './http'
 
+// Коды упакованного формата доски (см. Board.getPackedState на бэкенде)
+const PACKED_STATUSES = ['EMPTY', 'SHIP', 'HIT', 'MISS']
+
+// Распаковка доски: клетка i = x * 10 + y, байт i / 4, биты (i % 4) * 2
+function unpackBoard(packedBoard) {
+    const bytes = Uint8Array.from(atob(packedBoard.board), c => c.charCodeAt(0))
+    const board = Array(10).fill().map(() => Array(10))
+
+    for (let i = 0; i < 100; i++) {
+        const code = (bytes[i >> 2] >> ((i & 3) * 2)) & 3
+        board[Math.floor(i / 10)][i % 10] = PACKED_STATUSES[code]
+    }
+
+    return { ...packedBoard, board }
+}
+
+function unpackBoardResponse(response) {
+    response.data = unpackBoard(response.data)
+    return response
+}
+
 export const gameplayApi = {
     placeShips(sessionId, playerName, shipsData) {
         console.log('Отправка кораблей в формате бэкенда:', {
@@ -31,30 +52,34 @@ export const gameplayApi = {
         })
     },
 
-    getBoard(sessionId, playerName, isOwner = true) {
+    // packed = true - доска приходит упакованной (2 бита на клетку, base64)
+    // и распаковывается в тот же формат String[][], что и JSON по умолчанию
+    getBoard(sessionId, playerName, isOwner = true, packed = false) {
         if (!sessionId) throw new Error('sessionId не передан в getBoard')
         if (!playerName) throw new Error('playerName не передан в getBoard')
 
-        return api.get(`/gameplay/${sessionId}/board`, {
+        const request = api.get(`/gameplay/${sessionId}/board`, {
             params: {
                 playerName,
-                isOwner
+                isOwner,
+                ...(packed ? { format: 'packed' } : {})
             }
         })
+
+        return packed ? request.then(unpackBoardResponse) : request
     },
 
     fire(sessionId, playerName, row, col) {
-        // row = y (строка), col = x (столбец)
-        // Бэкенд ожидает: x = col, y = row
+        // Доски приходят с бэкенда как board[x][y]: строка сетки - x, столбец - y
         console.log('API fire: отправка выстрела', {
-            x: col,     // столбец -> x
-            y: row,     // строка -> y
+            x: row,     // строка -> x
+            y: col,     // столбец -> y
             playerName: playerName
         })
 
         return api.post(`/gameplay/${sessionId}/fire`, {
-            x: col,     // столбец
-            y: row,     // строка
+            x: row,     // строка
+            y: col,     // столбец
             playerName: playerName
         })
     },
@@ -69,9 +94,21 @@ export const gameplayApi = {
         })
     },
 
-    getGameState(sessionId, playerName) {
-        return api.get(`/gameplay/${sessionId}/game-state`, {
-            params: { playerName }
+    getGameState(sessionId, playerName, packed = false) {
+        const request = api.get(`/gameplay/${sessionId}/game-state`, {
+            params: {
+                playerName,
+                ...(packed ? { format: 'packed' } : {})
+            }
+        })
+
+        if (!packed) return request
+
+        return request.then(response => {
+            const data = response.data
+            if (data.playerBoard) data.playerBoard = unpackBoard(data.playerBoard)
+            if (data.opponentBoard) data.opponentBoard = unpackBoard(data.opponentBoard)
+            return response
         })
     },
 
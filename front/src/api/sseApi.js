@@ -16,6 +16,8 @@ export const sseApi = {
                 console.error('Ошибка парсинга SSE сообщения:', e)
             }
         }
+        // Именованные события не попадают в onmessage
+        eventSource.addEventListener('BOARD_DELTA', eventSource.onmessage)
 
         eventSource.onerror = (error) => {
             console.error('SSE ошибка:', error)
@@ -22,6 +22,8 @@ export const useGameStore = defineStore('game', {
         playerBoard: [],
         enemyBoard: [],
         moves: [],
+        // Номер последнего применённого BOARD_DELTA
+        boardSequence: 0,
 
         // История
         gameHistory: [],
@@ -59,6 +61,7 @@ export const useGameStore = defineStore('game', {
             this.playerBoard = []
             this.enemyBoard = []
             this.moves = []
+            this.boardSequence = 0
             this.playerName = ''
             this.playerId = null
         },
@@ -75,7 +78,7 @@ export const useGameStore = defineStore('game', {
             }
         },
 
-        async createNewGame(mode) {
+        async createNewGame(mode, aiDifficulty = null) {
             try {
                 this.setLoading(true)
 
@@ -92,7 +95,9 @@ export const useGameStore = defineStore('game', {
                 // 1. Создаем игру
                 const { data } = await gameApi.createSession({
                     playerName: this.playerName,
-                    gameType: mode
+                    gameType: mode,
+                    // EASY / MEDIUM / HARD, только для PVE (по умолчанию EASY)
+                    ...(aiDifficulty ? { aiDifficulty } : {})
                 })
 
                 console.log('Игра создана:', data)
@@ -176,6 +181,11 @@ export const useGameStore = defineStore('game', {
 
                 console.log('Данные состояния от сервера:', data)
 
+                // Снимок соответствует этому номеру изменения досок
+                if (typeof data.boardSequence === 'number') {
+                    this.boardSequence = data.boardSequence
+                }
+
                 // Если board is null, значит игра еще не началась
                 if (data.status === "WAITING_FOR_PLAYERS" || !data.playerBoard) {
                     this.gameState = {
@@ -296,7 +306,7 @@ export const useGameStore = defineStore('game', {
                     col: col   // столбец
                 })
 
-                // row = y (строка), col = x (столбец)
+                // row = x, col = y: вражеская доска хранится как board[x][y]
                 const response = await gameplayApi.fire(this.currentGameId, this.playerName, row, col)
                 console.log('Результат выстрела:', response.data)
 
@@ -368,7 +378,35 @@ export const useGameStore = defineStore('game', {
             }
         },
 
-        // Метод обновления конкретной клетки
+        // Применение изменившихся клеток; при пропуске номера - полный снимок с сервера
+        async applyBoardDelta(delta) {
+            if (delta.seq <= this.boardSequence) {
+                return
+            }
+
+            if (delta.seq !== this.boardSequence + 1) {
+                console.log('Пропущены изменения досок, ресинхронизация:', this.boardSequence, '->', delta.seq)
+                await this.loadGameState()
+                await this.loadBoards()
+                return
+            }
+
+            const own = delta.boardOwner === this.playerName
+            for (const cell of delta.cells) {
+                const state = cell.status.toLowerCase()
+                // Обе доски в порядке getBoardState: board[x][y]
+                if (own) {
+                    if (this.playerBoard[cell.x]) {
+                        this.playerBoard[cell.x][cell.y] = state
+                    }
+                } else {
+                    this.updateEnemyBoardCell(cell.x, cell.y, state)
+                }
+            }
+            this.boardSequence = delta.seq
+        },
+
+        // Метод обновления конкретной клетки (row = x, col = y, как в board[x][y] с сервера)
         updateEnemyBoardCell(row, col, state) {
             if (!this.enemyBoard[row]) {
                 this.enemyBoard[row] = Array(10).fill('empty')
@@ -650,6 +688,10 @@ export const useGameStore = defineStore('game', {
                     }
                     break
 
+                case 'BOARD_DELTA':
+                    this.applyBoardDelta(event.data)
+                    break
+
                 case 'SHOT_RESULT':
                     this.moves.push({
                         playerName: event.data.player,